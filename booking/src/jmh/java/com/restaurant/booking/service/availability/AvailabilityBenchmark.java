@@ -0,0 +1,157 @@
+package com.restaurant.booking.service.availability;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.restaurant.booking.dto.OccupiedSlotDTO;
+import com.restaurant.booking.model.Reservation;
+import com.restaurant.booking.model.Status;
+import com.restaurant.booking.model.Table;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The availability hot path without the database: which tables seat a party and are free at one slot.
+ * <p>
+ * {@code streamHashSet} is the original computation (reservations at the slot collected into a set of table
+ * ids, all tables filtered against it); {@code occupancyIndex} is {@link SlotOccupancyIndex};
+ * {@code occupiedSlotScan} checks the overlap of occupied slots loaded for the day, as
+ * {@link AlternativeSlots#freeTables} does; {@code cacheHit} is a hit in {@link AvailabilityCache}.
+ * <p>
+ * Throughput and latency percentiles come from the two benchmark modes, allocation rate from the gc
+ * profiler that {@code jmh.args} enables by default:
+ * <pre>
+ * ./mvnw -Pjmh test-compile exec:exec
+ * ./mvnw -Pjmh test-compile exec:exec -Djmh.args="AvailabilityBenchmark.occupancyIndex -p tables=5000 -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 15);
+    private static final LocalTime TIME = LocalTime.of(19, 0);
+    private static final LocalTime[] OTHER_SEATINGS = {LocalTime.of(12, 0), LocalTime.of(16, 30), LocalTime.of(21, 30)};
+
+    @Param({"50", "500", "5000"})
+    public int tables;
+
+    /** Reservations at the measured slot, as a percentage of the tables. */
+    @Param({"10", "50", "90"})
+    public int reservationsPerSlotPercent;
+
+    @Param({"2", "4", "8"})
+    public int partySize;
+
+    private List<Table> allTables;
+    private List<Reservation> reservationsAtSlot;
+    private SlotOccupancyIndex index;
+    private BiFunction<LocalDate, LocalTime, List<Long>> occupiedSlotScan;
+    private AvailabilityCache cache;
+    private StaleAvailability staleAvailability;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DiningDurationPolicy durationPolicy = new DiningDurationPolicy(120, "");
+        allTables = new ArrayList<>(tables);
+        for (int i = 0; i < tables; i++) {
+            allTables.add(new Table((long) i + 1, i + 1, 2 + 2 * (i % 5), null, Table.DEFAULT_LOCATION, null));
+        }
+
+        reservationsAtSlot = new ArrayList<>();
+        List<Reservation> reservations = new ArrayList<>();
+        List<OccupiedSlotDTO> occupied = new ArrayList<>();
+        int atSlot = tables * reservationsPerSlotPercent / 100;
+        for (int i = 0; i < tables; i++) {
+            // capacities cycle with the table number, so the first tables cover every size; the other
+            // seatings of the day keep the per-table intervals populated
+            if (i < atSlot) {
+                Reservation reservation = reservation(allTables.get(i), TIME);
+                reservationsAtSlot.add(reservation);
+                reservations.add(reservation);
+            }
+            reservations.add(reservation(allTables.get(i), OTHER_SEATINGS[i % OTHER_SEATINGS.length]));
+        }
+        for (Reservation reservation : reservations) {
+            occupied.add(new OccupiedSlotDTO(null, reservation.getTable().getId(), reservation.getDate(), reservation.getTime(),
+                reservation.getEndTime(), reservation.getNumberOfGuests(), null));
+        }
+
+        index = new SlotOccupancyIndex(null, null, durationPolicy, true);
+        index.rebuild(allTables, reservations, DATE);
+
+        List<Table> seating = allTables.stream().filter(table -> table.getCapacity() >= partySize).collect(Collectors.toList());
+        occupiedSlotScan = AlternativeSlots.freeTables(seating, occupied, partySize, durationPolicy);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        staleAvailability = new StaleAvailability(meterRegistry, false, Duration.ofSeconds(1), Duration.ofHours(1), 1);
+        cache = new AvailabilityCache(durationPolicy, staleAvailability, meterRegistry, true, 10_000, Duration.ofHours(1));
+        cache.get(DATE, TIME, partySize, () -> index.findAvailableTables(DATE, TIME, partySize));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        staleAvailability.shutdown();
+    }
+
+    @Benchmark
+    public List<Table> streamHashSet() {
+        Set<Long> reservedTableIds = reservationsAtSlot.stream()
+            .map(reservation -> reservation.getTable().getId())
+            .collect(Collectors.toSet());
+        return allTables.stream()
+            .filter(table -> !reservedTableIds.contains(table.getId()) && table.getCapacity() >= partySize)
+            .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Table> occupancyIndex() {
+        return index.findAvailableTables(DATE, TIME, partySize);
+    }
+
+    @Benchmark
+    public List<Long> occupiedSlotScan() {
+        return occupiedSlotScan.apply(DATE, TIME);
+    }
+
+    @Benchmark
+    public AvailabilityResult cacheHit() {
+        return cache.get(DATE, TIME, partySize, () -> index.findAvailableTables(DATE, TIME, partySize));
+    }
+
+    private static Reservation reservation(Table table, LocalTime time) {
+        Reservation reservation = new Reservation();
+        reservation.setTable(table);
+        reservation.setDate(DATE);
+        reservation.setTime(time);
+        reservation.setEndTime(time.plusHours(2));
+        reservation.setNumberOfGuests(2);
+        reservation.setStatus(Status.BOOKED);
+        return reservation;
+    }
+}
@@ -2,27 +2,55 @@ package com.restaurant.booking.controller;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.booking.dto.AvailabilityDeltaDTO;
+import com.restaurant.booking.dto.AvailabilitySlotDTO;
+import com.restaurant.booking.dto.BulkCancellationDTO;
+import com.restaurant.booking.dto.CombinedReservationRequest;
+import com.restaurant.booking.dto.HoldDTO;
+import com.restaurant.booking.dto.MultiLocationAvailabilityDTO;
+import com.restaurant.booking.dto.OccupancyCellDTO;
 import com.restaurant.booking.dto.ReservationDTO;
+import com.restaurant.booking.dto.ReservationImportResultDTO;
 import com.restaurant.booking.mapper.ReservationMapper;
 import com.restaurant.booking.model.Reservation;
 import com.restaurant.booking.model.Table;
+import com.restaurant.booking.service.ReservationImportService;
 import com.restaurant.booking.service.ReservationService;
+import com.restaurant.booking.service.availability.AvailabilityResult;
+import com.restaurant.booking.service.hold.TableHolds;
+import com.restaurant.booking.service.idempotency.IdempotencyStore;
+import com.restaurant.booking.service.idempotency.IdempotentResponse;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -39,18 +67,32 @@ import jakarta.validation.constraints.NotNull;
 @Validated
 public class ReservationController {
 
+    static final String STALE_HEADER = "X-Availability-Stale";
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final ReservationService reservationService;
     private final ReservationMapper reservationMapper;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyStore idempotencyStore;
+    private final ReservationImportService reservationImportService;
+    private final TableHolds tableHolds;
 
-    public ReservationController(ReservationService reservationService, ReservationMapper reservationMapper) {
+    public ReservationController(ReservationService reservationService, ReservationMapper reservationMapper, ObjectMapper objectMapper,
+                                 IdempotencyStore idempotencyStore, ReservationImportService reservationImportService, TableHolds tableHolds) {
         this.reservationService = reservationService;
+        this.reservationImportService = reservationImportService;
+        this.tableHolds = tableHolds;
         this.reservationMapper = reservationMapper;
+        this.objectMapper = objectMapper;
+        this.idempotencyStore = idempotencyStore;
     }
 
     @GetMapping("/available")
     @Operation(summary = "Check table availability", description = "Find available tables for a specific date, time, and number of guests")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Available tables found",
+        @ApiResponse(responseCode = "200", description = "Available tables found; while the database is overloaded this may be the last "
+            + "known result, marked with X-Availability-Stale and an Age header in seconds",
             content = @Content(schema = @Schema(implementation = Table.class))),
         @ApiResponse(responseCode = "400", description = "Invalid parameters")
     })
@@ -59,21 +101,266 @@ public class ReservationController {
         @Parameter(description = "Reservation time (HH:MM)") @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime time, 
         @Parameter(description = "Number of guests (1-10)") @RequestParam @NotNull @Min(1) @Max(10) int numberOfGuests) {
         
-        List<Table> availableTables = reservationService.getAvailableTables(date, time, numberOfGuests);
-        return ResponseEntity.ok(availableTables);
+        AvailabilityResult availability = reservationService.getAvailability(date, time, numberOfGuests);
+        if (availability.isStale()) {
+            return ResponseEntity.ok()
+                .header(STALE_HEADER, "true")
+                .header(HttpHeaders.AGE, String.valueOf(availability.staleFor().toSeconds()))
+                .body(availability.tables());
+        }
+        return ResponseEntity.ok(availability.tables());
+    }
+
+    @GetMapping("/available/locations")
+    @Operation(summary = "Check availability at all locations", description = "Free tables for a party at every restaurant location; "
+        + "locations that do not answer within their time budget are listed as unavailable")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Availability per location",
+            content = @Content(schema = @Schema(implementation = MultiLocationAvailabilityDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid parameters")
+    })
+    public ResponseEntity<MultiLocationAvailabilityDTO> checkAvailabilityAcrossLocations(
+        @Parameter(description = "Reservation date (YYYY-MM-DD)") @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+        @Parameter(description = "Reservation time (HH:MM)") @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime time,
+        @Parameter(description = "Number of guests (1-10)") @RequestParam @NotNull @Min(1) @Max(10) int numberOfGuests) {
+
+        return ResponseEntity.ok(reservationService.getAvailabilityAcrossLocations(date, time, numberOfGuests));
+    }
+
+    @GetMapping("/available/combination")
+    @Operation(summary = "Check table combinations", description = "Find the smallest set of adjacent free tables that seats a party, for parties larger than any single table")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Combination found, or an empty list when none is free",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = Table.class)))),
+        @ApiResponse(responseCode = "400", description = "Invalid parameters")
+    })
+    public ResponseEntity<List<Table>> checkCombinationAvailability(
+        @Parameter(description = "Reservation date (YYYY-MM-DD)") @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+        @Parameter(description = "Reservation time (HH:MM)") @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime time,
+        @Parameter(description = "Number of guests (1-40)") @RequestParam @NotNull @Min(1) @Max(40) int numberOfGuests,
+        @Parameter(description = "Restaurant location; any location when omitted") @RequestParam(required = false) String location) {
+
+        List<Table> tables = reservationService.getAvailableCombination(date, time, numberOfGuests, location);
+        return ResponseEntity.ok(tables);
+    }
+
+    @GetMapping("/available/grid")
+    @Operation(summary = "Check availability for a date range", description = "Free tables for every slot between firstSlot and lastSlot on each day of the range, streamed as a JSON array")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Availability grid computed",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = AvailabilitySlotDTO.class)))),
+        @ApiResponse(responseCode = "400", description = "Invalid parameters")
+    })
+    public ResponseEntity<StreamingResponseBody> checkAvailabilityGrid(
+        @Parameter(description = "First date (YYYY-MM-DD)") @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+        @Parameter(description = "Last date, inclusive (YYYY-MM-DD)") @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+        @Parameter(description = "First slot of each day (HH:MM)") @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime firstSlot,
+        @Parameter(description = "Last slot of each day (HH:MM)") @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime lastSlot,
+        @Parameter(description = "Minutes between slots (5-240)") @RequestParam(defaultValue = "30") @Min(5) @Max(240) int slotMinutes,
+        @Parameter(description = "Number of guests (1-10)") @RequestParam @NotNull @Min(1) @Max(10) int numberOfGuests) {
+
+        Stream<AvailabilitySlotDTO> grid = reservationService.getAvailabilityGrid(startDate, endDate, firstSlot, lastSlot, slotMinutes, numberOfGuests);
+        StreamingResponseBody body = outputStream -> {
+            try (Stream<AvailabilitySlotDTO> slots = grid; JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                for (Iterator<AvailabilitySlotDTO> it = slots.iterator(); it.hasNext(); ) {
+                    generator.writeObject(it.next());
+                }
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping("/available/alternatives")
+    @Operation(summary = "Find alternative slots", description = "The nearest open slots with a free table for the party, within a number of minutes of the requested time "
+        + "and optionally on nearby days, nearest first")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Alternatives found, or an empty list when none is free",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = AvailabilitySlotDTO.class)))),
+        @ApiResponse(responseCode = "400", description = "Invalid parameters")
+    })
+    public ResponseEntity<List<AvailabilitySlotDTO>> findAlternatives(
+        @Parameter(description = "Requested date (YYYY-MM-DD)") @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+        @Parameter(description = "Requested time (HH:MM)") @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime time,
+        @Parameter(description = "Number of guests (1-10)") @RequestParam @NotNull @Min(1) @Max(10) int numberOfGuests,
+        @Parameter(description = "Number of alternatives (1-20)") @RequestParam(defaultValue = "5") @Min(1) @Max(20) int limit,
+        @Parameter(description = "Minutes before and after the requested time to search (0-360)") @RequestParam(defaultValue = "120") @Min(0) @Max(360) int windowMinutes,
+        @Parameter(description = "Days before and after the requested date to search (0-7)") @RequestParam(defaultValue = "0") @Min(0) @Max(7) int days) {
+
+        return ResponseEntity.ok(reservationService.getAlternativeSlots(date, time, numberOfGuests, limit, windowMinutes, days));
+    }
+
+    @GetMapping("/available/heatmap")
+    @Operation(summary = "Monthly occupancy heatmap", description = "Share of tables taken (0-1) in every open slot of a month, for calendar views")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Heatmap computed",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = OccupancyCellDTO.class)))),
+        @ApiResponse(responseCode = "400", description = "Invalid parameters")
+    })
+    public ResponseEntity<List<OccupancyCellDTO>> occupancyHeatmap(
+        @Parameter(description = "Month (YYYY-MM)") @RequestParam @NotNull @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+
+        return ResponseEntity.ok(reservationService.getOccupancyHeatmap(month));
+    }
+
+    @GetMapping(value = "/available/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream availability changes", description = "Server-Sent Events stream of tables becoming taken or free on a date; "
+        + "slow subscribers are disconnected and should reload availability when they reconnect")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream opened, one 'availability' event per change",
+            content = @Content(schema = @Schema(implementation = AvailabilityDeltaDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid parameters")
+    })
+    public SseEmitter streamAvailability(
+        @Parameter(description = "Date to watch (YYYY-MM-DD)") @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+
+        return reservationService.subscribeToAvailability(date);
     }
 
     @PostMapping
-    @Operation(summary = "Create a reservation", description = "Creates a new reservation for a table")
+    @Operation(summary = "Create a reservation", description = "Creates a new reservation for a table; when no table is given the smallest free table that seats the party is assigned")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Reservation created successfully",
+        @ApiResponse(responseCode = "200", description = "Reservation created successfully, or the stored response of an earlier request "
+            + "with the same Idempotency-Key (marked with Idempotent-Replayed: true)",
             content = @Content(schema = @Schema(implementation = ReservationDTO.class))),
-        @ApiResponse(responseCode = "400", description = "Invalid reservation data")
+        @ApiResponse(responseCode = "400", description = "Invalid reservation data, or an Idempotency-Key reused for a different request"),
+        @ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is still being processed")
+    })
+    public ResponseEntity<ReservationDTO> createReservation(@Valid @RequestBody Reservation reservation,
+        @Parameter(description = "Client-chosen key (up to 100 characters) that makes retries of this request return the first response "
+            + "instead of booking again") @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) throws JsonProcessingException {
+
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(reservationMapper.toDto(reservationService.createReservation(reservation)));
+        }
+        IdempotentResponse response = idempotencyStore.execute(idempotencyKey, objectMapper.writeValueAsString(reservation), () -> {
+            ReservationDTO dto = reservationMapper.toDto(reservationService.createReservation(reservation));
+            try {
+                return IdempotentResponse.of(HttpStatus.OK.value(), objectMapper.writeValueAsString(dto));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize reservation " + dto.getReservationId(), e);
+            }
+        });
+        return ResponseEntity.status(response.status())
+            .header(REPLAYED_HEADER, String.valueOf(response.replayed()))
+            .body(objectMapper.readValue(response.body(), ReservationDTO.class));
+    }
+
+    @PostMapping("/combination")
+    @Operation(summary = "Create a reservation over several tables", description = "Books all tables of an adjacent combination for one party, or none of them")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "One reservation per claimed table",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = ReservationDTO.class)))),
+        @ApiResponse(responseCode = "400", description = "Invalid reservation data or no free combination")
+    })
+    public ResponseEntity<List<ReservationDTO>> createCombinedReservation(@Valid @RequestBody CombinedReservationRequest request) {
+        List<ReservationDTO> reservations = reservationService.createCombinedReservation(request).stream()
+            .map(reservationMapper::toDto)
+            .collect(Collectors.toList());
+        return ResponseEntity.ok(reservations);
+    }
+
+    @PostMapping("/bulk")
+    @Operation(summary = "Import reservations", description = "Creates many reservations in one transaction, for example a nightly import from a "
+        + "partner platform. Each reservation needs a user id and a table id; reservations that cannot be booked are rejected one by one "
+        + "with a reason while the others are created")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "One result per reservation, in request order",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = ReservationImportResultDTO.class)))),
+        @ApiResponse(responseCode = "400", description = "Too many reservations in one import")
+    })
+    public ResponseEntity<List<ReservationImportResultDTO>> importReservations(@RequestBody List<Reservation> reservations) {
+        return ResponseEntity.ok(reservationImportService.importReservations(reservations));
+    }
+
+    @PostMapping("/holds")
+    @Operation(summary = "Hold a table", description = "Keeps a table for a guest in checkout for a limited time; the table is shown as taken "
+        + "until the hold is confirmed, released or expires. When no table is given the smallest free table that seats the party is held")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Table held, with the time the hold expires",
+            content = @Content(schema = @Schema(implementation = HoldDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid reservation data or the table is no longer free")
+    })
+    public ResponseEntity<HoldDTO> holdTable(@Valid @RequestBody Reservation reservation) {
+        return ResponseEntity.ok(reservationMapper.toHoldDto(tableHolds.hold(reservation)));
+    }
+
+    @PostMapping("/holds/{id}/confirm")
+    @Operation(summary = "Confirm a hold", description = "Turns an unexpired hold into a booked reservation")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reservation booked",
+            content = @Content(schema = @Schema(implementation = ReservationDTO.class))),
+        @ApiResponse(responseCode = "400", description = "The hold has expired or the reservation is not a hold"),
+        @ApiResponse(responseCode = "404", description = "Hold not found")
+    })
+    public ResponseEntity<ReservationDTO> confirmHold(@Parameter(description = "Hold id") @PathVariable Long id) {
+        return ResponseEntity.ok(reservationMapper.toDto(tableHolds.confirm(id)));
+    }
+
+    @DeleteMapping("/holds/{id}")
+    @Operation(summary = "Release a hold", description = "Frees the table of a hold before it expires; releasing it again does nothing")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Hold released"),
+        @ApiResponse(responseCode = "400", description = "The reservation is not a hold"),
+        @ApiResponse(responseCode = "404", description = "Hold not found")
+    })
+    public ResponseEntity<Void> releaseHold(@Parameter(description = "Hold id") @PathVariable Long id) {
+        tableHolds.release(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/{id}/cancel")
+    @Operation(summary = "Cancel a reservation", description = "Cancels a booked reservation and frees its table")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reservation cancelled",
+            content = @Content(schema = @Schema(implementation = ReservationDTO.class))),
+        @ApiResponse(responseCode = "400", description = "The reservation is not booked"),
+        @ApiResponse(responseCode = "404", description = "Reservation not found")
+    })
+    public ResponseEntity<ReservationDTO> cancelReservation(@Parameter(description = "Reservation id") @PathVariable Long id) {
+        return ResponseEntity.ok(reservationMapper.toDto(reservationService.cancel(id)));
+    }
+
+    @PostMapping("/{id}/complete")
+    @Operation(summary = "Complete a reservation", description = "Marks a booked reservation as completed once the guests have dined")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reservation completed",
+            content = @Content(schema = @Schema(implementation = ReservationDTO.class))),
+        @ApiResponse(responseCode = "400", description = "The reservation is not booked"),
+        @ApiResponse(responseCode = "404", description = "Reservation not found")
+    })
+    public ResponseEntity<ReservationDTO> completeReservation(@Parameter(description = "Reservation id") @PathVariable Long id) {
+        return ResponseEntity.ok(reservationMapper.toDto(reservationService.complete(id)));
+    }
+
+    @PostMapping("/{id}/no-show")
+    @Operation(summary = "Mark a reservation as no-show", description = "Records that the guests of a booked reservation did not turn up "
+        + "and frees the table for the rest of the slot")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reservation marked as no-show",
+            content = @Content(schema = @Schema(implementation = ReservationDTO.class))),
+        @ApiResponse(responseCode = "400", description = "The reservation is not booked"),
+        @ApiResponse(responseCode = "404", description = "Reservation not found")
+    })
+    public ResponseEntity<ReservationDTO> markNoShow(@Parameter(description = "Reservation id") @PathVariable Long id) {
+        return ResponseEntity.ok(reservationMapper.toDto(reservationService.markNoShow(id)));
+    }
+
+    @PostMapping("/cancellations")
+    @Operation(summary = "Cancel reservations in a time window", description = "Cancels every booked reservation of a date whose dining "
+        + "window overlaps [from, to), for example when the restaurant closes for a private event. Runs as one set-based update")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reservations cancelled",
+            content = @Content(schema = @Schema(implementation = BulkCancellationDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid window, or a reservation changed while they were being cancelled")
     })
-    public ResponseEntity<ReservationDTO> createReservation(@Valid @RequestBody Reservation reservation) {
-        Reservation saved = reservationService.createReservation(reservation);
-        ReservationDTO dto = reservationMapper.toDto(saved);
-        return ResponseEntity.ok(dto);
+    public ResponseEntity<BulkCancellationDTO> cancelReservations(
+        @Parameter(description = "Date (YYYY-MM-DD)") @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+        @Parameter(description = "Start of the window (HH:MM)") @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime from,
+        @Parameter(description = "End of the window, exclusive (HH:MM)") @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime to) {
+        List<Long> cancelled = reservationService.cancelBooked(date, from, to);
+        return ResponseEntity.ok(new BulkCancellationDTO(date, from, to, cancelled.size(), cancelled));
     }
 
     @GetMapping
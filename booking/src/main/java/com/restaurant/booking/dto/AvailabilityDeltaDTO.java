@@ -0,0 +1,22 @@
+package com.restaurant.booking.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A table becoming taken or free for [time, endTime) on a date, as pushed to availability subscribers.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityDeltaDTO {
+    private Long tableId;
+    private LocalDate date;
+    private LocalTime time;
+    private LocalTime endTime;
+    private boolean taken;
+}
@@ -0,0 +1,19 @@
+package com.restaurant.booking.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilitySlotDTO {
+    private LocalDate date;
+    private LocalTime time;
+    private int freeTables;
+    private List<Long> tableIds;
+}
@@ -0,0 +1,20 @@
+package com.restaurant.booking.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCancellationDTO {
+    private LocalDate date;
+    private LocalTime from;
+    private LocalTime to;
+    private int cancelled;
+    private List<Long> reservationIds;
+}
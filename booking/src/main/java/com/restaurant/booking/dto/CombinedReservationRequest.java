@@ -0,0 +1,46 @@
+package com.restaurant.booking.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import com.restaurant.booking.model.User;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A booking for a party that may need several adjacent tables. Without {@code tableIds} the smallest
+ * free combination is picked.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CombinedReservationRequest {
+
+    @NotNull
+    private User user;
+
+    @NotNull
+    private LocalDate date;
+
+    @NotNull
+    private LocalTime time;
+
+    @Min(1)
+    @Max(40)
+    private int numberOfGuests;
+
+    @Min(15)
+    @Max(480)
+    private Integer durationMinutes;
+
+    private List<Long> tableIds;
+
+    // Restaurant to seat the party at; any location when absent
+    private String location;
+}
@@ -0,0 +1,20 @@
+package com.restaurant.booking.dto;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldDTO {
+
+    private Long holdId;
+    private int tableNumber;
+    private LocalDateTime reservationDateTime;
+    private int numberOfGuests;
+    private Instant expiresAt;
+}
@@ -0,0 +1,16 @@
+package com.restaurant.booking.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationAvailabilityDTO {
+    private String location;
+    private int freeTables;
+    private List<TableDTO> tables;
+}
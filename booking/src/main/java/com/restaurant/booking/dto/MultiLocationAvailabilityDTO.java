@@ -0,0 +1,18 @@
+package com.restaurant.booking.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Availability per location; locations that did not answer within their time budget are listed separately.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultiLocationAvailabilityDTO {
+    private List<LocationAvailabilityDTO> locations;
+    private List<String> unavailableLocations;
+}
@@ -0,0 +1,18 @@
+package com.restaurant.booking.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OccupancyCellDTO {
+    private LocalDate date;
+    private LocalTime time;
+    private int occupiedTables;
+    private double occupancy;
+}
@@ -0,0 +1,24 @@
+package com.restaurant.booking.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Read-only projection of the parts of a reservation that decide when its table is taken.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OccupiedSlotDTO {
+    private Long reservationId;
+    private Long tableId;
+    private LocalDate date;
+    private LocalTime time;
+    private LocalTime endTime;
+    private int numberOfGuests;
+    private Integer durationMinutes;
+}
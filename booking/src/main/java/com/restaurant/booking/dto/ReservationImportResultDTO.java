@@ -0,0 +1,33 @@
+package com.restaurant.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one reservation of a bulk import, identified by its position in the request.
+ * {@code reservationId} is set for created reservations, {@code message} explains a rejection.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationImportResultDTO {
+
+    public enum Outcome {
+        CREATED,
+        REJECTED
+    }
+
+    private int index;
+    private Outcome outcome;
+    private Long reservationId;
+    private String message;
+
+    public static ReservationImportResultDTO created(int index, Long reservationId) {
+        return new ReservationImportResultDTO(index, Outcome.CREATED, reservationId, null);
+    }
+
+    public static ReservationImportResultDTO rejected(int index, String message) {
+        return new ReservationImportResultDTO(index, Outcome.REJECTED, null, message);
+    }
+}
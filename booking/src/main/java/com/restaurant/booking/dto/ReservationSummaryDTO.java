@@ -0,0 +1,30 @@
+package com.restaurant.booking.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Read-only projection of a reservation with its table and guest, for changing many reservations at once
+ * without loading them as entities.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationSummaryDTO {
+    private Long reservationId;
+    private Long tableId;
+    // null, like tableId, for a reservation without a table
+    private Integer tableNumber;
+    private LocalDate date;
+    private LocalTime time;
+    private LocalTime endTime;
+    private int numberOfGuests;
+    private Integer durationMinutes;
+    private String customerName;
+    private String customerEmail;
+    private String customerPhoneNumber;
+}
@@ -0,0 +1,21 @@
+package com.restaurant.booking.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of occupying reservations sharing a start and end time on one date, as aggregated by the database.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotLoadDTO {
+    private LocalDate date;
+    private LocalTime time;
+    private LocalTime endTime;
+    private long reservations;
+}
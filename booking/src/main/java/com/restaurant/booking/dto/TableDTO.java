@@ -11,4 +11,10 @@ public class TableDTO {
     private Long id;
     private int number;
     private int capacity;
+    private String combinationGroup;
+    private String location;
+
+    public TableDTO(Long id, int number, int capacity) {
+        this(id, number, capacity, null, null);
+    }
 }
@@ -0,0 +1,15 @@
+package com.restaurant.booking.event;
+
+import com.restaurant.booking.model.Reservation;
+import com.restaurant.booking.model.Status;
+
+/**
+ * Published after a reservation has been created or its status has changed.
+ * {@code previousStatus} is {@code null} for newly created reservations.
+ */
+public record ReservationChangedEvent(Reservation reservation, Status previousStatus) {
+
+    public boolean isNew() {
+        return previousStatus == null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.restaurant.booking.event;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.restaurant.booking.dto.OccupiedSlotDTO;
+import com.restaurant.booking.model.Status;
+
+/**
+ * Published once after many reservations of a date moved from {@code previousStatus} to {@code status} in a
+ * single statement, in place of one {@link ReservationChangedEvent} per reservation. Every slot has its end
+ * time set.
+ */
+public record ReservationsStatusChangedEvent(LocalDate date, Status previousStatus, Status status, List<OccupiedSlotDTO> reservations) {
+
+    public boolean occupancyChanged() {
+        return Status.occupiesTable(previousStatus) != Status.occupiesTable(status);
+    }
+}
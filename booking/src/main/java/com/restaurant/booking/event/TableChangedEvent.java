@@ -0,0 +1,7 @@
+package com.restaurant.booking.event;
+
+/**
+ * Published after a table has been created, updated or deleted.
+ */
+public record TableChangedEvent(Long tableId) {
+}
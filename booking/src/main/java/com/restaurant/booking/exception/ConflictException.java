@@ -0,0 +1,7 @@
+package com.restaurant.booking.exception;
+
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 
 import org.springframework.stereotype.Component;
 
+import com.restaurant.booking.dto.HoldDTO;
 import com.restaurant.booking.dto.ReservationDTO;
 import com.restaurant.booking.model.Reservation;
 import com.restaurant.booking.model.Status;
@@ -23,6 +24,16 @@ public class ReservationMapper {
         );
     }
     
+    public HoldDTO toHoldDto(Reservation hold) {
+        return new HoldDTO(
+            hold.getId(),
+            hold.getTable().getNumber(),
+            LocalDateTime.of(hold.getDate(), hold.getTime()),
+            hold.getNumberOfGuests(),
+            hold.getHoldExpiresAt()
+        );
+    }
+
     public Reservation toEntity(ReservationDTO reservationDto) {
         if (reservationDto == null) {
             return null;
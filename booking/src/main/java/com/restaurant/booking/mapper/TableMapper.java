@@ -16,7 +16,9 @@ public class TableMapper {
         return new TableDTO(
             table.getId(),
             table.getNumber(),
-            table.getCapacity()
+            table.getCapacity(),
+            table.getCombinationGroup(),
+            table.getLocation()
         );
     }
     
@@ -29,6 +31,8 @@ public class TableMapper {
         table.setId(tableDto.getId());
         table.setNumber(tableDto.getNumber());
         table.setCapacity(tableDto.getCapacity());
+        table.setCombinationGroup(tableDto.getCombinationGroup());
+        table.setLocation(tableDto.getLocation());
         
         return table;
     }
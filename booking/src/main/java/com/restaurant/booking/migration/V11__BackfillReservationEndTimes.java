@@ -0,0 +1,62 @@
+package com.restaurant.booking.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.time.LocalTime;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import com.restaurant.booking.service.availability.DiningDurationPolicy;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gives reservations created before V3 an end time, from their own duration or the configured
+ * {@link DiningDurationPolicy} for their party size.
+ * <p>
+ * Until now such rows only blocked their exact start time in database queries but the policy duration in the
+ * in-memory views, so availability depended on which path answered. Afterwards every reservation has an end
+ * time and all paths use it. A Java migration, registered as a bean, because the durations are configuration
+ * rather than constants SQL could use.
+ */
+@Slf4j
+@Component
+public class V11__BackfillReservationEndTimes extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final DiningDurationPolicy durationPolicy;
+
+    public V11__BackfillReservationEndTimes(DiningDurationPolicy durationPolicy) {
+        this.durationPolicy = durationPolicy;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        int updated = 0;
+        try (Statement select = connection.createStatement();
+             ResultSet rows = select.executeQuery("SELECT id, time, duration_minutes, number_of_guests FROM reservations WHERE end_time IS NULL");
+             PreparedStatement update = connection.prepareStatement("UPDATE reservations SET end_time = ? WHERE id = ?")) {
+            while (rows.next()) {
+                Integer durationMinutes = rows.getObject("duration_minutes", Integer.class);
+                LocalTime time = rows.getTime("time").toLocalTime();
+                LocalTime endTime = durationPolicy.endTime(time, durationPolicy.minutesFor(durationMinutes, rows.getInt("number_of_guests")));
+                update.setTime(1, Time.valueOf(endTime));
+                update.setLong(2, rows.getLong("id"));
+                update.addBatch();
+                if (++updated % BATCH_SIZE == 0) {
+                    update.executeBatch();
+                }
+            }
+            update.executeBatch();
+        }
+        log.info("Backfilled the end time of {} reservations", updated);
+    }
+}
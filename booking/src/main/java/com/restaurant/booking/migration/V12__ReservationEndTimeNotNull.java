@@ -0,0 +1,29 @@
+package com.restaurant.booking.migration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+/**
+ * Makes {@code reservations.end_time} NOT NULL now that {@link V11__BackfillReservationEndTimes} gave every
+ * reservation one, since availability reads rely on it. A Java migration because MySQL and the H2 test
+ * database have no common syntax for changing a column's nullability.
+ */
+@Component
+public class V12__ReservationEndTimeNotNull extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        String sql = "MySQL".equals(connection.getMetaData().getDatabaseProductName())
+            ? "ALTER TABLE reservations MODIFY end_time TIME NOT NULL"
+            : "ALTER TABLE reservations ALTER COLUMN end_time SET NOT NULL";
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
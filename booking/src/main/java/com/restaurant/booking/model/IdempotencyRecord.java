@@ -0,0 +1,83 @@
+package com.restaurant.booking.model;
+
+import java.time.Instant;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Transient;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * The first response to a request sent with an {@code Idempotency-Key}, kept until {@code expiresAt} so
+ * retries with the same key can be answered without running the request again. While the first request is
+ * still running the row is a claim with status {@link #PENDING}, expiring early so the key is freed if the
+ * instance running it stops.
+ */
+@Entity(name = "idempotency_keys")
+@jakarta.persistence.Table(indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at"))
+@Data
+@NoArgsConstructor
+public class IdempotencyRecord implements Persistable<String> {
+
+    public static final int PENDING = 0;
+
+    @Id
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
+    // SHA-256 of the request body, so a key reused for a different request is rejected instead of replayed
+    @Column(name = "request_hash", length = 64, nullable = false)
+    private String requestHash;
+
+    @Column(name = "status", nullable = false)
+    private int status;
+
+    @Lob
+    @Column(name = "body")
+    private String body;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    // records are only ever inserted or deleted, so skip the select-before-merge for new ones
+    @Transient
+    @EqualsAndHashCode.Exclude
+    private boolean isNew = true;
+
+    public IdempotencyRecord(String idempotencyKey, String requestHash, int status, String body, Instant createdAt, Instant expiresAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.requestHash = requestHash;
+        this.status = status;
+        this.body = body;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -1,15 +1,23 @@
 package com.restaurant.booking.model;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
@@ -18,11 +26,17 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity(name = "reservations")
+@jakarta.persistence.Table(
+    indexes = @Index(name = "idx_reservations_date_time_table", columnList = "date, time, table_id"),
+    uniqueConstraints = @UniqueConstraint(name = "uk_reservations_table_slot", columnNames = {"table_id", "date", "time", "slot_hold"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Reservation {
 
+    // Largest party a single reservation seats; bigger parties book a combination of tables
+    public static final int MAX_PARTY_SIZE = 10;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -39,16 +53,47 @@ public class Reservation {
     @NotNull
     private LocalTime time;
 
+    // Optional per-reservation override of the dining duration derived from the party size
+    @Min(15)
+    @Max(480)
+    private Integer durationMinutes;
+
+    // Derived from time and duration when the reservation is created
+    @Column(nullable = false)
+    private LocalTime endTime;
+
     @NotNull
     @Min(1)
-    @Max(10)
+    @Max(MAX_PARTY_SIZE)
     private int numberOfGuests;
 
     @Enumerated(EnumType.STRING)
     private Status status;
 
+    // Shared by the reservations of all tables claimed together for one large party
+    private String combinationId;
+
+    // Location of the table, copied when the reservation is created so bookings can be queried per restaurant
+    private String location;
+
+    // TRUE while the reservation occupies its table and NULL otherwise, so the unique constraint on
+    // (table, date, time, slot_hold) allows one occupying reservation per slot next to any number of cancelled ones
+    @JsonIgnore
+    @Column(name = "slot_hold")
+    private Boolean slotHold;
+
+    // Set while the reservation is a HELD table hold: when the hold is released unless confirmed first
+    @JsonIgnore
+    private Instant holdExpiresAt;
+
+    @PrePersist
+    @PreUpdate
+    void holdSlot() {
+        slotHold = Status.occupiesTable(status) ? Boolean.TRUE : null;
+    }
+
     @Override
     public String toString() {
-        return "Reservation(id=" + id + ", date=" + date + ", time=" + time + ", numberOfGuests=" + numberOfGuests + ", status=" + status + ")";
+        return "Reservation(id=" + id + ", date=" + date + ", time=" + time + ", endTime=" + endTime + ", numberOfGuests=" + numberOfGuests + ", status=" + status + ")";
     }
 }
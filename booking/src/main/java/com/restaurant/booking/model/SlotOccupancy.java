@@ -0,0 +1,84 @@
+package com.restaurant.booking.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Transient;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * One slot of the {@code slot_availability} projection: the given table is taken during the slot
+ * starting at {@code slot} by the given reservation. Rows are written alongside the reservation itself.
+ */
+@Entity(name = "slot_availability")
+@jakarta.persistence.Table(indexes = @Index(name = "idx_slot_availability_reservation", columnList = "reservation_id"))
+@IdClass(SlotOccupancy.Key.class)
+@Data
+@NoArgsConstructor
+public class SlotOccupancy implements Persistable<SlotOccupancy.Key> {
+
+    @Id
+    private LocalDate date;
+
+    @Id
+    @Column(name = "table_id")
+    private Long tableId;
+
+    @Id
+    private LocalTime slot;
+
+    @Id
+    @Column(name = "reservation_id")
+    private Long reservationId;
+
+    // rows are only ever inserted or deleted, so skip the select-before-merge for new ones
+    @Transient
+    @EqualsAndHashCode.Exclude
+    private boolean isNew = true;
+
+    public SlotOccupancy(LocalDate date, Long tableId, LocalTime slot, Long reservationId) {
+        this.date = date;
+        this.tableId = tableId;
+        this.slot = slot;
+        this.reservationId = reservationId;
+    }
+
+    @Override
+    public Key getId() {
+        return new Key(date, tableId, slot, reservationId);
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate date;
+        private Long tableId;
+        private LocalTime slot;
+        private Long reservationId;
+    }
+}
@@ -1,8 +1,51 @@
 package com.restaurant.booking.model;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum Status {
     BOOKED,
+    // Table kept for a guest in checkout until the hold is confirmed, released or expires
+    HELD,
     AVAILABLE,
     CANCELLED,
-    COMPLETED
-}
\ No newline at end of file
+    COMPLETED,
+    // Guest did not turn up; frees the table for the rest of the slot
+    NO_SHOW;
+
+    /**
+     * Whether a reservation in this status keeps its table taken for the slot.
+     */
+    public boolean occupiesTable() {
+        return this != AVAILABLE && this != CANCELLED && this != NO_SHOW;
+    }
+
+    /**
+     * Whether the lifecycle endpoints may move a reservation from this status to {@code next}: only booked
+     * reservations are cancelled, completed or marked as a no-show.
+     */
+    public boolean canBecome(Status next) {
+        return this == BOOKED && (next == CANCELLED || next == COMPLETED || next == NO_SHOW);
+    }
+
+    /**
+     * Statuses that leave the table free, for use in repository queries.
+     */
+    public static Set<Status> freeingStatuses() {
+        return EnumSet.of(AVAILABLE, CANCELLED, NO_SHOW);
+    }
+
+    /**
+     * Null-safe variant used for legacy rows that were stored without a status.
+     */
+    public static boolean occupiesTable(Status status) {
+        return status == null || status.occupiesTable();
+    }
+
+    /**
+     * Null-safe variant of {@link #canBecome}; legacy rows without a status count as booked.
+     */
+    public static boolean canBecome(Status status, Status next) {
+        return (status == null ? BOOKED : status).canBecome(next);
+    }
+}
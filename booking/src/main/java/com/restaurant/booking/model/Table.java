@@ -9,6 +9,8 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -19,6 +21,8 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class Table {
 
+    public static final String DEFAULT_LOCATION = "main";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -26,12 +30,27 @@ public class Table {
     private int number;
     private int capacity;
 
+    // Tables in the same group with consecutive numbers stand next to each other and can be pushed together
+    private String combinationGroup;
+
+    // Restaurant the table stands in; tables saved without one belong to the default location. No initializer,
+    // so an update body without the field leaves the stored location alone
+    private String location;
+
     @OneToMany(mappedBy = "table")
     @JsonIgnore
     private List<Reservation> reservations;
 
+    @PrePersist
+    @PreUpdate
+    void defaultLocation() {
+        if (location == null || location.isBlank()) {
+            location = DEFAULT_LOCATION;
+        }
+    }
+
     @Override
     public String toString() {
-        return "Table(id=" + id + ", number=" + number + ", capacity=" + capacity + ")";
+        return "Table(id=" + id + ", number=" + number + ", capacity=" + capacity + ", combinationGroup=" + combinationGroup + ", location=" + location + ")";
     }
 }
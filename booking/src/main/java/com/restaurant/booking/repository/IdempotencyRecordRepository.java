@@ -0,0 +1,40 @@
+package com.restaurant.booking.repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.restaurant.booking.model.IdempotencyRecord;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+@Query("select r from idempotency_keys r where r.idempotencyKey = :key and r.expiresAt > :now")
+Optional<IdempotencyRecord> findUnexpired(@Param("key") String key, @Param("now") Instant now);
+
+@Transactional
+@Modifying
+@Query("delete from idempotency_keys r where r.expiresAt <= :now")
+int deleteExpired(@Param("now") Instant now);
+
+@Transactional
+@Modifying
+@Query("delete from idempotency_keys r where r.idempotencyKey = :key and r.expiresAt <= :now")
+int deleteExpired(@Param("key") String key, @Param("now") Instant now);
+
+@Transactional
+@Modifying
+@Query("delete from idempotency_keys r where r.idempotencyKey = :key and r.status = :status")
+int deleteByKeyAndStatus(@Param("key") String key, @Param("status") int status);
+
+@Transactional
+@Modifying
+@Query("update idempotency_keys r set r.status = :status, r.body = :body, r.expiresAt = :expiresAt where r.idempotencyKey = :key")
+int complete(@Param("key") String key, @Param("status") int status, @Param("body") String body, @Param("expiresAt") Instant expiresAt);
+}
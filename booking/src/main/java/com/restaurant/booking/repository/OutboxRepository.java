@@ -0,0 +1,111 @@
+package com.restaurant.booking.repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.restaurant.booking.service.integration.OutboxMessage;
+import com.restaurant.booking.service.integration.OutboxMessage.Integration;
+
+/**
+ * The {@code integration_outbox} table. Plain JDBC, so rows are inserted in one batch with the reservation
+ * they belong to, and written and read with the same timestamp mapping.
+ */
+@Repository
+public class OutboxRepository {
+
+    private static final String INSERT = "INSERT INTO integration_outbox "
+        + "(integration, reservation_id, payload, created_at, attempts, next_attempt_at) VALUES (?, ?, ?, ?, 0, ?)";
+
+    // a message waits while an older message of the same reservation is pending, so each reservation's
+    // changes reach an integration in order; dead messages are skipped
+    private static final String FIND_DUE = "SELECT m.id, m.integration, m.reservation_id, m.payload, m.created_at, m.attempts "
+        + "FROM integration_outbox m WHERE m.integration = :integration AND m.delivered_at IS NULL AND m.dead_at IS NULL "
+        + "AND m.next_attempt_at <= :now "
+        + "AND NOT EXISTS (SELECT 1 FROM integration_outbox e WHERE e.integration = m.integration AND e.reservation_id = m.reservation_id "
+        + "AND e.delivered_at IS NULL AND e.dead_at IS NULL AND e.id < m.id) "
+        + "ORDER BY m.id LIMIT :limit";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public OutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * Adds a message per integration for each reservation id and its payload at the same index, in one batch
+     * joining the surrounding transaction.
+     */
+    public void insertAll(List<Long> reservationIds, List<String> payloads, Instant now) {
+        Timestamp timestamp = Timestamp.from(now);
+        List<Object[]> rows = new ArrayList<>(payloads.size() * Integration.values().length);
+        for (int i = 0; i < payloads.size(); i++) {
+            for (Integration integration : Integration.values()) {
+                rows.add(new Object[] {integration.name(), reservationIds.get(i), payloads.get(i), timestamp, timestamp});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT, rows);
+    }
+
+    /**
+     * Pending messages of the integration that are due, oldest first.
+     */
+    public List<OutboxMessage> findDue(Integration integration, Instant now, int limit) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+            .addValue("integration", integration.name())
+            .addValue("now", Timestamp.from(now))
+            .addValue("limit", limit);
+        return namedJdbcTemplate.query(FIND_DUE, parameters, (rs, row) -> new OutboxMessage(
+            rs.getLong("id"),
+            Integration.valueOf(rs.getString("integration")),
+            rs.getObject("reservation_id", Long.class),
+            rs.getString("payload"),
+            rs.getTimestamp("created_at").toInstant(),
+            rs.getInt("attempts")));
+    }
+
+    public int markDelivered(Collection<Long> ids, Instant now) {
+        return namedJdbcTemplate.update("UPDATE integration_outbox SET delivered_at = :now, attempts = attempts + 1, last_error = NULL "
+            + "WHERE id IN (:ids)", new MapSqlParameterSource("ids", ids).addValue("now", Timestamp.from(now)));
+    }
+
+    public int markFailed(Collection<Long> ids, Instant nextAttemptAt, String error) {
+        return namedJdbcTemplate.update("UPDATE integration_outbox SET attempts = attempts + 1, next_attempt_at = :next, last_error = :error "
+            + "WHERE id IN (:ids)", new MapSqlParameterSource("ids", ids)
+                .addValue("next", Timestamp.from(nextAttemptAt))
+                .addValue("error", error));
+    }
+
+    /**
+     * Moves the messages to their next attempt without counting one, for calls that were never made.
+     */
+    public int postpone(Collection<Long> ids, Instant nextAttemptAt, String error) {
+        return namedJdbcTemplate.update("UPDATE integration_outbox SET next_attempt_at = :next, last_error = :error "
+            + "WHERE id IN (:ids)", new MapSqlParameterSource("ids", ids)
+                .addValue("next", Timestamp.from(nextAttemptAt))
+                .addValue("error", error));
+    }
+
+    /**
+     * Parks the messages: they are not sent again and no longer hold up later messages of their reservation.
+     */
+    public int markDead(Collection<Long> ids, Instant now, String error) {
+        return namedJdbcTemplate.update("UPDATE integration_outbox SET dead_at = :now, attempts = attempts + 1, last_error = :error "
+            + "WHERE id IN (:ids)", new MapSqlParameterSource("ids", ids)
+                .addValue("now", Timestamp.from(now))
+                .addValue("error", error));
+    }
+
+    public int deleteDeliveredBefore(Instant before) {
+        return jdbcTemplate.update("DELETE FROM integration_outbox WHERE delivered_at <= ?", Timestamp.from(before));
+    }
+}
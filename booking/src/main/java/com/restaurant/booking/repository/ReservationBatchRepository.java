@@ -0,0 +1,82 @@
+package com.restaurant.booking.repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Types;
+import java.util.List;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.restaurant.booking.model.Reservation;
+import com.restaurant.booking.model.Status;
+
+/**
+ * Inserts many reservations in JDBC batches.
+ * <p>
+ * Reservation ids are identity columns, so Hibernate inserts them one statement at a time no matter how
+ * {@code hibernate.jdbc.batch_size} is set. This bypasses the persistence context: rows go out as
+ * {@code executeBatch} calls (rewritten to multi-row inserts by MySQL's {@code rewriteBatchedStatements})
+ * and the generated ids are read back from the batch and set on the reservations. Columns maintained by
+ * entity callbacks, such as {@code slot_hold}, are written here explicitly.
+ */
+@Repository
+public class ReservationBatchRepository {
+
+    private static final String INSERT = "INSERT INTO reservations "
+        + "(user_id, table_id, date, time, duration_minutes, end_time, number_of_guests, status, combination_id, location, slot_hold) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReservationBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the reservations in batches of {@code batchSize} rows and sets their generated ids.
+     * Joins the surrounding transaction.
+     */
+    public void insertAll(List<Reservation> reservations, int batchSize) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT, new String[] {"id"})) {
+                for (int from = 0; from < reservations.size(); from += batchSize) {
+                    List<Reservation> batch = reservations.subList(from, Math.min(from + batchSize, reservations.size()));
+                    for (Reservation reservation : batch) {
+                        bind(statement, reservation);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        for (Reservation reservation : batch) {
+                            if (!keys.next()) {
+                                throw new IllegalStateException("Driver returned fewer generated ids than inserted reservations");
+                            }
+                            reservation.setId(keys.getLong(1));
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private static void bind(PreparedStatement statement, Reservation reservation) throws SQLException {
+        statement.setObject(1, reservation.getUser() != null ? reservation.getUser().getId() : null, Types.BIGINT);
+        statement.setObject(2, reservation.getTable() != null ? reservation.getTable().getId() : null, Types.BIGINT);
+        statement.setDate(3, Date.valueOf(reservation.getDate()));
+        statement.setTime(4, Time.valueOf(reservation.getTime()));
+        statement.setObject(5, reservation.getDurationMinutes(), Types.INTEGER);
+        statement.setTime(6, Time.valueOf(reservation.getEndTime()));
+        statement.setInt(7, reservation.getNumberOfGuests());
+        statement.setString(8, reservation.getStatus() != null ? reservation.getStatus().name() : null);
+        statement.setString(9, reservation.getCombinationId());
+        statement.setString(10, reservation.getLocation());
+        reservation.setSlotHold(Status.occupiesTable(reservation.getStatus()) ? Boolean.TRUE : null);
+        statement.setObject(11, reservation.getSlotHold(), Types.BOOLEAN);
+    }
+}
@@ -1,12 +1,21 @@
 package com.restaurant.booking.repository;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.restaurant.booking.dto.OccupiedSlotDTO;
+import com.restaurant.booking.dto.ReservationSummaryDTO;
+import com.restaurant.booking.dto.SlotLoadDTO;
+import com.restaurant.booking.dto.TableDTO;
 import com.restaurant.booking.model.Reservation;
 import com.restaurant.booking.model.Status;
 import com.restaurant.booking.model.User;
@@ -15,6 +24,100 @@ import com.restaurant.booking.model.User;
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
 
 List<Reservation> findByDateAndTime(LocalDate date, LocalTime time);
+List<Reservation> findByDateGreaterThanEqual(LocalDate date);
 List<Reservation> findByUserId(User user);
 List<Reservation> findByStatus(Status status);
+List<Reservation> findByCombinationId(String combinationId);
+
+/**
+ * Tables that seat the party and have no occupying reservation overlapping [time, endTime) on the given date,
+ * smallest first. The subtraction happens in the database and only the table columns are read.
+ * Every reservation has an end time; rows from before durations existed were given one by V11.
+ */
+@Query("select new com.restaurant.booking.dto.TableDTO(t.id, t.number, t.capacity, t.combinationGroup, t.location) from tables t "
+    + "where t.capacity >= :numberOfGuests and not exists ("
+    + "select r.id from reservations r where r.table = t and r.date = :date and r.time < :endTime "
+    + "and r.endTime > :time "
+    + "and (r.status is null or r.status not in :freeStatuses)) "
+    + "order by t.capacity, t.number")
+List<TableDTO> findAvailableTables(@Param("date") LocalDate date, @Param("time") LocalTime time, @Param("endTime") LocalTime endTime,
+                                   @Param("numberOfGuests") int numberOfGuests, @Param("freeStatuses") Collection<Status> freeStatuses);
+
+/**
+ * {@link #findAvailableTables} restricted to the tables of one location.
+ */
+@Query("select new com.restaurant.booking.dto.TableDTO(t.id, t.number, t.capacity, t.combinationGroup, t.location) from tables t "
+    + "where t.location = :location and t.capacity >= :numberOfGuests and not exists ("
+    + "select r.id from reservations r where r.table = t and r.date = :date and r.time < :endTime "
+    + "and r.endTime > :time "
+    + "and (r.status is null or r.status not in :freeStatuses)) "
+    + "order by t.capacity, t.number")
+List<TableDTO> findAvailableTablesAtLocation(@Param("location") String location, @Param("date") LocalDate date, @Param("time") LocalTime time,
+                                             @Param("endTime") LocalTime endTime, @Param("numberOfGuests") int numberOfGuests,
+                                             @Param("freeStatuses") Collection<Status> freeStatuses);
+
+/**
+ * Whether any of the given tables has an occupying reservation overlapping [time, endTime) on the given date.
+ */
+@Query("select count(r) > 0 from reservations r where r.table.id in :tableIds and r.date = :date and r.time < :endTime "
+    + "and r.endTime > :time "
+    + "and (r.status is null or r.status not in :freeStatuses)")
+boolean existsOverlapping(@Param("tableIds") Collection<Long> tableIds, @Param("date") LocalDate date, @Param("time") LocalTime time,
+                          @Param("endTime") LocalTime endTime, @Param("freeStatuses") Collection<Status> freeStatuses);
+
+/**
+ * Occupying reservations in a date range counted per date, start and end time, ordered by date.
+ */
+@Query("select new com.restaurant.booking.dto.SlotLoadDTO(r.date, r.time, r.endTime, count(r)) "
+    + "from reservations r where r.date between :from and :to "
+    + "and (r.status is null or r.status not in :freeStatuses) "
+    + "group by r.date, r.time, r.endTime "
+    + "order by r.date")
+List<SlotLoadDTO> countOccupyingBySlot(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                       @Param("freeStatuses") Collection<Status> freeStatuses);
+
+@Query("select min(r.date) from reservations r")
+LocalDate findFirstDate();
+
+@Query("select max(r.date) from reservations r")
+LocalDate findLastDate();
+
+/**
+ * All occupying reservations in a date range as lightweight projections, ordered by date and time.
+ */
+@Query("select new com.restaurant.booking.dto.OccupiedSlotDTO(r.id, r.table.id, r.date, r.time, r.endTime, r.numberOfGuests, r.durationMinutes) "
+    + "from reservations r where r.date between :from and :to "
+    + "and (r.status is null or r.status not in :freeStatuses) "
+    + "order by r.date, r.time")
+List<OccupiedSlotDTO> findOccupiedSlots(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                        @Param("freeStatuses") Collection<Status> freeStatuses);
+
+/**
+ * Reservations in the given status whose dining window overlaps [from, to) on the date, with their table and guest,
+ * ordered by time. Legacy rows without a status count as booked, and rows without a table or guest are included.
+ */
+@Query("select new com.restaurant.booking.dto.ReservationSummaryDTO(r.id, t.id, t.number, r.date, r.time, r.endTime, "
+    + "r.numberOfGuests, r.durationMinutes, u.name, u.email, u.phoneNumber) "
+    + "from reservations r left join r.table t left join r.user u "
+    + "where r.date = :date "
+    + "and (r.status = :status or (r.status is null and :status = com.restaurant.booking.model.Status.BOOKED)) "
+    + "and r.time < :to and r.endTime > :from "
+    + "order by r.time, t.number")
+List<ReservationSummaryDTO> findOverlappingByStatus(@Param("date") LocalDate date, @Param("from") LocalTime from, @Param("to") LocalTime to,
+                                                    @Param("status") Status status);
+
+/**
+ * Moves the given reservations from {@code from} to the freeing status {@code to} in one statement and clears their
+ * slot hold, as saving them would; reservations no longer in {@code from} are left alone, and legacy rows without a
+ * status count as booked. Returns how many moved.
+ */
+@Modifying(flushAutomatically = true, clearAutomatically = true)
+@Query("update reservations r set r.status = :to, r.slotHold = null where r.id in :ids "
+    + "and (r.status = :from or (r.status is null and :from = com.restaurant.booking.model.Status.BOOKED))")
+int freeAll(@Param("ids") Collection<Long> ids, @Param("from") Status from, @Param("to") Status to);
+
+// conditional, so a hold confirmed while its expiry runs is either confirmed or released, never both
+@Modifying(flushAutomatically = true, clearAutomatically = true)
+@Query("update reservations r set r.status = :to, r.holdExpiresAt = null where r.id = :id and r.status = :from and r.holdExpiresAt > :now")
+int confirmHold(@Param("id") Long id, @Param("now") Instant now, @Param("from") Status from, @Param("to") Status to);
 }
@@ -0,0 +1,52 @@
+package com.restaurant.booking.repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.restaurant.booking.dto.TableDTO;
+import com.restaurant.booking.model.SlotOccupancy;
+
+@Repository
+public interface SlotOccupancyRepository extends JpaRepository<SlotOccupancy, SlotOccupancy.Key> {
+
+/**
+ * Tables that seat the party and have no occupied slot in [firstSlot, endTime) on the given date, smallest first.
+ * Each table is one primary key range probe on (date, table_id, slot).
+ */
+@Query("select new com.restaurant.booking.dto.TableDTO(t.id, t.number, t.capacity, t.combinationGroup, t.location) from tables t "
+    + "where t.capacity >= :numberOfGuests and not exists ("
+    + "select s.tableId from slot_availability s where s.date = :date and s.tableId = t.id "
+    + "and s.slot >= :firstSlot and s.slot < :endTime) "
+    + "order by t.capacity, t.number")
+List<TableDTO> findAvailableTables(@Param("date") LocalDate date, @Param("firstSlot") LocalTime firstSlot, @Param("endTime") LocalTime endTime,
+                                   @Param("numberOfGuests") int numberOfGuests);
+
+@Transactional
+@Modifying
+@Query("delete from slot_availability s where s.reservationId = :reservationId")
+int deleteByReservationId(@Param("reservationId") Long reservationId);
+
+@Transactional
+@Modifying
+@Query("delete from slot_availability s where s.reservationId in :reservationIds")
+int deleteByReservationIdIn(@Param("reservationIds") Collection<Long> reservationIds);
+
+@Transactional
+@Modifying
+@Query("delete from slot_availability s where s.tableId = :tableId")
+int deleteByTableId(@Param("tableId") Long tableId);
+
+@Transactional
+@Modifying
+@Query("delete from slot_availability s where s.date between :from and :to")
+int deleteByDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
@@ -16,6 +17,9 @@ public interface TableRepository extends JpaRepository<Table, Long> {
     List<Table> findAll();
 
     Optional<Table> findByNumber(int number);
+
+    @Query("select distinct t.location from tables t order by t.location")
+    List<String> findLocations();
     // Additional query methods can be defined here if needed
 
 }
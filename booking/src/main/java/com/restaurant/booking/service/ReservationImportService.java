@@ -0,0 +1,285 @@
+package com.restaurant.booking.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.restaurant.booking.dto.OccupiedSlotDTO;
+import com.restaurant.booking.dto.ReservationDTO;
+import com.restaurant.booking.dto.ReservationImportResultDTO;
+import com.restaurant.booking.event.ReservationChangedEvent;
+import com.restaurant.booking.model.Reservation;
+import com.restaurant.booking.model.Status;
+import com.restaurant.booking.model.Table;
+import com.restaurant.booking.model.User;
+import com.restaurant.booking.repository.ReservationBatchRepository;
+import com.restaurant.booking.repository.ReservationRepository;
+import com.restaurant.booking.repository.TableRepository;
+import com.restaurant.booking.repository.UserRepository;
+import com.restaurant.booking.service.availability.CoversPacing;
+import com.restaurant.booking.service.availability.DiningDurationPolicy;
+import com.restaurant.booking.service.availability.OpeningHours;
+import com.restaurant.booking.service.availability.SlotLocks;
+import com.restaurant.booking.service.integration.IntegrationOutbox;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Imports many reservations, typically a nightly batch from a partner platform, in one transaction.
+ * <p>
+ * Every reservation is checked on its own and rejected with a reason rather than failing the import:
+ * the bean validation constraints of {@link Reservation}, statuses other than booked or completed, missing
+ * references, closed hours, unknown users or tables, tables too small, pacing limits, and overlaps with
+ * stored bookings or with earlier reservations of the same import. Tables, users and the occupied slots of
+ * the imported date range are read with one query each and the checks run in memory under the slot locks
+ * of all imported windows. Accepted reservations are inserted in JDBC batches, then published as
+ * {@link ReservationChangedEvent}s like single bookings, and written to the {@link IntegrationOutbox}, whose
+ * relay sends them to CRM and Gastro in batches.
+ */
+@Slf4j
+@Service
+public class ReservationImportService {
+
+    private final TableRepository tableRepository;
+    private final UserRepository userRepository;
+    private final ReservationRepository reservationRepository;
+    private final ReservationBatchRepository reservationBatchRepository;
+    private final IntegrationOutbox integrationOutbox;
+    private final OpeningHours openingHours;
+    private final CoversPacing coversPacing;
+    private final SlotLocks slotLocks;
+    private final DiningDurationPolicy durationPolicy;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final int batchSize;
+    private final int maxItems;
+
+    public ReservationImportService(TableRepository tableRepository, UserRepository userRepository, ReservationRepository reservationRepository,
+                                    ReservationBatchRepository reservationBatchRepository, IntegrationOutbox integrationOutbox, OpeningHours openingHours, CoversPacing coversPacing,
+                                    SlotLocks slotLocks, DiningDurationPolicy durationPolicy, ApplicationEventPublisher eventPublisher,
+                                    Validator validator,
+                                    @Value("${booking.import.batch-size:500}") int batchSize,
+                                    @Value("${booking.import.max-items:5000}") int maxItems) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Import batch size must be positive");
+        }
+        this.tableRepository = tableRepository;
+        this.userRepository = userRepository;
+        this.reservationRepository = reservationRepository;
+        this.reservationBatchRepository = reservationBatchRepository;
+        this.integrationOutbox = integrationOutbox;
+        this.openingHours = openingHours;
+        this.coversPacing = coversPacing;
+        this.slotLocks = slotLocks;
+        this.durationPolicy = durationPolicy;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * Creates the acceptable reservations and returns one result per reservation, in request order.
+     */
+    @Transactional
+    public List<ReservationImportResultDTO> importReservations(List<Reservation> reservations) {
+        if (reservations.size() > maxItems) {
+            throw new IllegalArgumentException("An import may contain at most " + maxItems + " reservations, got " + reservations.size());
+        }
+        log.info("Importing {} reservations", reservations.size());
+        ReservationImportResultDTO[] results = new ReservationImportResultDTO[reservations.size()];
+
+        List<Integer> candidates = new ArrayList<>(reservations.size());
+        for (int i = 0; i < reservations.size(); i++) {
+            String problem = validate(reservations.get(i));
+            if (problem != null) {
+                results[i] = ReservationImportResultDTO.rejected(i, problem);
+            } else {
+                candidates.add(i);
+            }
+        }
+        resolveReferences(reservations, candidates, results);
+
+        if (!candidates.isEmpty()) {
+            List<Reservation> windows = candidates.stream().map(reservations::get).collect(Collectors.toList());
+            List<Reservation> accepted = slotLocks.withLocks(windows, () -> insert(claim(reservations, candidates, results)));
+            if (!accepted.isEmpty()) {
+                accepted.forEach(reservation -> eventPublisher.publishEvent(new ReservationChangedEvent(reservation, null)));
+                integrationOutbox.enqueue(accepted.stream().map(this::convertToDTO).collect(Collectors.toList()));
+            }
+        }
+
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = ReservationImportResultDTO.created(i, reservations.get(i).getId());
+            }
+        }
+        long created = Arrays.stream(results).filter(result -> result.getOutcome() == ReservationImportResultDTO.Outcome.CREATED).count();
+        log.info("Imported {} of {} reservations", created, reservations.size());
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Checks that need nothing but the reservation itself, and fills in the derived fields.
+     */
+    private String validate(Reservation reservation) {
+        if (reservation == null) {
+            return "Reservation is missing";
+        }
+        Set<ConstraintViolation<Reservation>> violations = validator.validate(reservation);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+        }
+        // holds need an expiry and are only ever made through the hold endpoint
+        if (reservation.getStatus() != null && reservation.getStatus() != Status.BOOKED && reservation.getStatus() != Status.COMPLETED) {
+            return "Only BOOKED or COMPLETED reservations can be imported, not " + reservation.getStatus();
+        }
+        if (reservation.getUser() == null || reservation.getUser().getId() == null) {
+            return "A user id is required";
+        }
+        if (reservation.getTable() == null || reservation.getTable().getId() == null) {
+            return "A table id is required";
+        }
+        if (!openingHours.isOpen(reservation.getDate(), reservation.getTime())) {
+            return "Restaurant is closed on " + reservation.getDate() + " at " + reservation.getTime();
+        }
+        if (!DiningDurationPolicy.hasWindow(reservation.getTime())) {
+            return "Reservations must start before " + DiningDurationPolicy.END_OF_DAY + ", not at " + reservation.getTime();
+        }
+        reservation.setId(null);
+        if (reservation.getStatus() == null) {
+            reservation.setStatus(Status.BOOKED);
+        }
+        int minutes = durationPolicy.minutesFor(reservation);
+        reservation.setDurationMinutes(minutes);
+        reservation.setEndTime(durationPolicy.endTime(reservation.getTime(), minutes));
+        return null;
+    }
+
+    /**
+     * Replaces the user and table references of the candidates with the stored entities, read with one query
+     * each, and rejects unknown ones and tables too small for the party.
+     */
+    private void resolveReferences(List<Reservation> reservations, List<Integer> candidates, ReservationImportResultDTO[] results) {
+        Map<Long, Table> tables = tableRepository.findAllById(candidates.stream()
+                .map(i -> reservations.get(i).getTable().getId()).collect(Collectors.toSet())).stream()
+            .collect(Collectors.toMap(Table::getId, Function.identity()));
+        Map<Long, User> users = userRepository.findAllById(candidates.stream()
+                .map(i -> reservations.get(i).getUser().getId()).collect(Collectors.toSet())).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        candidates.removeIf(i -> {
+            Reservation reservation = reservations.get(i);
+            Table table = tables.get(reservation.getTable().getId());
+            User user = users.get(reservation.getUser().getId());
+            if (table == null) {
+                results[i] = ReservationImportResultDTO.rejected(i, "Table not found with id: " + reservation.getTable().getId());
+            } else if (user == null) {
+                results[i] = ReservationImportResultDTO.rejected(i, "User not found with id: " + reservation.getUser().getId());
+            } else if (table.getCapacity() < reservation.getNumberOfGuests()) {
+                results[i] = ReservationImportResultDTO.rejected(i, "Table " + table.getNumber() + " seats " + table.getCapacity()
+                    + ", not " + reservation.getNumberOfGuests() + " guests");
+            } else {
+                reservation.setTable(table);
+                reservation.setUser(user);
+                reservation.setLocation(table.getLocation());
+                return false;
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Accepts the candidates whose tables are free, in request order, against the bookings stored for the
+     * imported dates and the candidates accepted before them. Runs under the slot locks of all candidates.
+     */
+    private List<Reservation> claim(List<Reservation> reservations, List<Integer> candidates, ReservationImportResultDTO[] results) {
+        LocalDate from = candidates.stream().map(i -> reservations.get(i).getDate()).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate to = candidates.stream().map(i -> reservations.get(i).getDate()).max(Comparator.naturalOrder()).orElseThrow();
+        List<OccupiedSlotDTO> stored = reservationRepository.findOccupiedSlots(from, to, Status.freeingStatuses());
+        Map<TableDay, List<OccupiedSlotDTO>> occupied = new HashMap<>();
+        for (OccupiedSlotDTO slot : stored) {
+            occupied.computeIfAbsent(new TableDay(slot.getTableId(), slot.getDate()), key -> new ArrayList<>()).add(slot);
+        }
+        log.info("Checking {} reservations against {} occupied slots between {} and {}", candidates.size(), stored.size(), from, to);
+
+        List<Reservation> accepted = new ArrayList<>(candidates.size());
+        for (int i : candidates) {
+            Reservation reservation = reservations.get(i);
+            if (!Status.occupiesTable(reservation.getStatus())) {
+                accepted.add(reservation);
+                continue;
+            }
+            List<OccupiedSlotDTO> taken = occupied.computeIfAbsent(new TableDay(reservation.getTable().getId(), reservation.getDate()),
+                key -> new ArrayList<>());
+            if (taken.stream().anyMatch(slot -> overlaps(slot, reservation.getTime(), reservation.getEndTime()))) {
+                results[i] = ReservationImportResultDTO.rejected(i, "Table " + reservation.getTable().getNumber() + " is already booked on "
+                    + reservation.getDate() + " at " + reservation.getTime());
+                continue;
+            }
+            try {
+                coversPacing.acquire(reservation.getDate(), reservation.getTime(), reservation.getNumberOfGuests());
+            } catch (IllegalStateException e) {
+                results[i] = ReservationImportResultDTO.rejected(i, e.getMessage());
+                continue;
+            }
+            taken.add(new OccupiedSlotDTO(null, reservation.getTable().getId(), reservation.getDate(), reservation.getTime(),
+                reservation.getEndTime(), reservation.getNumberOfGuests(), reservation.getDurationMinutes()));
+            accepted.add(reservation);
+        }
+        return accepted;
+    }
+
+    // same overlap rule as ReservationRepository#existsOverlapping
+    private static boolean overlaps(OccupiedSlotDTO slot, LocalTime time, LocalTime endTime) {
+        return slot.getTime().isBefore(endTime) && slot.getEndTime().isAfter(time);
+    }
+
+    private List<Reservation> insert(List<Reservation> accepted) {
+        if (accepted.isEmpty()) {
+            return accepted;
+        }
+        try {
+            reservationBatchRepository.insertAll(accepted, batchSize);
+            return accepted;
+        } catch (DataIntegrityViolationException e) {
+            // another instance booked one of the slots between our check and the insert
+            throw new IllegalStateException("A table of the import was booked concurrently, retry the import", e);
+        }
+    }
+
+    private ReservationDTO convertToDTO(Reservation reservation) {
+        return new ReservationDTO(
+            reservation.getId(),
+            reservation.getUser().getName(),
+            reservation.getUser().getEmail(),
+            reservation.getUser().getPhoneNumber(),
+            reservation.getTable().getNumber(),
+            LocalDateTime.of(reservation.getDate(), reservation.getTime()),
+            Objects.toString(reservation.getStatus()));
+    }
+
+    private record TableDay(Long tableId, LocalDate date) {
+    }
+}
@@ -1,21 +1,60 @@
 package com.restaurant.booking.service;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.restaurant.booking.dto.AvailabilitySlotDTO;
+import com.restaurant.booking.dto.CombinedReservationRequest;
+import com.restaurant.booking.dto.MultiLocationAvailabilityDTO;
+import com.restaurant.booking.dto.OccupancyCellDTO;
+import com.restaurant.booking.dto.OccupiedSlotDTO;
 import com.restaurant.booking.dto.ReservationDTO;
+import com.restaurant.booking.dto.ReservationSummaryDTO;
+import com.restaurant.booking.dto.TableDTO;
+import com.restaurant.booking.event.ReservationChangedEvent;
+import com.restaurant.booking.event.ReservationsStatusChangedEvent;
+import com.restaurant.booking.exception.ResourceNotFoundException;
 import com.restaurant.booking.model.Reservation;
+import com.restaurant.booking.model.Status;
 import com.restaurant.booking.model.Table;
 import com.restaurant.booking.repository.ReservationRepository;
 import com.restaurant.booking.repository.TableRepository;
-import com.restaurant.booking.service.integration.CrmIntegrationService;
-import com.restaurant.booking.service.integration.GastroIntegrationService;
+import com.restaurant.booking.service.allocation.TableAllocation;
+import com.restaurant.booking.service.allocation.TableCombination;
+import com.restaurant.booking.service.allocation.TableAllocator;
+import com.restaurant.booking.service.availability.AlternativeSlots;
+import com.restaurant.booking.service.availability.AvailabilityCache;
+import com.restaurant.booking.service.availability.AvailabilityGrid;
+import com.restaurant.booking.service.availability.AvailabilityResult;
+import com.restaurant.booking.service.availability.AvailabilityStream;
+import com.restaurant.booking.service.availability.CoversPacing;
+import com.restaurant.booking.service.availability.DiningDurationPolicy;
+import com.restaurant.booking.service.availability.LocationAvailability;
+import com.restaurant.booking.service.availability.OccupancyHeatmap;
+import com.restaurant.booking.service.availability.OpeningHours;
+import com.restaurant.booking.service.availability.SlotAvailabilityProjection;
+import com.restaurant.booking.service.availability.SlotLocks;
+import com.restaurant.booking.service.availability.SlotOccupancyIndex;
+import com.restaurant.booking.service.integration.IntegrationOutbox;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -25,53 +64,543 @@ public class ReservationService {
     
     private final TableRepository tableRepository;
     private final ReservationRepository reservationRepository;
-    private final CrmIntegrationService crmIntegrationService;
-    private final GastroIntegrationService gastroIntegrationService;
+    private final IntegrationOutbox integrationOutbox;
+    private final SlotOccupancyIndex slotOccupancyIndex;
+    private final AvailabilityCache availabilityCache;
+    private final SlotAvailabilityProjection slotAvailabilityProjection;
+    private final OpeningHours openingHours;
+    private final CoversPacing coversPacing;
+    private final OccupancyHeatmap occupancyHeatmap;
+    private final AvailabilityStream availabilityStream;
+    private final LocationAvailability locationAvailability;
+    private final SlotLocks slotLocks;
+    private final DiningDurationPolicy durationPolicy;
+    private final TableAllocator tableAllocator;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ReservationService(TableRepository tableRepository, ReservationRepository reservationRepository, CrmIntegrationService crmIntegrationService, GastroIntegrationService gastroIntegrationService) {
+    public ReservationService(TableRepository tableRepository, ReservationRepository reservationRepository, IntegrationOutbox integrationOutbox,
+                              SlotOccupancyIndex slotOccupancyIndex, AvailabilityCache availabilityCache, SlotAvailabilityProjection slotAvailabilityProjection,
+                              OpeningHours openingHours, CoversPacing coversPacing, OccupancyHeatmap occupancyHeatmap,
+                              AvailabilityStream availabilityStream, LocationAvailability locationAvailability, SlotLocks slotLocks, DiningDurationPolicy durationPolicy, TableAllocator tableAllocator, ApplicationEventPublisher eventPublisher) {
         this.tableRepository = tableRepository;
         this.reservationRepository = reservationRepository;
-        this.crmIntegrationService = crmIntegrationService;
-        this.gastroIntegrationService = gastroIntegrationService;
+        this.integrationOutbox = integrationOutbox;
+        this.slotOccupancyIndex = slotOccupancyIndex;
+        this.availabilityCache = availabilityCache;
+        this.slotAvailabilityProjection = slotAvailabilityProjection;
+        this.openingHours = openingHours;
+        this.coversPacing = coversPacing;
+        this.occupancyHeatmap = occupancyHeatmap;
+        this.availabilityStream = availabilityStream;
+        this.locationAvailability = locationAvailability;
+        this.slotLocks = slotLocks;
+        this.durationPolicy = durationPolicy;
+        this.tableAllocator = tableAllocator;
+        this.eventPublisher = eventPublisher;
     }   
 
     public List<Table> getAvailableTables(LocalDate date, LocalTime time, int numberOfGuests) {
+        return getAvailability(date, time, numberOfGuests).tables();
+    }
+
+    /**
+     * Free tables for the party, possibly the last known result of the slot while the database is overloaded;
+     * {@link AvailabilityResult#isStale()} tells the two apart.
+     */
+    public AvailabilityResult getAvailability(LocalDate date, LocalTime time, int numberOfGuests) {
         log.info("Checking available tables for date: {}, time: {}, guests: {}", date, time, numberOfGuests);
-        
-        List<Reservation> reservations = reservationRepository.findByDateAndTime(date, time);
-        List<Table> allTables = tableRepository.findAll();
+        if (!isBookable(date, time)) {
+            log.info("Restaurant is closed on {} at {}", date, time);
+            return AvailabilityResult.fresh(List.of());
+        }
+        if (!coversPacing.hasCapacity(date, time, numberOfGuests)) {
+            log.info("Pacing limit reached for {} at {}, hiding all tables", date, time);
+            return AvailabilityResult.fresh(List.of());
+        }
+        return availabilityCache.get(date, time, numberOfGuests, () -> loadAvailableTables(date, time, numberOfGuests));
+    }
 
-        Set<Long> reservedTableIds = reservations.stream()
-            .map(reservation -> reservation.getTable().getId())
-            .collect(Collectors.toSet());
+    private List<Table> loadAvailableTables(LocalDate date, LocalTime time, int numberOfGuests) {
+        if (slotOccupancyIndex.covers(date)) {
+            List<Table> availableTables = slotOccupancyIndex.findAvailableTables(date, time, numberOfGuests);
+            log.info("Found {} available tables in occupancy index", availableTables.size());
+            return availableTables;
+        }
 
-        List<Table> availableTables = allTables.stream()
-            .filter(table -> !reservedTableIds.contains(table.getId()) && table.getCapacity() >= numberOfGuests)
+        if (slotAvailabilityProjection.isReady()) {
+            List<Table> availableTables = slotAvailabilityProjection.findAvailableTables(date, time, numberOfGuests).stream()
+                .map(this::toTable)
+                .collect(Collectors.toList());
+            log.info("Found {} available tables in slot availability projection", availableTables.size());
+            return availableTables;
+        }
+        
+        LocalTime endTime = durationPolicy.endTime(time, durationPolicy.minutesFor(numberOfGuests));
+        List<Table> availableTables = reservationRepository.findAvailableTables(date, time, endTime, numberOfGuests, Status.freeingStatuses()).stream()
+            .map(this::toTable)
             .collect(Collectors.toList());
             
-        log.info("Found {} available tables out of {} total tables", availableTables.size(), allTables.size());
+        log.info("Found {} available tables", availableTables.size());
         return availableTables;
     }
 
+    /**
+     * Free tables for the party at every location, evaluated in parallel; locations that miss their time budget
+     * are listed as unavailable rather than delaying the answer.
+     */
+    public MultiLocationAvailabilityDTO getAvailabilityAcrossLocations(LocalDate date, LocalTime time, int numberOfGuests) {
+        log.info("Checking available tables at all locations for date: {}, time: {}, guests: {}", date, time, numberOfGuests);
+        if (!isBookable(date, time) || !coversPacing.hasCapacity(date, time, numberOfGuests)) {
+            return new MultiLocationAvailabilityDTO(List.of(), List.of());
+        }
+        return locationAvailability.findAvailableTables(date, time, numberOfGuests);
+    }
+
+    /**
+     * Availability for every slot of a date range. Inputs are validated and loaded eagerly with a single
+     * range query (or none when the occupancy index covers the range); the slots themselves are computed
+     * day by day as the returned stream is consumed.
+     */
+    public Stream<AvailabilitySlotDTO> getAvailabilityGrid(LocalDate startDate, LocalDate endDate, LocalTime firstSlot, LocalTime lastSlot,
+                                                           int slotMinutes, int numberOfGuests) {
+        log.info("Computing availability grid for {} - {}, slots {} - {} every {} minutes, guests: {}",
+            startDate, endDate, firstSlot, lastSlot, slotMinutes, numberOfGuests);
+        AvailabilityGrid.validateRange(startDate, endDate);
+        AvailabilityGrid grid = new AvailabilityGrid(firstSlot, lastSlot, slotMinutes, durationPolicy.minutesFor(numberOfGuests), durationPolicy);
+
+        Stream<AvailabilitySlotDTO> slots;
+        if (slotOccupancyIndex.covers(startDate)) {
+            slots = startDate.datesUntil(endDate.plusDays(1))
+                .flatMap(date -> grid.slots().stream().map(time -> {
+                    List<Long> tableIds = slotOccupancyIndex.findAvailableTables(date, time, numberOfGuests).stream()
+                        .map(Table::getId)
+                        .collect(Collectors.toList());
+                    return new AvailabilitySlotDTO(date, time, tableIds.size(), tableIds);
+                }));
+        } else {
+            List<Table> tables = tableRepository.findAll().stream()
+                .filter(table -> table.getCapacity() >= numberOfGuests)
+                .sorted(Comparator.comparing(Table::getId))
+                .collect(Collectors.toList());
+            List<OccupiedSlotDTO> occupied = reservationRepository.findOccupiedSlots(startDate, endDate, Status.freeingStatuses());
+            log.info("Sweeping {} occupied slots over {} tables", occupied.size(), tables.size());
+            slots = grid.sweep(startDate, endDate, tables, occupied);
+        }
+        return slots.map(slot -> isBookable(slot.getDate(), slot.getTime()) && coversPacing.hasCapacity(slot.getDate(), slot.getTime(), numberOfGuests)
+            ? slot
+            : new AvailabilitySlotDTO(slot.getDate(), slot.getTime(), 0, List.of()));
+    }
+
+    /**
+     * The {@code limit} open slots nearest to the requested one (within {@code windowMinutes}, on the same day or
+     * up to {@code days} days around it) that have a free table for the party. Occupancy for the whole window
+     * is read once, from the occupancy index when it covers the window or with one range query otherwise.
+     */
+    public List<AvailabilitySlotDTO> getAlternativeSlots(LocalDate date, LocalTime time, int numberOfGuests, int limit, int windowMinutes, int days) {
+        log.info("Searching {} alternatives around {} {} (+-{} minutes, +-{} days) for {} guests", limit, date, time, windowMinutes, days, numberOfGuests);
+        AlternativeSlots alternatives = new AlternativeSlots(date, time, windowMinutes, days, openingHours);
+
+        BiFunction<LocalDate, LocalTime, List<Long>> freeTables;
+        if (slotOccupancyIndex.covers(alternatives.firstDate())) {
+            freeTables = (day, slot) -> slotOccupancyIndex.findAvailableTables(day, slot, numberOfGuests).stream()
+                .map(Table::getId)
+                .collect(Collectors.toList());
+        } else {
+            List<Table> tables = tableRepository.findAll().stream()
+                .filter(table -> table.getCapacity() >= numberOfGuests)
+                .sorted(Comparator.comparing(Table::getCapacity).thenComparing(Table::getNumber))
+                .collect(Collectors.toList());
+            List<OccupiedSlotDTO> occupied = reservationRepository.findOccupiedSlots(alternatives.firstDate(), alternatives.lastDate(), Status.freeingStatuses());
+            freeTables = AlternativeSlots.freeTables(tables, occupied, numberOfGuests, durationPolicy);
+        }
+        return alternatives.search(limit, (day, slot) -> coversPacing.hasCapacity(day, slot, numberOfGuests) ? freeTables.apply(day, slot) : List.of());
+    }
+
+    /**
+     * Share of tables taken in every open slot of the month, ordered by date and time.
+     */
+    public List<OccupancyCellDTO> getOccupancyHeatmap(YearMonth month) {
+        log.info("Computing occupancy heatmap for {}", month);
+        return occupancyHeatmap.month(month);
+    }
+
+    /**
+     * Subscribes to the tables of a date becoming taken or free, as they are committed.
+     */
+    public SseEmitter subscribeToAvailability(LocalDate date) {
+        log.info("Opening availability stream for {}", date);
+        return availabilityStream.subscribe(date);
+    }
+
+    @Transactional
     public Reservation createReservation(Reservation reservation) {
+        if (reservation.getStatus() == Status.HELD) {
+            throw new IllegalArgumentException("Holds are created with POST /api/reservations/holds");
+        }
+        Reservation savedReservation = book(reservation);
+        sendToExternalSystems(savedReservation);
+        return savedReservation;
+    }
+
+    /**
+     * Holds a table for a guest in checkout until {@code expiresAt}: a reservation in status {@link Status#HELD}
+     * that occupies its table like a booking but is not sent to the external systems until it is confirmed.
+     */
+    @Transactional
+    public Reservation createHold(Reservation reservation, Instant expiresAt) {
+        reservation.setStatus(Status.HELD);
+        reservation.setHoldExpiresAt(expiresAt);
+        Reservation hold = book(reservation);
+        log.info("Table {} held as reservation {} until {}", hold.getTable().getNumber(), hold.getId(), expiresAt);
+        return hold;
+    }
+
+    /**
+     * Turns an unexpired hold into a booked reservation. The status changes with a conditional update, so a
+     * hold released or expired at the same moment is either confirmed or released, never both.
+     */
+    @Transactional
+    public Reservation confirmHold(Long id, Instant now) {
+        Reservation hold = findHold(id);
+        if (!hold.getHoldExpiresAt().isAfter(now)) {
+            throw new IllegalStateException("Hold " + id + " expired at " + hold.getHoldExpiresAt());
+        }
+        if (reservationRepository.confirmHold(id, now, Status.HELD, Status.BOOKED) == 0) {
+            throw new IllegalStateException("Hold " + id + " was released or expired while it was being confirmed");
+        }
+        hold.setStatus(Status.BOOKED);
+        hold.setHoldExpiresAt(null);
+        eventPublisher.publishEvent(new ReservationChangedEvent(hold, Status.HELD));
+        sendToExternalSystems(hold);
+        return hold;
+    }
+
+    /**
+     * Frees the table of a hold before it expires, for example when the guest leaves checkout. Releasing a hold
+     * that has already been released or has expired does nothing.
+     */
+    @Transactional
+    public void releaseHold(Long id) {
+        Reservation reservation = reservationRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Hold not found with id: " + id));
+        boolean released = reservation.getStatus() == Status.CANCELLED && reservation.getHoldExpiresAt() != null;
+        if (!released && !release(requireHold(reservation))) {
+            log.info("Hold {} was confirmed or released meanwhile, nothing to release", id);
+        }
+    }
+
+    /**
+     * Releases those of the given holds that are still held and due at {@code now}; returns how many were released.
+     */
+    @Transactional
+    public int expireHolds(Collection<Long> ids, Instant now) {
+        int expired = 0;
+        for (Reservation reservation : reservationRepository.findAllById(ids)) {
+            if (reservation.getStatus() == Status.HELD && !reservation.getHoldExpiresAt().isAfter(now) && release(reservation)) {
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    private Reservation findHold(Long id) {
+        return requireHold(reservationRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Hold not found with id: " + id)));
+    }
+
+    private static Reservation requireHold(Reservation reservation) {
+        if (reservation.getStatus() != Status.HELD) {
+            throw new IllegalStateException("Reservation " + reservation.getId() + " is not a hold");
+        }
+        return reservation;
+    }
+
+    /**
+     * Cancels the hold if it is still held; false if it was confirmed or released meanwhile. Keeps
+     * hold_expires_at so a released hold can still be told apart from a cancelled booking.
+     */
+    private boolean release(Reservation hold) {
+        if (reservationRepository.freeAll(List.of(hold.getId()), Status.HELD, Status.CANCELLED) == 0) {
+            return false;
+        }
+        hold.setStatus(Status.CANCELLED);
+        hold.setSlotHold(null);
+        eventPublisher.publishEvent(new ReservationChangedEvent(hold, Status.HELD));
+        log.info("Hold {} released", hold.getId());
+        return true;
+    }
+
+    private Reservation book(Reservation reservation) {
+        requireOpen(reservation.getDate(), reservation.getTime());
+        coversPacing.acquire(reservation.getDate(), reservation.getTime(), reservation.getNumberOfGuests());
+        int durationMinutes = durationPolicy.minutesFor(reservation);
+        reservation.setDurationMinutes(durationMinutes);
+        reservation.setEndTime(durationPolicy.endTime(reservation.getTime(), durationMinutes));
+
+        Reservation savedReservation;
+        if (reservation.getTable() == null) {
+            savedReservation = claimBestTable(reservation);
+        } else {
+            // the request body only carries the table id, so the location comes from the stored table
+            String requestedLocation = reservation.getLocation();
+            reservation.setLocation(Optional.ofNullable(reservation.getTable().getId())
+                .flatMap(tableRepository::findById)
+                .map(Table::getLocation)
+                .orElse(reservation.getTable().getLocation()));
+            requireLocation(reservation.getTable().getNumber(), reservation.getLocation(), requestedLocation);
+            logBooking(reservation);
+            savedReservation = slotLocks.withLock(reservation.getTable().getId(), reservation.getDate(),
+                reservation.getTime(), reservation.getEndTime(), () -> claimTable(reservation));
+        }
+        eventPublisher.publishEvent(new ReservationChangedEvent(savedReservation, null));
+        return savedReservation;
+    }
+
+    /**
+     * Claims the best fitting free table for the reservation's dining window at its requested location. A table
+     * taken by a concurrent booking since the candidates were listed is skipped in favour of the next one.
+     */
+    private Reservation claimBestTable(Reservation reservation) {
+        String requestedLocation = reservation.getLocation();
+        Iterator<TableAllocation> candidates = tableAllocator.candidates(reservation.getDate(), reservation.getTime(),
+            reservation.getNumberOfGuests(), reservation.getDurationMinutes(), requestedLocation).iterator();
+        while (candidates.hasNext()) {
+            TableAllocation allocation = candidates.next();
+            reservation.setTable(allocation.table());
+            reservation.setLocation(allocation.table().getLocation());
+            Optional<Reservation> claimed = slotLocks.tryWithLock(allocation.table().getId(), reservation.getDate(),
+                reservation.getTime(), reservation.getEndTime(), () -> tryClaimTable(reservation));
+            if (claimed.isPresent()) {
+                log.info("Auto-assigned table {} leaving {} seats empty", allocation.table().getNumber(), allocation.wastedSeats());
+                logBooking(reservation);
+                return claimed.get();
+            }
+            log.info("Table {} was taken meanwhile, trying the next one", allocation.table().getNumber());
+        }
+        reservation.setTable(null);
+        reservation.setLocation(requestedLocation);
+        throw new IllegalStateException("No table available for " + reservation.getNumberOfGuests()
+            + " guests on " + reservation.getDate() + " at " + reservation.getTime()
+            + (requestedLocation != null ? " at " + requestedLocation : ""));
+    }
+
+    private static void logBooking(Reservation reservation) {
         log.info("Creating reservation for user: {}, table: {}, date: {}, time: {}", 
             reservation.getUser().getName(), 
             reservation.getTable().getNumber(),
             reservation.getDate(),
             reservation.getTime());
-            
-        Reservation savedReservation = reservationRepository.save(reservation);
-        ReservationDTO reservationDTO = convertToDTO(savedReservation);
-        
+    }
+
+    /**
+     * Saves the reservation if its table is still free for the whole dining window. Runs under the table's
+     * slot locks; across instances the unique constraint only catches a conflicting booking with the same start time.
+     */
+    private Reservation claimTable(Reservation reservation) {
+        return tryClaimTable(reservation)
+            .orElseThrow(() -> new IllegalStateException("Table " + reservation.getTable().getNumber() + " is already booked on "
+                + reservation.getDate() + " at " + reservation.getTime()));
+    }
+
+    /**
+     * {@link #claimTable}, but empty when an overlapping reservation already holds the table. A constraint
+     * violation still fails, since it leaves the transaction rollback-only.
+     */
+    private Optional<Reservation> tryClaimTable(Reservation reservation) {
+        Long tableId = reservation.getTable().getId();
+        if (tableId != null && reservationRepository.existsOverlapping(List.of(tableId), reservation.getDate(), reservation.getTime(),
+                reservation.getEndTime(), Status.freeingStatuses())) {
+            return Optional.empty();
+        }
         try {
-            crmIntegrationService.sendReservationToCrm(reservationDTO);
-            gastroIntegrationService.sendReservationToGastro(reservationDTO);
-            log.info("Reservation {} created successfully and sent to external systems", savedReservation.getId());
-        } catch (Exception e) {
-            log.error("Failed to send reservation to external systems: {}", e.getMessage(), e);
-            // Continue with the reservation creation even if external systems fail
+            // identity ids make save insert right away, so a constraint violation surfaces here
+            return Optional.of(reservationRepository.save(reservation));
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException("Table " + reservation.getTable().getNumber() + " is already booked on "
+                + reservation.getDate() + " at " + reservation.getTime(), e);
+        }
+    }
+
+    /**
+     * Smallest set of adjacent free tables at the location (any location when {@code null}) that seats the
+     * party, or an empty list when none is free.
+     */
+    public List<Table> getAvailableCombination(LocalDate date, LocalTime time, int numberOfGuests, String location) {
+        log.info("Checking table combinations for date: {}, time: {}, guests: {}, location: {}", date, time, numberOfGuests, location);
+        if (!isBookable(date, time)) {
+            return List.of();
+        }
+        return tableAllocator.allocateCombination(date, time, numberOfGuests, durationPolicy.minutesFor(numberOfGuests), location)
+            .map(TableCombination::tables)
+            .orElse(List.of());
+    }
+
+    /**
+     * Books every table of a combination for one party, or none of them. The member tables are claimed under
+     * the same slot locks as single bookings, so a combination and a single booking sharing a table cannot
+     * both pass the overlap check.
+     */
+    @Transactional
+    public List<Reservation> createCombinedReservation(CombinedReservationRequest request) {
+        requireOpen(request.getDate(), request.getTime());
+        int numberOfGuests = request.getNumberOfGuests();
+        int durationMinutes = durationPolicy.minutesFor(request.getDurationMinutes(), numberOfGuests);
+        TableCombination combination = request.getTableIds() == null || request.getTableIds().isEmpty()
+            ? tableAllocator.allocateCombination(request.getDate(), request.getTime(), numberOfGuests, durationMinutes, request.getLocation())
+                .orElseThrow(() -> new IllegalStateException("No table combination available for " + numberOfGuests
+                    + " guests on " + request.getDate() + " at " + request.getTime()))
+            : tableAllocator.combinationOf(request.getTableIds(), numberOfGuests)
+                .orElseThrow(() -> new IllegalArgumentException("Tables " + request.getTableIds()
+                    + " are not adjacent or cannot seat " + numberOfGuests + " guests"));
+        requireLocation(combination.tables().get(0).getNumber(), combination.tables().get(0).getLocation(), request.getLocation());
+        log.info("Claiming tables {} for {} guests on {} at {}", combination.tableIds(), numberOfGuests, request.getDate(), request.getTime());
+        coversPacing.acquire(request.getDate(), request.getTime(), numberOfGuests);
+
+        List<Table> tables = tableRepository.findAllById(combination.tableIds()).stream()
+            .sorted(Comparator.comparing(Table::getId))
+            .collect(Collectors.toList());
+        if (tables.size() != combination.size()) {
+            throw new ResourceNotFoundException("Tables not found: " + combination.tableIds());
+        }
+        LocalTime endTime = durationPolicy.endTime(request.getTime(), durationMinutes);
+
+        String combinationId = UUID.randomUUID().toString();
+        List<Reservation> reservations = new ArrayList<>(tables.size());
+        int unseated = numberOfGuests;
+        for (int i = 0; i < tables.size(); i++) {
+            Table table = tables.get(i);
+            // fill tables in order but leave at least one guest for each remaining table
+            int seated = Math.min(table.getCapacity(), unseated - (tables.size() - i - 1));
+            unseated -= seated;
+
+            Reservation reservation = new Reservation();
+            reservation.setUser(request.getUser());
+            reservation.setTable(table);
+            reservation.setDate(request.getDate());
+            reservation.setTime(request.getTime());
+            reservation.setNumberOfGuests(seated);
+            reservation.setDurationMinutes(durationMinutes);
+            reservation.setEndTime(endTime);
+            reservation.setStatus(Status.BOOKED);
+            reservation.setCombinationId(combinationId);
+            reservation.setLocation(table.getLocation());
+            reservations.add(reservation);
+        }
+
+        List<Reservation> savedReservations = slotLocks.withLocks(reservations, () -> claimTables(combination, reservations));
+        savedReservations.forEach(saved -> eventPublisher.publishEvent(new ReservationChangedEvent(saved, null)));
+        integrationOutbox.enqueue(savedReservations.stream().map(this::convertToDTO).collect(Collectors.toList()));
+        return savedReservations;
+    }
+
+    /**
+     * {@link #claimTable} for all the reservations of a combination at once.
+     */
+    private List<Reservation> claimTables(TableCombination combination, List<Reservation> reservations) {
+        Reservation first = reservations.get(0);
+        if (reservationRepository.existsOverlapping(combination.tableIds(), first.getDate(), first.getTime(), first.getEndTime(),
+                Status.freeingStatuses())) {
+            throw new IllegalStateException("Tables " + combination.tableIds() + " are no longer free on "
+                + first.getDate() + " at " + first.getTime());
+        }
+        try {
+            return reservationRepository.saveAll(reservations);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException("Tables " + combination.tableIds() + " are no longer free on "
+                + first.getDate() + " at " + first.getTime(), e);
+        }
+    }
+
+    @Transactional
+    public Reservation cancel(Long id) {
+        return transition(id, Status.CANCELLED);
+    }
+
+    @Transactional
+    public Reservation complete(Long id) {
+        return transition(id, Status.COMPLETED);
+    }
+
+    @Transactional
+    public Reservation markNoShow(Long id) {
+        return transition(id, Status.NO_SHOW);
+    }
+
+    /**
+     * Cancels every booked reservation whose dining window overlaps [from, to) on the date, for example when the
+     * restaurant closes for a private event. One query reads the affected reservations as projections and one
+     * UPDATE cancels them, instead of loading and saving each; a single {@link ReservationsStatusChangedEvent}
+     * updates the availability views and the external systems get one outbox batch. Fails without cancelling
+     * anything if one of them changes status while this runs.
+     */
+    @Transactional
+    public List<Long> cancelBooked(LocalDate date, LocalTime from, LocalTime to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Cancellation window start " + from + " must be before its end " + to);
+        }
+        List<ReservationSummaryDTO> booked = reservationRepository.findOverlappingByStatus(date, from, to, Status.BOOKED);
+        if (booked.isEmpty()) {
+            log.info("No booked reservations to cancel on {} between {} and {}", date, from, to);
+            return List.of();
+        }
+        List<Long> ids = booked.stream().map(ReservationSummaryDTO::getReservationId).collect(Collectors.toList());
+        int cancelled = reservationRepository.freeAll(ids, Status.BOOKED, Status.CANCELLED);
+        if (cancelled != ids.size()) {
+            throw new IllegalStateException("Reservations on " + date + " between " + from + " and " + to
+                + " changed while they were being cancelled, try again");
+        }
+
+        eventPublisher.publishEvent(new ReservationsStatusChangedEvent(date, Status.BOOKED, Status.CANCELLED, booked.stream()
+            .map(summary -> new OccupiedSlotDTO(summary.getReservationId(), summary.getTableId(), summary.getDate(), summary.getTime(),
+                summary.getEndTime(), summary.getNumberOfGuests(), summary.getDurationMinutes()))
+            .collect(Collectors.toList())));
+        integrationOutbox.enqueue(booked.stream()
+            .map(summary -> new ReservationDTO(summary.getReservationId(), summary.getCustomerName(), summary.getCustomerEmail(),
+                summary.getCustomerPhoneNumber(), summary.getTableNumber() == null ? 0 : summary.getTableNumber(),
+                LocalDateTime.of(summary.getDate(), summary.getTime()),
+                Status.CANCELLED.toString()))
+            .collect(Collectors.toList()));
+        log.info("Cancelled {} booked reservations on {} between {} and {}", cancelled, date, from, to);
+        return ids;
+    }
+
+    /**
+     * Moves the reservation to {@code status}. The reservations of a combined booking seat one party, so every
+     * reservation sharing its combination id moves with it.
+     */
+    private Reservation transition(Long id, Status status) {
+        Reservation reservation = reservationRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Reservation not found with id: " + id));
+        Status previousStatus = reservation.getStatus();
+        if (previousStatus == status) {
+            return reservation;
+        }
+        List<Reservation> reservations = reservation.getCombinationId() == null
+            ? List.of(reservation)
+            : reservationRepository.findByCombinationId(reservation.getCombinationId());
+        for (Reservation member : reservations) {
+            if (member.getStatus() != status && !Status.canBecome(member.getStatus(), status)) {
+                throw new IllegalStateException("Reservation " + member.getId() + " is " + member.getStatus() + " and cannot become " + status);
+            }
+        }
+        log.info("Changing status of reservation {} from {} to {}", id, previousStatus, status);
+        Reservation savedReservation = reservation;
+        for (Reservation member : reservations) {
+            Status memberPreviousStatus = member.getStatus();
+            if (memberPreviousStatus == status) {
+                continue;
+            }
+            member.setStatus(status);
+            Reservation savedMember = reservationRepository.save(member);
+            eventPublisher.publishEvent(new ReservationChangedEvent(savedMember, memberPreviousStatus));
+            integrationOutbox.enqueue(convertToDTO(savedMember));
+            if (id.equals(member.getId())) {
+                savedReservation = savedMember;
+            }
+        }
+        if (reservations.size() > 1) {
+            log.info("Changed {} reservations of combination {} to {}", reservations.size(), reservation.getCombinationId(), status);
         }
-        
         return savedReservation;
     }
 
@@ -80,6 +609,42 @@ public class ReservationService {
         return reservationRepository.findAll();
     }
 
+    private static void requireLocation(int tableNumber, String tableLocation, String requestedLocation) {
+        if (requestedLocation != null && !requestedLocation.equals(tableLocation)) {
+            throw new IllegalArgumentException("Table " + tableNumber + " is at " + tableLocation + ", not at " + requestedLocation);
+        }
+    }
+
+    private void requireOpen(LocalDate date, LocalTime time) {
+        if (!openingHours.isOpen(date, time)) {
+            throw new IllegalArgumentException("Restaurant is closed on " + date + " at " + time);
+        }
+        if (!DiningDurationPolicy.hasWindow(time)) {
+            throw new IllegalArgumentException("Reservations must start before " + DiningDurationPolicy.END_OF_DAY + ", not at " + time);
+        }
+    }
+
+    // open, and late enough in the day that a reservation starting then still has a dining window
+    private boolean isBookable(LocalDate date, LocalTime time) {
+        return openingHours.isOpen(date, time) && DiningDurationPolicy.hasWindow(time);
+    }
+
+    // written to the outbox in the booking transaction; OutboxRelay sends it to CRM and Gastro after commit
+    private void sendToExternalSystems(Reservation reservation) {
+        integrationOutbox.enqueue(convertToDTO(reservation));
+        log.info("Reservation {} created and queued for external systems", reservation.getId());
+    }
+
+    private Table toTable(TableDTO tableDTO) {
+        Table table = new Table();
+        table.setId(tableDTO.getId());
+        table.setNumber(tableDTO.getNumber());
+        table.setCapacity(tableDTO.getCapacity());
+        table.setCombinationGroup(tableDTO.getCombinationGroup());
+        table.setLocation(tableDTO.getLocation());
+        return table;
+    }
+
     private ReservationDTO convertToDTO(Reservation reservation) {
         return new ReservationDTO(
             reservation.getId(), 
@@ -3,8 +3,10 @@ package com.restaurant.booking.service;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import com.restaurant.booking.event.TableChangedEvent;
 import com.restaurant.booking.model.Table;
 import com.restaurant.booking.repository.TableRepository;
 
@@ -17,6 +19,7 @@ import lombok.extern.slf4j.Slf4j;
 public class TableService {
     
     private final TableRepository tableRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     public List<Table> getAllTables() {
         log.info("Retrieving all tables");
@@ -36,7 +39,9 @@ public class TableService {
     public Table createTable(Table table) {
         log.info("Creating new table with number: {}", table.getNumber());
         validateTable(table);
-        return tableRepository.save(table);
+        Table savedTable = tableRepository.save(table);
+        eventPublisher.publishEvent(new TableChangedEvent(savedTable.getId()));
+        return savedTable;
     }
     
     public Table updateTable(Long id, Table tableDetails) {
@@ -46,9 +51,18 @@ public class TableService {
         
         table.setNumber(tableDetails.getNumber());
         table.setCapacity(tableDetails.getCapacity());
+        // a body without these fields keeps the table in its group and at its location
+        if (tableDetails.getCombinationGroup() != null) {
+            table.setCombinationGroup(tableDetails.getCombinationGroup());
+        }
+        if (tableDetails.getLocation() != null) {
+            table.setLocation(tableDetails.getLocation());
+        }
         
         validateTable(table);
-        return tableRepository.save(table);
+        Table savedTable = tableRepository.save(table);
+        eventPublisher.publishEvent(new TableChangedEvent(savedTable.getId()));
+        return savedTable;
     }
     
     public void deleteTable(Long id) {
@@ -57,6 +71,7 @@ public class TableService {
             throw new IllegalArgumentException("Table not found with id: " + id);
         }
         tableRepository.deleteById(id);
+        eventPublisher.publishEvent(new TableChangedEvent(id));
     }
     
     public boolean tableExists(Long id) {
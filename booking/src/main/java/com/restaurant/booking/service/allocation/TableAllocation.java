@@ -0,0 +1,13 @@
+package com.restaurant.booking.service.allocation;
+
+import com.restaurant.booking.model.Table;
+
+/**
+ * A table picked for a party, with the number of seats left empty at it.
+ */
+public record TableAllocation(Table table, int wastedSeats) {
+
+    static TableAllocation of(Table table, int numberOfGuests) {
+        return new TableAllocation(table, table.getCapacity() - numberOfGuests);
+    }
+}
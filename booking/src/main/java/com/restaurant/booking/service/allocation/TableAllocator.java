@@ -0,0 +1,172 @@
+package com.restaurant.booking.service.allocation;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.restaurant.booking.dto.TableDTO;
+import com.restaurant.booking.event.TableChangedEvent;
+import com.restaurant.booking.model.Status;
+import com.restaurant.booking.model.Table;
+import com.restaurant.booking.repository.ReservationRepository;
+import com.restaurant.booking.repository.TableRepository;
+import com.restaurant.booking.service.availability.DiningDurationPolicy;
+import com.restaurant.booking.service.availability.SlotOccupancyIndex;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Best-fit table allocation: picks the smallest free table that seats the party, so small parties
+ * do not take the large tables that later groups need.
+ * <p>
+ * Tables are kept in one bucket per capacity (1..{@value #MAX_CAPACITY}, as enforced by
+ * {@code TableService}), each ordered by table number. An allocation walks the buckets upwards from the
+ * party size and stops at the first free table, so the first hit is also the one with the fewest wasted seats.
+ */
+@Slf4j
+@Component
+public class TableAllocator {
+
+    public static final int MAX_CAPACITY = 10;
+
+    private final TableRepository tableRepository;
+    private final ReservationRepository reservationRepository;
+    private final SlotOccupancyIndex slotOccupancyIndex;
+    private final TableCombinationIndex combinationIndex;
+    private final DiningDurationPolicy durationPolicy;
+
+    private volatile Table[][] buckets = bucket(List.of());
+
+    public TableAllocator(TableRepository tableRepository, ReservationRepository reservationRepository,
+                          SlotOccupancyIndex slotOccupancyIndex, TableCombinationIndex combinationIndex,
+                          DiningDurationPolicy durationPolicy) {
+        this.tableRepository = tableRepository;
+        this.reservationRepository = reservationRepository;
+        this.slotOccupancyIndex = slotOccupancyIndex;
+        this.combinationIndex = combinationIndex;
+        this.durationPolicy = durationPolicy;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuild(tableRepository.findAll());
+    }
+
+    void rebuild(List<Table> tables) {
+        buckets = bucket(tables);
+        log.info("Table allocator bucketed {} tables by capacity", tables.size());
+    }
+
+    @EventListener
+    public void onTableChanged(TableChangedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * The best fitting table at the location that is free for the whole {@code durationMinutes}, if any.
+     * A {@code null} location allows tables of every location.
+     */
+    public Optional<TableAllocation> allocate(LocalDate date, LocalTime time, int numberOfGuests, int durationMinutes, String location) {
+        return candidates(date, time, numberOfGuests, durationMinutes, location).findFirst();
+    }
+
+    /**
+     * Every table at the location that is free for the whole {@code durationMinutes}, best fit first, so a
+     * booking that loses its first choice to a concurrent one can move on to the next. Tables are checked
+     * lazily as the stream is consumed when the occupancy index covers the date.
+     */
+    public Stream<TableAllocation> candidates(LocalDate date, LocalTime time, int numberOfGuests, int durationMinutes, String location) {
+        if (numberOfGuests < 1 || numberOfGuests > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Number of guests must be between 1 and " + MAX_CAPACITY);
+        }
+        LocalTime endTime = durationPolicy.endTime(time, durationMinutes);
+
+        if (slotOccupancyIndex.covers(date)) {
+            Table[][] snapshot = buckets;
+            return IntStream.rangeClosed(numberOfGuests, MAX_CAPACITY)
+                .boxed()
+                .flatMap(capacity -> Arrays.stream(snapshot[capacity]))
+                .filter(table -> isAt(table, location) && slotOccupancyIndex.isFree(date, time, endTime, table.getId()))
+                .map(table -> TableAllocation.of(table, numberOfGuests));
+        }
+
+        // the anti-join already orders by capacity and number, so its rows come best fit first
+        return findAvailableTables(date, time, endTime, numberOfGuests, location).stream()
+            .map(tableDTO -> TableAllocation.of(new Table(tableDTO.getId(), tableDTO.getNumber(), tableDTO.getCapacity(),
+                tableDTO.getCombinationGroup(), tableDTO.getLocation(), null), numberOfGuests));
+    }
+
+    /**
+     * The smallest set of adjacent tables at the location that are all free for the whole
+     * {@code durationMinutes}, if any. Parties that fit at one free table get that table alone. A {@code null}
+     * location allows combinations at every location.
+     */
+    public Optional<TableCombination> allocateCombination(LocalDate date, LocalTime time, int numberOfGuests, int durationMinutes, String location) {
+        List<TableCombination> candidates = combinationIndex.candidates(numberOfGuests);
+        Predicate<Long> free = freeTables(date, time, durationPolicy.endTime(time, durationMinutes), location);
+        return candidates.stream()
+            // members of a combination always share a location
+            .filter(combination -> isAt(combination.tables().get(0), location))
+            .filter(combination -> combination.tables().stream().allMatch(table -> free.test(table.getId())))
+            .findFirst();
+    }
+
+    /**
+     * The combination made up of exactly the given tables, if they are adjacent and seat the party.
+     */
+    public Optional<TableCombination> combinationOf(List<Long> tableIds, int numberOfGuests) {
+        return combinationIndex.find(tableIds, numberOfGuests);
+    }
+
+    private Predicate<Long> freeTables(LocalDate date, LocalTime time, LocalTime endTime, String location) {
+        if (slotOccupancyIndex.covers(date)) {
+            return tableId -> slotOccupancyIndex.isFree(date, time, endTime, tableId);
+        }
+        Set<Long> free = findAvailableTables(date, time, endTime, 1, location).stream()
+            .map(TableDTO::getId)
+            .collect(Collectors.toSet());
+        return free::contains;
+    }
+
+    private List<TableDTO> findAvailableTables(LocalDate date, LocalTime time, LocalTime endTime, int numberOfGuests, String location) {
+        return location == null
+            ? reservationRepository.findAvailableTables(date, time, endTime, numberOfGuests, Status.freeingStatuses())
+            : reservationRepository.findAvailableTablesAtLocation(location, date, time, endTime, numberOfGuests, Status.freeingStatuses());
+    }
+
+    private static boolean isAt(Table table, String location) {
+        return location == null || location.equals(table.getLocation());
+    }
+
+    private static Table[][] bucket(List<Table> tables) {
+        List<List<Table>> byCapacity = new ArrayList<>(MAX_CAPACITY + 1);
+        for (int capacity = 0; capacity <= MAX_CAPACITY; capacity++) {
+            byCapacity.add(new ArrayList<>());
+        }
+        for (Table table : tables) {
+            if (table.getCapacity() > 0) {
+                byCapacity.get(Math.min(table.getCapacity(), MAX_CAPACITY)).add(table);
+            }
+        }
+        Table[][] buckets = new Table[MAX_CAPACITY + 1][];
+        for (int capacity = 0; capacity <= MAX_CAPACITY; capacity++) {
+            buckets[capacity] = byCapacity.get(capacity).stream()
+                .sorted(Comparator.comparingInt(Table::getCapacity).thenComparingInt(Table::getNumber))
+                .toArray(Table[]::new);
+        }
+        return buckets;
+    }
+}
@@ -0,0 +1,27 @@
+package com.restaurant.booking.service.allocation;
+
+import java.util.List;
+
+import com.restaurant.booking.model.Table;
+
+/**
+ * Adjacent tables, ordered by number, that can seat one party together. A single table is a combination of one.
+ */
+public record TableCombination(List<Table> tables, int capacity) {
+
+    public static TableCombination of(List<Table> tables) {
+        return new TableCombination(List.copyOf(tables), tables.stream().mapToInt(Table::getCapacity).sum());
+    }
+
+    public int size() {
+        return tables.size();
+    }
+
+    public int wastedSeats(int numberOfGuests) {
+        return capacity - numberOfGuests;
+    }
+
+    public List<Long> tableIds() {
+        return tables.stream().map(Table::getId).toList();
+    }
+}
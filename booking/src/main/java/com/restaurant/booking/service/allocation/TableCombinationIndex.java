@@ -0,0 +1,119 @@
+package com.restaurant.booking.service.allocation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.restaurant.booking.event.TableChangedEvent;
+import com.restaurant.booking.model.Table;
+import com.restaurant.booking.repository.TableRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Every valid way to seat a party at one table or at adjacent tables pushed together, precomputed
+ * whenever the tables change.
+ * <p>
+ * Tables are adjacent when they share a {@code combinationGroup} and no other table of that group has a
+ * number between theirs, so a combination is a run of up to {@code booking.allocation.combination.max-tables}
+ * consecutive tables of one group. For every party size the candidates that seat it are kept in preference
+ * order (fewest tables, then fewest wasted seats, then lowest table number), so a search only has to find
+ * the first candidate whose tables are all free.
+ */
+@Slf4j
+@Component
+public class TableCombinationIndex {
+
+    public static final int MAX_PARTY_SIZE = 40;
+
+    private static final Comparator<TableCombination> PREFERENCE = Comparator
+        .comparingInt(TableCombination::size)
+        .thenComparingInt(TableCombination::capacity)
+        .thenComparingInt(combination -> combination.tables().get(0).getNumber());
+
+    private final TableRepository tableRepository;
+    private final int maxTables;
+
+    private volatile TableCombination[][] candidatesByPartySize = new TableCombination[MAX_PARTY_SIZE + 1][0];
+
+    public TableCombinationIndex(TableRepository tableRepository,
+                                 @Value("${booking.allocation.combination.max-tables:4}") int maxTables) {
+        if (maxTables < 1) {
+            throw new IllegalArgumentException("Combinations must allow at least one table");
+        }
+        this.tableRepository = tableRepository;
+        this.maxTables = maxTables;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuild(tableRepository.findAll());
+    }
+
+    synchronized void rebuild(List<Table> tables) {
+        List<TableCombination> combinations = new ArrayList<>();
+        Map<String, List<Table>> groups = new TreeMap<>();
+        for (Table table : tables) {
+            combinations.add(TableCombination.of(List.of(table)));
+            if (table.getCombinationGroup() != null && !table.getCombinationGroup().isBlank()) {
+                // group names are only unique within a location
+                groups.computeIfAbsent(table.getLocation() + "/" + table.getCombinationGroup(), group -> new ArrayList<>()).add(table);
+            }
+        }
+        for (List<Table> group : groups.values()) {
+            group.sort(Comparator.comparingInt(Table::getNumber));
+            for (int first = 0; first < group.size(); first++) {
+                for (int size = 2; size <= maxTables && first + size <= group.size(); size++) {
+                    combinations.add(TableCombination.of(group.subList(first, first + size)));
+                }
+            }
+        }
+        combinations.sort(PREFERENCE);
+
+        TableCombination[][] candidates = new TableCombination[MAX_PARTY_SIZE + 1][];
+        for (int partySize = 0; partySize <= MAX_PARTY_SIZE; partySize++) {
+            int seats = partySize;
+            candidates[partySize] = combinations.stream()
+                .filter(combination -> combination.capacity() >= seats && combination.size() <= seats)
+                .toArray(TableCombination[]::new);
+        }
+        candidatesByPartySize = candidates;
+        log.info("Table combination index built with {} combinations over {} tables in {} groups",
+            combinations.size(), tables.size(), groups.size());
+    }
+
+    @EventListener
+    public void onTableChanged(TableChangedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Combinations that seat the party, most preferred first. Every table of a candidate gets at least one guest.
+     */
+    public List<TableCombination> candidates(int numberOfGuests) {
+        if (numberOfGuests < 1 || numberOfGuests > MAX_PARTY_SIZE) {
+            throw new IllegalArgumentException("Number of guests must be between 1 and " + MAX_PARTY_SIZE);
+        }
+        return Arrays.asList(candidatesByPartySize[numberOfGuests]);
+    }
+
+    /**
+     * The combination made up of exactly the given tables, if they are adjacent and seat the party.
+     */
+    public Optional<TableCombination> find(List<Long> tableIds, int numberOfGuests) {
+        List<Long> sorted = tableIds.stream().sorted().toList();
+        return candidates(numberOfGuests).stream()
+            .filter(combination -> combination.size() == sorted.size()
+                && combination.tableIds().stream().sorted().toList().equals(sorted))
+            .findFirst();
+    }
+}
@@ -0,0 +1,122 @@
+package com.restaurant.booking.service.availability;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import com.restaurant.booking.dto.AvailabilitySlotDTO;
+import com.restaurant.booking.dto.OccupiedSlotDTO;
+import com.restaurant.booking.model.Table;
+
+/**
+ * Open slots around a requested date and time, ordered by how far they are from it.
+ * <p>
+ * Candidates are the {@link OpeningHours} slots within {@code windowMinutes} of the requested time on the
+ * requested date and on up to {@code days} days before and after it; a day away counts as a full day of
+ * minutes, so every slot of the requested date comes first. {@link #search} checks candidates outward
+ * until enough free ones are found, against data that was loaded once for the whole window.
+ */
+public final class AlternativeSlots {
+
+    public static final int MAX_RESULTS = 20;
+    public static final int MAX_WINDOW_MINUTES = 360;
+    public static final int MAX_DAYS = 7;
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final LocalDate firstDate;
+    private final LocalDate lastDate;
+    private final List<Candidate> candidates = new ArrayList<>();
+
+    public AlternativeSlots(LocalDate date, LocalTime time, int windowMinutes, int days, OpeningHours openingHours) {
+        if (windowMinutes < 0 || windowMinutes > MAX_WINDOW_MINUTES) {
+            throw new IllegalArgumentException("Search window must be between 0 and " + MAX_WINDOW_MINUTES + " minutes");
+        }
+        if (days < 0 || days > MAX_DAYS) {
+            throw new IllegalArgumentException("Days to search must be between 0 and " + MAX_DAYS);
+        }
+        this.firstDate = date.minusDays(days);
+        this.lastDate = date.plusDays(days);
+        int minute = DiningDurationPolicy.minuteOfDay(time);
+        for (int offset = -days; offset <= days; offset++) {
+            LocalDate day = date.plusDays(offset);
+            for (short slot : openingHours.slots(day)) {
+                int distance = Math.abs(slot - minute);
+                if (distance <= windowMinutes) {
+                    candidates.add(new Candidate(day, OpeningHours.toTime(slot), Math.abs(offset) * MINUTES_PER_DAY + distance));
+                }
+            }
+        }
+        candidates.sort(Comparator.comparingInt(Candidate::distance)
+            .thenComparing(Candidate::date)
+            .thenComparing(Candidate::time));
+    }
+
+    public LocalDate firstDate() {
+        return firstDate;
+    }
+
+    public LocalDate lastDate() {
+        return lastDate;
+    }
+
+    /**
+     * The nearest {@code limit} candidates that have at least one free table, nearest first.
+     *
+     * @param freeTables ids of the tables free for the party at a date and time
+     */
+    public List<AvailabilitySlotDTO> search(int limit, BiFunction<LocalDate, LocalTime, List<Long>> freeTables) {
+        if (limit < 1 || limit > MAX_RESULTS) {
+            throw new IllegalArgumentException("Number of alternatives must be between 1 and " + MAX_RESULTS);
+        }
+        List<AvailabilitySlotDTO> found = new ArrayList<>(limit);
+        for (Candidate candidate : candidates) {
+            List<Long> tableIds = freeTables.apply(candidate.date(), candidate.time());
+            if (!tableIds.isEmpty()) {
+                found.add(new AvailabilitySlotDTO(candidate.date(), candidate.time(), tableIds.size(), tableIds));
+                if (found.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Free tables for a party, checked in memory against occupied slots loaded once for the whole search window.
+     *
+     * @param tables tables that seat the party, in the order results should list them
+     */
+    public static BiFunction<LocalDate, LocalTime, List<Long>> freeTables(List<Table> tables, List<OccupiedSlotDTO> occupied,
+                                                                           int numberOfGuests, DiningDurationPolicy durationPolicy) {
+        Map<LocalDate, Map<Long, List<int[]>>> byDay = new HashMap<>();
+        for (OccupiedSlotDTO slot : occupied) {
+            byDay.computeIfAbsent(slot.getDate(), d -> new HashMap<>())
+                .computeIfAbsent(slot.getTableId(), id -> new ArrayList<>())
+                .add(new int[] {DiningDurationPolicy.minuteOfDay(slot.getTime()), DiningDurationPolicy.minuteOfDay(slot.getEndTime())});
+        }
+        int minutes = durationPolicy.minutesFor(numberOfGuests);
+        return (date, time) -> {
+            int start = DiningDurationPolicy.minuteOfDay(time);
+            int end = DiningDurationPolicy.minuteOfDay(durationPolicy.endTime(time, minutes));
+            Map<Long, List<int[]>> day = byDay.getOrDefault(date, Map.of());
+            List<Long> free = new ArrayList<>();
+            for (Table table : tables) {
+                boolean taken = day.getOrDefault(table.getId(), List.of()).stream()
+                    .anyMatch(interval -> interval[0] < end && start < interval[1]);
+                if (!taken) {
+                    free.add(table.getId());
+                }
+            }
+            return free;
+        };
+    }
+
+    private record Candidate(LocalDate date, LocalTime time, int distance) {
+    }
+}
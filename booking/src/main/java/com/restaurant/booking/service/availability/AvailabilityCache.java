@@ -0,0 +1,174 @@
+package com.restaurant.booking.service.availability;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.restaurant.booking.dto.OccupiedSlotDTO;
+import com.restaurant.booking.event.ReservationChangedEvent;
+import com.restaurant.booking.event.ReservationsStatusChangedEvent;
+import com.restaurant.booking.event.TableChangedEvent;
+import com.restaurant.booking.model.Reservation;
+import com.restaurant.booking.model.Table;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded cache of availability results keyed by date, slot start and party size. Only times on the slot grid
+ * of {@link OpeningHours} are cached; any other time is answered exactly with a direct lookup, because dining
+ * windows are minute-precise, so arbitrary times cannot fragment the cache. Closed times never reach it.
+ * <p>
+ * A reservation change only evicts the entries of its date whose dining window overlaps the reservation
+ * (found with one pass over the keys, which the size bound keeps cheap); a table change evicts everything. Evictions run after the surrounding transaction commits and after the
+ * {@link SlotOccupancyIndex} has applied the same event, and a load racing with an eviction finishes before
+ * the entry is removed, so a stale result never outlives the change that made it stale.
+ * <p>
+ * Concurrent lookups of the same key, cached or not, share one in-flight computation ({@link SingleFlight}),
+ * so a burst of identical requests costs one index or database lookup.
+ * <p>
+ * Database misses go through {@link StaleAvailability}, which answers with the last known result of the slot
+ * when the lookup overruns its deadline or the database is overloaded; hits and dates the
+ * {@link SlotOccupancyIndex} covers never wait on it.
+ * <p>
+ * Hits, misses and size-based evictions are published as the {@code cache.*} meters with
+ * {@code cache=availability}; targeted and full invalidations as {@code booking.availability.cache.invalidations}.
+ */
+@Slf4j
+@Component
+public class AvailabilityCache {
+
+    public static final String CACHE_NAME = "availability";
+
+    private final DiningDurationPolicy durationPolicy;
+    private final OpeningHours openingHours;
+    private final boolean enabled;
+    private final Cache<Key, List<Table>> cache;
+    private final SingleFlight<Key, List<Table>> singleFlight;
+    private final StaleAvailability staleAvailability;
+    private final SlotOccupancyIndex slotOccupancyIndex;
+    private final Counter slotInvalidations;
+    private final Counter fullInvalidations;
+
+    public AvailabilityCache(DiningDurationPolicy durationPolicy, OpeningHours openingHours, StaleAvailability staleAvailability,
+                             SlotOccupancyIndex slotOccupancyIndex, MeterRegistry meterRegistry,
+                             @Value("${booking.availability.cache.enabled:true}") boolean enabled,
+                             @Value("${booking.availability.cache.maximum-size:10000}") long maximumSize,
+                             @Value("${booking.availability.cache.expire-after-write:PT10M}") Duration expireAfterWrite) {
+        this.durationPolicy = durationPolicy;
+        this.openingHours = openingHours;
+        this.staleAvailability = staleAvailability;
+        this.slotOccupancyIndex = slotOccupancyIndex;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.singleFlight = new SingleFlight<>(CACHE_NAME, meterRegistry);
+        this.slotInvalidations = Counter.builder("booking.availability.cache.invalidations")
+            .description("Availability cache entries invalidated by writes")
+            .tag("scope", "slot")
+            .register(meterRegistry);
+        this.fullInvalidations = Counter.builder("booking.availability.cache.invalidations")
+            .description("Availability cache entries invalidated by writes")
+            .tag("scope", "all")
+            .register(meterRegistry);
+    }
+
+    /**
+     * The cached result for the slot, computing and caching it with {@code loader} on a miss. A miss the index
+     * cannot answer may be answered with the slot's last known result, marked stale, while the database is
+     * overloaded. Times that are not the start of a slot bypass the cache.
+     */
+    public AvailabilityResult get(LocalDate date, LocalTime time, int numberOfGuests, Supplier<List<Table>> loader) {
+        LocalTime slotStart = openingHours.slotStart(date, time);
+        if (!time.equals(slotStart)) {
+            return AvailabilityResult.fresh(loader.get());
+        }
+        Key key = new Key(date, (short) DiningDurationPolicy.minuteOfDay(slotStart), numberOfGuests);
+        Supplier<List<Table>> lookup = enabled
+            ? () -> singleFlight.execute(key, () -> cache.get(key, k -> List.copyOf(loader.get())))
+            : () -> singleFlight.execute(key, () -> List.copyOf(loader.get()));
+        // the index answers from memory, so only database lookups need the degraded mode
+        if (slotOccupancyIndex.covers(date) || enabled && cache.policy().getIfPresentQuietly(key) != null) {
+            return AvailabilityResult.fresh(lookup.get());
+        }
+        return staleAvailability.get(key, lookup);
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        Reservation reservation = event.reservation();
+        if (reservation.getDate() == null || reservation.getTime() == null) {
+            return;
+        }
+        invalidate(reservation.getDate(), reservation.getTime(), reservation.getEndTime());
+    }
+
+    // one pass over the span from the earliest start to the latest end, rather than one per reservation
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationsStatusChanged(ReservationsStatusChangedEvent event) {
+        if (event.reservations().isEmpty()) {
+            return;
+        }
+        LocalTime first = event.reservations().stream().map(OccupiedSlotDTO::getTime).min(LocalTime::compareTo).orElseThrow();
+        LocalTime last = event.reservations().stream().map(OccupiedSlotDTO::getEndTime).max(LocalTime::compareTo).orElseThrow();
+        invalidate(event.date(), first, last);
+    }
+
+    private void invalidate(LocalDate date, LocalTime time, LocalTime endTime) {
+        int start = DiningDurationPolicy.minuteOfDay(time);
+        int end = DiningDurationPolicy.minuteOfDay(endTime);
+
+        int invalidated = 0;
+        for (Key key : cache.asMap().keySet()) {
+            if (!key.date().equals(date)) {
+                continue;
+            }
+            int keyStart = key.slotStart();
+            int keyEnd = DiningDurationPolicy.minuteOfDay(durationPolicy.endTime(OpeningHours.toTime(keyStart), durationPolicy.minutesFor(key.numberOfGuests())));
+            if (keyStart < end && start < keyEnd) {
+                cache.invalidate(key);
+                invalidated++;
+            }
+        }
+        slotInvalidations.increment(invalidated);
+        log.debug("Invalidated {} cached availability entries for {} {}-{}", invalidated, date, time, endTime);
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTableChanged(TableChangedEvent event) {
+        invalidateAll();
+    }
+
+    public void invalidateAll() {
+        long size = cache.estimatedSize();
+        cache.invalidateAll();
+        fullInvalidations.increment(size);
+    }
+
+    long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private record Key(LocalDate date, short slotStart, int numberOfGuests) {
+    }
+}
@@ -0,0 +1,118 @@
+package com.restaurant.booking.service.availability;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import com.restaurant.booking.dto.AvailabilitySlotDTO;
+import com.restaurant.booking.dto.OccupiedSlotDTO;
+import com.restaurant.booking.model.Table;
+
+/**
+ * Availability of a date range on a fixed slot grid, computed from one list of occupied slots.
+ * <p>
+ * Per day and table the reservations (sorted by start) and the slot windows (sorted by start) are swept
+ * together: reservations enter an active set once they start before the window ends and leave it once
+ * they end at or before the window starts, so each day costs O((slots + reservations) log k) per table.
+ * Days are computed lazily as the resulting stream is consumed.
+ */
+public final class AvailabilityGrid {
+
+    public static final int MAX_DAYS = 31;
+
+    private final List<LocalTime> slots;
+    private final int[] slotStarts;
+    private final int[] slotEnds;
+
+    public AvailabilityGrid(LocalTime firstSlot, LocalTime lastSlot, int slotMinutes, int windowMinutes, DiningDurationPolicy durationPolicy) {
+        if (slotMinutes < 5 || slotMinutes > 240) {
+            throw new IllegalArgumentException("Slot step must be between 5 and 240 minutes");
+        }
+        if (lastSlot.isBefore(firstSlot)) {
+            throw new IllegalArgumentException("Last slot must not be before first slot");
+        }
+        this.slots = new ArrayList<>();
+        for (LocalTime slot = firstSlot; !slot.isAfter(lastSlot); slot = slot.plusMinutes(slotMinutes)) {
+            slots.add(slot);
+            if (slot.plusMinutes(slotMinutes).isBefore(slot)) {
+                break; // wrapped past midnight
+            }
+        }
+        this.slotStarts = new int[slots.size()];
+        this.slotEnds = new int[slots.size()];
+        for (int i = 0; i < slots.size(); i++) {
+            slotStarts[i] = DiningDurationPolicy.minuteOfDay(slots.get(i));
+            slotEnds[i] = DiningDurationPolicy.minuteOfDay(durationPolicy.endTime(slots.get(i), windowMinutes));
+        }
+    }
+
+    public List<LocalTime> slots() {
+        return slots;
+    }
+
+    public static void validateRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        if (from.plusDays(MAX_DAYS).isBefore(to.plusDays(1))) {
+            throw new IllegalArgumentException("Date range cannot exceed " + MAX_DAYS + " days");
+        }
+    }
+
+    /**
+     * Sweeps the given occupied slots (sorted by date and time) against the grid for every day in [from, to].
+     *
+     * @param tables tables that seat the party
+     */
+    public Stream<AvailabilitySlotDTO> sweep(LocalDate from, LocalDate to, List<Table> tables, List<OccupiedSlotDTO> occupied) {
+        Map<LocalDate, Map<Long, List<int[]>>> byDay = new HashMap<>();
+        for (OccupiedSlotDTO slot : occupied) {
+            int start = DiningDurationPolicy.minuteOfDay(slot.getTime());
+            byDay.computeIfAbsent(slot.getDate(), d -> new HashMap<>())
+                .computeIfAbsent(slot.getTableId(), id -> new ArrayList<>())
+                .add(new int[] {start, DiningDurationPolicy.minuteOfDay(slot.getEndTime())});
+        }
+        return from.datesUntil(to.plusDays(1))
+            .flatMap(date -> day(date, tables, byDay.getOrDefault(date, Map.of())));
+    }
+
+    private Stream<AvailabilitySlotDTO> day(LocalDate date, List<Table> tables, Map<Long, List<int[]>> occupiedByTable) {
+        List<List<Long>> freeBySlot = new ArrayList<>(slots.size());
+        for (int i = 0; i < slots.size(); i++) {
+            freeBySlot.add(new ArrayList<>());
+        }
+        for (Table table : tables) {
+            boolean[] free = sweepTable(occupiedByTable.getOrDefault(table.getId(), List.of()));
+            for (int i = 0; i < free.length; i++) {
+                if (free[i]) {
+                    freeBySlot.get(i).add(table.getId());
+                }
+            }
+        }
+        return IntStream.range(0, slots.size())
+            .mapToObj(i -> new AvailabilitySlotDTO(date, slots.get(i), freeBySlot.get(i).size(), freeBySlot.get(i)));
+    }
+
+    boolean[] sweepTable(List<int[]> intervals) {
+        boolean[] free = new boolean[slots.size()];
+        PriorityQueue<Integer> activeEnds = new PriorityQueue<>();
+        int next = 0;
+        for (int i = 0; i < slots.size(); i++) {
+            while (next < intervals.size() && intervals.get(next)[0] < slotEnds[i]) {
+                activeEnds.add(intervals.get(next)[1]);
+                next++;
+            }
+            while (!activeEnds.isEmpty() && activeEnds.peek() <= slotStarts[i]) {
+                activeEnds.poll();
+            }
+            free[i] = activeEnds.isEmpty();
+        }
+        return free;
+    }
+}
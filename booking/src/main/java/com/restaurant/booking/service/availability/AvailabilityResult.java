@@ -0,0 +1,21 @@
+package com.restaurant.booking.service.availability;
+
+import java.time.Duration;
+import java.util.List;
+
+import com.restaurant.booking.model.Table;
+
+/**
+ * Free tables for a slot. {@code staleFor} is the age of a last-known result served because a fresh lookup
+ * did not finish in time, and {@code null} for fresh results.
+ */
+public record AvailabilityResult(List<Table> tables, Duration staleFor) {
+
+    public static AvailabilityResult fresh(List<Table> tables) {
+        return new AvailabilityResult(tables, null);
+    }
+
+    public boolean isStale() {
+        return staleFor != null;
+    }
+}
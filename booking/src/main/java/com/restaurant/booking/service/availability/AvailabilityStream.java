@@ -0,0 +1,190 @@
+package com.restaurant.booking.service.availability;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.restaurant.booking.dto.AvailabilityDeltaDTO;
+import com.restaurant.booking.event.ReservationChangedEvent;
+import com.restaurant.booking.event.ReservationsStatusChangedEvent;
+import com.restaurant.booking.model.Reservation;
+import com.restaurant.booking.model.Status;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pushes availability deltas of a date to its Server-Sent Events subscribers.
+ * <p>
+ * Publishing only offers the delta to each subscriber's bounded buffer and schedules a drain of that
+ * buffer on a small shared pool, so the committing booking never waits on a network write. A subscriber
+ * whose buffer overflows is disconnected rather than allowed to fall behind silently; clients reload
+ * availability when they reconnect.
+ */
+@Slf4j
+@Component
+public class AvailabilityStream {
+
+    static final String EVENT_NAME = "availability";
+
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final ExecutorService executor;
+    private final Map<LocalDate, Set<Subscriber>> subscribersByDate = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Counter delivered;
+    private final Counter overflows;
+
+    public AvailabilityStream(MeterRegistry meterRegistry,
+                              @Value("${booking.availability.stream.timeout:PT30M}") Duration timeout,
+                              @Value("${booking.availability.stream.buffer-size:256}") int bufferSize,
+                              @Value("${booking.availability.stream.threads:2}") int threads) {
+        if (bufferSize < 1 || threads < 1) {
+            throw new IllegalArgumentException("Availability stream buffer size and threads must be positive");
+        }
+        this.timeoutMillis = timeout.toMillis();
+        this.bufferSize = bufferSize;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "availability-stream-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.delivered = Counter.builder("booking.availability.stream.deltas")
+            .description("Availability deltas sent to subscribers")
+            .register(meterRegistry);
+        this.overflows = Counter.builder("booking.availability.stream.overflows")
+            .description("Subscribers disconnected because their buffer was full")
+            .register(meterRegistry);
+        Gauge.builder("booking.availability.stream.subscribers", subscriberCount, AtomicInteger::get)
+            .description("Open availability subscriptions")
+            .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(LocalDate date) {
+        SseEmitter emitter = newEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(date, emitter, new ArrayBlockingQueue<>(bufferSize));
+        // compute rather than computeIfAbsent + add, so it cannot race with remove dropping an empty set
+        subscribersByDate.compute(date, (d, subscribers) -> {
+            Set<Subscriber> set = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+        subscriberCount.incrementAndGet();
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        log.debug("Availability subscriber added for {}", date);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        Reservation reservation = event.reservation();
+        if (reservation.getDate() == null || reservation.getTable() == null) {
+            return;
+        }
+        boolean taken = Status.occupiesTable(reservation.getStatus());
+        if (!event.isNew() && Status.occupiesTable(event.previousStatus()) == taken) {
+            return;
+        }
+        if (event.isNew() && !taken) {
+            return;
+        }
+        publish(new AvailabilityDeltaDTO(reservation.getTable().getId(), reservation.getDate(), reservation.getTime(), reservation.getEndTime(), taken));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationsStatusChanged(ReservationsStatusChangedEvent event) {
+        if (!event.occupancyChanged() || !subscribersByDate.containsKey(event.date())) {
+            return;
+        }
+        boolean taken = Status.occupiesTable(event.status());
+        event.reservations().forEach(slot -> publish(new AvailabilityDeltaDTO(slot.getTableId(), slot.getDate(), slot.getTime(), slot.getEndTime(), taken)));
+    }
+
+    void publish(AvailabilityDeltaDTO delta) {
+        Set<Subscriber> subscribers = subscribersByDate.get(delta.getDate());
+        if (subscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.buffer.offer(delta)) {
+                overflows.increment();
+                log.warn("Availability subscriber for {} fell {} deltas behind, disconnecting", subscriber.date, bufferSize);
+                remove(subscriber);
+                subscriber.emitter.complete();
+                continue;
+            }
+            if (subscriber.draining.compareAndSet(false, true)) {
+                executor.execute(() -> drain(subscriber));
+            }
+        }
+    }
+
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    int subscribers(LocalDate date) {
+        Set<Subscriber> subscribers = subscribersByDate.get(date);
+        return subscribers == null ? 0 : subscribers.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+        subscribersByDate.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            AvailabilityDeltaDTO delta;
+            while ((delta = subscriber.buffer.poll()) != null) {
+                try {
+                    subscriber.emitter.send(SseEmitter.event().name(EVENT_NAME).data(delta));
+                    delivered.increment();
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Availability subscriber for {} went away: {}", subscriber.date, e.getMessage());
+                    remove(subscriber);
+                    subscriber.buffer.clear();
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+            // a delta offered after the last poll but before the flag was cleared would otherwise wait for the next one
+        } while (!subscriber.buffer.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void remove(Subscriber subscriber) {
+        Set<Subscriber> subscribers = subscribersByDate.get(subscriber.date);
+        if (subscribers != null && subscribers.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+            subscribersByDate.computeIfPresent(subscriber.date, (date, remaining) -> remaining.isEmpty() ? null : remaining);
+        }
+    }
+
+    private record Subscriber(LocalDate date, SseEmitter emitter, Queue<AvailabilityDeltaDTO> buffer, AtomicBoolean draining) {
+
+        Subscriber(LocalDate date, SseEmitter emitter, Queue<AvailabilityDeltaDTO> buffer) {
+            this(date, emitter, buffer, new AtomicBoolean());
+        }
+    }
+}
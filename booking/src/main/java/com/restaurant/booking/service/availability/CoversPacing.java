@@ -0,0 +1,215 @@
+package com.restaurant.booking.service.availability;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.restaurant.booking.event.ReservationChangedEvent;
+import com.restaurant.booking.event.ReservationsStatusChangedEvent;
+import com.restaurant.booking.model.Reservation;
+import com.restaurant.booking.model.Status;
+import com.restaurant.booking.repository.ReservationRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Restaurant-wide limit on the number of guests arriving per pacing window, independent of tables.
+ * <p>
+ * Each date keeps one {@link AtomicIntegerArray} with a guest counter per window of the day, so checking
+ * or claiming covers for a slot is a single array access and a compare-and-set, without a query.
+ * New bookings claim their covers through {@link #acquire}; status changes of existing reservations
+ * release or re-add them through {@link ReservationChangedEvent}s. Counters are rebuilt from the
+ * database at startup, and the days before the current date are dropped on the first access after
+ * midnight. A limit of {@code 0} disables pacing.
+ */
+@Slf4j
+@Component
+public class CoversPacing {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final ReservationRepository reservationRepository;
+    private final int maxCovers;
+    private final int windowMinutes;
+    private final int windowsPerDay;
+    private final Clock clock;
+
+    private final Map<LocalDate, AtomicIntegerArray> days = new ConcurrentHashMap<>();
+    private volatile LocalDate today;
+
+    @Autowired
+    public CoversPacing(ReservationRepository reservationRepository,
+                        @Value("${booking.pacing.max-covers-per-window:0}") int maxCovers,
+                        @Value("${booking.pacing.window-minutes:15}") int windowMinutes) {
+        this(reservationRepository, maxCovers, windowMinutes, Clock.systemDefaultZone());
+    }
+
+    CoversPacing(ReservationRepository reservationRepository, int maxCovers, int windowMinutes, Clock clock) {
+        if (maxCovers < 0) {
+            throw new IllegalArgumentException("Covers per pacing window must not be negative");
+        }
+        if (windowMinutes <= 0 || MINUTES_PER_DAY % windowMinutes != 0) {
+            throw new IllegalArgumentException("Pacing window must be a positive divisor of a day in minutes");
+        }
+        this.reservationRepository = reservationRepository;
+        this.maxCovers = maxCovers;
+        this.windowMinutes = windowMinutes;
+        this.windowsPerDay = MINUTES_PER_DAY / windowMinutes;
+        this.clock = clock;
+        this.today = LocalDate.now(clock);
+    }
+
+    public boolean isEnabled() {
+        return maxCovers > 0;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!isEnabled()) {
+            return;
+        }
+        LocalDate from = LocalDate.now(clock);
+        rebuild(reservationRepository.findByDateGreaterThanEqual(from));
+    }
+
+    synchronized void rebuild(List<Reservation> reservations) {
+        today = LocalDate.now(clock);
+        days.clear();
+        reservations.stream()
+            .filter(reservation -> Status.occupiesTable(reservation.getStatus()))
+            .forEach(reservation -> add(reservation.getDate(), reservation.getTime(), reservation.getNumberOfGuests()));
+        log.info("Covers pacing rebuilt from {} reservations, limit {} guests per {} minutes",
+            reservations.size(), maxCovers, windowMinutes);
+    }
+
+    /**
+     * Whether a party of the given size can still arrive in the window containing {@code time}.
+     */
+    public boolean hasCapacity(LocalDate date, LocalTime time, int numberOfGuests) {
+        if (!isEnabled()) {
+            return true;
+        }
+        dropPastDays();
+        AtomicIntegerArray day = days.get(date);
+        int booked = day == null ? 0 : day.get(window(time));
+        return booked + numberOfGuests <= maxCovers;
+    }
+
+    /**
+     * Claims covers for a new booking, or throws if the window is full. Inside a transaction the covers are
+     * handed back if it rolls back.
+     */
+    public void acquire(LocalDate date, LocalTime time, int numberOfGuests) {
+        if (!isEnabled()) {
+            return;
+        }
+        dropPastDays();
+        AtomicIntegerArray day = day(date);
+        int window = window(time);
+        int booked;
+        do {
+            booked = day.get(window);
+            if (booked + numberOfGuests > maxCovers) {
+                throw new IllegalStateException("Kitchen pacing limit of " + maxCovers + " guests per " + windowMinutes
+                    + " minutes reached on " + date + " at " + time);
+            }
+        } while (!day.compareAndSet(window, booked, booked + numberOfGuests));
+        undoOnRollback(date, time, numberOfGuests);
+    }
+
+    // new reservations have already claimed their covers through acquire
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener
+    public void onReservationChanged(ReservationChangedEvent event) {
+        if (!isEnabled() || event.isNew()) {
+            return;
+        }
+        Reservation reservation = event.reservation();
+        boolean before = Status.occupiesTable(event.previousStatus());
+        boolean after = Status.occupiesTable(reservation.getStatus());
+        if (before != after) {
+            adjust(reservation.getDate(), reservation.getTime(), after ? reservation.getNumberOfGuests() : -reservation.getNumberOfGuests());
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener
+    public void onReservationsStatusChanged(ReservationsStatusChangedEvent event) {
+        if (!isEnabled() || !event.occupancyChanged()) {
+            return;
+        }
+        int sign = Status.occupiesTable(event.status()) ? 1 : -1;
+        event.reservations().forEach(slot -> adjust(slot.getDate(), slot.getTime(), sign * slot.getNumberOfGuests()));
+    }
+
+    int dayCount() {
+        return days.size();
+    }
+
+    int booked(LocalDate date, LocalTime time) {
+        AtomicIntegerArray day = days.get(date);
+        return day == null ? 0 : day.get(window(time));
+    }
+
+    // applied right away, so covers freed by a cancellation can be booked before it commits, and undone on rollback
+    private void adjust(LocalDate date, LocalTime time, int guests) {
+        add(date, time, guests);
+        undoOnRollback(date, time, guests);
+    }
+
+    private void undoOnRollback(LocalDate date, LocalTime time, int guests) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        add(date, time, -guests);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Once the date has changed, drops the counters of the days before it.
+     */
+    private void dropPastDays() {
+        LocalDate now = LocalDate.now(clock);
+        if (!now.isAfter(today)) {
+            return;
+        }
+        synchronized (this) {
+            if (now.isAfter(today)) {
+                today = now;
+                days.keySet().removeIf(date -> date.isBefore(now));
+                log.debug("Covers pacing dropped the days before {}", now);
+            }
+        }
+    }
+
+    private void add(LocalDate date, LocalTime time, int guests) {
+        day(date).addAndGet(window(time), guests);
+    }
+
+    private AtomicIntegerArray day(LocalDate date) {
+        return days.computeIfAbsent(date, d -> new AtomicIntegerArray(windowsPerDay));
+    }
+
+    private int window(LocalTime time) {
+        return DiningDurationPolicy.minuteOfDay(time) / windowMinutes;
+    }
+}
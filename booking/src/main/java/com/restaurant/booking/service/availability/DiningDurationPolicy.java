@@ -0,0 +1,78 @@
+package com.restaurant.booking.service.availability;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.restaurant.booking.model.Reservation;
+
+/**
+ * How long a table stays taken after a reservation starts.
+ * <p>
+ * A reservation may carry its own {@code durationMinutes}; otherwise the duration is looked up by
+ * party size from {@code booking.availability.dining-duration.by-party-size}, a comma separated list of
+ * {@code maxGuests:minutes} steps (e.g. {@code 2:90,6:120}). Party sizes above the last step use the default.
+ * Reservations never extend past the end of their day, so nothing can start at {@link #END_OF_DAY} or later.
+ */
+@Component
+public class DiningDurationPolicy {
+
+    public static final LocalTime END_OF_DAY = LocalTime.of(23, 59);
+
+    private final int[] minutesByPartySize = new int[Reservation.MAX_PARTY_SIZE + 1];
+
+    public DiningDurationPolicy(@Value("${booking.availability.dining-duration.default-minutes:120}") int defaultMinutes,
+                                @Value("${booking.availability.dining-duration.by-party-size:}") String byPartySize) {
+        if (defaultMinutes <= 0) {
+            throw new IllegalArgumentException("Default dining duration must be positive");
+        }
+        Arrays.fill(minutesByPartySize, defaultMinutes);
+        int from = 1;
+        for (String step : byPartySize.split(",")) {
+            if (step.isBlank()) {
+                continue;
+            }
+            String[] parts = step.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid dining duration step '" + step + "', expected maxGuests:minutes");
+            }
+            int maxGuests = Math.min(Integer.parseInt(parts[0].trim()), Reservation.MAX_PARTY_SIZE);
+            int minutes = Integer.parseInt(parts[1].trim());
+            if (maxGuests < from || minutes <= 0) {
+                throw new IllegalArgumentException("Invalid dining duration step '" + step + "'");
+            }
+            Arrays.fill(minutesByPartySize, from, maxGuests + 1, minutes);
+            from = maxGuests + 1;
+        }
+    }
+
+    public int minutesFor(int numberOfGuests) {
+        return minutesByPartySize[Math.max(0, Math.min(numberOfGuests, Reservation.MAX_PARTY_SIZE))];
+    }
+
+    public int minutesFor(Reservation reservation) {
+        return minutesFor(reservation.getDurationMinutes(), reservation.getNumberOfGuests());
+    }
+
+    public int minutesFor(Integer durationMinutes, int numberOfGuests) {
+        return durationMinutes != null ? durationMinutes : minutesFor(numberOfGuests);
+    }
+
+    public LocalTime endTime(LocalTime start, int minutes) {
+        int end = minuteOfDay(start) + minutes;
+        return end >= minuteOfDay(END_OF_DAY) ? END_OF_DAY : LocalTime.of(end / 60, end % 60);
+    }
+
+    /**
+     * Whether a reservation starting at {@code start} has a dining window at all once clamped to the end of the day.
+     */
+    public static boolean hasWindow(LocalTime start) {
+        return start.isBefore(END_OF_DAY);
+    }
+
+    static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+}
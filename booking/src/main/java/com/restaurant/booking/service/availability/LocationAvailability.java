@@ -0,0 +1,132 @@
+package com.restaurant.booking.service.availability;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.restaurant.booking.dto.LocationAvailabilityDTO;
+import com.restaurant.booking.dto.MultiLocationAvailabilityDTO;
+import com.restaurant.booking.dto.TableDTO;
+import com.restaurant.booking.model.Status;
+import com.restaurant.booking.repository.ReservationRepository;
+import com.restaurant.booking.repository.TableRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Availability of one slot at every location, evaluated in parallel.
+ * <p>
+ * Each location is looked up on its own task of a bounded pool, from the occupancy index when it covers the
+ * date and with the location's anti-join query otherwise. Results are collected until the time budget runs
+ * out; locations that have not answered by then are cancelled and reported as unavailable instead of
+ * delaying the response, and locations whose lookup failed are reported the same way.
+ */
+@Slf4j
+@Component
+public class LocationAvailability {
+
+    private final TableRepository tableRepository;
+    private final ReservationRepository reservationRepository;
+    private final SlotOccupancyIndex slotOccupancyIndex;
+    private final DiningDurationPolicy durationPolicy;
+    private final MeterRegistry meterRegistry;
+    private final long budgetNanos;
+    private final ExecutorService executor;
+
+    public LocationAvailability(TableRepository tableRepository, ReservationRepository reservationRepository,
+                                SlotOccupancyIndex slotOccupancyIndex, DiningDurationPolicy durationPolicy, MeterRegistry meterRegistry,
+                                @Value("${booking.locations.time-budget:PT0.5S}") Duration budget,
+                                @Value("${booking.locations.threads:8}") int threads) {
+        if (budget.isNegative() || budget.isZero() || threads < 1) {
+            throw new IllegalArgumentException("Location time budget and threads must be positive");
+        }
+        this.tableRepository = tableRepository;
+        this.reservationRepository = reservationRepository;
+        this.slotOccupancyIndex = slotOccupancyIndex;
+        this.durationPolicy = durationPolicy;
+        this.meterRegistry = meterRegistry;
+        this.budgetNanos = budget.toNanos();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "location-availability-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public MultiLocationAvailabilityDTO findAvailableTables(LocalDate date, LocalTime time, int numberOfGuests) {
+        long deadline = System.nanoTime() + budgetNanos;
+        Map<String, Future<List<TableDTO>>> lookups = new LinkedHashMap<>();
+        for (String location : tableRepository.findLocations()) {
+            lookups.put(location, executor.submit(() -> lookup(location, date, time, numberOfGuests)));
+        }
+
+        List<LocationAvailabilityDTO> answered = new ArrayList<>();
+        List<String> unavailable = new ArrayList<>();
+        for (Map.Entry<String, Future<List<TableDTO>>> lookup : lookups.entrySet()) {
+            String location = lookup.getKey();
+            try {
+                List<TableDTO> tables = lookup.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                answered.add(new LocationAvailabilityDTO(location, tables.size(), tables));
+            } catch (TimeoutException e) {
+                lookup.getValue().cancel(true);
+                unavailable.add(location);
+                outcome(location, "timeout").increment();
+                log.warn("Availability of location {} not ready within its time budget, leaving it out", location);
+            } catch (ExecutionException e) {
+                unavailable.add(location);
+                outcome(location, "error").increment();
+                log.warn("Availability lookup of location {} failed: {}", location, e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                lookups.values().forEach(future -> future.cancel(true));
+                throw new IllegalStateException("Interrupted while collecting location availability", e);
+            }
+        }
+        return new MultiLocationAvailabilityDTO(answered, unavailable);
+    }
+
+    List<TableDTO> lookup(String location, LocalDate date, LocalTime time, int numberOfGuests) {
+        if (slotOccupancyIndex.covers(date)) {
+            return slotOccupancyIndex.findAvailableTables(date, time, numberOfGuests).stream()
+                .filter(table -> location.equals(table.getLocation()))
+                .map(table -> new TableDTO(table.getId(), table.getNumber(), table.getCapacity(), table.getCombinationGroup(), table.getLocation()))
+                .collect(Collectors.toList());
+        }
+        LocalTime endTime = durationPolicy.endTime(time, durationPolicy.minutesFor(numberOfGuests));
+        List<TableDTO> tables = reservationRepository.findAvailableTablesAtLocation(location, date, time, endTime, numberOfGuests, Status.freeingStatuses());
+        tables.forEach(table -> table.setLocation(location));
+        return tables;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Counter outcome(String location, String outcome) {
+        return Counter.builder("booking.locations.dropped")
+            .description("Locations left out of a cross-location availability response")
+            .tag("location", location)
+            .tag("reason", outcome)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,138 @@
+package com.restaurant.booking.service.availability;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.restaurant.booking.dto.OccupancyCellDTO;
+import com.restaurant.booking.dto.SlotLoadDTO;
+import com.restaurant.booking.event.ReservationChangedEvent;
+import com.restaurant.booking.event.ReservationsStatusChangedEvent;
+import com.restaurant.booking.event.TableChangedEvent;
+import com.restaurant.booking.model.Status;
+import com.restaurant.booking.repository.ReservationRepository;
+import com.restaurant.booking.repository.TableRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Share of tables taken in every bookable slot of a month, for calendar heatmaps.
+ * <p>
+ * Days missing from the cache are computed together from one {@code GROUP BY date, time, endTime}
+ * aggregate over their range: per day the counts are added at their start minute and subtracted at their
+ * end minute, and a running sum over the day gives the tables taken at each {@link OpeningHours} slot.
+ * Results are cached per day; a reservation change evicts its day after commit and a table change evicts
+ * everything. A day computed while an eviction was in flight is returned but not cached.
+ */
+@Slf4j
+@Component
+public class OccupancyHeatmap {
+
+    public static final String CACHE_NAME = "heatmap";
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final ReservationRepository reservationRepository;
+    private final TableRepository tableRepository;
+    private final OpeningHours openingHours;
+    private final Cache<LocalDate, List<OccupancyCellDTO>> cache;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public OccupancyHeatmap(ReservationRepository reservationRepository, TableRepository tableRepository,
+                            OpeningHours openingHours, MeterRegistry meterRegistry,
+                            @Value("${booking.availability.heatmap.maximum-days:400}") long maximumDays,
+                            @Value("${booking.availability.heatmap.expire-after-write:PT1H}") Duration expireAfterWrite) {
+        this.reservationRepository = reservationRepository;
+        this.tableRepository = tableRepository;
+        this.openingHours = openingHours;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumDays)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public List<OccupancyCellDTO> month(YearMonth month) {
+        List<LocalDate> days = month.atDay(1).datesUntil(month.atEndOfMonth().plusDays(1)).toList();
+        Map<LocalDate, List<OccupancyCellDTO>> byDay = new HashMap<>(cache.getAllPresent(days));
+        List<LocalDate> missing = days.stream().filter(day -> !byDay.containsKey(day)).toList();
+        if (!missing.isEmpty()) {
+            long evictionsBefore = evictions.get();
+            Map<LocalDate, List<OccupancyCellDTO>> loaded = load(missing.get(0), missing.get(missing.size() - 1));
+            missing.forEach(day -> byDay.put(day, loaded.get(day)));
+            if (evictions.get() == evictionsBefore) {
+                missing.forEach(day -> cache.put(day, loaded.get(day)));
+            }
+            log.info("Computed occupancy heatmap for {} of {} days of {}", missing.size(), days.size(), month);
+        }
+
+        List<OccupancyCellDTO> cells = new ArrayList<>();
+        days.forEach(day -> cells.addAll(byDay.get(day)));
+        return cells;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        if (event.reservation().getDate() != null) {
+            evictions.incrementAndGet();
+            cache.invalidate(event.reservation().getDate());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationsStatusChanged(ReservationsStatusChangedEvent event) {
+        evictions.incrementAndGet();
+        cache.invalidate(event.date());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTableChanged(TableChangedEvent event) {
+        evictions.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private Map<LocalDate, List<OccupancyCellDTO>> load(LocalDate from, LocalDate to) {
+        long tableCount = tableRepository.count();
+        Map<LocalDate, int[]> startsAndEnds = new HashMap<>();
+        for (SlotLoadDTO load : reservationRepository.countOccupyingBySlot(from, to, Status.freeingStatuses())) {
+            int[] delta = startsAndEnds.computeIfAbsent(load.getDate(), d -> new int[MINUTES_PER_DAY + 1]);
+            delta[DiningDurationPolicy.minuteOfDay(load.getTime())] += (int) load.getReservations();
+            delta[DiningDurationPolicy.minuteOfDay(load.getEndTime())] -= (int) load.getReservations();
+        }
+
+        Map<LocalDate, List<OccupancyCellDTO>> byDay = new HashMap<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            byDay.put(day, cells(day, startsAndEnds.get(day), tableCount));
+        }
+        return byDay;
+    }
+
+    private List<OccupancyCellDTO> cells(LocalDate day, int[] delta, long tableCount) {
+        short[] slots = openingHours.slots(day);
+        List<OccupancyCellDTO> cells = new ArrayList<>(slots.length);
+        int occupied = 0;
+        int minute = 0;
+        for (short slot : slots) {
+            for (; delta != null && minute <= slot; minute++) {
+                occupied += delta[minute];
+            }
+            double occupancy = tableCount == 0 ? 0 : Math.min(1.0, (double) occupied / tableCount);
+            cells.add(new OccupancyCellDTO(day, OpeningHours.toTime(slot), occupied, occupancy));
+        }
+        return List.copyOf(cells);
+    }
+}
@@ -0,0 +1,178 @@
+package com.restaurant.booking.service.availability;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bookable slot grid derived from the opening hours.
+ * <p>
+ * {@code booking.opening-hours.weekly} lists the opening periods per weekday as
+ * {@code MON-FRI=11:30-14:30|17:30-22:00;SAT,SUN=12:00-23:00}; weekdays that are not listed are closed, and
+ * an empty value keeps the restaurant open all day every day. {@code booking.opening-hours.exceptions}
+ * overrides single dates the same way, with {@code closed} for holidays ({@code 2025-12-24=12:00-16:00;2025-12-25=closed}).
+ * <p>
+ * Everything is compiled at startup into one sorted {@code short[]} of slot start minutes per weekday (and
+ * per exception date), every {@code slot-minutes} from each opening until its close. A requested time
+ * is normalized to the index of the slot containing it with one binary search, and times outside every
+ * slot are closed; the availability cache keys on the slot starts.
+ */
+@Component
+public class OpeningHours {
+
+    private static final short[] CLOSED = new short[0];
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final int slotMinutes;
+    private final short[][] slotsByDayOfWeek = new short[7][];
+    private final Map<LocalDate, short[]> slotsByDate = new HashMap<>();
+
+    public OpeningHours(@Value("${booking.opening-hours.weekly:}") String weekly,
+                        @Value("${booking.opening-hours.exceptions:}") String exceptions,
+                        @Value("${booking.opening-hours.slot-minutes:15}") int slotMinutes) {
+        if (slotMinutes < 5 || slotMinutes > 240) {
+            throw new IllegalArgumentException("Slot length must be between 5 and 240 minutes");
+        }
+        this.slotMinutes = slotMinutes;
+        if (weekly.isBlank()) {
+            Arrays.fill(slotsByDayOfWeek, slots("00:00-23:59"));
+        } else {
+            Arrays.fill(slotsByDayOfWeek, CLOSED);
+            for (String[] entry : entries(weekly)) {
+                short[] slots = slots(entry[1]);
+                for (DayOfWeek day : days(entry[0])) {
+                    slotsByDayOfWeek[day.getValue() - 1] = slots;
+                }
+            }
+        }
+        for (String[] entry : entries(exceptions)) {
+            try {
+                slotsByDate.put(LocalDate.parse(entry[0]), slots(entry[1]));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid opening hours exception date '" + entry[0] + "'", e);
+            }
+        }
+    }
+
+    public int slotMinutes() {
+        return slotMinutes;
+    }
+
+    /**
+     * Slot start minutes of the given date, sorted; empty when the restaurant is closed all day.
+     */
+    public short[] slots(LocalDate date) {
+        short[] slots = slotsByDate.get(date);
+        return slots != null ? slots : slotsByDayOfWeek[date.getDayOfWeek().getValue() - 1];
+    }
+
+    /**
+     * Index of the slot containing {@code time} on the given date, or {@code -1} when it is closed.
+     */
+    int slotIndex(LocalDate date, LocalTime time) {
+        short[] slots = slots(date);
+        int minute = DiningDurationPolicy.minuteOfDay(time);
+        int index = Arrays.binarySearch(slots, (short) minute);
+        if (index >= 0) {
+            return index;
+        }
+        int previous = -index - 2;
+        return previous >= 0 && minute < slots[previous] + slotMinutes ? previous : -1;
+    }
+
+    /**
+     * Start of the slot containing {@code time} on the given date, or {@code null} when it is closed.
+     */
+    public LocalTime slotStart(LocalDate date, LocalTime time) {
+        int index = slotIndex(date, time);
+        return index < 0 ? null : toTime(slots(date)[index]);
+    }
+
+    public boolean isOpen(LocalDate date, LocalTime time) {
+        return slotIndex(date, time) >= 0;
+    }
+
+    public static LocalTime toTime(int minuteOfDay) {
+        return LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
+    }
+
+    private short[] slots(String periods) {
+        if (periods.trim().equalsIgnoreCase("closed")) {
+            return CLOSED;
+        }
+        short[] slots = new short[MINUTES_PER_DAY / slotMinutes + 1];
+        int size = 0;
+        int previousClose = -1;
+        for (String period : periods.split("\\|")) {
+            String[] bounds = period.trim().split("-");
+            if (bounds.length != 2) {
+                throw new IllegalArgumentException("Invalid opening period '" + period + "', expected HH:MM-HH:MM");
+            }
+            int open = minute(bounds[0]);
+            int close = minute(bounds[1]);
+            if (close <= open || open < previousClose) {
+                throw new IllegalArgumentException("Opening periods must be ascending and must not overlap: '" + periods + "'");
+            }
+            for (int start = open; start < close; start += slotMinutes) {
+                if (size == slots.length) {
+                    slots = Arrays.copyOf(slots, size * 2);
+                }
+                slots[size++] = (short) start;
+            }
+            previousClose = close;
+        }
+        return Arrays.copyOf(slots, size);
+    }
+
+    private static int minute(String time) {
+        try {
+            return DiningDurationPolicy.minuteOfDay(LocalTime.parse(time.trim()));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid opening time '" + time + "'", e);
+        }
+    }
+
+    private static DayOfWeek[] days(String spec) {
+        return Arrays.stream(spec.split(","))
+            .map(String::trim)
+            .flatMap(part -> {
+                String[] range = part.split("-");
+                DayOfWeek first = day(range[0]);
+                DayOfWeek last = range.length > 1 ? day(range[1]) : first;
+                int count = (last.getValue() - first.getValue() + 7) % 7 + 1;
+                return IntStream.range(0, count).mapToObj(first::plus);
+            })
+            .toArray(DayOfWeek[]::new);
+    }
+
+    private static DayOfWeek day(String name) {
+        String prefix = name.trim().toUpperCase();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (prefix.length() >= 3 && day.name().startsWith(prefix)) {
+                return day;
+            }
+        }
+        throw new IllegalArgumentException("Invalid weekday '" + name + "'");
+    }
+
+    private static String[][] entries(String spec) {
+        return Arrays.stream(spec.split(";"))
+            .filter(entry -> !entry.isBlank())
+            .map(entry -> {
+                String[] parts = entry.split("=", 2);
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Invalid opening hours entry '" + entry + "', expected days=periods");
+                }
+                return new String[] {parts[0].trim(), parts[1].trim()};
+            })
+            .toArray(String[][]::new);
+    }
+}
@@ -0,0 +1,77 @@
+package com.restaurant.booking.service.availability;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Collapses concurrent calls for the same key into one computation.
+ * <p>
+ * The first caller for a key runs the computation; callers arriving while it is in flight wait for it
+ * and receive the same result or exception. Once it finishes, the next caller starts a new computation.
+ * Calls are counted in {@code booking.singleflight.calls}, tagged with the flight {@code name} and
+ * {@code role} {@code leader} (computed) or {@code collapsed} (shared an in-flight result).
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter collapsed;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.leaders = Counter.builder("booking.singleflight.calls")
+            .description("Calls that ran a computation or shared one already in flight")
+            .tag("name", name)
+            .tag("role", "leader")
+            .register(meterRegistry);
+        this.collapsed = Counter.builder("booking.singleflight.calls")
+            .description("Calls that ran a computation or shared one already in flight")
+            .tag("name", name)
+            .tag("role", "collapsed")
+            .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> computation) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            collapsed.increment();
+            return await(existing);
+        }
+
+        leaders.increment();
+        try {
+            V value = computation.get();
+            inFlight.remove(key, flight);
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.restaurant.booking.service.availability;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/slotavailability}: status of the slot availability projection, and a POST to rebuild it
+ * after a migration or suspected drift.
+ */
+@Component
+@Endpoint(id = "slotavailability")
+public class SlotAvailabilityEndpoint {
+
+    private final SlotAvailabilityProjection projection;
+
+    public SlotAvailabilityEndpoint(SlotAvailabilityProjection projection) {
+        this.projection = projection;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return Map.of("ready", projection.isReady());
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebuild() {
+        long rows = projection.rebuild();
+        return rows < 0 ? Map.of("status", "already running") : Map.of("status", "rebuilt", "rows", rows);
+    }
+}
@@ -0,0 +1,225 @@
+package com.restaurant.booking.service.availability;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.restaurant.booking.dto.OccupiedSlotDTO;
+import com.restaurant.booking.dto.TableDTO;
+import com.restaurant.booking.event.ReservationChangedEvent;
+import com.restaurant.booking.event.ReservationsStatusChangedEvent;
+import com.restaurant.booking.event.TableChangedEvent;
+import com.restaurant.booking.model.Reservation;
+import com.restaurant.booking.model.SlotOccupancy;
+import com.restaurant.booking.model.Status;
+import com.restaurant.booking.repository.ReservationRepository;
+import com.restaurant.booking.repository.SlotOccupancyRepository;
+import com.restaurant.booking.repository.TableRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-through {@code slot_availability} projection: one row per table, slot and occupying reservation.
+ * <p>
+ * Rows are replaced on every {@link ReservationChangedEvent}, inside the transaction that saved the
+ * reservation, so database availability reads become primary key probes instead of scanning reservations.
+ * Slots are {@code booking.availability.projection.slot-minutes} long and a reservation occupies every slot
+ * it touches, so at slot granularity the projection errs towards "taken".
+ * <p>
+ * {@link #rebuild()} regenerates the projection from {@code reservations} in parallel chunks of days, each in
+ * its own transaction. It runs at startup whenever the projection is enabled, so an enabled projection is the
+ * database read path, and on demand through the {@code slotavailability} actuator endpoint; reads fall back to
+ * the reservation anti-join until the first rebuild completes and while one runs.
+ */
+@Slf4j
+@Component
+public class SlotAvailabilityProjection {
+
+    private final SlotOccupancyRepository slotOccupancyRepository;
+    private final ReservationRepository reservationRepository;
+    private final TableRepository tableRepository;
+    private final DiningDurationPolicy durationPolicy;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int slotMinutes;
+    private final int chunkDays;
+    private final int rebuildThreads;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    // set by the first successful rebuild; before that the table may miss reservations made before V5
+    private volatile boolean built;
+
+    public SlotAvailabilityProjection(SlotOccupancyRepository slotOccupancyRepository, ReservationRepository reservationRepository,
+                                      TableRepository tableRepository, DiningDurationPolicy durationPolicy,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${booking.availability.projection.enabled:true}") boolean enabled,
+                                      @Value("${booking.availability.projection.slot-minutes:15}") int slotMinutes,
+                                      @Value("${booking.availability.projection.rebuild-chunk-days:7}") int chunkDays,
+                                      @Value("${booking.availability.projection.rebuild-threads:4}") int rebuildThreads) {
+        if (slotMinutes < 1 || 60 % slotMinutes != 0) {
+            throw new IllegalArgumentException("Projection slot length must divide an hour");
+        }
+        if (chunkDays < 1 || rebuildThreads < 1) {
+            throw new IllegalArgumentException("Projection rebuild chunk size and threads must be positive");
+        }
+        this.slotOccupancyRepository = slotOccupancyRepository;
+        this.reservationRepository = reservationRepository;
+        this.tableRepository = tableRepository;
+        this.durationPolicy = durationPolicy;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.slotMinutes = slotMinutes;
+        this.chunkDays = chunkDays;
+        this.rebuildThreads = rebuildThreads;
+    }
+
+    /**
+     * Whether availability can be read from the projection right now: it has been rebuilt at least once and no
+     * rebuild is running.
+     */
+    public boolean isReady() {
+        return enabled && built && !rebuilding.get();
+    }
+
+    /**
+     * Tables that seat the party and have no occupied slot during the party's dining duration, smallest first.
+     */
+    public List<TableDTO> findAvailableTables(LocalDate date, LocalTime time, int numberOfGuests) {
+        LocalTime endTime = durationPolicy.endTime(time, durationPolicy.minutesFor(numberOfGuests));
+        return slotOccupancyRepository.findAvailableTables(date, slotOf(time), endTime, numberOfGuests);
+    }
+
+    @EventListener
+    public void onReservationChanged(ReservationChangedEvent event) {
+        Reservation reservation = event.reservation();
+        if (!enabled || reservation.getId() == null) {
+            return;
+        }
+        if (!event.isNew()) {
+            slotOccupancyRepository.deleteByReservationId(reservation.getId());
+        }
+        if (Status.occupiesTable(reservation.getStatus()) && reservation.getTable() != null) {
+            slotOccupancyRepository.saveAll(rows(reservation.getId(), reservation.getTable().getId(), reservation.getDate(), reservation.getTime(),
+                reservation.getEndTime()));
+        }
+    }
+
+    // one delete for all of them; rows are only written back for reservations that keep their table
+    @EventListener
+    public void onReservationsStatusChanged(ReservationsStatusChangedEvent event) {
+        if (!enabled || event.reservations().isEmpty()) {
+            return;
+        }
+        slotOccupancyRepository.deleteByReservationIdIn(event.reservations().stream()
+            .map(OccupiedSlotDTO::getReservationId)
+            .collect(Collectors.toList()));
+        if (Status.occupiesTable(event.status())) {
+            List<SlotOccupancy> rows = new ArrayList<>();
+            event.reservations().forEach(slot -> rows.addAll(rows(slot.getReservationId(), slot.getTableId(), slot.getDate(), slot.getTime(), slot.getEndTime())));
+            slotOccupancyRepository.saveAll(rows);
+        }
+    }
+
+    @EventListener
+    public void onTableChanged(TableChangedEvent event) {
+        if (enabled && !tableRepository.existsById(event.tableId())) {
+            slotOccupancyRepository.deleteByTableId(event.tableId());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Regenerates the whole projection from the reservations table.
+     *
+     * @return the number of rows written, or -1 if a rebuild is already running
+     */
+    public long rebuild() {
+        if (!enabled) {
+            throw new IllegalStateException("Slot availability projection is disabled");
+        }
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.warn("Slot availability rebuild already running");
+            return -1;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(rebuildThreads);
+        try {
+            LocalDate first = reservationRepository.findFirstDate();
+            LocalDate last = reservationRepository.findLastDate();
+            if (first == null) {
+                transactionTemplate.executeWithoutResult(status -> slotOccupancyRepository.deleteAllInBatch());
+                built = true;
+                return 0;
+            }
+            long started = System.nanoTime();
+            List<Future<Integer>> chunks = new ArrayList<>();
+            for (LocalDate from = first; !from.isAfter(last); from = from.plusDays(chunkDays)) {
+                LocalDate chunkFrom = from;
+                LocalDate chunkTo = from.plusDays(chunkDays - 1L).isAfter(last) ? last : from.plusDays(chunkDays - 1L);
+                chunks.add(executor.submit(() -> rebuildChunk(chunkFrom, chunkTo)));
+            }
+            long rows = 0;
+            for (Future<Integer> chunk : chunks) {
+                rows += chunk.get();
+            }
+            built = true;
+            log.info("Slot availability rebuilt from {} to {} in {} chunks: {} rows in {} ms",
+                first, last, chunks.size(), rows, (System.nanoTime() - started) / 1_000_000);
+            return rows;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Slot availability rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Slot availability rebuild failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            rebuilding.set(false);
+        }
+    }
+
+    private int rebuildChunk(LocalDate from, LocalDate to) {
+        return transactionTemplate.execute(status -> {
+            slotOccupancyRepository.deleteByDateBetween(from, to);
+            List<SlotOccupancy> rows = new ArrayList<>();
+            for (OccupiedSlotDTO occupied : reservationRepository.findOccupiedSlots(from, to, Status.freeingStatuses())) {
+                rows.addAll(rows(occupied.getReservationId(), occupied.getTableId(), occupied.getDate(), occupied.getTime(), occupied.getEndTime()));
+            }
+            slotOccupancyRepository.saveAll(rows);
+            return rows.size();
+        });
+    }
+
+    List<SlotOccupancy> rows(Long reservationId, Long tableId, LocalDate date, LocalTime time, LocalTime endTime) {
+        List<SlotOccupancy> rows = new ArrayList<>();
+        int end = DiningDurationPolicy.minuteOfDay(endTime);
+        for (int slot = DiningDurationPolicy.minuteOfDay(slotOf(time)); slot < end; slot += slotMinutes) {
+            rows.add(new SlotOccupancy(date, tableId, LocalTime.of(slot / 60, slot % 60), reservationId));
+        }
+        return rows;
+    }
+
+    private LocalTime slotOf(LocalTime time) {
+        int minute = DiningDurationPolicy.minuteOfDay(time);
+        int slot = minute - minute % slotMinutes;
+        return LocalTime.of(slot / 60, slot % 60);
+    }
+}
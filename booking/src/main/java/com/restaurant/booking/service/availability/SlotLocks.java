@@ -0,0 +1,136 @@
+package com.restaurant.booking.service.availability;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.restaurant.booking.model.Reservation;
+
+/**
+ * In-process striped locks over (table, date, slot), taken while a booking checks and claims its table.
+ * <p>
+ * A booking locks every {@code slot-minutes} slot its dining window touches, so two bookings of the same
+ * table whose windows overlap share at least one slot and are serialized, while bookings of other tables,
+ * dates or non-overlapping times hash to other stripes and almost never contend. Stripes are taken in
+ * ascending order, so two bookings never wait on each other in opposite order. Inside a transaction the
+ * locks are held until it completes, so the next contender sees the committed row.
+ * <p>
+ * The locks only order bookings within one instance. Across instances the unique constraint on
+ * {@code (table_id, date, time)} of occupying reservations only rejects a second booking with the same start
+ * time; two instances can still both accept overlapping windows that start at different times.
+ */
+@Component
+public class SlotLocks {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final int slotMinutes;
+
+    public SlotLocks(@Value("${booking.locking.stripes:1024}") int stripes,
+                     @Value("${booking.locking.slot-minutes:15}") int slotMinutes) {
+        if (stripes < 1 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Slot lock stripes must be a positive power of two");
+        }
+        if (slotMinutes < 1) {
+            throw new IllegalArgumentException("Slot lock slot minutes must be positive");
+        }
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = stripes - 1;
+        this.slotMinutes = slotMinutes;
+    }
+
+    /**
+     * Runs {@code claim} holding the locks of every slot of the table between {@code time} and {@code endTime}.
+     * Inside a transaction the locks are released when it completes, otherwise when {@code claim} returns.
+     */
+    public <T> T withLock(Long tableId, LocalDate date, LocalTime time, LocalTime endTime, Supplier<T> claim) {
+        return withStripes(stripesFor(tableId, date, time, endTime), "table " + tableId + " on " + date + " at " + time, claim, result -> true);
+    }
+
+    /**
+     * {@link #withLock} for a claim that may find the table taken and return empty. Then nothing was claimed
+     * and the locks are released right away, so trying the next table never holds the locks of the previous one.
+     */
+    public <T> Optional<T> tryWithLock(Long tableId, LocalDate date, LocalTime time, LocalTime endTime, Supplier<Optional<T>> claim) {
+        return withStripes(stripesFor(tableId, date, time, endTime), "table " + tableId + " on " + date + " at " + time, claim, Optional::isPresent);
+    }
+
+    /**
+     * {@link #withLock} over the dining windows of all the reservations at once, for claiming a batch. The
+     * union of their stripes is taken in ascending order, so a batch never deadlocks with single bookings,
+     * but a large batch may hold most stripes and hold up other bookings until it completes.
+     */
+    public <T> T withLocks(Collection<Reservation> reservations, Supplier<T> claim) {
+        int[] held = reservations.stream()
+            .flatMapToInt(reservation -> Arrays.stream(stripesFor(reservation.getTable().getId(), reservation.getDate(),
+                reservation.getTime(), reservation.getEndTime())))
+            .sorted()
+            .distinct()
+            .toArray();
+        return withStripes(held, reservations.size() + " reservations", claim, result -> true);
+    }
+
+    private <T> T withStripes(int[] held, String description, Supplier<T> claim, Predicate<T> claimed) {
+        for (int i = 0; i < held.length; i++) {
+            try {
+                stripes[held[i]].lockInterruptibly();
+            } catch (InterruptedException e) {
+                unlock(held, i);
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for " + description, e);
+            }
+        }
+        boolean deferred = false;
+        try {
+            T result = claim.get();
+            if (claimed.test(result) && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        unlock(held, held.length);
+                    }
+                });
+                deferred = true;
+            }
+            return result;
+        } finally {
+            if (!deferred) {
+                unlock(held, held.length);
+            }
+        }
+    }
+
+    /**
+     * Distinct stripe indexes of the table's slots in the window, ascending.
+     */
+    int[] stripesFor(Long tableId, LocalDate date, LocalTime time, LocalTime endTime) {
+        int first = DiningDurationPolicy.minuteOfDay(time) / slotMinutes;
+        int last = Math.max(first, (DiningDurationPolicy.minuteOfDay(endTime) - 1) / slotMinutes);
+        int[] indexes = new int[last - first + 1];
+        for (int slot = first; slot <= last; slot++) {
+            int hash = 31 * (31 * Objects.hashCode(tableId) + date.hashCode()) + slot;
+            indexes[slot - first] = (hash ^ (hash >>> 16)) & mask;
+        }
+        return Arrays.stream(indexes).sorted().distinct().toArray();
+    }
+
+    private void unlock(int[] held, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            stripes[held[i]].unlock();
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.restaurant.booking.service.availability;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.restaurant.booking.event.ReservationChangedEvent;
+import com.restaurant.booking.event.ReservationsStatusChangedEvent;
+import com.restaurant.booking.event.TableChangedEvent;
+import com.restaurant.booking.model.Reservation;
+import com.restaurant.booking.model.Status;
+import com.restaurant.booking.model.Table;
+import com.restaurant.booking.repository.ReservationRepository;
+import com.restaurant.booking.repository.TableRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory view of when each table is taken, per date.
+ * <p>
+ * Every known table gets a dense ordinal, and each date keeps one sorted interval array per table
+ * holding the [start, end) minutes of its occupying reservations. Checking whether a table is free
+ * for a requested window is a binary search, and availability lookups need no database access at all.
+ * The index is rebuilt from the database at startup and whenever the set of tables changes, and kept
+ * current through {@link ReservationChangedEvent}s once their transaction has committed. On the first access
+ * after midnight the days before the new date are dropped and the covered range starts at it, so a long-running
+ * instance does not keep every past day.
+ */
+@Slf4j
+@Component
+public class SlotOccupancyIndex {
+
+    private final TableRepository tableRepository;
+    private final ReservationRepository reservationRepository;
+    private final DiningDurationPolicy durationPolicy;
+    private final boolean enabled;
+    private final Clock clock;
+
+    private final Map<LocalDate, TableIntervals[]> days = new ConcurrentHashMap<>();
+    private volatile TableSlots tables = TableSlots.EMPTY;
+    private volatile LocalDate coveredFrom;
+    private volatile LocalDate today;
+
+    @Autowired
+    public SlotOccupancyIndex(TableRepository tableRepository, ReservationRepository reservationRepository,
+                              DiningDurationPolicy durationPolicy,
+                              @Value("${booking.availability.index.enabled:true}") boolean enabled) {
+        this(tableRepository, reservationRepository, durationPolicy, enabled, Clock.systemDefaultZone());
+    }
+
+    SlotOccupancyIndex(TableRepository tableRepository, ReservationRepository reservationRepository,
+                       DiningDurationPolicy durationPolicy, boolean enabled, Clock clock) {
+        this.tableRepository = tableRepository;
+        this.reservationRepository = reservationRepository;
+        this.durationPolicy = durationPolicy;
+        this.enabled = enabled;
+        this.clock = clock;
+        this.today = LocalDate.now(clock);
+    }
+
+    // reads under the lock: a reservation committed after the query sees the lock and is applied once the
+    // rebuild is done, instead of being applied first and wiped by the rebuild
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        if (!enabled) {
+            log.info("Slot occupancy index disabled, availability is served from the database");
+            return;
+        }
+        LocalDate from = LocalDate.now(clock);
+        rebuild(tableRepository.findAll(), reservationRepository.findByDateGreaterThanEqual(from), from);
+    }
+
+    synchronized void rebuild(List<Table> allTables, List<Reservation> reservations, LocalDate from) {
+        coveredFrom = null;
+        today = LocalDate.now(clock);
+        days.clear();
+        tables = TableSlots.of(allTables);
+        reservations.forEach(this::apply);
+        coveredFrom = from;
+        log.info("Slot occupancy index built with {} tables and {} reservations from {}",
+            allTables.size(), reservations.size(), from);
+    }
+
+    /**
+     * Whether availability for the given date can be answered from memory.
+     */
+    public boolean covers(LocalDate date) {
+        dropPastDays();
+        LocalDate from = coveredFrom;
+        return enabled && from != null && !date.isBefore(from);
+    }
+
+    /**
+     * Tables that seat the party and are free for the party's whole dining duration starting at {@code time},
+     * smallest capacity first.
+     */
+    public List<Table> findAvailableTables(LocalDate date, LocalTime time, int numberOfGuests) {
+        int start = DiningDurationPolicy.minuteOfDay(time);
+        int end = DiningDurationPolicy.minuteOfDay(durationPolicy.endTime(time, durationPolicy.minutesFor(numberOfGuests)));
+        TableSlots snapshot = tables;
+        TableIntervals[] day = days.get(date);
+        List<Table> available = new ArrayList<>();
+        for (int position = snapshot.firstFitting(numberOfGuests); position < snapshot.size(); position++) {
+            int i = snapshot.ordinalAt(position);
+            if (day == null || i >= day.length || !day[i].overlaps(start, end)) {
+                available.add(snapshot.table(i));
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Whether the given table is free for the party's whole dining duration starting at {@code time}.
+     * Unknown tables are never free.
+     */
+    public boolean isFree(LocalDate date, LocalTime time, int numberOfGuests, Long tableId) {
+        return isFree(date, time, durationPolicy.endTime(time, durationPolicy.minutesFor(numberOfGuests)), tableId);
+    }
+
+    /**
+     * Whether the given table is free between {@code time} and {@code endTime}. Unknown tables are never free.
+     */
+    public boolean isFree(LocalDate date, LocalTime time, LocalTime endTime, Long tableId) {
+        int i = tables.ordinalOf(tableId);
+        if (i < 0) {
+            return false;
+        }
+        int start = DiningDurationPolicy.minuteOfDay(time);
+        int end = DiningDurationPolicy.minuteOfDay(endTime);
+        TableIntervals[] day = days.get(date);
+        return day == null || i >= day.length || !day[i].overlaps(start, end);
+    }
+
+    // after commit, so a rolled back booking never leaves an occupied interval behind; bookings themselves are
+    // checked against the database, so the short gap until the commit is applied only affects reads
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onReservationChanged(ReservationChangedEvent event) {
+        if (covers(event.reservation().getDate())) {
+            apply(event.reservation());
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onReservationsStatusChanged(ReservationsStatusChangedEvent event) {
+        if (covers(event.date())) {
+            boolean occupies = Status.occupiesTable(event.status());
+            event.reservations().forEach(slot -> apply(slot.getReservationId(), slot.getTableId(), slot.getDate(), slot.getTime(),
+                slot.getEndTime(), occupies));
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener
+    public void onTableChanged(TableChangedEvent event) {
+        if (coveredFrom != null) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Once the date has changed, drops the days before it and moves the start of the covered range to it.
+     */
+    private void dropPastDays() {
+        LocalDate now = LocalDate.now(clock);
+        if (!now.isAfter(today)) {
+            return;
+        }
+        synchronized (this) {
+            if (!now.isAfter(today)) {
+                return;
+            }
+            today = now;
+            days.keySet().removeIf(date -> date.isBefore(now));
+            LocalDate from = coveredFrom;
+            if (from != null && from.isBefore(now)) {
+                coveredFrom = now;
+            }
+            log.debug("Slot occupancy index dropped the days before {}", now);
+        }
+    }
+
+    int dayCount() {
+        return days.size();
+    }
+
+    private void apply(Reservation reservation) {
+        if (reservation.getTable() == null || reservation.getTable().getId() == null) {
+            return;
+        }
+        apply(reservation.getId(), reservation.getTable().getId(), reservation.getDate(), reservation.getTime(), reservation.getEndTime(),
+            Status.occupiesTable(reservation.getStatus()));
+    }
+
+    private void apply(Long reservationId, Long tableId, LocalDate date, LocalTime time, LocalTime endTime, boolean occupies) {
+        int ordinal = tables.ordinalOf(tableId);
+        if (ordinal < 0) {
+            log.warn("Reservation {} references unknown table {}", reservationId, tableId);
+            return;
+        }
+        int start = DiningDurationPolicy.minuteOfDay(time);
+        int end = DiningDurationPolicy.minuteOfDay(endTime);
+
+        TableIntervals intervals = days.computeIfAbsent(date, d -> newDay(tables.size()))[ordinal];
+        synchronized (intervals) {
+            intervals.remove(reservationId, start, end);
+            if (occupies) {
+                intervals.add(reservationId, start, end);
+            }
+        }
+    }
+
+    private static TableIntervals[] newDay(int tableCount) {
+        TableIntervals[] day = new TableIntervals[tableCount];
+        for (int i = 0; i < tableCount; i++) {
+            day[i] = new TableIntervals();
+        }
+        return day;
+    }
+
+    /**
+     * Immutable snapshot of the known tables, ordered by id so ordinals are stable for a given table set.
+     * {@code bySize} lists the ordinals by capacity and number, so lookups start at the smallest fitting table.
+     */
+    private static final class TableSlots {
+
+        static final TableSlots EMPTY = new TableSlots(new Table[0]);
+
+        private final Table[] byOrdinal;
+        private final int[] capacities;
+        private final int[] bySize;
+        private final Map<Long, Integer> ordinals;
+
+        private TableSlots(Table[] byOrdinal) {
+            this.byOrdinal = byOrdinal;
+            this.capacities = new int[byOrdinal.length];
+            this.ordinals = new HashMap<>(byOrdinal.length * 2);
+            for (int i = 0; i < byOrdinal.length; i++) {
+                capacities[i] = byOrdinal[i].getCapacity();
+                ordinals.put(byOrdinal[i].getId(), i);
+            }
+            this.bySize = IntStream.range(0, byOrdinal.length).boxed()
+                .sorted(Comparator.<Integer>comparingInt(i -> capacities[i]).thenComparingInt(i -> byOrdinal[i].getNumber()))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        }
+
+        static TableSlots of(List<Table> tables) {
+            return new TableSlots(tables.stream()
+                .sorted(Comparator.comparing(Table::getId))
+                .toArray(Table[]::new));
+        }
+
+        int size() {
+            return byOrdinal.length;
+        }
+
+        int ordinalAt(int position) {
+            return bySize[position];
+        }
+
+        /**
+         * Position in size order of the first table that seats the given number of guests.
+         */
+        int firstFitting(int numberOfGuests) {
+            int low = 0;
+            int high = bySize.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (capacities[bySize[mid]] < numberOfGuests) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        Table table(int ordinal) {
+            return byOrdinal[ordinal];
+        }
+
+        int ordinalOf(Long tableId) {
+            Integer ordinal = ordinals.get(tableId);
+            return ordinal == null ? -1 : ordinal;
+        }
+    }
+
+    /**
+     * Occupied [start, end) minute intervals of one table on one day, sorted by start.
+     * <p>
+     * {@code maxEnds[i]} is the largest end among the first {@code i + 1} intervals, so an overlap
+     * check is one binary search even if intervals themselves overlap.
+     */
+    static final class TableIntervals {
+
+        private Long[] ids = new Long[4];
+        private int[] starts = new int[4];
+        private int[] ends = new int[4];
+        private int[] maxEnds = new int[4];
+        private int size;
+
+        synchronized boolean overlaps(int start, int end) {
+            // last interval that starts before the requested window ends
+            int low = 0;
+            int high = size - 1;
+            int last = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < end) {
+                    last = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return last >= 0 && maxEnds[last] > start;
+        }
+
+        synchronized void add(Long id, int start, int end) {
+            if (size == starts.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                maxEnds = Arrays.copyOf(maxEnds, capacity);
+            }
+            int position = size;
+            while (position > 0 && starts[position - 1] > start) {
+                ids[position] = ids[position - 1];
+                starts[position] = starts[position - 1];
+                ends[position] = ends[position - 1];
+                position--;
+            }
+            ids[position] = id;
+            starts[position] = start;
+            ends[position] = end;
+            size++;
+            refreshMaxEnds(position);
+        }
+
+        /**
+         * Removes the interval of the given reservation; intervals without an id are matched by their bounds.
+         */
+        synchronized void remove(Long id, int start, int end) {
+            for (int i = 0; i < size; i++) {
+                boolean match = id != null ? Objects.equals(ids[i], id) : ids[i] == null && starts[i] == start && ends[i] == end;
+                if (match) {
+                    int tail = size - i - 1;
+                    System.arraycopy(ids, i + 1, ids, i, tail);
+                    System.arraycopy(starts, i + 1, starts, i, tail);
+                    System.arraycopy(ends, i + 1, ends, i, tail);
+                    size--;
+                    ids[size] = null;
+                    refreshMaxEnds(i);
+                    return;
+                }
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private void refreshMaxEnds(int from) {
+            for (int i = from; i < size; i++) {
+                maxEnds[i] = i == 0 ? ends[0] : Math.max(maxEnds[i - 1], ends[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.restaurant.booking.service.availability;
+
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.restaurant.booking.model.Table;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Degraded mode for availability lookups while the database is overloaded.
+ * <p>
+ * Every fresh result is remembered as the last known availability of its key; unlike cached entries these
+ * are not evicted by bookings. When a key has a last known result, its lookup runs on a small refresh pool
+ * and is awaited only until {@code deadline}: if it is still running then, or fails because no connection
+ * or no query slot was available, the last known result is served as stale while that single refresh
+ * keeps running and records its result for the next caller. Keys without a last known result, and lookups
+ * the saturated pool rejects, always wait for the lookup on the calling thread.
+ * <p>
+ * At most {@code maximum-size} keys are remembered. Stale responses are counted in {@code booking.availability.stale.served} and their age recorded in
+ * {@code booking.availability.stale.age}.
+ */
+@Slf4j
+@Component
+public class StaleAvailability {
+
+    private final boolean enabled;
+    private final long deadlineNanos;
+    private final Cache<Object, Snapshot> lastKnown;
+    private final Map<Object, CompletableFuture<List<Table>>> refreshes = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+    private final Counter servedStale;
+    private final Timer staleAge;
+
+    public StaleAvailability(MeterRegistry meterRegistry,
+                             @Value("${booking.availability.degraded.enabled:true}") boolean enabled,
+                             @Value("${booking.availability.degraded.deadline:PT0.5S}") Duration deadline,
+                             @Value("${booking.availability.degraded.stale-max-age:PT1H}") Duration staleMaxAge,
+                             @Value("${booking.availability.degraded.maximum-size:10000}") long maximumSize,
+                             @Value("${booking.availability.degraded.refresh-threads:2}") int refreshThreads) {
+        if (refreshThreads < 1) {
+            throw new IllegalArgumentException("Availability refresh threads must be positive");
+        }
+        this.enabled = enabled;
+        this.deadlineNanos = deadline.toNanos();
+        this.lastKnown = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(staleMaxAge)
+            .build();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(100),
+            runnable -> {
+                Thread thread = new Thread(runnable, "availability-refresh-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.servedStale = Counter.builder("booking.availability.stale.served")
+            .description("Availability lookups answered with a last known result")
+            .register(meterRegistry);
+        this.staleAge = Timer.builder("booking.availability.stale.age")
+            .description("Age of the last known availability results served as stale")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code lookup} for the key, falling back to its last known result if the lookup overruns the
+     * deadline or the database is overloaded.
+     */
+    public AvailabilityResult get(Object key, Supplier<List<Table>> lookup) {
+        if (!enabled) {
+            return AvailabilityResult.fresh(lookup.get());
+        }
+        Snapshot snapshot = lastKnown.getIfPresent(key);
+        if (snapshot == null) {
+            return AvailabilityResult.fresh(remember(key, lookup.get()));
+        }
+
+        CompletableFuture<List<Table>> refresh = refresh(key, lookup);
+        if (refresh == null) {
+            log.warn("Availability refresh pool saturated, looking up {} on the calling thread", key);
+            return AvailabilityResult.fresh(remember(key, lookup.get()));
+        }
+        try {
+            return AvailabilityResult.fresh(refresh.get(deadlineNanos, TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            log.warn("Availability lookup for {} exceeded its deadline, serving last known result", key);
+            return stale(snapshot);
+        } catch (ExecutionException e) {
+            if (isOverload(e.getCause())) {
+                log.warn("Database overloaded while looking up {}, serving last known result: {}", key, e.getCause().getMessage());
+                return stale(snapshot);
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return stale(snapshot);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * The refresh already running for the key, or a newly started one; {@code null} if the pool is saturated.
+     */
+    private CompletableFuture<List<Table>> refresh(Object key, Supplier<List<Table>> lookup) {
+        CompletableFuture<List<Table>> running = refreshes.get(key);
+        if (running != null) {
+            return running;
+        }
+        CompletableFuture<List<Table>> created = new CompletableFuture<>();
+        running = refreshes.putIfAbsent(key, created);
+        if (running != null) {
+            return running;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    created.complete(remember(key, lookup.get()));
+                } catch (Throwable t) {
+                    created.completeExceptionally(t);
+                } finally {
+                    refreshes.remove(key, created);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshes.remove(key, created);
+            return null;
+        }
+        return created;
+    }
+
+    private List<Table> remember(Object key, List<Table> tables) {
+        lastKnown.put(key, new Snapshot(tables, System.nanoTime()));
+        return tables;
+    }
+
+    private AvailabilityResult stale(Snapshot snapshot) {
+        Duration age = Duration.ofNanos(System.nanoTime() - snapshot.loadedAt());
+        servedStale.increment();
+        staleAge.record(age);
+        return new AvailabilityResult(snapshot.tables(), age);
+    }
+
+    static boolean isOverload(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataAccessResourceFailureException || cause instanceof TransientDataAccessException
+                || cause instanceof SQLTransientException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Snapshot(List<Table> tables, long loadedAt) {
+    }
+}
@@ -0,0 +1,199 @@
+package com.restaurant.booking.service.hold;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel: {@code wheelSize} buckets of {@code tick} each, turning once every
+ * {@code wheelSize * tick}.
+ * <p>
+ * A timeout goes into the bucket of its deadline's tick with the number of full turns still to wait, so
+ * scheduling and cancelling are O(1) however many timeouts are pending, and each tick only walks one bucket.
+ * Deadlines are rounded up to the next tick. {@link #schedule} and {@link Timeout#cancel()} may be called from
+ * any thread; they are queued and applied by {@link #advance}, which must always be called from the same
+ * thread and is the only place buckets are touched.
+ */
+public class HashedTimingWheel<T> {
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final long tickMillis;
+    private final Bucket<T>[] buckets;
+    private final int mask;
+    private final long startMillis;
+    private final Queue<Timeout<T>> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout<T>> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(Duration tick, int wheelSize, long startMillis) {
+        if (tick.toMillis() < 1 || wheelSize < 1 || wheelSize > 1 << 20) {
+            throw new IllegalArgumentException("Timing wheel tick must be at least a millisecond and the wheel size 1 to 2^20");
+        }
+        // a power of two, so the bucket of a tick is a mask instead of a division
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) {
+            size <<= 1;
+        }
+        this.tickMillis = tick.toMillis();
+        this.buckets = (Bucket<T>[]) new Bucket<?>[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new Bucket<>();
+        }
+        this.mask = size - 1;
+        this.startMillis = startMillis;
+    }
+
+    /**
+     * Schedules {@code value} to expire at {@code deadlineMillis}, or on the next tick when that has passed.
+     */
+    public Timeout<T> schedule(T value, long deadlineMillis) {
+        Timeout<T> timeout = new Timeout<>(this, value, deadlineMillis);
+        pending.incrementAndGet();
+        scheduled.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMillis} and hands every timeout whose deadline has passed to
+     * {@code expired}; returns how many expired.
+     */
+    public int advance(long nowMillis, Consumer<T> expired) {
+        removeCancelled();
+        long target = (nowMillis - startMillis) / tickMillis;
+        int count = 0;
+        while (tick <= target) {
+            transferScheduled();
+            count += buckets[(int) (tick & mask)].expire(nowMillis, expired);
+            tick++;
+        }
+        return count;
+    }
+
+    /**
+     * Timeouts scheduled and neither expired nor cancelled yet.
+     */
+    public int size() {
+        return pending.get();
+    }
+
+    private void transferScheduled() {
+        Timeout<T> timeout;
+        while ((timeout = scheduled.poll()) != null) {
+            if (timeout.state.get() != PENDING) {
+                continue;
+            }
+            long deadlineTick = Math.max(tick, Math.floorDiv(timeout.deadlineMillis - startMillis + tickMillis - 1, tickMillis));
+            timeout.remainingRounds = (deadlineTick - tick) / buckets.length;
+            buckets[(int) (deadlineTick & mask)].add(timeout);
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout<T> timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    public static final class Timeout<T> {
+
+        private final HashedTimingWheel<T> wheel;
+        private final T value;
+        private final long deadlineMillis;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private long remainingRounds;
+        private Bucket<T> bucket;
+        private Timeout<T> previous;
+        private Timeout<T> next;
+
+        private Timeout(HashedTimingWheel<T> wheel, T value, long deadlineMillis) {
+            this.wheel = wheel;
+            this.value = value;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        public T value() {
+            return value;
+        }
+
+        /**
+         * Stops the timeout from expiring; returns {@code false} when it already expired or was cancelled.
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(PENDING, CANCELLED)) {
+                return false;
+            }
+            wheel.pending.decrementAndGet();
+            wheel.cancelled.add(this);
+            return true;
+        }
+    }
+
+    /**
+     * Doubly linked list of the timeouts hashed to one tick, only touched by the thread advancing the wheel.
+     */
+    private static final class Bucket<T> {
+
+        private Timeout<T> head;
+        private Timeout<T> tail;
+
+        void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.previous = tail;
+                tail = timeout;
+            }
+        }
+
+        int expire(long nowMillis, Consumer<T> expired) {
+            int count = 0;
+            Timeout<T> timeout = head;
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                if (timeout.remainingRounds > 0) {
+                    timeout.remainingRounds--;
+                } else if (timeout.deadlineMillis <= nowMillis) {
+                    remove(timeout);
+                    if (timeout.state.compareAndSet(PENDING, EXPIRED)) {
+                        timeout.wheel.pending.decrementAndGet();
+                        expired.accept(timeout.value);
+                        count++;
+                    }
+                }
+                timeout = next;
+            }
+            return count;
+        }
+
+        void remove(Timeout<T> timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            if (timeout.previous != null) {
+                timeout.previous.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            } else {
+                tail = timeout.previous;
+            }
+            timeout.previous = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.restaurant.booking.service.hold;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.restaurant.booking.event.ReservationChangedEvent;
+import com.restaurant.booking.model.Reservation;
+import com.restaurant.booking.model.Status;
+import com.restaurant.booking.repository.ReservationRepository;
+import com.restaurant.booking.service.ReservationService;
+import com.restaurant.booking.service.hold.HashedTimingWheel.Timeout;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Table holds for guests in checkout, released after {@code booking.holds.ttl} unless confirmed.
+ * <p>
+ * A hold is a {@link Status#HELD} reservation, so every availability path counts its table as taken and the
+ * slot unique index keeps two holds or bookings off the same slot. Expiry is kept in memory instead of polling
+ * the database: committed holds are scheduled on a {@link HashedTimingWheel} ticking every
+ * {@code booking.holds.tick}, and each tick releases the holds that came due, up to 500 per transaction.
+ * Holds still open when an instance starts, including those of an instance that stopped, are scheduled from
+ * the database; confirming checks the expiry itself, so a hold whose release is late cannot be confirmed.
+ * <p>
+ * {@code booking.holds.active} gauges the holds waiting on this instance's wheel and
+ * {@code booking.holds.expired} counts the released ones.
+ */
+@Slf4j
+@Component
+public class TableHolds {
+
+    private static final int EXPIRE_BATCH_SIZE = 500;
+
+    private final ReservationService reservationService;
+    private final ReservationRepository reservationRepository;
+    private final Clock clock;
+    private final Duration ttl;
+    private final Duration tick;
+    private final HashedTimingWheel<Long> wheel;
+    private final Map<Long, Timeout<Long>> timeouts = new ConcurrentHashMap<>();
+    private final Counter expired;
+    private final ScheduledExecutorService executor;
+
+    @Autowired
+    public TableHolds(ReservationService reservationService, ReservationRepository reservationRepository, MeterRegistry meterRegistry,
+                      @Value("${booking.holds.ttl:PT5M}") Duration ttl,
+                      @Value("${booking.holds.tick:PT1S}") Duration tick,
+                      @Value("${booking.holds.wheel-size:512}") int wheelSize) {
+        this(reservationService, reservationRepository, meterRegistry, ttl, tick, wheelSize, Clock.systemUTC());
+    }
+
+    TableHolds(ReservationService reservationService, ReservationRepository reservationRepository, MeterRegistry meterRegistry,
+               Duration ttl, Duration tick, int wheelSize, Clock clock) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Hold time to live must be positive");
+        }
+        this.reservationService = reservationService;
+        this.reservationRepository = reservationRepository;
+        this.clock = clock;
+        this.ttl = ttl;
+        this.tick = tick;
+        this.wheel = new HashedTimingWheel<>(tick, wheelSize, clock.millis());
+        Gauge.builder("booking.holds.active", wheel, HashedTimingWheel::size)
+            .description("Table holds waiting to expire on this instance")
+            .register(meterRegistry);
+        this.expired = Counter.builder("booking.holds.expired")
+            .description("Table holds released because they were not confirmed in time")
+            .register(meterRegistry);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hold-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public Reservation hold(Reservation reservation) {
+        return reservationService.createHold(reservation, Instant.now(clock).plus(ttl));
+    }
+
+    public Reservation confirm(Long id) {
+        return reservationService.confirmHold(id, Instant.now(clock));
+    }
+
+    public void release(Long id) {
+        reservationService.releaseHold(id);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<Reservation> open = reservationRepository.findByStatus(Status.HELD);
+        open.forEach(this::schedule);
+        log.info("Scheduled {} open table holds for expiry", open.size());
+        long millis = tick.toMillis();
+        executor.scheduleWithFixedDelay(this::expireDue, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // after commit, so a rolled back hold is never scheduled
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        Reservation reservation = event.reservation();
+        if (reservation.getStatus() == Status.HELD) {
+            schedule(reservation);
+        } else if (event.previousStatus() == Status.HELD) {
+            Timeout<Long> timeout = timeouts.remove(reservation.getId());
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+    }
+
+    /**
+     * Advances the wheel to now and releases the holds that came due. Holds whose release fails are scheduled
+     * again for the next tick; never throws, so the schedule keeps running while the database is unavailable.
+     */
+    void expireDue() {
+        List<Long> due = new ArrayList<>();
+        wheel.advance(clock.millis(), due::add);
+        for (int from = 0; from < due.size(); from += EXPIRE_BATCH_SIZE) {
+            List<Long> batch = due.subList(from, Math.min(due.size(), from + EXPIRE_BATCH_SIZE));
+            batch.forEach(timeouts::remove);
+            try {
+                int released = reservationService.expireHolds(batch, Instant.now(clock));
+                expired.increment(released);
+                log.info("Released {} expired table holds", released);
+            } catch (RuntimeException e) {
+                log.error("Releasing {} expired table holds failed, retrying: {}", batch.size(), e.getMessage(), e);
+                long retryAt = clock.millis() + tick.toMillis();
+                batch.forEach(id -> schedule(id, retryAt));
+            }
+        }
+    }
+
+    private void schedule(Reservation hold) {
+        schedule(hold.getId(), hold.getHoldExpiresAt().toEpochMilli());
+    }
+
+    private void schedule(Long id, long deadlineMillis) {
+        Timeout<Long> previous = timeouts.put(id, wheel.schedule(id, deadlineMillis));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+}
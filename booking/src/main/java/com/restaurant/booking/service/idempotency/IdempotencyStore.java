@@ -0,0 +1,270 @@
+package com.restaurant.booking.service.idempotency;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.restaurant.booking.exception.ConflictException;
+import com.restaurant.booking.model.IdempotencyRecord;
+import com.restaurant.booking.repository.IdempotencyRecordRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Remembers the first response to each {@code Idempotency-Key} so retries are answered without running the
+ * request again.
+ * <p>
+ * Responses live in a bounded in-memory cache and in the {@code idempotency_keys} table, both expiring after
+ * {@code ttl}; the table keeps them across restarts and shares them between instances. Before running a request
+ * the key is claimed by inserting a pending row, so only one instance runs it. A retry arriving while the first
+ * request is still running waits for its outcome instead of running alongside it: on the same instance for the
+ * request itself, on another one by polling the row for up to {@code pending-timeout}, after which it is
+ * rejected as a conflict. The pending row expires after the same timeout, so the key is freed if the instance
+ * running the request stops. If the first request fails, its claim is removed and nothing is stored; the
+ * retries waiting on the same instance see the same failure, and a later retry runs the request again. Reusing
+ * a key for a request with a different body is rejected.
+ * <p>
+ * Replays are counted in {@code booking.idempotency.replays}, tagged with the {@code source} that answered them.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    public static final int MAX_KEY_LENGTH = 100;
+
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    private final IdempotencyRecordRepository repository;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Duration ttl;
+    private final Duration pendingTimeout;
+    private final Cache<String, Stored> memory;
+    private final ConcurrentMap<String, CompletableFuture<Stored>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong nextPurge = new AtomicLong();
+
+    @Autowired
+    public IdempotencyStore(IdempotencyRecordRepository repository, MeterRegistry meterRegistry,
+                            @Value("${booking.idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${booking.idempotency.maximum-size:10000}") long maximumSize,
+                            @Value("${booking.idempotency.pending-timeout:PT10S}") Duration pendingTimeout) {
+        this(repository, meterRegistry, ttl, maximumSize, pendingTimeout, Clock.systemUTC());
+    }
+
+    IdempotencyStore(IdempotencyRecordRepository repository, MeterRegistry meterRegistry, Duration ttl, long maximumSize,
+                     Duration pendingTimeout, Clock clock) {
+        if (ttl.isNegative() || ttl.isZero() || pendingTimeout.isNegative() || pendingTimeout.isZero()) {
+            throw new IllegalArgumentException("Idempotency key TTL and pending timeout must be positive");
+        }
+        this.repository = repository;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.ttl = ttl;
+        this.pendingTimeout = pendingTimeout;
+        this.memory = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .build();
+    }
+
+    /**
+     * The stored response for the key, or the response of {@code request} stored under the key.
+     *
+     * @param requestBody the request as sent, to tell a retry from a different request reusing the key
+     */
+    public IdempotentResponse execute(String key, String requestBody, Supplier<IdempotentResponse> request) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(requestBody);
+        Stored stored = memory.getIfPresent(key);
+        if (stored != null) {
+            return replay(key, stored, requestHash, "memory");
+        }
+
+        CompletableFuture<Stored> flight = new CompletableFuture<>();
+        CompletableFuture<Stored> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return replay(key, await(existing), requestHash, "in-flight");
+        }
+        try {
+            stored = memory.getIfPresent(key);
+            if (stored != null) {
+                flight.complete(stored);
+                return replay(key, stored, requestHash, "memory");
+            }
+            stored = claim(key, requestHash);
+            if (stored != null) {
+                memory.put(key, stored);
+                flight.complete(stored);
+                return replay(key, stored, requestHash, "database");
+            }
+
+            IdempotentResponse response = run(key, request);
+            stored = new Stored(requestHash, response.status(), response.body());
+            persist(key, stored);
+            memory.put(key, stored);
+            flight.complete(stored);
+            return response;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private IdempotentResponse replay(String key, Stored stored, String requestHash, String source) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IllegalArgumentException("Idempotency-Key " + key + " was already used for a different request");
+        }
+        meterRegistry.counter("booking.idempotency.replays", "source", source).increment();
+        log.info("Replaying stored response for Idempotency-Key {} from {}", key, source);
+        return new IdempotentResponse(stored.status(), stored.body(), true);
+    }
+
+    /**
+     * Claims the key for this request with a pending row; returns {@code null} once claimed, or the response
+     * another instance stored under the key, waiting up to the pending timeout while that request is running.
+     */
+    private Stored claim(String key, String requestHash) {
+        long deadline = System.nanoTime() + pendingTimeout.toNanos();
+        while (true) {
+            Stored stored = load(key);
+            if (stored == null) {
+                if (insertPending(key, requestHash)) {
+                    return null;
+                }
+            } else if (!stored.requestHash().equals(requestHash)) {
+                throw new IllegalArgumentException("Idempotency-Key " + key + " was already used for a different request");
+            } else if (stored.status() != IdempotencyRecord.PENDING) {
+                return stored;
+            }
+            if (System.nanoTime() >= deadline) {
+                throw new ConflictException("A request with Idempotency-Key " + key + " is still being processed, retry later");
+            }
+            sleep();
+        }
+    }
+
+    /**
+     * Inserts the pending row for the key; false if another request holds it.
+     */
+    private boolean insertPending(String key, String requestHash) {
+        Instant now = clock.instant();
+        try {
+            repository.deleteExpired(key, now);
+            repository.saveAndFlush(new IdempotencyRecord(key, requestHash, IdempotencyRecord.PENDING, null, now, now.plus(pendingTimeout)));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        } catch (DataAccessException e) {
+            log.warn("Could not claim Idempotency-Key {}, running the request without a claim: {}", key, e.getMessage());
+            return true;
+        }
+    }
+
+    private IdempotentResponse run(String key, Supplier<IdempotentResponse> request) {
+        try {
+            return request.get();
+        } catch (RuntimeException | Error e) {
+            try {
+                repository.deleteByKeyAndStatus(key, IdempotencyRecord.PENDING);
+            } catch (DataAccessException deleteFailure) {
+                // the claim expires after the pending timeout either way
+                log.warn("Could not release Idempotency-Key {}: {}", key, deleteFailure.getMessage());
+            }
+            throw e;
+        }
+    }
+
+    private Stored load(String key) {
+        try {
+            return repository.findUnexpired(key, clock.instant())
+                .map(record -> new Stored(record.getRequestHash(), record.getStatus(), record.getBody()))
+                .orElse(null);
+        } catch (DataAccessException e) {
+            log.warn("Could not look up Idempotency-Key {}, treating it as new: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void persist(String key, Stored stored) {
+        Instant now = clock.instant();
+        try {
+            if (repository.complete(key, stored.status(), stored.body(), now.plus(ttl)) == 0) {
+                // the claim expired while the request ran, or could not be inserted
+                repository.save(new IdempotencyRecord(key, stored.requestHash(), stored.status(), stored.body(), now, now.plus(ttl)));
+            }
+            purgeExpired(now);
+        } catch (DataAccessException e) {
+            // the response has been produced either way; without the row a retry after a restart runs it again
+            log.warn("Could not store the response for Idempotency-Key {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes expired rows at most once per TTL, piggybacking on the writes.
+     */
+    private void purgeExpired(Instant now) {
+        long due = nextPurge.get();
+        if (now.toEpochMilli() >= due && nextPurge.compareAndSet(due, now.plus(ttl).toEpochMilli())) {
+            int purged = repository.deleteExpired(now);
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for Idempotency-Key", e);
+        }
+    }
+
+    private static Stored await(CompletableFuture<Stored> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    static String hash(String requestBody) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(requestBody.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Stored(String requestHash, int status, String body) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.restaurant.booking.service.idempotency;
+
+/**
+ * Status and JSON body of a response to a request sent with an {@code Idempotency-Key}. {@code replayed}
+ * is set when the response was stored for an earlier request with the same key rather than produced now.
+ */
+public record IdempotentResponse(int status, String body, boolean replayed) {
+
+    public static IdempotentResponse of(int status, String body) {
+        return new IdempotentResponse(status, body, false);
+    }
+}
@@ -0,0 +1,128 @@
+package com.restaurant.booking.service.integration;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Count-based circuit breaker for one integration.
+ * <p>
+ * While {@link State#CLOSED} the outcomes of the last {@code windowSize} calls are kept in a ring; once at
+ * least {@code minimumCalls} have been recorded and the share of failures reaches
+ * {@code failureRateThreshold} percent the breaker opens and refuses calls for {@code openDuration}. After
+ * that it turns {@link State#HALF_OPEN} and lets {@code halfOpenCalls} probes through: one failing probe
+ * opens it again, all of them succeeding closes it with an empty window.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final boolean[] window;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final Duration openDuration;
+    private final int halfOpenCalls;
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+    private int recorded;
+    private int next;
+    private int failures;
+    private Instant openUntil = Instant.MIN;
+    private int probesPermitted;
+    private int probesSucceeded;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold, Duration openDuration, int halfOpenCalls, Clock clock) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize || halfOpenCalls < 1) {
+            throw new IllegalArgumentException("Circuit breaker window, minimum calls and half-open calls must be positive, "
+                + "with the minimum calls at most the window size");
+        }
+        if (failureRateThreshold < 1 || failureRateThreshold > 100 || openDuration.isNegative() || openDuration.isZero()) {
+            throw new IllegalArgumentException("Circuit breaker failure rate threshold must be 1-100 percent and the open duration positive");
+        }
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDuration = openDuration;
+        this.halfOpenCalls = halfOpenCalls;
+        this.clock = clock;
+    }
+
+    /**
+     * Whether a call may go out now. Every permitted call must be followed by {@link #onSuccess()} or
+     * {@link #onFailure()}.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN && !Instant.now(clock).isBefore(openUntil)) {
+            state = State.HALF_OPEN;
+            probesPermitted = 0;
+            probesSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN && probesPermitted < halfOpenCalls) {
+            probesPermitted++;
+            return true;
+        }
+        return state == State.CLOSED;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++probesSucceeded >= halfOpenCalls) {
+                close();
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    /**
+     * Share of failed calls in the window, in percent; 0 while fewer than the minimum calls are recorded.
+     */
+    public synchronized int failureRate() {
+        return recorded < minimumCalls ? 0 : failures * 100 / recorded;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+        if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openUntil = Instant.now(clock).plus(openDuration);
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        recorded = 0;
+        next = 0;
+        failures = 0;
+    }
+}
@@ -1,9 +1,19 @@
 package com.restaurant.booking.service.integration;
 
+import java.util.List;
+
 import com.restaurant.booking.dto.ReservationDTO;
 
 public interface CrmIntegrationService {
 
     void sendReservationToCrm(ReservationDTO reservationDTO);
 
+    /**
+     * Sends many reservations at once, for example after a bulk import. Implementations that can submit a
+     * batch in one call should override this; the default sends them one by one.
+     */
+    default void sendReservationsToCrm(List<ReservationDTO> reservationDTOs) {
+        reservationDTOs.forEach(this::sendReservationToCrm);
+    }
+
 }
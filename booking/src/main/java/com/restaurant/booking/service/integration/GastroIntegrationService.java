@@ -1,8 +1,18 @@
 package com.restaurant.booking.service.integration;
 
+import java.util.List;
+
 import com.restaurant.booking.dto.ReservationDTO;
 
 public interface GastroIntegrationService {
 
     void sendReservationToGastro(ReservationDTO reservationDTO);
+
+    /**
+     * Sends many reservations at once, for example after a bulk import. Implementations that can submit a
+     * batch in one call should override this; the default sends them one by one.
+     */
+    default void sendReservationsToGastro(List<ReservationDTO> reservationDTOs) {
+        reservationDTOs.forEach(this::sendReservationToGastro);
+    }
 }
@@ -0,0 +1,155 @@
+package com.restaurant.booking.service.integration;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.restaurant.booking.dto.ReservationDTO;
+import com.restaurant.booking.service.integration.IntegrationResilience.Permission;
+import com.restaurant.booking.service.integration.OutboxMessage.Integration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Calls every integration at once.
+ * <p>
+ * Each integration's call runs on its own task of a bounded pool, so a round takes as long as the slowest
+ * integration rather than the sum of all, and a failing integration does not keep the others from being
+ * called. Every call has its own deadline of {@code booking.integration.timeout} from when it was submitted;
+ * calls still running then are cancelled and reported as timed out. Calls go through
+ * {@link IntegrationResilience} first and are rejected without being made while the integration's bulkhead
+ * is full or its circuit breaker open; successes, errors and timeouts feed the breaker.
+ * <p>
+ * Call latency is recorded in {@code booking.integration.calls}, tagged with the {@code integration} and the
+ * {@code outcome} ({@code success}, {@code error}, {@code timeout} or {@code rejected}).
+ */
+@Slf4j
+@Component
+public class IntegrationDispatcher {
+
+    public enum Outcome {
+        SUCCESS, ERROR, TIMEOUT, REJECTED
+    }
+
+    public record Result(Outcome outcome, Duration latency, String error) {
+
+        public boolean succeeded() {
+            return outcome == Outcome.SUCCESS;
+        }
+    }
+
+    private final Map<Integration, Consumer<List<ReservationDTO>>> senders = new EnumMap<>(Integration.class);
+    private final IntegrationResilience resilience;
+    private final MeterRegistry meterRegistry;
+    private final long timeoutNanos;
+    private final ExecutorService executor;
+
+    public IntegrationDispatcher(CrmIntegrationService crmIntegrationService, GastroIntegrationService gastroIntegrationService,
+                                 IntegrationResilience resilience, MeterRegistry meterRegistry,
+                                 @Value("${booking.integration.timeout:PT5S}") Duration timeout,
+                                 @Value("${booking.integration.threads:4}") int threads) {
+        if (timeout.isNegative() || timeout.isZero() || threads < 1) {
+            throw new IllegalArgumentException("Integration timeout and threads must be positive");
+        }
+        this.senders.put(Integration.CRM, crmIntegrationService::sendReservationsToCrm);
+        this.senders.put(Integration.GASTRO, gastroIntegrationService::sendReservationsToGastro);
+        this.resilience = resilience;
+        this.meterRegistry = meterRegistry;
+        this.timeoutNanos = timeout.toNanos();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "integration-dispatch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sends each integration its reservations concurrently and waits for all of them; returns the result per
+     * integration. Never throws for a failing integration, only when interrupted while waiting.
+     */
+    public Map<Integration, Result> dispatch(Map<Integration, List<ReservationDTO>> reservationsByIntegration) {
+        Map<Integration, Future<Result>> calls = new EnumMap<>(Integration.class);
+        Map<Integration, Long> deadlines = new EnumMap<>(Integration.class);
+        reservationsByIntegration.forEach((integration, reservationDTOs) -> {
+            deadlines.put(integration, System.nanoTime() + timeoutNanos);
+            calls.put(integration, executor.submit(() -> call(integration, reservationDTOs)));
+        });
+
+        Map<Integration, Result> results = new EnumMap<>(Integration.class);
+        for (Map.Entry<Integration, Future<Result>> call : calls.entrySet()) {
+            Integration integration = call.getKey();
+            Result result;
+            try {
+                result = call.getValue().get(Math.max(0, deadlines.get(integration) - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                call.getValue().cancel(true);
+                result = new Result(Outcome.TIMEOUT, Duration.ofNanos(timeoutNanos),
+                    "No answer within " + Duration.ofNanos(timeoutNanos));
+            } catch (ExecutionException e) {
+                result = new Result(Outcome.ERROR, Duration.ZERO, e.getCause().toString());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                calls.values().forEach(future -> future.cancel(true));
+                throw new IllegalStateException("Interrupted while waiting for integrations", e);
+            }
+            if (!result.succeeded()) {
+                log.warn("Sending {} reservations to {} failed ({}): {}",
+                    reservationsByIntegration.get(integration).size(), integration, result.outcome(), result.error());
+            }
+            if (result.outcome() == Outcome.SUCCESS) {
+                resilience.onSuccess(integration);
+            } else if (result.outcome() != Outcome.REJECTED) {
+                resilience.onFailure(integration);
+            }
+            record(integration, result);
+            results.put(integration, result);
+        }
+        return results;
+    }
+
+    private Result call(Integration integration, List<ReservationDTO> reservationDTOs) {
+        Permission permission = resilience.tryAcquire(integration);
+        if (permission != Permission.PERMITTED) {
+            return new Result(Outcome.REJECTED, Duration.ZERO, "Rejected: " + permission.name().toLowerCase().replace('_', ' '));
+        }
+        long start = System.nanoTime();
+        try {
+            senders.get(integration).accept(reservationDTOs);
+            return new Result(Outcome.SUCCESS, Duration.ofNanos(System.nanoTime() - start), null);
+        } catch (RuntimeException e) {
+            return new Result(Outcome.ERROR, Duration.ofNanos(System.nanoTime() - start), e.toString());
+        } finally {
+            resilience.release(integration);
+        }
+    }
+
+    private void record(Integration integration, Result result) {
+        Timer.builder("booking.integration.calls")
+            .description("Calls to an integration by outcome")
+            .tag("integration", integration.name().toLowerCase())
+            .tag("outcome", result.outcome().name().toLowerCase())
+            .register(meterRegistry)
+            .record(result.latency());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
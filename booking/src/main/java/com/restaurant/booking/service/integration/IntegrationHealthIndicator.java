@@ -0,0 +1,46 @@
+package com.restaurant.booking.service.integration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+import com.restaurant.booking.service.integration.CircuitBreaker.State;
+import com.restaurant.booking.service.integration.OutboxMessage.Integration;
+
+/**
+ * {@code integrations} component of {@code /actuator/health}: breaker state, failure rate, free bulkhead
+ * slots and refused calls per integration. It reports {@code DEGRADED} rather than {@code DOWN} while a
+ * breaker is not closed, since bookings keep working and the outbox catches up once the integration recovers.
+ */
+@Component("integrations")
+public class IntegrationHealthIndicator implements HealthIndicator {
+
+    static final Status DEGRADED = new Status("DEGRADED", "An integration circuit breaker is not closed");
+
+    private final IntegrationResilience resilience;
+
+    public IntegrationHealthIndicator(IntegrationResilience resilience) {
+        this.resilience = resilience;
+    }
+
+    @Override
+    public Health health() {
+        boolean closed = true;
+        Health.Builder health = Health.up();
+        for (Integration integration : Integration.values()) {
+            State state = resilience.state(integration);
+            closed &= state == State.CLOSED;
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("circuit", state);
+            details.put("failureRate", resilience.failureRate(integration));
+            details.put("availableCalls", resilience.availableCalls(integration));
+            details.put("rejectedCalls", (long) resilience.rejectedCalls(integration));
+            health.withDetail(integration.name().toLowerCase(), details);
+        }
+        return closed ? health.build() : health.status(DEGRADED).build();
+    }
+}
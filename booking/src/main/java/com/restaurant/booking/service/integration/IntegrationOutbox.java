@@ -0,0 +1,58 @@
+package com.restaurant.booking.service.integration;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.booking.dto.ReservationDTO;
+import com.restaurant.booking.repository.OutboxRepository;
+
+/**
+ * Records reservations for CRM and Gastro in the {@code integration_outbox} table instead of calling them.
+ * <p>
+ * Messages are written in the caller's transaction, so they commit or roll back with the reservation and
+ * booking latency no longer depends on the external systems; {@link OutboxRelay} delivers them afterwards.
+ */
+@Component
+public class IntegrationOutbox {
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    public IntegrationOutbox(OutboxRepository outboxRepository, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public void enqueue(ReservationDTO reservationDTO) {
+        enqueue(List.of(reservationDTO));
+    }
+
+    /**
+     * Adds one message per integration for each reservation, in list order.
+     */
+    public void enqueue(List<ReservationDTO> reservationDTOs) {
+        if (reservationDTOs.isEmpty()) {
+            return;
+        }
+        List<Long> reservationIds = new ArrayList<>(reservationDTOs.size());
+        List<String> payloads = new ArrayList<>(reservationDTOs.size());
+        for (ReservationDTO reservationDTO : reservationDTOs) {
+            reservationIds.add(reservationDTO.getReservationId());
+            payloads.add(toJson(reservationDTO));
+        }
+        outboxRepository.insertAll(reservationIds, payloads, Instant.now());
+    }
+
+    private String toJson(ReservationDTO reservationDTO) {
+        try {
+            return objectMapper.writeValueAsString(reservationDTO);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize reservation " + reservationDTO.getReservationId() + " for the outbox", e);
+        }
+    }
+}
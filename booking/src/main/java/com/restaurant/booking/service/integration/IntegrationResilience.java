@@ -0,0 +1,136 @@
+package com.restaurant.booking.service.integration;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.restaurant.booking.service.integration.CircuitBreaker.State;
+import com.restaurant.booking.service.integration.OutboxMessage.Integration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bulkhead and circuit breaker per integration, checked by the {@link IntegrationDispatcher} before each call.
+ * <p>
+ * The bulkhead allows at most {@code booking.integration.bulkhead.max-concurrent-calls} calls to one
+ * integration at a time, so calls that hang past their deadline cannot take every dispatcher thread. The
+ * {@link CircuitBreaker} fails calls fast while an integration keeps failing or timing out.
+ * <p>
+ * Refused calls are counted in {@code booking.integration.rejected}, tagged with the {@code integration} and
+ * the {@code reason}; {@code booking.integration.circuit.state} is 1 for the current state of each
+ * integration's breaker and 0 for the others, and {@code booking.integration.bulkhead.available} shows the
+ * free call slots.
+ */
+@Component
+public class IntegrationResilience {
+
+    public enum Permission {
+        PERMITTED, CIRCUIT_OPEN, BULKHEAD_FULL
+    }
+
+    private final Map<Integration, CircuitBreaker> breakers = new EnumMap<>(Integration.class);
+    private final Map<Integration, Semaphore> bulkheads = new EnumMap<>(Integration.class);
+    private final Map<Integration, Map<Permission, Counter>> rejected = new EnumMap<>(Integration.class);
+
+    @Autowired
+    public IntegrationResilience(MeterRegistry meterRegistry,
+                                 @Value("${booking.integration.bulkhead.max-concurrent-calls:2}") int maxConcurrentCalls,
+                                 @Value("${booking.integration.circuit.window-size:10}") int windowSize,
+                                 @Value("${booking.integration.circuit.minimum-calls:5}") int minimumCalls,
+                                 @Value("${booking.integration.circuit.failure-rate-threshold:50}") int failureRateThreshold,
+                                 @Value("${booking.integration.circuit.open-duration:PT30S}") Duration openDuration,
+                                 @Value("${booking.integration.circuit.half-open-calls:2}") int halfOpenCalls) {
+        this(meterRegistry, maxConcurrentCalls, windowSize, minimumCalls, failureRateThreshold, openDuration, halfOpenCalls, Clock.systemUTC());
+    }
+
+    IntegrationResilience(MeterRegistry meterRegistry, int maxConcurrentCalls, int windowSize, int minimumCalls, int failureRateThreshold,
+                          Duration openDuration, int halfOpenCalls, Clock clock) {
+        if (maxConcurrentCalls < 1) {
+            throw new IllegalArgumentException("Integration bulkhead must allow at least one call");
+        }
+        for (Integration integration : Integration.values()) {
+            String tag = integration.name().toLowerCase();
+            CircuitBreaker breaker = new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold, openDuration, halfOpenCalls, clock);
+            Semaphore bulkhead = new Semaphore(maxConcurrentCalls);
+            breakers.put(integration, breaker);
+            bulkheads.put(integration, bulkhead);
+
+            Map<Permission, Counter> rejections = new EnumMap<>(Permission.class);
+            for (Permission reason : new Permission[] {Permission.CIRCUIT_OPEN, Permission.BULKHEAD_FULL}) {
+                rejections.put(reason, Counter.builder("booking.integration.rejected")
+                    .description("Integration calls refused without being made")
+                    .tag("integration", tag)
+                    .tag("reason", reason.name().toLowerCase())
+                    .register(meterRegistry));
+            }
+            rejected.put(integration, rejections);
+            for (State state : State.values()) {
+                Gauge.builder("booking.integration.circuit.state", breaker, b -> b.state() == state ? 1 : 0)
+                    .description("Circuit breaker state of an integration, 1 for the current state")
+                    .tag("integration", tag)
+                    .tag("state", state.name().toLowerCase())
+                    .register(meterRegistry);
+            }
+            Gauge.builder("booking.integration.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .description("Free concurrent call slots of an integration")
+                .tag("integration", tag)
+                .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Takes a bulkhead slot and asks the breaker for permission. A permitted call must be followed by
+     * {@link #release(Integration)} when it ends, and its outcome reported with {@link #onSuccess(Integration)}
+     * or {@link #onFailure(Integration)}.
+     */
+    public Permission tryAcquire(Integration integration) {
+        Semaphore bulkhead = bulkheads.get(integration);
+        Permission permission = Permission.PERMITTED;
+        if (!bulkhead.tryAcquire()) {
+            permission = Permission.BULKHEAD_FULL;
+        } else if (!breakers.get(integration).tryAcquirePermission()) {
+            bulkhead.release();
+            permission = Permission.CIRCUIT_OPEN;
+        }
+        if (permission != Permission.PERMITTED) {
+            rejected.get(integration).get(permission).increment();
+        }
+        return permission;
+    }
+
+    public void release(Integration integration) {
+        bulkheads.get(integration).release();
+    }
+
+    public void onSuccess(Integration integration) {
+        breakers.get(integration).onSuccess();
+    }
+
+    public void onFailure(Integration integration) {
+        breakers.get(integration).onFailure();
+    }
+
+    public State state(Integration integration) {
+        return breakers.get(integration).state();
+    }
+
+    public int failureRate(Integration integration) {
+        return breakers.get(integration).failureRate();
+    }
+
+    public int availableCalls(Integration integration) {
+        return bulkheads.get(integration).availablePermits();
+    }
+
+    public double rejectedCalls(Integration integration) {
+        return rejected.get(integration).values().stream().mapToDouble(Counter::count).sum();
+    }
+}
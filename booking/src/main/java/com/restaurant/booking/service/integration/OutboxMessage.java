@@ -0,0 +1,14 @@
+package com.restaurant.booking.service.integration;
+
+import java.time.Instant;
+
+/**
+ * A pending row of the {@code integration_outbox} table: a reservation, as JSON, waiting for one integration.
+ */
+public record OutboxMessage(long id, Integration integration, Long reservationId, String payload, Instant createdAt, int attempts) {
+
+    public enum Integration {
+        CRM,
+        GASTRO
+    }
+}
@@ -0,0 +1,285 @@
+package com.restaurant.booking.service.integration;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.booking.dto.ReservationDTO;
+import com.restaurant.booking.repository.OutboxRepository;
+import com.restaurant.booking.service.integration.IntegrationDispatcher.Outcome;
+import com.restaurant.booking.service.integration.OutboxMessage.Integration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delivers the {@link IntegrationOutbox} to CRM and Gastro from a background thread.
+ * <p>
+ * Every {@code poll-interval} the integrations are drained in batches of up to {@code batch-size} due
+ * messages, oldest first. Each step reads one batch per integration and hands them to the
+ * {@link IntegrationDispatcher}, which calls all integrations concurrently with a deadline each, so a slow
+ * or failing integration neither delays nor stops delivery to the others. A batch is marked
+ * delivered only after the call returns, so delivery is at least once: a crash in between, or a second
+ * instance draining the same rows, sends it again, and integrations must tolerate duplicates by
+ * reservation id. A batch the integration fails on is split in half and the first half sent again in the
+ * next step, down to single messages, so one message the integration refuses only holds up itself. A single
+ * failed message is retried after an exponential backoff from {@code backoff.initial} up to {@code backoff.max},
+ * and the newer messages of its reservation wait for it, keeping each reservation's changes in order. After
+ * {@code max-attempts} attempts the message is parked as dead and the reservation's later messages go ahead;
+ * messages whose payload cannot be read are parked right away. Batches rejected without a call, while the
+ * integration's circuit breaker is open, are postponed by the initial backoff without counting an attempt.
+ * Delivered messages are deleted after {@code retention}; dead ones are kept.
+ * <p>
+ * Deliveries, failures and parked messages are counted in {@code booking.outbox.delivered},
+ * {@code booking.outbox.failed} and {@code booking.outbox.dead}, and the time from booking to delivery is
+ * recorded in {@code booking.outbox.lag}, all tagged with the {@code integration}.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private static final Duration PURGE_INTERVAL = Duration.ofHours(1);
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxRepository outboxRepository;
+    private final IntegrationDispatcher integrationDispatcher;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final boolean enabled;
+    private final Duration pollInterval;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration retention;
+    private final Map<Integration, Counter> delivered = new EnumMap<>(Integration.class);
+    private final Map<Integration, Counter> failed = new EnumMap<>(Integration.class);
+    private final Map<Integration, Counter> dead = new EnumMap<>(Integration.class);
+    private final Map<Integration, Timer> lag = new EnumMap<>(Integration.class);
+    private final ScheduledExecutorService executor;
+    private Instant nextPurge = Instant.MIN;
+
+    @Autowired
+    public OutboxRelay(OutboxRepository outboxRepository, IntegrationDispatcher integrationDispatcher, ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry,
+                       @Value("${booking.outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${booking.outbox.relay.poll-interval:PT1S}") Duration pollInterval,
+                       @Value("${booking.outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${booking.outbox.relay.max-attempts:20}") int maxAttempts,
+                       @Value("${booking.outbox.relay.backoff.initial:PT1S}") Duration initialBackoff,
+                       @Value("${booking.outbox.relay.backoff.max:PT5M}") Duration maxBackoff,
+                       @Value("${booking.outbox.retention:P7D}") Duration retention) {
+        this(outboxRepository, integrationDispatcher, objectMapper, meterRegistry, enabled, pollInterval, batchSize, maxAttempts, initialBackoff, maxBackoff, retention,
+            Clock.systemUTC());
+    }
+
+    OutboxRelay(OutboxRepository outboxRepository, IntegrationDispatcher integrationDispatcher, ObjectMapper objectMapper,
+                MeterRegistry meterRegistry, boolean enabled, Duration pollInterval, int batchSize, int maxAttempts,
+                Duration initialBackoff, Duration maxBackoff, Duration retention, Clock clock) {
+        if (batchSize < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("Outbox batch size and maximum attempts must be positive");
+        }
+        if (pollInterval.isNegative() || pollInterval.isZero() || initialBackoff.isNegative() || initialBackoff.isZero()
+                || maxBackoff.compareTo(initialBackoff) < 0) {
+            throw new IllegalArgumentException("Outbox poll interval and backoffs must be positive, with the maximum backoff at least the initial one");
+        }
+        this.outboxRepository = outboxRepository;
+        this.integrationDispatcher = integrationDispatcher;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.pollInterval = pollInterval;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.retention = retention;
+        for (Integration integration : Integration.values()) {
+            String tag = integration.name().toLowerCase();
+            delivered.put(integration, Counter.builder("booking.outbox.delivered")
+                .description("Outbox messages delivered to an integration")
+                .tag("integration", tag)
+                .register(meterRegistry));
+            failed.put(integration, Counter.builder("booking.outbox.failed")
+                .description("Outbox messages whose delivery failed and will be retried")
+                .tag("integration", tag)
+                .register(meterRegistry));
+            dead.put(integration, Counter.builder("booking.outbox.dead")
+                .description("Outbox messages parked after too many failed attempts or with an unreadable payload")
+                .tag("integration", tag)
+                .register(meterRegistry));
+            lag.put(integration, Timer.builder("booking.outbox.lag")
+                .description("Time from writing an outbox message to delivering it")
+                .tag("integration", tag)
+                .register(meterRegistry));
+        }
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Outbox relay disabled");
+            return;
+        }
+        long millis = pollInterval.toMillis();
+        executor.scheduleWithFixedDelay(this::relay, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * One round: drains every integration and purges old delivered messages. Never throws, so the schedule
+     * keeps running while the database is unavailable.
+     */
+    void relay() {
+        try {
+            Map<Integration, Integer> draining = new EnumMap<>(Integration.class);
+            for (Integration integration : Integration.values()) {
+                draining.put(integration, batchSize);
+            }
+            while (!draining.isEmpty()) {
+                draining = relayBatch(draining);
+            }
+            purgeDelivered();
+        } catch (RuntimeException e) {
+            log.error("Outbox relay round failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Sends one batch of due messages, of up to the given number, to each of the integrations concurrently;
+     * returns the integrations to send another batch to in this round, with its size: the full batch size
+     * after a delivered batch that may be followed by more, half the batch after a failed one.
+     */
+    Map<Integration, Integer> relayBatch(Map<Integration, Integer> limits) {
+        Instant now = Instant.now(clock);
+        Map<Integration, Integer> more = new EnumMap<>(Integration.class);
+        Map<Integration, List<OutboxMessage>> batches = new EnumMap<>(Integration.class);
+        Map<Integration, List<ReservationDTO>> reservationsByIntegration = new EnumMap<>(Integration.class);
+        limits.forEach((integration, limit) -> {
+            List<OutboxMessage> due = outboxRepository.findDue(integration, now, limit);
+            if (due.isEmpty()) {
+                return;
+            }
+            List<OutboxMessage> batch = new ArrayList<>(due.size());
+            List<ReservationDTO> reservationDTOs = new ArrayList<>(due.size());
+            for (OutboxMessage message : due) {
+                try {
+                    reservationDTOs.add(objectMapper.readValue(message.payload(), ReservationDTO.class));
+                    batch.add(message);
+                } catch (IOException e) {
+                    dead(integration, List.of(message), "Unreadable payload: " + e);
+                }
+            }
+            if (batch.isEmpty()) {
+                more.put(integration, batchSize);
+                return;
+            }
+            batches.put(integration, batch);
+            reservationsByIntegration.put(integration, reservationDTOs);
+        });
+
+        integrationDispatcher.dispatch(reservationsByIntegration).forEach((integration, result) -> {
+            List<OutboxMessage> batch = batches.get(integration);
+            if (result.succeeded()) {
+                delivered(integration, batch);
+                if (batch.size() == limits.get(integration)) {
+                    more.put(integration, batchSize);
+                }
+            } else if (result.outcome() == Outcome.REJECTED) {
+                postponed(integration, batch, result.error());
+            } else if (batch.size() > 1) {
+                // the first half goes again in the next step, until the message the integration fails on is found
+                log.debug("Splitting {} outbox messages for {} after a failed delivery", batch.size(), integration);
+                more.put(integration, batch.size() / 2);
+            } else {
+                failed(integration, batch.get(0), result.error());
+            }
+        });
+        return more;
+    }
+
+    private void delivered(Integration integration, List<OutboxMessage> messages) {
+        Instant now = Instant.now(clock);
+        outboxRepository.markDelivered(messages.stream().map(OutboxMessage::id).toList(), now);
+        delivered.get(integration).increment(messages.size());
+        messages.forEach(message -> lag.get(integration).record(Duration.between(message.createdAt(), now)));
+        log.debug("Delivered {} outbox messages to {}", messages.size(), integration);
+    }
+
+    private void failed(Integration integration, OutboxMessage message, String error) {
+        int attempts = message.attempts() + 1;
+        if (attempts >= maxAttempts) {
+            dead(integration, List.of(message), error);
+            return;
+        }
+        Duration backoff = backoff(attempts);
+        outboxRepository.markFailed(List.of(message.id()), Instant.now(clock).plus(backoff), truncate(String.valueOf(error)));
+        failed.get(integration).increment();
+        log.warn("Delivering outbox message {} to {} failed (attempt {}), retrying in {}: {}",
+            message.id(), integration, attempts, backoff, error);
+    }
+
+    private void postponed(Integration integration, List<OutboxMessage> messages, String error) {
+        outboxRepository.postpone(messages.stream().map(OutboxMessage::id).toList(), Instant.now(clock).plus(initialBackoff),
+            truncate(String.valueOf(error)));
+        log.debug("Postponed {} outbox messages for {}: {}", messages.size(), integration, error);
+    }
+
+    private void dead(Integration integration, List<OutboxMessage> messages, String error) {
+        outboxRepository.markDead(messages.stream().map(OutboxMessage::id).toList(), Instant.now(clock), truncate(String.valueOf(error)));
+        dead.get(integration).increment(messages.size());
+        log.error("Parked outbox messages {} for {} as dead: {}",
+            messages.stream().map(OutboxMessage::id).toList(), integration, error);
+    }
+
+    /**
+     * Backoff before the next attempt after {@code attempts} failed ones: the initial backoff doubled per
+     * earlier failure, capped at the maximum.
+     */
+    Duration backoff(int attempts) {
+        int doublings = Math.min(attempts - 1, 30);
+        Duration backoff = initialBackoff.multipliedBy(1L << doublings);
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private void purgeDelivered() {
+        Instant now = Instant.now(clock);
+        if (now.isBefore(nextPurge)) {
+            return;
+        }
+        nextPurge = now.plus(PURGE_INTERVAL);
+        int purged = outboxRepository.deleteDeliveredBefore(now.minus(retention));
+        log.debug("Purged {} delivered outbox messages", purged);
+    }
+
+    private static String truncate(String error) {
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
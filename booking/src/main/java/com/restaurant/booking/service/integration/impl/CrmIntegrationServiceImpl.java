@@ -1,5 +1,8 @@
 package com.restaurant.booking.service.integration.impl;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -17,4 +20,10 @@ public class CrmIntegrationServiceImpl implements CrmIntegrationService {
         logger.info("Sending reservation to CRM: {}", reservationDTO);
     }
 
+    @Override
+    public void sendReservationsToCrm(List<ReservationDTO> reservationDTOs) {
+        logger.info("Sending {} reservations to CRM: {}", reservationDTOs.size(),
+            reservationDTOs.stream().map(ReservationDTO::getReservationId).collect(Collectors.toList()));
+    }
+
 }
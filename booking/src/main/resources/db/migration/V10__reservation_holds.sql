@@ -0,0 +1,5 @@
+-- Table holds are reservations in status HELD that are released at hold_expires_at unless confirmed first.
+-- The index lets a starting instance find the holds it has to schedule for expiry.
+ALTER TABLE reservations ADD COLUMN hold_expires_at TIMESTAMP(6);
+
+CREATE INDEX idx_reservations_status_hold_expires_at ON reservations (status, hold_expires_at);
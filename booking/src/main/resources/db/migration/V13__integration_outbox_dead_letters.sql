@@ -0,0 +1,4 @@
+-- Messages an integration keeps refusing, or whose payload cannot be read, are parked with dead_at set after
+-- the relay's attempt limit. Parked messages are no longer sent and no longer hold up later messages of their
+-- reservation; they stay in the table until handled by hand.
+ALTER TABLE integration_outbox ADD COLUMN dead_at TIMESTAMP(6);
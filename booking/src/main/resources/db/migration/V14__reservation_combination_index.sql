@@ -0,0 +1,2 @@
+-- Cancelling, completing or no-showing one table of a combined booking changes the whole combination.
+CREATE INDEX idx_reservations_combination_id ON reservations (combination_id);
@@ -0,0 +1,35 @@
+-- Baseline schema matching the JPA entities.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate=true).
+
+CREATE TABLE app_users (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255),
+    email VARCHAR(255),
+    password VARCHAR(255),
+    role VARCHAR(255)
+);
+
+CREATE TABLE users (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255),
+    email VARCHAR(255),
+    phone_number VARCHAR(255)
+);
+
+CREATE TABLE tables (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    number INT NOT NULL,
+    capacity INT NOT NULL
+);
+
+CREATE TABLE reservations (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT,
+    table_id BIGINT,
+    date DATE NOT NULL,
+    time TIME NOT NULL,
+    number_of_guests INT NOT NULL,
+    status VARCHAR(255),
+    CONSTRAINT fk_reservations_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_reservations_table FOREIGN KEY (table_id) REFERENCES tables (id)
+);
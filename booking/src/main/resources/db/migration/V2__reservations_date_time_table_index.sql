@@ -0,0 +1,2 @@
+-- Supports the availability anti-join: NOT EXISTS (reservation for table at date/time)
+CREATE INDEX idx_reservations_date_time_table ON reservations (date, time, table_id);
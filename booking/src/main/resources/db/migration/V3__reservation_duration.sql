@@ -0,0 +1,4 @@
+-- Reservations block their table from time until end_time.
+-- Rows created before this migration have no end_time and only block their exact start time.
+ALTER TABLE reservations ADD COLUMN duration_minutes INT;
+ALTER TABLE reservations ADD COLUMN end_time TIME;
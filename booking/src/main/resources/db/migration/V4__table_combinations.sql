@@ -0,0 +1,4 @@
+-- Tables sharing a combination group with consecutive numbers can be pushed together for large parties.
+-- The reservations of all tables claimed for one party share a combination id.
+ALTER TABLE tables ADD COLUMN combination_group VARCHAR(50);
+ALTER TABLE reservations ADD COLUMN combination_id VARCHAR(36);
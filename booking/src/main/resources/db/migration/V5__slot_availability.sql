@@ -0,0 +1,11 @@
+-- Write-through projection of which table is taken in which slot; availability reads probe the primary key.
+-- Filled by the projection rebuild job for reservations that existed before this migration.
+CREATE TABLE slot_availability (
+    date DATE NOT NULL,
+    table_id BIGINT NOT NULL,
+    slot TIME NOT NULL,
+    reservation_id BIGINT NOT NULL,
+    PRIMARY KEY (date, table_id, slot, reservation_id)
+);
+
+CREATE INDEX idx_slot_availability_reservation ON slot_availability (reservation_id);
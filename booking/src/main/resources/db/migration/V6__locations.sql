@@ -0,0 +1,4 @@
+-- Tables belong to one restaurant location; reservations keep the location of their table.
+ALTER TABLE tables ADD COLUMN location VARCHAR(50) NOT NULL DEFAULT 'main';
+ALTER TABLE reservations ADD COLUMN location VARCHAR(50);
+CREATE INDEX idx_tables_location ON tables (location);
@@ -0,0 +1,18 @@
+-- At most one occupying reservation per table, date and start time.
+-- slot_hold is TRUE while a reservation occupies its table and NULL once it is cancelled or released; NULLs never
+-- collide in a unique index, so any number of cancelled reservations may share the slot of the current booking.
+ALTER TABLE reservations ADD COLUMN slot_hold BOOLEAN;
+
+-- Existing double bookings keep their oldest reservation as the holder; the others stay but no longer hold the slot.
+UPDATE reservations SET slot_hold = TRUE
+WHERE (status IS NULL OR status NOT IN ('AVAILABLE', 'CANCELLED'))
+  AND NOT EXISTS (
+    SELECT 1 FROM (SELECT id, table_id, date, time, status FROM reservations) older
+    WHERE older.table_id = reservations.table_id
+      AND older.date = reservations.date
+      AND older.time = reservations.time
+      AND (older.status IS NULL OR older.status NOT IN ('AVAILABLE', 'CANCELLED'))
+      AND older.id < reservations.id
+  );
+
+CREATE UNIQUE INDEX uk_reservations_table_slot ON reservations (table_id, date, time, slot_hold);
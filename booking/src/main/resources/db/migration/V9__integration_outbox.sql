@@ -0,0 +1,16 @@
+-- Reservations waiting to be sent to CRM and Gastro, one row per integration, written in the booking transaction.
+-- A relay sends pending rows in id order and sets delivered_at once the integration has accepted them.
+CREATE TABLE integration_outbox (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    integration VARCHAR(20) NOT NULL,
+    reservation_id BIGINT,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(6) NOT NULL,
+    delivered_at TIMESTAMP(6),
+    last_error VARCHAR(500)
+);
+
+CREATE INDEX idx_integration_outbox_pending ON integration_outbox (integration, delivered_at, next_attempt_at);
+CREATE INDEX idx_integration_outbox_reservation ON integration_outbox (integration, reservation_id, delivered_at);
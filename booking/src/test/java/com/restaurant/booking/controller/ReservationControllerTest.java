@@ -4,18 +4,31 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.restaurant.booking.dto.AvailabilitySlotDTO;
+import com.restaurant.booking.dto.BulkCancellationDTO;
+import com.restaurant.booking.dto.HoldDTO;
+import com.restaurant.booking.dto.OccupancyCellDTO;
 import com.restaurant.booking.dto.ReservationDTO;
+import com.restaurant.booking.dto.ReservationImportResultDTO;
+import com.restaurant.booking.event.ReservationChangedEvent;
 import com.restaurant.booking.model.Reservation;
 import com.restaurant.booking.model.Status;
 import com.restaurant.booking.model.Table;
@@ -23,6 +36,7 @@ import com.restaurant.booking.model.User;
 import com.restaurant.booking.repository.ReservationRepository;
 import com.restaurant.booking.repository.TableRepository;
 import com.restaurant.booking.repository.UserRepository;
+import com.restaurant.booking.service.availability.SlotOccupancyIndex;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @TestPropertySource(properties = {
@@ -49,6 +63,15 @@ class ReservationControllerTest {
     @Autowired
     private ReservationRepository reservationRepository;
 
+    @Autowired
+    private SlotOccupancyIndex slotOccupancyIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @BeforeEach
     public void setUp() {
         // Clear existing data
@@ -68,6 +91,9 @@ class ReservationControllerTest {
         table.setNumber(1);
         table.setCapacity(4);
         tableRepository.save(table);
+
+        // Data above bypasses the services, so refresh the in-memory index
+        slotOccupancyIndex.rebuild();
     }
 
     @Test
@@ -79,6 +105,54 @@ class ReservationControllerTest {
         Table[] tables = response.getBody();
         assertNotNull(tables);
         assertTrue(tables.length > 0);
+        assertFalse(response.getHeaders().containsKey(ReservationController.STALE_HEADER));
+    }
+
+    @Test
+    void testAvailabilityGridEndpoint() {
+        String url = "/api/reservations/available/grid?startDate=2025-12-24&endDate=2025-12-25&firstSlot=12:00&lastSlot=13:00&numberOfGuests=4";
+        ResponseEntity<AvailabilitySlotDTO[]> response = restTemplate.getForEntity(url, AvailabilitySlotDTO[].class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        AvailabilitySlotDTO[] slots = response.getBody();
+        assertNotNull(slots);
+        assertEquals(6, slots.length);
+        assertEquals(LocalDate.of(2025, 12, 24), slots[0].getDate());
+        assertEquals(LocalTime.of(13, 0), slots[5].getTime());
+        assertEquals(1, slots[5].getFreeTables());
+    }
+
+    @Test
+    void testAvailabilityGridEndpointRejectsInvertedRange() {
+        String url = "/api/reservations/available/grid?startDate=2025-12-25&endDate=2025-12-24&firstSlot=12:00&lastSlot=13:00&numberOfGuests=4";
+        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void testAlternativesEndpoint() {
+        String url = "/api/reservations/available/alternatives?date=2025-12-24&time=19:00&numberOfGuests=2&limit=3&windowMinutes=30";
+        ResponseEntity<AvailabilitySlotDTO[]> response = restTemplate.getForEntity(url, AvailabilitySlotDTO[].class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        AvailabilitySlotDTO[] slots = response.getBody();
+        assertNotNull(slots);
+        assertEquals(3, slots.length);
+        assertEquals(LocalTime.of(19, 0), slots[0].getTime());
+        assertEquals(LocalTime.of(18, 45), slots[1].getTime());
+    }
+
+    @Test
+    void testOccupancyHeatmapEndpoint() {
+        ResponseEntity<OccupancyCellDTO[]> response = restTemplate.getForEntity("/api/reservations/available/heatmap?month=2025-02", OccupancyCellDTO[].class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        OccupancyCellDTO[] cells = response.getBody();
+        assertNotNull(cells);
+        assertEquals(28 * 96, cells.length);
+        assertEquals(LocalDate.of(2025, 2, 1), cells[0].getDate());
+        assertEquals(0.0, cells[0].getOccupancy());
     }
 
     @Test
@@ -101,4 +175,158 @@ class ReservationControllerTest {
         assertNotNull(responseBody);
         assertNotNull(responseBody.getReservationId());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCreateReservationReplaysRetriesWithTheSameIdempotencyKey() {
+        User user = userRepository.findAll().get(0);
+        Table table = tableRepository.findAll().get(0);
+
+        Reservation reservation = new Reservation();
+        reservation.setUser(user);
+        reservation.setTable(table);
+        reservation.setDate(LocalDate.of(2025, 12, 16));
+        reservation.setTime(LocalTime.of(12, 0));
+        reservation.setNumberOfGuests(4);
+        reservation.setStatus(Status.BOOKED);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(ReservationController.IDEMPOTENCY_KEY_HEADER, "retry-1");
+
+        ResponseEntity<ReservationDTO> first = restTemplate.postForEntity("/api/reservations", new HttpEntity<>(reservation, headers), ReservationDTO.class);
+        ResponseEntity<ReservationDTO> retry = restTemplate.postForEntity("/api/reservations", new HttpEntity<>(reservation, headers), ReservationDTO.class);
+
+        assertEquals(HttpStatus.OK, retry.getStatusCode());
+        assertEquals("false", first.getHeaders().getFirst(ReservationController.REPLAYED_HEADER));
+        assertEquals("true", retry.getHeaders().getFirst(ReservationController.REPLAYED_HEADER));
+        assertEquals(first.getBody(), retry.getBody());
+        assertEquals(1, reservationRepository.count());
+
+        reservation.setNumberOfGuests(2);
+        ResponseEntity<String> reused = restTemplate.postForEntity("/api/reservations", new HttpEntity<>(reservation, headers), String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, reused.getStatusCode());
+    }
+
+    @Test
+    void testImportReservationsEndpoint() {
+        User user = userRepository.findAll().get(0);
+        Table table = tableRepository.findAll().get(0);
+        List<Reservation> reservations = new ArrayList<>();
+        for (int hour : new int[] {12, 15, 16}) {
+            Reservation reservation = new Reservation();
+            reservation.setUser(user);
+            reservation.setTable(table);
+            reservation.setDate(LocalDate.of(2025, 12, 17));
+            reservation.setTime(LocalTime.of(hour, 0));
+            reservation.setNumberOfGuests(2);
+            reservations.add(reservation);
+        }
+
+        ResponseEntity<ReservationImportResultDTO[]> response = restTemplate.postForEntity("/api/reservations/bulk", reservations,
+            ReservationImportResultDTO[].class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        ReservationImportResultDTO[] results = response.getBody();
+        assertNotNull(results);
+        assertEquals(ReservationImportResultDTO.Outcome.CREATED, results[0].getOutcome());
+        assertEquals(ReservationImportResultDTO.Outcome.CREATED, results[1].getOutcome());
+        assertEquals(ReservationImportResultDTO.Outcome.REJECTED, results[2].getOutcome());
+        assertEquals(2, reservationRepository.count());
+        Reservation stored = reservationRepository.findById(results[1].getReservationId()).orElseThrow();
+        assertEquals(LocalTime.of(15, 0), stored.getTime());
+        assertEquals(LocalTime.of(17, 0), stored.getEndTime());
+        assertEquals(Boolean.TRUE, stored.getSlotHold());
+    }
+
+    @Test
+    void testHoldConfirmAndReleaseEndpoints() {
+        User user = userRepository.findAll().get(0);
+        Table table = tableRepository.findAll().get(0);
+        Reservation reservation = new Reservation();
+        reservation.setUser(user);
+        reservation.setTable(table);
+        reservation.setDate(LocalDate.of(2025, 12, 18));
+        reservation.setTime(LocalTime.of(12, 0));
+        reservation.setNumberOfGuests(2);
+        String availableUrl = "/api/reservations/available?date=2025-12-18&time=12:00&numberOfGuests=2";
+
+        ResponseEntity<HoldDTO> hold = restTemplate.postForEntity("/api/reservations/holds", reservation, HoldDTO.class);
+        assertEquals(HttpStatus.OK, hold.getStatusCode());
+        assertNotNull(hold.getBody());
+        assertNotNull(hold.getBody().getExpiresAt());
+        assertEquals(0, restTemplate.getForEntity(availableUrl, Table[].class).getBody().length);
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.postForEntity("/api/reservations/holds", reservation, String.class).getStatusCode());
+
+        ResponseEntity<ReservationDTO> confirmed = restTemplate.postForEntity(
+            "/api/reservations/holds/" + hold.getBody().getHoldId() + "/confirm", null, ReservationDTO.class);
+        assertEquals(HttpStatus.OK, confirmed.getStatusCode());
+        assertEquals("BOOKED", confirmed.getBody().getStatus());
+
+        reservation.setTime(LocalTime.of(15, 0));
+        HoldDTO released = restTemplate.postForEntity("/api/reservations/holds", reservation, HoldDTO.class).getBody();
+        restTemplate.delete("/api/reservations/holds/" + released.getHoldId());
+        assertEquals(Status.CANCELLED, reservationRepository.findById(released.getHoldId()).orElseThrow().getStatus());
+        assertEquals(1, restTemplate.getForEntity("/api/reservations/available?date=2025-12-18&time=15:00&numberOfGuests=2", Table[].class)
+            .getBody().length);
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.postForEntity(
+            "/api/reservations/holds/" + released.getHoldId() + "/confirm", null, String.class).getStatusCode());
+    }
+
+    @Test
+    void testLifecycleAndBulkCancellationEndpoints() {
+        Long noShow = book(LocalTime.of(12, 0)).getReservationId();
+        ResponseEntity<ReservationDTO> marked = restTemplate.postForEntity("/api/reservations/" + noShow + "/no-show", null, ReservationDTO.class);
+        assertEquals(HttpStatus.OK, marked.getStatusCode());
+        assertEquals("NO_SHOW", marked.getBody().getStatus());
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.postForEntity("/api/reservations/" + noShow + "/complete", null, String.class).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, restTemplate.postForEntity("/api/reservations/999999/cancel", null, String.class).getStatusCode());
+
+        Long first = book(LocalTime.of(18, 0)).getReservationId();
+        Long second = book(LocalTime.of(20, 30)).getReservationId();
+        String availableUrl = "/api/reservations/available?date=2025-12-19&time=18:00&numberOfGuests=2";
+        assertEquals(0, restTemplate.getForEntity(availableUrl, Table[].class).getBody().length);
+
+        ResponseEntity<BulkCancellationDTO> cancelled = restTemplate.postForEntity(
+            "/api/reservations/cancellations?date=2025-12-19&from=17:00&to=23:00", null, BulkCancellationDTO.class);
+        assertEquals(HttpStatus.OK, cancelled.getStatusCode());
+        assertEquals(2, cancelled.getBody().getCancelled());
+        assertEquals(List.of(first, second), cancelled.getBody().getReservationIds());
+        assertEquals(Status.CANCELLED, reservationRepository.findById(second).orElseThrow().getStatus());
+        assertEquals(Status.NO_SHOW, reservationRepository.findById(noShow).orElseThrow().getStatus());
+        assertEquals(1, restTemplate.getForEntity(availableUrl, Table[].class).getBody().length);
+        assertEquals(HttpStatus.OK, restTemplate.postForEntity("/api/reservations", reservationAt(LocalTime.of(18, 0)), ReservationDTO.class).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.postForEntity(
+            "/api/reservations/cancellations?date=2025-12-19&from=23:00&to=17:00", null, String.class).getStatusCode());
+    }
+
+    @Test
+    void testRolledBackBookingDoesNotOccupyTheIndex() {
+        // the index only covers dates from today on
+        LocalDate date = LocalDate.now().plusDays(7);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Reservation reservation = reservationAt(LocalTime.of(12, 0));
+            reservation.setDate(date);
+            reservation.setEndTime(LocalTime.of(14, 0));
+            eventPublisher.publishEvent(new ReservationChangedEvent(reservationRepository.save(reservation), null));
+            status.setRollbackOnly();
+        });
+
+        assertTrue(slotOccupancyIndex.covers(date));
+        assertEquals(1, slotOccupancyIndex.findAvailableTables(date, LocalTime.of(12, 0), 2).size());
+    }
+
+    private ReservationDTO book(LocalTime time) {
+        ResponseEntity<ReservationDTO> response = restTemplate.postForEntity("/api/reservations", reservationAt(time), ReservationDTO.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return response.getBody();
+    }
+
+    private Reservation reservationAt(LocalTime time) {
+        Reservation reservation = new Reservation();
+        reservation.setUser(userRepository.findAll().get(0));
+        reservation.setTable(tableRepository.findAll().get(0));
+        reservation.setDate(LocalDate.of(2025, 12, 19));
+        reservation.setTime(time);
+        reservation.setNumberOfGuests(2);
+        reservation.setStatus(Status.BOOKED);
+        return reservation;
+    }
+}
@@ -0,0 +1,265 @@
+package com.restaurant.booking.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.restaurant.booking.dto.CombinedReservationRequest;
+import com.restaurant.booking.model.Reservation;
+import com.restaurant.booking.model.Status;
+import com.restaurant.booking.model.Table;
+import com.restaurant.booking.model.User;
+import com.restaurant.booking.repository.ReservationRepository;
+import com.restaurant.booking.repository.TableRepository;
+import com.restaurant.booking.repository.UserRepository;
+import com.restaurant.booking.service.ReservationService;
+import com.restaurant.booking.service.allocation.TableCombinationIndex;
+
+/**
+ * Many threads booking at once through the service: one slot of one table must have exactly one winner,
+ * a hold confirmed while it expires ends up either booked or released, and bookings of different tables
+ * must not hold each other up. Throughput of both cases is only printed
+ * when benchmarks are enabled:
+ * <pre>
+ * ./mvnw test -Dtest=DoubleBookingStressTest -Dbenchmark=true
+ * </pre>
+ */
+@SpringBootTest
+class DoubleBookingStressTest {
+
+    private static final LocalDate DATE = LocalDate.of(2031, 3, 14);
+    private static final LocalTime TIME = LocalTime.of(19, 0);
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private TableRepository tableRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TableCombinationIndex combinationIndex;
+
+    private final List<Table> tables = new ArrayList<>();
+    private User user;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Stress Test");
+        user.setEmail("stress@example.com");
+        user = userRepository.save(user);
+        for (int i = 0; i < THREADS; i++) {
+            Table table = new Table();
+            table.setNumber(900 + i);
+            table.setCapacity(4);
+            // the first two tables stand next to each other
+            table.setCombinationGroup(i < 2 ? "stress" : null);
+            tables.add(tableRepository.save(table));
+        }
+        combinationIndex.rebuild();
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        reservationRepository.deleteAll(reservationRepository.findAll().stream()
+            .filter(reservation -> tables.stream().anyMatch(table -> table.getId().equals(reservation.getTable().getId())))
+            .toList());
+        tableRepository.deleteAll(tables);
+        userRepository.delete(user);
+        combinationIndex.rebuild();
+    }
+
+    @Test
+    void exactlyOneOfManyConcurrentBookingsOfOneSlotWins() throws Exception {
+        Table table = tables.get(0);
+        long start = System.nanoTime();
+        int winners = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            LocalDate date = DATE.plusDays(round);
+            winners += race(i -> reservation(table, date, TIME));
+        }
+        long elapsed = System.nanoTime() - start;
+
+        assertThat(winners).isEqualTo(ROUNDS);
+        assertThat(bookingsOf(table)).isEqualTo(ROUNDS);
+        print("contended", ROUNDS * THREADS, elapsed);
+    }
+
+    @Test
+    void overlappingWindowsOfOneTableAlsoHaveASingleWinner() throws Exception {
+        Table table = tables.get(0);
+
+        // 19:00 to 20:15 all overlap the dining window of whichever booking wins
+        int winners = race(i -> reservation(table, DATE, TIME.plusMinutes(5L * i)));
+
+        assertThat(winners).isEqualTo(1);
+        assertThat(bookingsOf(table)).isEqualTo(1);
+    }
+
+    @Test
+    void combinationAndOverlappingSingleBookingsNeverShareATable() throws Exception {
+        Table first = tables.get(0);
+        Table second = tables.get(1);
+        for (int round = 0; round < ROUNDS; round++) {
+            LocalDate date = DATE.plusDays(round);
+            // one combination of both tables at 18:30 against single bookings of either table from 19:00 on
+            contend(i -> {
+                if (i == 0) {
+                    CombinedReservationRequest request = new CombinedReservationRequest(user, date, TIME.minusMinutes(30), 6, null,
+                        List.of(first.getId(), second.getId()), null);
+                    return () -> reservationService.createCombinedReservation(request);
+                }
+                Reservation reservation = reservation(i % 2 == 0 ? first : second, date, TIME.plusMinutes(5L * i));
+                return () -> reservationService.createReservation(reservation);
+            });
+        }
+
+        // whichever side won a round, each table holds exactly one booking of that date
+        assertThat(bookingsOf(first)).isEqualTo(ROUNDS);
+        assertThat(bookingsOf(second)).isEqualTo(ROUNDS);
+    }
+
+    @Test
+    void confirmingAndExpiringAHoldAtOnceHasASingleOutcome() throws Exception {
+        Table table = tables.get(0);
+        Instant expiresAt = Instant.now().plus(Duration.ofDays(1));
+        for (int round = 0; round < ROUNDS; round++) {
+            Long id = reservationService.createHold(reservation(table, DATE.plusDays(round), TIME), expiresAt).getId();
+            CountDownLatch go = new CountDownLatch(1);
+            Future<Boolean> confirm = executor.submit(() -> {
+                go.await();
+                try {
+                    reservationService.confirmHold(id, expiresAt.minusSeconds(1));
+                    return true;
+                } catch (IllegalStateException e) {
+                    return false;
+                }
+            });
+            Future<Integer> expire = executor.submit(() -> {
+                go.await();
+                return reservationService.expireHolds(List.of(id), expiresAt);
+            });
+            go.countDown();
+
+            boolean confirmed = confirm.get(30, TimeUnit.SECONDS);
+            int expired = expire.get(30, TimeUnit.SECONDS);
+            Status status = reservationRepository.findById(id).orElseThrow().getStatus();
+            assertThat(confirmed).isNotEqualTo(expired == 1);
+            assertThat(status).isEqualTo(confirmed ? Status.BOOKED : Status.CANCELLED);
+        }
+    }
+
+    @Test
+    void bookingsOfDifferentTablesDoNotContend() throws Exception {
+        long start = System.nanoTime();
+        int winners = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            LocalDate date = DATE.plusDays(round);
+            winners += race(i -> reservation(tables.get(i), date, TIME));
+        }
+        long elapsed = System.nanoTime() - start;
+
+        assertThat(winners).isEqualTo(ROUNDS * THREADS);
+        print("uncontended", ROUNDS * THREADS, elapsed);
+    }
+
+    /**
+     * Releases one booking per thread at the same moment; returns how many succeeded. Every loser must have
+     * been rejected as already booked.
+     */
+    private int race(IntFunction<Reservation> booking) throws Exception {
+        return contend(i -> {
+            Reservation reservation = booking.apply(i);
+            return () -> reservationService.createReservation(reservation);
+        });
+    }
+
+    /**
+     * {@link #race} for any kind of booking attempt.
+     */
+    private int contend(IntFunction<Callable<?>> booking) throws Exception {
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Boolean>> attempts = new ArrayList<>(THREADS);
+        for (int i = 0; i < THREADS; i++) {
+            Callable<?> attempt = booking.apply(i);
+            attempts.add(executor.submit(() -> {
+                ready.countDown();
+                go.await();
+                try {
+                    attempt.call();
+                    return true;
+                } catch (IllegalStateException e) {
+                    assertThat(e).hasMessageMatching(".*(already booked|no longer free).*");
+                    return false;
+                }
+            }));
+        }
+        assertThat(ready.await(10, TimeUnit.SECONDS)).isTrue();
+        go.countDown();
+        int winners = 0;
+        for (Future<Boolean> attempt : attempts) {
+            if (attempt.get(30, TimeUnit.SECONDS)) {
+                winners++;
+            }
+        }
+        return winners;
+    }
+
+    private long bookingsOf(Table table) {
+        return reservationRepository.findAll().stream()
+            .filter(reservation -> reservation.getTable().getId().equals(table.getId()) && Status.occupiesTable(reservation.getStatus()))
+            .count();
+    }
+
+    private Reservation reservation(Table table, LocalDate date, LocalTime time) {
+        Table reference = new Table();
+        reference.setId(table.getId());
+        reference.setNumber(table.getNumber());
+        Reservation reservation = new Reservation();
+        reservation.setUser(user);
+        reservation.setTable(reference);
+        reservation.setDate(date);
+        reservation.setTime(time);
+        reservation.setNumberOfGuests(2);
+        reservation.setStatus(Status.BOOKED);
+        return reservation;
+    }
+
+    private static void print(String scenario, int attempts, long elapsedNanos) {
+        if (!Boolean.getBoolean("benchmark")) {
+            return;
+        }
+        System.out.printf("%-11s | %4d booking attempts on %d threads: %8.1f attempts/s%n",
+            scenario, attempts, THREADS, attempts / (elapsedNanos / 1_000_000_000.0));
+    }
+}
@@ -0,0 +1,128 @@
+package com.restaurant.booking.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.restaurant.booking.dto.ReservationImportResultDTO;
+import com.restaurant.booking.model.Reservation;
+import com.restaurant.booking.model.Status;
+import com.restaurant.booking.model.Table;
+import com.restaurant.booking.model.User;
+import com.restaurant.booking.repository.ReservationRepository;
+import com.restaurant.booking.repository.TableRepository;
+import com.restaurant.booking.repository.UserRepository;
+import com.restaurant.booking.service.ReservationImportService;
+import com.restaurant.booking.service.ReservationService;
+
+/**
+ * Rows per second of the bulk import against the same reservations booked one {@code createReservation} at
+ * a time, the way partner imports used to arrive.
+ * <p>
+ * Runs against the test H2 database by default; point it at MySQL with the usual
+ * {@code spring.datasource.*} system properties (the URL needs {@code rewriteBatchedStatements=true}):
+ * <pre>
+ * ./mvnw test -Dtest=ReservationImportBenchmarkTest -Dbenchmark=true
+ * </pre>
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ReservationImportBenchmarkTest {
+
+    private static final LocalDate FIRST_DATE = LocalDate.of(2032, 1, 1);
+    private static final LocalTime[] SEATINGS = {LocalTime.of(12, 0), LocalTime.of(16, 0), LocalTime.of(20, 0)};
+    private static final int TABLES = 50;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationImportService reservationImportService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private TableRepository tableRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<Table> tables = new ArrayList<>();
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Import Benchmark");
+        user.setEmail("import@example.com");
+        user = userRepository.save(user);
+        for (int i = 0; i < TABLES; i++) {
+            Table table = new Table();
+            table.setNumber(800 + i);
+            table.setCapacity(4);
+            tables.add(tableRepository.save(table));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAll(reservationRepository.findAll().stream()
+            .filter(reservation -> tables.stream().anyMatch(table -> table.getId().equals(reservation.getTable().getId())))
+            .toList());
+        tableRepository.deleteAll(tables);
+        userRepository.delete(user);
+    }
+
+    @ParameterizedTest(name = "{0} reservations")
+    @ValueSource(ints = {1_000, 5_000})
+    void bulkImportAgainstSingleInserts(int rows) {
+        double single = rowsPerSecond(reservations(rows, FIRST_DATE), batch -> batch.forEach(reservationService::createReservation));
+
+        LocalDate importDates = FIRST_DATE.plusDays(rows / (TABLES * SEATINGS.length) + 1);
+        double bulk = rowsPerSecond(reservations(rows, importDates), batch -> {
+            List<ReservationImportResultDTO> results = reservationImportService.importReservations(batch);
+            assertThat(results).allMatch(result -> result.getOutcome() == ReservationImportResultDTO.Outcome.CREATED);
+        });
+
+        System.out.printf("%5d reservations | single inserts: %8.1f rows/s | bulk import: %8.1f rows/s | %5.1fx%n",
+            rows, single, bulk, bulk / single);
+    }
+
+    private static double rowsPerSecond(List<Reservation> reservations, Consumer<List<Reservation>> insert) {
+        long start = System.nanoTime();
+        insert.accept(reservations);
+        return reservations.size() / ((System.nanoTime() - start) / 1_000_000_000.0);
+    }
+
+    /**
+     * Non-overlapping reservations filling every seating of every table, day after day from {@code firstDate}.
+     */
+    private List<Reservation> reservations(int rows, LocalDate firstDate) {
+        List<Reservation> reservations = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            int slot = i / TABLES;
+            Reservation reservation = new Reservation();
+            reservation.setUser(user);
+            reservation.setTable(tables.get(i % TABLES));
+            reservation.setDate(firstDate.plusDays(slot / SEATINGS.length));
+            reservation.setTime(SEATINGS[slot % SEATINGS.length]);
+            reservation.setNumberOfGuests(2);
+            reservation.setStatus(Status.BOOKED);
+            reservations.add(reservation);
+        }
+        return reservations;
+    }
+}
@@ -48,6 +48,7 @@ public class ReservationIntegrationTest {
         reservation.setUser(user);
         reservation.setTable(table);
         reservation.setDate(LocalDate.of(2025, 8, 15));
+        reservation.setEndTime(LocalTime.of(20, 0));
         reservation.setTime(LocalTime.of(18, 0));
         reservation.setNumberOfGuests(2);
         reservation.setStatus(Status.BOOKED);
@@ -0,0 +1,148 @@
+package com.restaurant.booking.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.restaurant.booking.dto.TableDTO;
+import com.restaurant.booking.model.Reservation;
+import com.restaurant.booking.model.Status;
+import com.restaurant.booking.model.Table;
+import com.restaurant.booking.model.User;
+
+/**
+ * Compares the legacy two-query availability lookup (reservations at the slot + all tables,
+ * subtracted in Java) with the single anti-join projection query.
+ * <p>
+ * Runs against the test H2 database by default; point it at MySQL with the usual
+ * {@code spring.datasource.*} system properties:
+ * <pre>
+ * ./mvnw test -Dtest=AvailabilityQueryBenchmarkTest -Dbenchmark=true
+ * </pre>
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class AvailabilityQueryBenchmarkTest {
+
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 15);
+    private static final LocalTime TIME = LocalTime.of(19, 0);
+    private static final int GUESTS = 4;
+    private static final int WARMUP_ITERATIONS = 50;
+    private static final int MEASURED_ITERATIONS = 200;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private TableRepository tableRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @ParameterizedTest(name = "{0} tables")
+    @ValueSource(ints = {50, 500, 5000})
+    void compareTwoQueryAndAntiJoinLookups(int tableCount) {
+        seed(tableCount);
+
+        assertThat(antiJoin()).isEqualTo(twoQueries());
+
+        Result legacy = measure(this::twoQueries);
+        Result antiJoin = measure(this::antiJoin);
+
+        System.out.printf("%5d tables | two queries: %8.1f us/op %10d B/op | anti-join: %8.1f us/op %10d B/op%n",
+            tableCount, legacy.micros(), legacy.bytes(), antiJoin.micros(), antiJoin.bytes());
+    }
+
+    private int twoQueries() {
+        List<Reservation> reservations = reservationRepository.findByDateAndTime(DATE, TIME);
+        List<Table> allTables = tableRepository.findAll();
+        Set<Long> reservedTableIds = reservations.stream()
+            .filter(reservation -> Status.occupiesTable(reservation.getStatus()))
+            .map(reservation -> reservation.getTable().getId())
+            .collect(Collectors.toSet());
+        int available = (int) allTables.stream()
+            .filter(table -> !reservedTableIds.contains(table.getId()) && table.getCapacity() >= GUESTS)
+            .count();
+        entityManager.clear();
+        return available;
+    }
+
+    private int antiJoin() {
+        List<TableDTO> available = reservationRepository.findAvailableTables(DATE, TIME, TIME, GUESTS, Status.freeingStatuses());
+        entityManager.clear();
+        return available.size();
+    }
+
+    private Result measure(Lookup lookup) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            lookup.run();
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            lookup.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new Result(elapsed / 1_000.0 / MEASURED_ITERATIONS, allocated / MEASURED_ITERATIONS);
+    }
+
+    private void seed(int tableCount) {
+        User user = new User();
+        user.setName("Benchmark User");
+        user.setEmail("benchmark@example.com");
+        user = userRepository.save(user);
+
+        List<Table> tables = new ArrayList<>(tableCount);
+        for (int i = 1; i <= tableCount; i++) {
+            Table table = new Table();
+            table.setNumber(i);
+            table.setCapacity(2 + (i % 9));
+            tables.add(table);
+        }
+        tables = tableRepository.saveAll(tables);
+
+        // Roughly half of the tables are taken at the measured slot
+        List<Reservation> reservations = new ArrayList<>(tableCount / 2);
+        for (int i = 0; i < tables.size(); i += 2) {
+            Reservation reservation = new Reservation();
+            reservation.setUser(user);
+            reservation.setTable(tables.get(i));
+            reservation.setDate(DATE);
+            reservation.setTime(TIME);
+            reservation.setNumberOfGuests(2);
+            reservation.setStatus(Status.BOOKED);
+            reservations.add(reservation);
+        }
+        reservationRepository.saveAll(reservations);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @FunctionalInterface
+    private interface Lookup {
+        int run();
+    }
+
+    private record Result(double micros, long bytes) {
+    }
+}
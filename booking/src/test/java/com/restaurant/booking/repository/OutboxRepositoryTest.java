@@ -0,0 +1,78 @@
+package com.restaurant.booking.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import com.restaurant.booking.service.integration.OutboxMessage;
+import com.restaurant.booking.service.integration.OutboxMessage.Integration;
+
+@DataJpaTest
+@Import(OutboxRepository.class)
+class OutboxRepositoryTest {
+
+    private static final Instant NOW = Instant.parse("2025-08-25T12:00:00Z");
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    @Test
+    void insertsOneMessagePerIntegrationInOrder() {
+        outboxRepository.insertAll(List.of(1L, 2L), List.of("{\"reservationId\":1}", "{\"reservationId\":2}"), NOW);
+
+        for (Integration integration : Integration.values()) {
+            List<OutboxMessage> due = outboxRepository.findDue(integration, NOW, 10);
+            assertThat(due).extracting(OutboxMessage::reservationId).containsExactly(1L, 2L);
+            assertThat(due).extracting(OutboxMessage::integration).containsOnly(integration);
+            assertThat(due.get(0).createdAt()).isEqualTo(NOW);
+        }
+        assertThat(outboxRepository.findDue(Integration.CRM, NOW, 1)).hasSize(1);
+    }
+
+    @Test
+    void laterMessagesOfAReservationWaitForItsFailedOne() {
+        outboxRepository.insertAll(List.of(1L, 2L, 1L), List.of("first", "other", "second"), NOW);
+        List<OutboxMessage> due = outboxRepository.findDue(Integration.CRM, NOW, 10);
+        assertThat(due).extracting(OutboxMessage::payload).containsExactly("first", "other");
+
+        outboxRepository.markFailed(List.of(due.get(0).id()), NOW.plusSeconds(60), "timeout");
+
+        assertThat(outboxRepository.findDue(Integration.CRM, NOW.plusSeconds(30), 10)).extracting(OutboxMessage::payload)
+            .containsExactly("other");
+        List<OutboxMessage> retried = outboxRepository.findDue(Integration.CRM, NOW.plusSeconds(60), 10);
+        assertThat(retried).extracting(OutboxMessage::payload).containsExactly("first", "other");
+        assertThat(retried.get(0).attempts()).isEqualTo(1);
+
+        outboxRepository.markDelivered(List.of(retried.get(0).id()), NOW.plusSeconds(60));
+        assertThat(outboxRepository.findDue(Integration.CRM, NOW.plusSeconds(60), 10)).extracting(OutboxMessage::payload)
+            .containsExactly("other", "second");
+        assertThat(outboxRepository.findDue(Integration.GASTRO, NOW, 10)).hasSize(2);
+    }
+
+    @Test
+    void deadMessagesAreSkippedAndNoLongerHoldUpTheirReservation() {
+        outboxRepository.insertAll(List.of(1L, 1L), List.of("first", "second"), NOW);
+        OutboxMessage first = outboxRepository.findDue(Integration.CRM, NOW, 10).get(0);
+
+        outboxRepository.markDead(List.of(first.id()), NOW, "refused");
+
+        assertThat(outboxRepository.findDue(Integration.CRM, NOW, 10)).extracting(OutboxMessage::payload).containsExactly("second");
+        assertThat(outboxRepository.deleteDeliveredBefore(NOW.plusSeconds(1))).isZero();
+    }
+
+    @Test
+    void purgesDeliveredMessagesOnly() {
+        outboxRepository.insertAll(List.of(1L, 2L), List.of("delivered", "pending"), NOW);
+        OutboxMessage delivered = outboxRepository.findDue(Integration.CRM, NOW, 1).get(0);
+        outboxRepository.markDelivered(List.of(delivered.id()), NOW);
+
+        assertThat(outboxRepository.deleteDeliveredBefore(NOW.plusSeconds(1))).isEqualTo(1);
+        assertThat(outboxRepository.findDue(Integration.CRM, NOW, 10)).extracting(OutboxMessage::payload).containsExactly("pending");
+    }
+}
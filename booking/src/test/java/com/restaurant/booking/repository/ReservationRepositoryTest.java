@@ -0,0 +1,221 @@
+package com.restaurant.booking.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.restaurant.booking.dto.ReservationSummaryDTO;
+import com.restaurant.booking.dto.SlotLoadDTO;
+import com.restaurant.booking.dto.TableDTO;
+import com.restaurant.booking.model.Reservation;
+import com.restaurant.booking.model.Status;
+import com.restaurant.booking.model.Table;
+import com.restaurant.booking.model.User;
+
+@DataJpaTest
+class ReservationRepositoryTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 8, 25);
+    private static final LocalTime TIME = LocalTime.of(19, 0);
+    private static final LocalTime END = LocalTime.of(21, 0);
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private TableRepository tableRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private Table small;
+    private Table medium;
+    private Table large;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Jane Doe");
+        user.setEmail("jane@example.com");
+        user = userRepository.save(user);
+
+        large = table(3, 8);
+        small = table(1, 2);
+        medium = table(2, 4);
+    }
+
+    @Test
+    void findAvailableTablesExcludesTablesReservedAtTheSameSlot() {
+        reserve(medium, DATE, TIME, Status.BOOKED);
+
+        List<TableDTO> available = reservationRepository.findAvailableTables(DATE, TIME, END, 2, Status.freeingStatuses());
+
+        assertThat(available).extracting(TableDTO::getId).containsExactly(small.getId(), large.getId());
+    }
+
+    @Test
+    void findAvailableTablesFiltersByCapacityAndOrdersSmallestFirst() {
+        List<TableDTO> available = reservationRepository.findAvailableTables(DATE, TIME, END, 3, Status.freeingStatuses());
+
+        assertThat(available).extracting(TableDTO::getCapacity).containsExactly(4, 8);
+    }
+
+    @Test
+    void findAvailableTablesIgnoresOtherSlotsAndCancelledReservations() {
+        reserve(small, DATE, END, Status.BOOKED);
+        reserve(medium, DATE.plusDays(1), TIME, Status.BOOKED);
+        reserve(large, DATE, TIME, Status.CANCELLED);
+
+        List<TableDTO> available = reservationRepository.findAvailableTables(DATE, TIME, END, 1, Status.freeingStatuses());
+
+        assertThat(available).extracting(TableDTO::getId).containsExactly(small.getId(), medium.getId(), large.getId());
+    }
+
+    @Test
+    void findAvailableTablesTreatsMissingStatusAsOccupied() {
+        reserve(small, DATE, TIME, null);
+
+        List<TableDTO> available = reservationRepository.findAvailableTables(DATE, TIME, END, 1, Status.freeingStatuses());
+
+        assertThat(available).extracting(TableDTO::getId).doesNotContain(small.getId());
+    }
+
+    @Test
+    void findAvailableTablesExcludesTablesWithOverlappingReservations() {
+        reserve(small, DATE, LocalTime.of(17, 30), Status.BOOKED, LocalTime.of(19, 30));
+        reserve(medium, DATE, LocalTime.of(20, 30), Status.BOOKED, LocalTime.of(22, 0));
+        reserve(large, DATE, LocalTime.of(17, 0), Status.BOOKED, LocalTime.of(19, 0));
+
+        List<TableDTO> available = reservationRepository.findAvailableTables(DATE, TIME, END, 1, Status.freeingStatuses());
+
+        assertThat(available).extracting(TableDTO::getId).containsExactly(large.getId());
+    }
+
+    @Test
+    void existsOverlappingChecksOnlyTheGivenTables() {
+        reserve(small, DATE, LocalTime.of(18, 0), Status.BOOKED, LocalTime.of(19, 30));
+        reserve(medium, DATE, TIME, Status.CANCELLED, END);
+
+        assertThat(reservationRepository.existsOverlapping(List.of(small.getId(), large.getId()), DATE, TIME, END, Status.freeingStatuses())).isTrue();
+        assertThat(reservationRepository.existsOverlapping(List.of(medium.getId(), large.getId()), DATE, TIME, END, Status.freeingStatuses())).isFalse();
+    }
+
+    @Test
+    void countOccupyingBySlotGroupsByDateStartAndEnd() {
+        reserve(small, DATE, TIME, Status.BOOKED, END);
+        reserve(medium, DATE, TIME, Status.BOOKED, END);
+        reserve(large, DATE, TIME, Status.CANCELLED, END);
+        reserve(large, DATE, TIME.plusHours(1), Status.BOOKED, END);
+        reserve(small, DATE.plusDays(2), TIME, Status.BOOKED, END);
+
+        List<SlotLoadDTO> loads = reservationRepository.countOccupyingBySlot(DATE, DATE.plusDays(1), Status.freeingStatuses());
+
+        assertThat(loads).extracting(SlotLoadDTO::getTime, SlotLoadDTO::getReservations)
+            .containsExactlyInAnyOrder(tuple(TIME, 2L), tuple(TIME.plusHours(1), 1L));
+    }
+
+    @Test
+    void findAvailableTablesAtLocationOnlyReturnsThatLocation() {
+        Table harbour = new Table();
+        harbour.setNumber(1);
+        harbour.setCapacity(4);
+        harbour.setLocation("harbour");
+        harbour = tableRepository.save(harbour);
+        reserve(medium, DATE, TIME, Status.BOOKED, END);
+
+        assertThat(tableRepository.findLocations()).containsExactly("harbour", Table.DEFAULT_LOCATION);
+        assertThat(reservationRepository.findAvailableTablesAtLocation("harbour", DATE, TIME, END, 2, Status.freeingStatuses()))
+            .extracting(TableDTO::getId).containsExactly(harbour.getId());
+        assertThat(reservationRepository.findAvailableTablesAtLocation(Table.DEFAULT_LOCATION, DATE, TIME, END, 2, Status.freeingStatuses()))
+            .extracting(TableDTO::getId).containsExactly(small.getId(), large.getId());
+    }
+
+    @Test
+    void slotHoldsOneOccupyingReservationPerTableAndStartTime() {
+        reserve(small, DATE, TIME, Status.CANCELLED);
+        reserve(small, DATE, TIME, Status.CANCELLED);
+        reserve(small, DATE, TIME, Status.BOOKED);
+
+        assertThatThrownBy(() -> reserve(small, DATE, TIME, Status.BOOKED)).isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void findOverlappingByStatusReadsBookedReservationsOverlappingTheWindow() {
+        Reservation before = reserve(small, DATE, LocalTime.of(17, 0), Status.BOOKED, LocalTime.of(19, 30));
+        reserve(medium, DATE, LocalTime.of(17, 0), Status.BOOKED, TIME);
+        Reservation inside = reserve(large, DATE, TIME, Status.BOOKED);
+        reserve(medium, DATE, TIME, Status.CANCELLED, END);
+        reserve(medium, DATE, END, Status.BOOKED, END.plusHours(2));
+        reserve(small, DATE.plusDays(1), TIME, Status.BOOKED, END);
+
+        List<ReservationSummaryDTO> booked = reservationRepository.findOverlappingByStatus(DATE, TIME, END, Status.BOOKED);
+
+        assertThat(booked).extracting(ReservationSummaryDTO::getReservationId, ReservationSummaryDTO::getTableNumber, ReservationSummaryDTO::getCustomerName)
+            .containsExactly(tuple(before.getId(), 1, "Jane Doe"), tuple(inside.getId(), 3, "Jane Doe"));
+    }
+
+    @Test
+    void findOverlappingByStatusIncludesLegacyRowsAndRowsWithoutTableOrGuest() {
+        Reservation legacy = reserve(small, DATE, TIME, null, END);
+        Reservation unassigned = reserve(null, DATE, TIME, Status.BOOKED, END);
+        Reservation walkIn = reserve(large, DATE, TIME, Status.BOOKED, END);
+        walkIn.setUser(null);
+        reservationRepository.save(walkIn);
+
+        assertThat(reservationRepository.findOverlappingByStatus(DATE, TIME, END, Status.BOOKED))
+            .extracting(ReservationSummaryDTO::getReservationId, ReservationSummaryDTO::getTableNumber, ReservationSummaryDTO::getCustomerName)
+            .containsExactlyInAnyOrder(tuple(legacy.getId(), 1, "Jane Doe"), tuple(unassigned.getId(), null, "Jane Doe"), tuple(walkIn.getId(), 3, null));
+        assertThat(reservationRepository.findOverlappingByStatus(DATE, TIME, END, Status.COMPLETED)).isEmpty();
+        assertThat(reservationRepository.freeAll(List.of(legacy.getId()), Status.BOOKED, Status.CANCELLED)).isEqualTo(1);
+        assertThat(reservationRepository.findById(legacy.getId())).get().extracting(Reservation::getStatus).isEqualTo(Status.CANCELLED);
+    }
+
+    @Test
+    void freeAllSkipsChangedReservationsAndReleasesTheSlot() {
+        Reservation booked = reserve(small, DATE, TIME, Status.BOOKED, END);
+        Reservation completed = reserve(medium, DATE, TIME, Status.COMPLETED, END);
+
+        int freed = reservationRepository.freeAll(List.of(booked.getId(), completed.getId()), Status.BOOKED, Status.CANCELLED);
+
+        assertThat(freed).isEqualTo(1);
+        assertThat(reservationRepository.findById(booked.getId())).get()
+            .extracting(Reservation::getStatus, Reservation::getSlotHold).containsExactly(Status.CANCELLED, null);
+        assertThat(reservationRepository.findById(completed.getId())).get().extracting(Reservation::getStatus).isEqualTo(Status.COMPLETED);
+        reserve(small, DATE, TIME, Status.BOOKED, END);
+        reservationRepository.flush();
+    }
+
+    private Table table(int number, int capacity) {
+        Table table = new Table();
+        table.setNumber(number);
+        table.setCapacity(capacity);
+        return tableRepository.save(table);
+    }
+
+    private Reservation reserve(Table table, LocalDate date, LocalTime time, Status status) {
+        return reserve(table, date, time, status, time.plusHours(2));
+    }
+
+    private Reservation reserve(Table table, LocalDate date, LocalTime time, Status status, LocalTime endTime) {
+        Reservation reservation = new Reservation();
+        reservation.setUser(user);
+        reservation.setTable(table);
+        reservation.setDate(date);
+        reservation.setTime(time);
+        reservation.setNumberOfGuests(2);
+        reservation.setStatus(status);
+        reservation.setEndTime(endTime);
+        return reservationRepository.save(reservation);
+    }
+}
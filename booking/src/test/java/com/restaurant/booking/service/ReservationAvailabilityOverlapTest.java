@@ -1,8 +1,10 @@
 package com.restaurant.booking.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
@@ -12,13 +14,28 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.restaurant.booking.model.Reservation;
 import com.restaurant.booking.model.Table;
 import com.restaurant.booking.repository.ReservationRepository;
 import com.restaurant.booking.repository.TableRepository;
-import com.restaurant.booking.service.integration.CrmIntegrationService;
-import com.restaurant.booking.service.integration.GastroIntegrationService;
+import com.restaurant.booking.service.allocation.TableAllocator;
+import com.restaurant.booking.service.allocation.TableCombinationIndex;
+import com.restaurant.booking.service.availability.AvailabilityCache;
+import com.restaurant.booking.service.availability.AvailabilityStream;
+import com.restaurant.booking.service.availability.CoversPacing;
+import com.restaurant.booking.service.availability.DiningDurationPolicy;
+import com.restaurant.booking.service.availability.LocationAvailability;
+import com.restaurant.booking.service.availability.OccupancyHeatmap;
+import com.restaurant.booking.service.availability.OpeningHours;
+import com.restaurant.booking.service.availability.SlotAvailabilityProjection;
+import com.restaurant.booking.service.availability.SlotLocks;
+import com.restaurant.booking.service.availability.SlotOccupancyIndex;
+import com.restaurant.booking.service.availability.StaleAvailability;
+import com.restaurant.booking.service.integration.IntegrationOutbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 public class ReservationAvailabilityOverlapTest {
 
@@ -27,9 +44,19 @@ public class ReservationAvailabilityOverlapTest {
     @Mock
     private ReservationRepository reservationRepository;
     @Mock
-    private CrmIntegrationService crmIntegrationService;
+    private IntegrationOutbox integrationOutbox;
     @Mock
-    private GastroIntegrationService gastroIntegrationService;
+    private SlotAvailabilityProjection slotAvailabilityProjection;
+    @Mock
+    private OccupancyHeatmap occupancyHeatmap;
+    @Mock
+    private AvailabilityStream availabilityStream;
+    @Mock
+    private LocationAvailability locationAvailability;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SlotOccupancyIndex slotOccupancyIndex;
 
     @InjectMocks
     private ReservationService reservationService;
@@ -37,12 +64,16 @@ public class ReservationAvailabilityOverlapTest {
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
-        reservationService = new ReservationService(tableRepository, reservationRepository, crmIntegrationService, gastroIntegrationService);
+        DiningDurationPolicy durationPolicy = new DiningDurationPolicy(120, "2:90");
+        slotOccupancyIndex = new SlotOccupancyIndex(tableRepository, reservationRepository, durationPolicy, true);
+        reservationService = new ReservationService(tableRepository, reservationRepository, integrationOutbox, slotOccupancyIndex,
+            new AvailabilityCache(durationPolicy, new OpeningHours("", "", 15), new StaleAvailability(new SimpleMeterRegistry(), false, Duration.ofSeconds(1), Duration.ofHours(1), 10_000, 1), slotOccupancyIndex, new SimpleMeterRegistry(), false, 100, Duration.ofMinutes(10)), slotAvailabilityProjection, new OpeningHours("", "", 15), new CoversPacing(reservationRepository, 0, 15), occupancyHeatmap, availabilityStream, locationAvailability, new SlotLocks(64, 15), durationPolicy,
+            new TableAllocator(tableRepository, reservationRepository, slotOccupancyIndex, new TableCombinationIndex(tableRepository, 4), durationPolicy), eventPublisher);
     }
 
     @Test
     void getAvailableTablesShouldExcludeTablesWithExactTimeOverlap() {
-        LocalDate date = LocalDate.of(2025, 8, 25);
+        LocalDate date = LocalDate.now().plusDays(1);
         LocalTime time = LocalTime.of(19, 0);
 
         Table t1 = new Table(); t1.setId(1L); t1.setNumber(1); t1.setCapacity(4);
@@ -52,15 +83,43 @@ public class ReservationAvailabilityOverlapTest {
         r.setTable(t1);
         r.setDate(date);
         r.setTime(time);
+        r.setEndTime(time.plusHours(2));
 
-        when(reservationRepository.findByDateAndTime(date, time)).thenReturn(List.of(r));
+        when(reservationRepository.findByDateGreaterThanEqual(any(LocalDate.class))).thenReturn(List.of(r));
         when(tableRepository.findAll()).thenReturn(List.of(t1, t2));
+        slotOccupancyIndex.rebuild();
 
         List<Table> available = reservationService.getAvailableTables(date, time, 2);
 
         assertThat(available).extracting(Table::getId).doesNotContain(1L);
         assertThat(available).extracting(Table::getId).contains(2L);
     }
+
+    @Test
+    void getAvailableTablesShouldExcludeTablesWhoseReservationIsStillRunning() {
+        LocalDate date = LocalDate.now().plusDays(1);
+
+        Table t1 = new Table(); t1.setId(1L); t1.setNumber(1); t1.setCapacity(4);
+        Table t2 = new Table(); t2.setId(2L); t2.setNumber(2); t2.setCapacity(4);
+
+        // 19:00 party of four stays 120 minutes
+        Reservation r = new Reservation();
+        r.setTable(t1);
+        r.setDate(date);
+        r.setTime(LocalTime.of(19, 0));
+        r.setEndTime(LocalTime.of(21, 0));
+        r.setNumberOfGuests(4);
+
+        when(reservationRepository.findByDateGreaterThanEqual(any(LocalDate.class))).thenReturn(List.of(r));
+        when(tableRepository.findAll()).thenReturn(List.of(t1, t2));
+        slotOccupancyIndex.rebuild();
+
+        assertThat(reservationService.getAvailableTables(date, LocalTime.of(19, 30), 2)).extracting(Table::getId).containsExactly(2L);
+        assertThat(reservationService.getAvailableTables(date, LocalTime.of(21, 0), 2)).extracting(Table::getId).containsExactly(1L, 2L);
+        // a party of two stays 90 minutes: 17:30 ends exactly when the 19:00 booking starts, 17:31 overlaps it
+        assertThat(reservationService.getAvailableTables(date, LocalTime.of(17, 30), 2)).extracting(Table::getId).containsExactly(1L, 2L);
+        assertThat(reservationService.getAvailableTables(date, LocalTime.of(17, 31), 2)).extracting(Table::getId).containsExactly(2L);
+    }
 }
 
 
@@ -0,0 +1,213 @@
+package com.restaurant.booking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.restaurant.booking.dto.OccupiedSlotDTO;
+import com.restaurant.booking.dto.ReservationDTO;
+import com.restaurant.booking.dto.ReservationImportResultDTO;
+import com.restaurant.booking.dto.ReservationImportResultDTO.Outcome;
+import com.restaurant.booking.event.ReservationChangedEvent;
+import com.restaurant.booking.model.Reservation;
+import com.restaurant.booking.model.Status;
+import com.restaurant.booking.model.Table;
+import com.restaurant.booking.model.User;
+import com.restaurant.booking.repository.ReservationBatchRepository;
+import com.restaurant.booking.repository.ReservationRepository;
+import com.restaurant.booking.repository.TableRepository;
+import com.restaurant.booking.repository.UserRepository;
+import com.restaurant.booking.service.availability.CoversPacing;
+import com.restaurant.booking.service.availability.DiningDurationPolicy;
+import com.restaurant.booking.service.availability.OpeningHours;
+import com.restaurant.booking.service.availability.SlotLocks;
+import com.restaurant.booking.service.integration.IntegrationOutbox;
+
+import jakarta.validation.Validation;
+
+class ReservationImportServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 8, 25);
+    private static final LocalTime TIME = LocalTime.of(19, 0);
+
+    private TableRepository tableRepository;
+    private UserRepository userRepository;
+    private ReservationRepository reservationRepository;
+    private ReservationBatchRepository reservationBatchRepository;
+    private IntegrationOutbox integrationOutbox;
+    private ApplicationEventPublisher eventPublisher;
+    private final List<List<Reservation>> insertedBatches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        tableRepository = mock(TableRepository.class);
+        userRepository = mock(UserRepository.class);
+        reservationRepository = mock(ReservationRepository.class);
+        reservationBatchRepository = mock(ReservationBatchRepository.class);
+        integrationOutbox = mock(IntegrationOutbox.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+
+        when(tableRepository.findAllById(any())).thenReturn(List.of(table(1L, 1, 4), table(2L, 2, 2)));
+        when(userRepository.findAllById(any())).thenReturn(List.of(user(10L)));
+        when(reservationRepository.findOccupiedSlots(any(), any(), anyCollection())).thenReturn(List.of());
+        AtomicLong ids = new AtomicLong(100);
+        doAnswer(invocation -> {
+            List<Reservation> reservations = invocation.getArgument(0);
+            reservations.forEach(reservation -> reservation.setId(ids.incrementAndGet()));
+            insertedBatches.add(List.copyOf(reservations));
+            return null;
+        }).when(reservationBatchRepository).insertAll(anyList(), anyInt());
+    }
+
+    @Test
+    void createsFreeReservationsInOneBatchAndQueuesThemTogether() {
+        List<ReservationImportResultDTO> results = service(0, 5000).importReservations(List.of(
+            reservation(1L, DATE, TIME, 4),
+            reservation(2L, DATE, TIME, 2)));
+
+        assertThat(results).extracting(ReservationImportResultDTO::getOutcome).containsExactly(Outcome.CREATED, Outcome.CREATED);
+        assertThat(results).extracting(ReservationImportResultDTO::getReservationId).containsExactly(101L, 102L);
+        assertThat(insertedBatches).hasSize(1);
+        assertThat(insertedBatches.get(0)).allSatisfy(reservation -> {
+            assertThat(reservation.getEndTime()).isEqualTo(LocalTime.of(21, 0));
+            assertThat(reservation.getStatus()).isEqualTo(Status.BOOKED);
+            assertThat(reservation.getLocation()).isEqualTo(Table.DEFAULT_LOCATION);
+        });
+        verify(eventPublisher, times(2)).publishEvent(any(ReservationChangedEvent.class));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ReservationDTO>> sent = ArgumentCaptor.forClass(List.class);
+        verify(integrationOutbox).enqueue(sent.capture());
+        assertThat(sent.getValue()).extracting(ReservationDTO::getReservationId).containsExactly(101L, 102L);
+    }
+
+    @Test
+    void rejectsInvalidReservationsOneByOne() {
+        Reservation noTable = reservation(1L, DATE, TIME, 2);
+        noTable.setTable(null);
+
+        List<ReservationImportResultDTO> results = service(0, 5000).importReservations(List.of(
+            reservation(1L, DATE, TIME, 2),
+            noTable,
+            reservation(1L, DATE, TIME, 0),
+            reservation(99L, DATE, TIME, 2),
+            reservation(2L, DATE, TIME, 4)));
+
+        assertThat(results).extracting(ReservationImportResultDTO::getOutcome)
+            .containsExactly(Outcome.CREATED, Outcome.REJECTED, Outcome.REJECTED, Outcome.REJECTED, Outcome.REJECTED);
+        assertThat(results).extracting(ReservationImportResultDTO::getIndex).containsExactly(0, 1, 2, 3, 4);
+        assertThat(results.get(1).getMessage()).contains("table id");
+        assertThat(results.get(2).getMessage()).contains("numberOfGuests");
+        assertThat(results.get(3).getMessage()).contains("Table not found");
+        assertThat(results.get(4).getMessage()).contains("seats 2");
+        assertThat(insertedBatches.get(0)).hasSize(1);
+    }
+
+    @Test
+    void rejectsHoldsAndReservationsBreakingTheEntityConstraints() {
+        Reservation held = reservation(1L, DATE, TIME, 2);
+        held.setStatus(Status.HELD);
+        Reservation tooLong = reservation(1L, DATE, TIME, 2);
+        tooLong.setDurationMinutes(600);
+        Reservation tooLarge = reservation(1L, DATE, TIME, Reservation.MAX_PARTY_SIZE + 1);
+        Reservation noDate = reservation(1L, null, TIME, 2);
+        Reservation completed = reservation(1L, DATE, TIME, 2);
+        completed.setStatus(Status.COMPLETED);
+
+        List<ReservationImportResultDTO> results = service(0, 5000).importReservations(List.of(held, tooLong, tooLarge, noDate, completed));
+
+        assertThat(results).extracting(ReservationImportResultDTO::getOutcome)
+            .containsExactly(Outcome.REJECTED, Outcome.REJECTED, Outcome.REJECTED, Outcome.REJECTED, Outcome.CREATED);
+        assertThat(results.get(0).getMessage()).contains("HELD");
+        assertThat(results.get(1).getMessage()).contains("durationMinutes");
+        assertThat(results.get(2).getMessage()).contains("numberOfGuests");
+        assertThat(results.get(3).getMessage()).contains("date");
+    }
+
+    @Test
+    void rejectsOverlapsWithStoredBookingsAndEarlierReservationsOfTheImport() {
+        when(reservationRepository.findOccupiedSlots(eq(DATE), eq(DATE), anyCollection())).thenReturn(List.of(
+            new OccupiedSlotDTO(7L, 2L, DATE, LocalTime.of(18, 0), LocalTime.of(20, 0), 2, 120)));
+
+        List<ReservationImportResultDTO> results = service(0, 5000).importReservations(List.of(
+            reservation(1L, DATE, TIME, 2),
+            reservation(1L, DATE, LocalTime.of(20, 30), 2),
+            reservation(1L, DATE, LocalTime.of(21, 0), 2),
+            reservation(2L, DATE, TIME, 2)));
+
+        assertThat(results).extracting(ReservationImportResultDTO::getOutcome)
+            .containsExactly(Outcome.CREATED, Outcome.REJECTED, Outcome.CREATED, Outcome.REJECTED);
+        assertThat(results.get(1).getMessage()).contains("already booked");
+        assertThat(results.get(3).getMessage()).contains("already booked");
+    }
+
+    @Test
+    void rejectsReservationsOverThePacingLimit() {
+        List<ReservationImportResultDTO> results = service(4, 5000).importReservations(List.of(
+            reservation(1L, DATE, TIME, 4),
+            reservation(2L, DATE, TIME, 2)));
+
+        assertThat(results).extracting(ReservationImportResultDTO::getOutcome).containsExactly(Outcome.CREATED, Outcome.REJECTED);
+        assertThat(results.get(1).getMessage()).contains("pacing");
+    }
+
+    @Test
+    void rejectsImportsOverTheSizeLimit() {
+        assertThatThrownBy(() -> service(0, 1).importReservations(List.of(reservation(1L, DATE, TIME, 2), reservation(2L, DATE, TIME, 2))))
+            .isInstanceOf(IllegalArgumentException.class);
+        verify(reservationBatchRepository, never()).insertAll(anyList(), anyInt());
+    }
+
+    private ReservationImportService service(int maxCovers, int maxItems) {
+        return new ReservationImportService(tableRepository, userRepository, reservationRepository, reservationBatchRepository,
+            integrationOutbox, new OpeningHours("", "", 15), new CoversPacing(reservationRepository, maxCovers, 15),
+            new SlotLocks(64, 15), new DiningDurationPolicy(120, ""), eventPublisher,
+            Validation.buildDefaultValidatorFactory().getValidator(), 100, maxItems);
+    }
+
+    private static Reservation reservation(Long tableId, LocalDate date, LocalTime time, int numberOfGuests) {
+        Table table = new Table();
+        table.setId(tableId);
+        User user = new User();
+        user.setId(10L);
+        Reservation reservation = new Reservation();
+        reservation.setUser(user);
+        reservation.setTable(table);
+        reservation.setDate(date);
+        reservation.setTime(time);
+        reservation.setNumberOfGuests(numberOfGuests);
+        return reservation;
+    }
+
+    private static Table table(Long id, int number, int capacity) {
+        return new Table(id, number, capacity, null, Table.DEFAULT_LOCATION, null);
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("Partner Guest");
+        return user;
+    }
+}
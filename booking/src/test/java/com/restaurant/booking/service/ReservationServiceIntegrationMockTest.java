@@ -1,9 +1,9 @@
 package com.restaurant.booking.service;
 
-import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
 
@@ -12,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.restaurant.booking.dto.ReservationDTO;
 import com.restaurant.booking.model.Reservation;
@@ -20,8 +21,21 @@ import com.restaurant.booking.model.Table;
 import com.restaurant.booking.model.User;
 import com.restaurant.booking.repository.ReservationRepository;
 import com.restaurant.booking.repository.TableRepository;
-import com.restaurant.booking.service.integration.CrmIntegrationService;
-import com.restaurant.booking.service.integration.GastroIntegrationService;
+import com.restaurant.booking.service.allocation.TableAllocator;
+import com.restaurant.booking.service.availability.AvailabilityCache;
+import com.restaurant.booking.service.availability.AvailabilityStream;
+import com.restaurant.booking.service.availability.CoversPacing;
+import com.restaurant.booking.service.availability.DiningDurationPolicy;
+import com.restaurant.booking.service.availability.LocationAvailability;
+import com.restaurant.booking.service.availability.OccupancyHeatmap;
+import com.restaurant.booking.service.availability.OpeningHours;
+import com.restaurant.booking.service.availability.SlotAvailabilityProjection;
+import com.restaurant.booking.service.availability.SlotLocks;
+import com.restaurant.booking.service.availability.SlotOccupancyIndex;
+import com.restaurant.booking.service.availability.StaleAvailability;
+import com.restaurant.booking.service.integration.IntegrationOutbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 public class ReservationServiceIntegrationMockTest {
 
@@ -30,9 +44,21 @@ public class ReservationServiceIntegrationMockTest {
     @Mock
     private ReservationRepository reservationRepository;
     @Mock
-    private CrmIntegrationService crmIntegrationService;
+    private IntegrationOutbox integrationOutbox;
     @Mock
-    private GastroIntegrationService gastroIntegrationService;
+    private SlotOccupancyIndex slotOccupancyIndex;
+    @Mock
+    private TableAllocator tableAllocator;
+    @Mock
+    private SlotAvailabilityProjection slotAvailabilityProjection;
+    @Mock
+    private OccupancyHeatmap occupancyHeatmap;
+    @Mock
+    private AvailabilityStream availabilityStream;
+    @Mock
+    private LocationAvailability locationAvailability;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private ReservationService reservationService;
@@ -40,11 +66,13 @@ public class ReservationServiceIntegrationMockTest {
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
-        reservationService = new ReservationService(tableRepository, reservationRepository, crmIntegrationService, gastroIntegrationService);
+        DiningDurationPolicy durationPolicy = new DiningDurationPolicy(120, "");
+        AvailabilityCache availabilityCache = new AvailabilityCache(durationPolicy, new OpeningHours("", "", 15), new StaleAvailability(new SimpleMeterRegistry(), false, Duration.ofSeconds(1), Duration.ofHours(1), 10_000, 1), slotOccupancyIndex, new SimpleMeterRegistry(), false, 100, Duration.ofMinutes(10));
+        reservationService = new ReservationService(tableRepository, reservationRepository, integrationOutbox, slotOccupancyIndex, availabilityCache, slotAvailabilityProjection, new OpeningHours("", "", 15), new CoversPacing(reservationRepository, 0, 15), occupancyHeatmap, availabilityStream, locationAvailability, new SlotLocks(64, 15), durationPolicy, tableAllocator, eventPublisher);
     }
 
     @Test
-    void createReservationShouldContinueWhenIntegrationFails() {
+    void createReservationQueuesIntegrationsInTheOutboxInsteadOfCallingThem() {
         User user = new User();
         user.setName("John");
         user.setEmail("john@example.com");
@@ -64,13 +92,12 @@ public class ReservationServiceIntegrationMockTest {
         reservation.setStatus(Status.BOOKED);
 
         when(reservationRepository.save(reservation)).thenReturn(reservation);
-        doThrow(new RuntimeException("CRM down")).when(crmIntegrationService).sendReservationToCrm(org.mockito.ArgumentMatchers.any(ReservationDTO.class));
 
         reservationService.createReservation(reservation);
 
         verify(reservationRepository).save(reservation);
-        verify(crmIntegrationService).sendReservationToCrm(org.mockito.ArgumentMatchers.any(ReservationDTO.class));
-        // On CRM failure, service logs and continues without propagating, but does not reach Gastro call
+        // CRM and Gastro are called by the outbox relay after commit, never on the booking thread
+        verify(integrationOutbox).enqueue(org.mockito.ArgumentMatchers.any(ReservationDTO.class));
     }
 }
 
@@ -2,33 +2,69 @@ package com.restaurant.booking.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import com.restaurant.booking.dto.AvailabilitySlotDTO;
+import com.restaurant.booking.dto.CombinedReservationRequest;
+import com.restaurant.booking.dto.OccupiedSlotDTO;
 import com.restaurant.booking.dto.ReservationDTO;
+import com.restaurant.booking.dto.ReservationSummaryDTO;
+import com.restaurant.booking.dto.TableDTO;
+import com.restaurant.booking.event.ReservationChangedEvent;
+import com.restaurant.booking.event.ReservationsStatusChangedEvent;
 import com.restaurant.booking.model.Reservation;
 import com.restaurant.booking.model.Status;
 import com.restaurant.booking.model.Table;
 import com.restaurant.booking.model.User;
 import com.restaurant.booking.repository.ReservationRepository;
 import com.restaurant.booking.repository.TableRepository;
-import com.restaurant.booking.service.integration.CrmIntegrationService;
-import com.restaurant.booking.service.integration.GastroIntegrationService;
+import com.restaurant.booking.service.allocation.TableAllocation;
+import com.restaurant.booking.service.allocation.TableAllocator;
+import com.restaurant.booking.service.allocation.TableCombination;
+import com.restaurant.booking.service.availability.AvailabilityCache;
+import com.restaurant.booking.service.availability.AvailabilityStream;
+import com.restaurant.booking.service.availability.CoversPacing;
+import com.restaurant.booking.service.availability.DiningDurationPolicy;
+import com.restaurant.booking.service.availability.LocationAvailability;
+import com.restaurant.booking.service.availability.OccupancyHeatmap;
+import com.restaurant.booking.service.availability.OpeningHours;
+import com.restaurant.booking.service.availability.SlotAvailabilityProjection;
+import com.restaurant.booking.service.availability.SlotLocks;
+import com.restaurant.booking.service.availability.SlotOccupancyIndex;
+import com.restaurant.booking.service.availability.StaleAvailability;
+import com.restaurant.booking.service.integration.IntegrationOutbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 public class ReservationServiceTest {
@@ -39,17 +75,28 @@ public class ReservationServiceTest {
     @Mock
     private ReservationRepository reservationRepository;
     @Mock
-    private CrmIntegrationService crmIntegrationService;
+    private IntegrationOutbox integrationOutbox;
+    @Mock
+    private SlotOccupancyIndex slotOccupancyIndex;
+    @Mock
+    private TableAllocator tableAllocator;
     @Mock
-    private GastroIntegrationService gastroIntegrationService;
+    private SlotAvailabilityProjection slotAvailabilityProjection;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @BeforeEach
     public void setUp() {
         tableRepository = mock(TableRepository.class);
         reservationRepository = mock(ReservationRepository.class);
-        crmIntegrationService = mock(CrmIntegrationService.class);
-        gastroIntegrationService = mock(GastroIntegrationService.class);
-        reservationService = new ReservationService(tableRepository, reservationRepository, crmIntegrationService, gastroIntegrationService);   
+        integrationOutbox = mock(IntegrationOutbox.class);
+        slotOccupancyIndex = mock(SlotOccupancyIndex.class);
+        tableAllocator = mock(TableAllocator.class);
+        slotAvailabilityProjection = mock(SlotAvailabilityProjection.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        DiningDurationPolicy durationPolicy = new DiningDurationPolicy(120, "");
+        AvailabilityCache availabilityCache = new AvailabilityCache(durationPolicy, new OpeningHours("", "", 15), new StaleAvailability(new SimpleMeterRegistry(), false, Duration.ofSeconds(1), Duration.ofHours(1), 10_000, 1), slotOccupancyIndex, new SimpleMeterRegistry(), false, 100, Duration.ofMinutes(10));
+        reservationService = new ReservationService(tableRepository, reservationRepository, integrationOutbox, slotOccupancyIndex, availabilityCache, slotAvailabilityProjection, new OpeningHours("", "", 15), new CoversPacing(reservationRepository, 0, 15), mock(OccupancyHeatmap.class), mock(AvailabilityStream.class), mock(LocationAvailability.class), new SlotLocks(64, 15), durationPolicy, tableAllocator, eventPublisher);   
     }
 
     @Test
@@ -57,26 +104,147 @@ public class ReservationServiceTest {
         LocalDate date = LocalDate.of(2025, 8, 15);
         LocalTime time = LocalTime.of(12, 0);
 
-        Table table1 = new Table();
-        table1.setId(1l);
-        table1.setCapacity(4);
-        Table table2 = new Table();
-        table2.setId(2L);
-        table2.setCapacity(4);
-
-        Reservation reservation = new Reservation();
-        reservation.setTable(table1);
-        reservation.setDate(date);
-        reservation.setTime(time);
-        reservation.setNumberOfGuests(4);
-        
-        when(tableRepository.findAll()).thenReturn(Arrays.asList(table1, table2));
-        when(reservationRepository.findByDateAndTime(date, time)).thenReturn(Arrays.asList(reservation));
+        // Table 1 is reserved at this slot, so the anti-join only yields table 2
+        when(reservationRepository.findAvailableTables(eq(date), eq(time), eq(LocalTime.of(14, 0)), eq(4), anyCollection()))
+            .thenReturn(Arrays.asList(new TableDTO(2L, 2, 4)));
 
         List<Table> availableTables = reservationService.getAvailableTables(date, time, 4);
 
         assertEquals(1, availableTables.size());
         assertEquals(2l, availableTables.get(0).getId());
+        assertEquals(4, availableTables.get(0).getCapacity());
+        verify(tableRepository, never()).findAll();
+        }
+
+        @Test
+        void testGetAvailableTablesUsesOccupancyIndexWhenCovered(){
+            LocalDate date = LocalDate.of(2025, 8, 15);
+            LocalTime time = LocalTime.of(12, 0);
+
+            Table table = new Table();
+            table.setId(3L);
+            table.setCapacity(4);
+
+            when(slotOccupancyIndex.covers(date)).thenReturn(true);
+            when(slotOccupancyIndex.findAvailableTables(date, time, 2)).thenReturn(Arrays.asList(table));
+
+            List<Table> availableTables = reservationService.getAvailableTables(date, time, 2);
+
+            assertEquals(1, availableTables.size());
+            assertEquals(3L, availableTables.get(0).getId());
+            verify(reservationRepository, never()).findAvailableTables(any(LocalDate.class), any(LocalTime.class), any(LocalTime.class), eq(2), anyCollection());
+            verify(tableRepository, never()).findAll();
+        }
+
+        @Test
+        void testOnlySlotStartsAreCached(){
+            LocalDate date = LocalDate.of(2025, 8, 15);
+            DiningDurationPolicy durationPolicy = new DiningDurationPolicy(120, "");
+            ReservationService cachingService = new ReservationService(tableRepository, reservationRepository, integrationOutbox, slotOccupancyIndex,
+                new AvailabilityCache(durationPolicy, new OpeningHours("", "", 15), new StaleAvailability(new SimpleMeterRegistry(), false, Duration.ofSeconds(1), Duration.ofHours(1), 10_000, 1), slotOccupancyIndex, new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(10)), slotAvailabilityProjection,
+                new OpeningHours("", "", 15), new CoversPacing(reservationRepository, 0, 15), mock(OccupancyHeatmap.class), mock(AvailabilityStream.class), mock(LocationAvailability.class), new SlotLocks(64, 15), durationPolicy, tableAllocator, eventPublisher);
+            Table table = new Table();
+            table.setId(3L);
+            table.setCapacity(4);
+
+            when(slotOccupancyIndex.covers(date)).thenReturn(true);
+            when(slotOccupancyIndex.findAvailableTables(date, LocalTime.of(12, 0), 2)).thenReturn(Arrays.asList(table));
+            when(slotOccupancyIndex.findAvailableTables(date, LocalTime.of(12, 5), 2)).thenReturn(Arrays.asList(table));
+
+            for (int i = 0; i < 2; i++) {
+                assertEquals(1, cachingService.getAvailableTables(date, LocalTime.of(12, 0), 2).size());
+                assertEquals(1, cachingService.getAvailableTables(date, LocalTime.of(12, 5), 2).size());
+            }
+            // 12:05 lies inside the 12:00 slot but has its own dining window, so it is looked up every time
+            verify(slotOccupancyIndex, times(1)).findAvailableTables(date, LocalTime.of(12, 0), 2);
+            verify(slotOccupancyIndex, times(2)).findAvailableTables(date, LocalTime.of(12, 5), 2);
+        }
+
+        @Test
+        void testGetAlternativeSlotsLoadsTheWindowOnce(){
+            LocalDate date = LocalDate.of(2025, 8, 15);
+            Table table = new Table();
+            table.setId(1L);
+            table.setNumber(1);
+            table.setCapacity(4);
+            when(tableRepository.findAll()).thenReturn(Arrays.asList(table));
+            when(reservationRepository.findOccupiedSlots(eq(date.minusDays(1)), eq(date.plusDays(1)), anyCollection()))
+                .thenReturn(Arrays.asList(new OccupiedSlotDTO(5L, 1L, date, LocalTime.of(18, 0), LocalTime.of(20, 0), 4, null)));
+
+            List<AvailabilitySlotDTO> alternatives = reservationService.getAlternativeSlots(date, LocalTime.of(19, 0), 2, 2, 60, 1);
+
+            assertEquals(2, alternatives.size());
+            assertEquals(date, alternatives.get(0).getDate());
+            assertEquals(LocalTime.of(20, 0), alternatives.get(0).getTime());
+            assertEquals(date.minusDays(1), alternatives.get(1).getDate());
+            assertEquals(LocalTime.of(19, 0), alternatives.get(1).getTime());
+            verify(reservationRepository, times(1)).findOccupiedSlots(any(LocalDate.class), any(LocalDate.class), anyCollection());
+            verify(reservationRepository, never()).findAvailableTables(any(LocalDate.class), any(LocalTime.class), any(LocalTime.class), eq(2), anyCollection());
+        }
+
+        @Test
+        void testStartTimesWithoutADiningWindowAreRejected(){
+            LocalDate date = LocalDate.of(2025, 8, 15);
+            Reservation reservation = new Reservation();
+            reservation.setDate(date);
+            reservation.setTime(LocalTime.of(23, 59));
+            reservation.setNumberOfGuests(2);
+
+            assertEquals(0, reservationService.getAvailableTables(date, LocalTime.of(23, 59), 2).size());
+            assertThrows(IllegalArgumentException.class, () -> reservationService.createReservation(reservation));
+            verify(reservationRepository, never()).save(any(Reservation.class));
+        }
+
+        @Test
+        void testClosedSlotsShortCircuitBeforeTheRepository(){
+            LocalDate monday = LocalDate.of(2025, 8, 25);
+            DiningDurationPolicy durationPolicy = new DiningDurationPolicy(120, "");
+            ReservationService scheduledService = new ReservationService(tableRepository, reservationRepository, integrationOutbox, slotOccupancyIndex,
+                new AvailabilityCache(durationPolicy, new OpeningHours("", "", 15), new StaleAvailability(new SimpleMeterRegistry(), false, Duration.ofSeconds(1), Duration.ofHours(1), 10_000, 1), slotOccupancyIndex, new SimpleMeterRegistry(), false, 100, Duration.ofMinutes(10)), slotAvailabilityProjection,
+                new OpeningHours("TUE-SUN=17:00-22:00", "", 15), new CoversPacing(reservationRepository, 0, 15), mock(OccupancyHeatmap.class), mock(AvailabilityStream.class), mock(LocationAvailability.class), new SlotLocks(64, 15), durationPolicy, tableAllocator, eventPublisher);
+
+            assertEquals(0, scheduledService.getAvailableTables(monday, LocalTime.of(3, 17), 2).size());
+            assertEquals(0, scheduledService.getAvailableTables(monday.plusDays(1), LocalTime.of(3, 17), 2).size());
+
+            Reservation reservation = new Reservation();
+            reservation.setDate(monday);
+            reservation.setTime(LocalTime.of(19, 0));
+            reservation.setNumberOfGuests(2);
+            assertThrows(IllegalArgumentException.class, () -> scheduledService.createReservation(reservation));
+            verify(slotOccupancyIndex, never()).covers(any(LocalDate.class));
+            verify(reservationRepository, never()).findAvailableTables(any(LocalDate.class), any(LocalTime.class), any(LocalTime.class), eq(2), anyCollection());
+            verify(reservationRepository, never()).save(any(Reservation.class));
+        }
+
+        @Test
+        void testPacingLimitHidesTablesAndRejectsBookings(){
+            LocalDate date = LocalDate.of(2025, 8, 15);
+            LocalTime time = LocalTime.of(12, 0);
+            DiningDurationPolicy durationPolicy = new DiningDurationPolicy(120, "");
+            ReservationService pacedService = new ReservationService(tableRepository, reservationRepository, integrationOutbox, slotOccupancyIndex,
+                new AvailabilityCache(durationPolicy, new OpeningHours("", "", 15), new StaleAvailability(new SimpleMeterRegistry(), false, Duration.ofSeconds(1), Duration.ofHours(1), 10_000, 1), slotOccupancyIndex, new SimpleMeterRegistry(), false, 100, Duration.ofMinutes(10)), slotAvailabilityProjection,
+                new OpeningHours("", "", 15), new CoversPacing(reservationRepository, 6, 15), mock(OccupancyHeatmap.class), mock(AvailabilityStream.class), mock(LocationAvailability.class), new SlotLocks(64, 15), durationPolicy, tableAllocator, eventPublisher);
+
+            Table table = new Table();
+            table.setId(1L);
+            table.setNumber(1);
+            table.setCapacity(4);
+            User user = new User();
+            user.setName("Alex Smith");
+            Reservation reservation = new Reservation();
+            reservation.setUser(user);
+            reservation.setTable(table);
+            reservation.setDate(date);
+            reservation.setTime(time);
+            reservation.setNumberOfGuests(4);
+            reservation.setStatus(Status.BOOKED);
+            when(reservationRepository.save(reservation)).thenReturn(reservation);
+            pacedService.createReservation(reservation);
+
+            assertEquals(0, pacedService.getAvailableTables(date, LocalTime.of(12, 10), 3).size());
+            assertThrows(IllegalStateException.class, () -> pacedService.createReservation(reservation));
+            verify(reservationRepository, never()).findAvailableTables(any(LocalDate.class), any(LocalTime.class), any(LocalTime.class), eq(3), anyCollection());
+            verify(reservationRepository, times(1)).save(reservation);
         }
 
         @Test
@@ -108,6 +276,8 @@ public class ReservationServiceTest {
             assertNotNull(createdReservation);
             assertEquals(1L, createdReservation.getId());
             assertEquals(4, createdReservation.getNumberOfGuests());
+            assertEquals(120, createdReservation.getDurationMinutes());
+            assertEquals(LocalTime.of(14, 0), createdReservation.getEndTime());
             verify(reservationRepository, times(1)).save(reservation);
         }
         @Test
@@ -134,7 +304,262 @@ public class ReservationServiceTest {
 
             Reservation result = reservationService.createReservation(reservation);
             assertEquals(1L, result.getId());
-            verify(crmIntegrationService, times(1)).sendReservationToCrm(any(ReservationDTO.class));
-            verify(gastroIntegrationService, times(1)).sendReservationToGastro(any(ReservationDTO.class));
+            verify(integrationOutbox, times(1)).enqueue(any(ReservationDTO.class));
+        }
+
+        @Test
+        void testCreateReservationAutoAssignsBestFittingTable(){
+            User user = new User();
+            user.setName("Alex Smith");
+
+            Table table = new Table();
+            table.setId(3L);
+            table.setNumber(3);
+            table.setCapacity(2);
+
+            Reservation reservation = new Reservation();
+            reservation.setUser(user);
+            reservation.setDate(LocalDate.of(2025, 8, 15));
+            reservation.setTime(LocalTime.of(12, 0));
+            reservation.setNumberOfGuests(2);
+            reservation.setStatus(Status.BOOKED);
+
+            when(tableAllocator.candidates(eq(reservation.getDate()), eq(reservation.getTime()), eq(2), anyInt(), isNull()))
+                .thenReturn(Stream.of(new TableAllocation(table, 0)));
+            when(reservationRepository.save(reservation)).thenReturn(reservation);
+
+            Reservation result = reservationService.createReservation(reservation);
+
+            assertSame(table, result.getTable());
+        }
+
+        @Test
+        void testCreateReservationMovesOnWhenTheBestTableWasTakenMeanwhile(){
+            Table taken = new Table(3L, 3, 2, null, Table.DEFAULT_LOCATION, null);
+            Table next = new Table(4L, 4, 2, null, Table.DEFAULT_LOCATION, null);
+            Reservation reservation = new Reservation();
+            reservation.setUser(new User());
+            reservation.setDate(LocalDate.of(2025, 8, 15));
+            reservation.setTime(LocalTime.of(12, 0));
+            reservation.setNumberOfGuests(2);
+            reservation.setDurationMinutes(180);
+            reservation.setStatus(Status.BOOKED);
+
+            when(tableAllocator.candidates(reservation.getDate(), reservation.getTime(), 2, 180, null))
+                .thenReturn(Stream.of(new TableAllocation(taken, 0), new TableAllocation(next, 0)));
+            when(reservationRepository.existsOverlapping(eq(List.of(3L)), eq(reservation.getDate()), eq(reservation.getTime()), eq(LocalTime.of(15, 0)), anyCollection()))
+                .thenReturn(true);
+            when(reservationRepository.save(reservation)).thenReturn(reservation);
+
+            Reservation result = reservationService.createReservation(reservation);
+
+            assertSame(next, result.getTable());
+            verify(reservationRepository, times(1)).save(any(Reservation.class));
+        }
+
+        @Test
+        void testCreateReservationRejectsATableAtAnotherLocation(){
+            Table table = new Table(3L, 3, 2, null, "harbour", null);
+            Reservation reservation = new Reservation();
+            reservation.setUser(new User());
+            reservation.setTable(new Table(3L, 3, 0, null, null, null));
+            reservation.setLocation(Table.DEFAULT_LOCATION);
+            reservation.setDate(LocalDate.of(2025, 8, 15));
+            reservation.setTime(LocalTime.of(12, 0));
+            reservation.setNumberOfGuests(2);
+
+            when(tableRepository.findById(3L)).thenReturn(Optional.of(table));
+
+            assertThrows(IllegalArgumentException.class, () -> reservationService.createReservation(reservation));
+            verify(reservationRepository, never()).save(any(Reservation.class));
+        }
+
+        @Test
+        void testCreateReservationWithoutTableFailsWhenNothingFits(){
+            Reservation reservation = new Reservation();
+            reservation.setUser(new User());
+            reservation.setDate(LocalDate.of(2025, 8, 15));
+            reservation.setTime(LocalTime.of(12, 0));
+            reservation.setNumberOfGuests(8);
+
+            when(tableAllocator.candidates(eq(reservation.getDate()), eq(reservation.getTime()), eq(8), anyInt(), isNull())).thenReturn(Stream.empty());
+
+            assertThrows(IllegalStateException.class, () -> reservationService.createReservation(reservation));
+            verify(reservationRepository, never()).save(any(Reservation.class));
+        }
+
+        @Test
+        void testCreateCombinedReservationClaimsEveryMemberTable(){
+            Table first = new Table(1L, 1, 4, "terrace", Table.DEFAULT_LOCATION, null);
+            Table second = new Table(2L, 2, 8, "terrace", Table.DEFAULT_LOCATION, null);
+            TableCombination combination = TableCombination.of(List.of(first, second));
+            CombinedReservationRequest request = new CombinedReservationRequest(new User(), LocalDate.of(2025, 8, 15), LocalTime.of(19, 0), 11, null, null, null);
+
+            when(tableAllocator.allocateCombination(request.getDate(), request.getTime(), 11, 120, null)).thenReturn(Optional.of(combination));
+            when(tableRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(second, first));
+            when(reservationRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+            List<Reservation> reservations = reservationService.createCombinedReservation(request);
+
+            assertEquals(2, reservations.size());
+            assertEquals(4, reservations.get(0).getNumberOfGuests());
+            assertEquals(7, reservations.get(1).getNumberOfGuests());
+            assertEquals(reservations.get(0).getCombinationId(), reservations.get(1).getCombinationId());
+            assertEquals(LocalTime.of(21, 0), reservations.get(1).getEndTime());
+            verify(eventPublisher, times(2)).publishEvent(any(Object.class));
+        }
+
+        @Test
+        void testCreateCombinedReservationFailsWhenAMemberTableWasTaken(){
+            Table first = new Table(1L, 1, 4, "terrace", Table.DEFAULT_LOCATION, null);
+            Table second = new Table(2L, 2, 8, "terrace", Table.DEFAULT_LOCATION, null);
+            CombinedReservationRequest request = new CombinedReservationRequest(new User(), LocalDate.of(2025, 8, 15), LocalTime.of(19, 0), 11, null, List.of(2L, 1L), null);
+
+            when(tableAllocator.combinationOf(List.of(2L, 1L), 11)).thenReturn(Optional.of(TableCombination.of(List.of(first, second))));
+            when(tableRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(first, second));
+            when(reservationRepository.existsOverlapping(eq(List.of(1L, 2L)), eq(request.getDate()), eq(request.getTime()), eq(LocalTime.of(21, 0)), anyCollection()))
+                .thenReturn(true);
+
+            assertThrows(IllegalStateException.class, () -> reservationService.createCombinedReservation(request));
+            verify(reservationRepository, never()).saveAll(any());
+        }
+
+        @Test
+        void testConfirmHoldRejectsExpiredHolds(){
+            Instant now = Instant.parse("2025-08-15T12:00:00Z");
+            Reservation hold = new Reservation();
+            hold.setId(7L);
+            hold.setStatus(Status.HELD);
+            hold.setHoldExpiresAt(now);
+            when(reservationRepository.findById(7L)).thenReturn(Optional.of(hold));
+
+            assertThrows(IllegalStateException.class, () -> reservationService.confirmHold(7L, now));
+            assertEquals(Status.HELD, hold.getStatus());
+            verify(integrationOutbox, never()).enqueue(any(ReservationDTO.class));
+        }
+
+        @Test
+        void testExpireHoldsOnlyReleasesDueHolds(){
+            Instant now = Instant.parse("2025-08-15T12:00:00Z");
+            Reservation due = new Reservation();
+            due.setId(1L);
+            due.setStatus(Status.HELD);
+            due.setHoldExpiresAt(now.minusSeconds(1));
+            Reservation notDue = new Reservation();
+            notDue.setStatus(Status.HELD);
+            notDue.setHoldExpiresAt(now.plusSeconds(1));
+            Reservation confirmed = new Reservation();
+            confirmed.setStatus(Status.BOOKED);
+            when(reservationRepository.findAllById(List.of(1L, 2L, 3L))).thenReturn(List.of(due, notDue, confirmed));
+            when(reservationRepository.freeAll(List.of(1L), Status.HELD, Status.CANCELLED)).thenReturn(1);
+
+            assertEquals(1, reservationService.expireHolds(List.of(1L, 2L, 3L), now));
+            assertEquals(Status.CANCELLED, due.getStatus());
+            assertEquals(Status.HELD, notDue.getStatus());
+            assertEquals(Status.BOOKED, confirmed.getStatus());
+            verify(eventPublisher, times(1)).publishEvent(any(Object.class));
+        }
+
+        @Test
+        void testExpiryLeavesHoldsConfirmedMeanwhileAlone(){
+            Instant now = Instant.parse("2025-08-15T12:00:00Z");
+            Reservation hold = new Reservation();
+            hold.setId(1L);
+            hold.setStatus(Status.HELD);
+            hold.setHoldExpiresAt(now.minusSeconds(1));
+            when(reservationRepository.findAllById(List.of(1L))).thenReturn(List.of(hold));
+            when(reservationRepository.freeAll(List.of(1L), Status.HELD, Status.CANCELLED)).thenReturn(0);
+
+            assertEquals(0, reservationService.expireHolds(List.of(1L), now));
+            verify(eventPublisher, never()).publishEvent(any(Object.class));
+        }
+
+        @Test
+        void testCancelBookedCancelsWithOneUpdateAndOneEvent(){
+            LocalDate date = LocalDate.of(2025, 8, 15);
+            LocalTime from = LocalTime.of(18, 0);
+            LocalTime to = LocalTime.of(23, 0);
+            when(reservationRepository.findOverlappingByStatus(date, from, to, Status.BOOKED)).thenReturn(List.of(
+                new ReservationSummaryDTO(1L, 10L, 1, date, LocalTime.of(19, 0), LocalTime.of(21, 0), 2, 120, "Jane", "jane@example.com", "123"),
+                new ReservationSummaryDTO(2L, 11L, 2, date, LocalTime.of(22, 0), LocalTime.of(23, 30), 4, null, "John", "john@example.com", "456")));
+            when(reservationRepository.freeAll(List.of(1L, 2L), Status.BOOKED, Status.CANCELLED)).thenReturn(2);
+
+            assertEquals(List.of(1L, 2L), reservationService.cancelBooked(date, from, to));
+
+            ArgumentCaptor<ReservationsStatusChangedEvent> event = ArgumentCaptor.forClass(ReservationsStatusChangedEvent.class);
+            verify(eventPublisher, times(1)).publishEvent(event.capture());
+            assertEquals(Status.CANCELLED, event.getValue().status());
+            assertEquals(LocalTime.of(23, 30), event.getValue().reservations().get(1).getEndTime());
+            verify(integrationOutbox, times(1)).enqueue(argThat((List<ReservationDTO> dtos) -> dtos.size() == 2
+                && dtos.stream().allMatch(dto -> "CANCELLED".equals(dto.getStatus()))));
+            verify(reservationRepository, never()).save(any(Reservation.class));
+        }
+
+        @Test
+        void testCancelBookedFailsWhenAReservationChangedMeanwhile(){
+            LocalDate date = LocalDate.of(2025, 8, 15);
+            when(reservationRepository.findOverlappingByStatus(eq(date), any(LocalTime.class), any(LocalTime.class), eq(Status.BOOKED))).thenReturn(List.of(
+                new ReservationSummaryDTO(1L, 10L, 1, date, LocalTime.of(19, 0), LocalTime.of(21, 0), 2, 120, "Jane", "jane@example.com", "123")));
+            when(reservationRepository.freeAll(List.of(1L), Status.BOOKED, Status.CANCELLED)).thenReturn(0);
+
+            assertThrows(IllegalStateException.class, () -> reservationService.cancelBooked(date, LocalTime.of(18, 0), LocalTime.of(23, 0)));
+            verify(eventPublisher, never()).publishEvent(any(Object.class));
+            assertThrows(IllegalArgumentException.class, () -> reservationService.cancelBooked(date, LocalTime.of(23, 0), LocalTime.of(18, 0)));
+        }
+
+        @Test
+        void testLifecycleTransitionsOnlyLeaveBookedReservations(){
+            User user = new User();
+            user.setName("Jane");
+            Table table = new Table();
+            table.setNumber(1);
+            Reservation reservation = new Reservation();
+            reservation.setId(5L);
+            reservation.setUser(user);
+            reservation.setTable(table);
+            reservation.setDate(LocalDate.of(2025, 8, 15));
+            reservation.setTime(LocalTime.of(19, 0));
+            reservation.setStatus(Status.BOOKED);
+            when(reservationRepository.findById(5L)).thenReturn(Optional.of(reservation));
+            when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            assertEquals(Status.NO_SHOW, reservationService.markNoShow(5L).getStatus());
+            assertEquals(Status.NO_SHOW, reservationService.markNoShow(5L).getStatus());
+            assertThrows(IllegalStateException.class, () -> reservationService.complete(5L));
+            assertThrows(IllegalStateException.class, () -> reservationService.cancel(5L));
+            verify(reservationRepository, times(1)).save(reservation);
+            verify(integrationOutbox, times(1)).enqueue(any(ReservationDTO.class));
+        }
+
+        @Test
+        void testCancellingOneTableCancelsTheWholeCombination(){
+            User user = new User();
+            user.setName("Jane");
+            Reservation first = combined(5L, 1, user);
+            Reservation second = combined(6L, 2, user);
+            when(reservationRepository.findById(5L)).thenReturn(Optional.of(first));
+            when(reservationRepository.findByCombinationId("party")).thenReturn(Arrays.asList(first, second));
+            when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            assertEquals(first, reservationService.cancel(5L));
+
+            assertEquals(Status.CANCELLED, first.getStatus());
+            assertEquals(Status.CANCELLED, second.getStatus());
+            verify(eventPublisher, times(2)).publishEvent(any(ReservationChangedEvent.class));
+            verify(integrationOutbox, times(2)).enqueue(any(ReservationDTO.class));
+        }
+
+        private static Reservation combined(Long id, int tableNumber, User user){
+            Table table = new Table();
+            table.setNumber(tableNumber);
+            Reservation reservation = new Reservation();
+            reservation.setId(id);
+            reservation.setUser(user);
+            reservation.setTable(table);
+            reservation.setDate(LocalDate.of(2025, 8, 15));
+            reservation.setTime(LocalTime.of(19, 0));
+            reservation.setStatus(Status.BOOKED);
+            reservation.setCombinationId("party");
+            return reservation;
         }
 }
@@ -14,6 +14,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.restaurant.booking.model.Table;
 import com.restaurant.booking.repository.TableRepository;
@@ -23,6 +24,9 @@ class TableServiceTest {
     
     @Mock
     private TableRepository tableRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     
     @InjectMocks
     private TableService tableService;
@@ -149,6 +153,24 @@ class TableServiceTest {
         verify(tableRepository).save(testTable);
     }
     
+    @Test
+    void testUpdateTableKeepsFieldsMissingFromTheBody() {
+        testTable.setCombinationGroup("window");
+        testTable.setLocation("terrace");
+        Table updateDetails = new Table();
+        updateDetails.setNumber(2);
+        updateDetails.setCapacity(6);
+        
+        when(tableRepository.findById(1L)).thenReturn(Optional.of(testTable));
+        when(tableRepository.save(any(Table.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        Table result = tableService.updateTable(1L, updateDetails);
+        
+        assertEquals(6, result.getCapacity());
+        assertEquals("window", result.getCombinationGroup());
+        assertEquals("terrace", result.getLocation());
+    }
+    
     @Test
     void testUpdateTableNotFound() {
         Table updateDetails = new Table();
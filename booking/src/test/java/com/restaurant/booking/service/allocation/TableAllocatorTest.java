@@ -0,0 +1,190 @@
+package com.restaurant.booking.service.allocation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.restaurant.booking.dto.TableDTO;
+import com.restaurant.booking.model.Reservation;
+import com.restaurant.booking.model.Status;
+import com.restaurant.booking.model.Table;
+import com.restaurant.booking.repository.ReservationRepository;
+import com.restaurant.booking.repository.TableRepository;
+import com.restaurant.booking.service.availability.DiningDurationPolicy;
+import com.restaurant.booking.service.availability.SlotOccupancyIndex;
+
+class TableAllocatorTest {
+
+    private static final LocalDate DATE = LocalDate.now().plusDays(1);
+    private static final LocalTime TIME = LocalTime.of(19, 0);
+    private static final int MINUTES = 120;
+
+    private final TableRepository tableRepository = mock(TableRepository.class);
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+    private final DiningDurationPolicy durationPolicy = new DiningDurationPolicy(120, "");
+
+    private SlotOccupancyIndex index;
+    private TableCombinationIndex combinationIndex;
+    private TableAllocator allocator;
+    private List<Table> tables;
+
+    @BeforeEach
+    void setUp() {
+        tables = List.of(table(1L, 1, 8, null), table(2L, 2, 2, "window"), table(3L, 3, 6, "window"), table(4L, 4, 2, "window"), table(5L, 5, 6, null));
+        when(tableRepository.findAll()).thenReturn(tables);
+        index = new SlotOccupancyIndex(tableRepository, reservationRepository, durationPolicy, true);
+        combinationIndex = new TableCombinationIndex(tableRepository, 3);
+        combinationIndex.rebuild();
+        allocator = new TableAllocator(tableRepository, reservationRepository, index, combinationIndex, durationPolicy);
+        allocator.rebuild();
+    }
+
+    @Test
+    void picksSmallestFittingTableWithLowestNumber() {
+        rebuildIndex();
+
+        TableAllocation allocation = allocator.allocate(DATE, TIME, 2, MINUTES, null).orElseThrow();
+
+        assertThat(allocation.table().getId()).isEqualTo(2L);
+        assertThat(allocation.wastedSeats()).isZero();
+    }
+
+    @Test
+    void movesUpToLargerBucketsWhenSmallerTablesAreTaken() {
+        rebuildIndex(reservation(tables.get(1)), reservation(tables.get(3)));
+
+        TableAllocation allocation = allocator.allocate(DATE, TIME, 2, MINUTES, null).orElseThrow();
+
+        assertThat(allocation.table().getId()).isEqualTo(3L);
+        assertThat(allocation.wastedSeats()).isEqualTo(4);
+    }
+
+    @Test
+    void returnsEmptyWhenNoFittingTableIsFree() {
+        rebuildIndex(reservation(tables.get(0)));
+
+        assertThat(allocator.allocate(DATE, TIME, 7, MINUTES, null)).isEmpty();
+        assertThat(allocator.allocate(DATE, TIME.plusHours(2), 7, MINUTES, null)).isPresent();
+    }
+
+    @Test
+    void checksTheWholeRequestedDuration() {
+        Reservation later = reservation(tables.get(1));
+        later.setTime(LocalTime.of(21, 30));
+        later.setEndTime(LocalTime.of(23, 0));
+        rebuildIndex(later);
+
+        assertThat(allocator.allocate(DATE, TIME, 2, MINUTES, null).orElseThrow().table().getId()).isEqualTo(2L);
+        assertThat(allocator.allocate(DATE, TIME, 2, 180, null).orElseThrow().table().getId()).isEqualTo(4L);
+    }
+
+    @Test
+    void listsEveryFreeTableBestFitFirst() {
+        rebuildIndex(reservation(tables.get(3)));
+
+        assertThat(allocator.candidates(DATE, TIME, 2, MINUTES, null).map(allocation -> allocation.table().getId()))
+            .containsExactly(2L, 3L, 5L, 1L);
+    }
+
+    @Test
+    void fallsBackToAntiJoinWhenIndexDoesNotCoverTheDate() {
+        when(reservationRepository.findAvailableTables(eq(DATE), eq(TIME), eq(LocalTime.of(21, 0)), eq(5), anyCollection()))
+            .thenReturn(List.of(new TableDTO(5L, 5, 6), new TableDTO(1L, 1, 8)));
+
+        TableAllocation allocation = allocator.allocate(DATE, TIME, 5, MINUTES, null).orElseThrow();
+
+        assertThat(allocation.table().getNumber()).isEqualTo(5);
+        assertThat(allocation.wastedSeats()).isEqualTo(1);
+    }
+
+    @Test
+    void onlyAllocatesTablesAtTheRequestedLocation() {
+        Table harbour = new Table(6L, 6, 2, null, "harbour", null);
+        when(tableRepository.findAll()).thenReturn(List.of(tables.get(1), harbour));
+        allocator.rebuild();
+        rebuildIndex();
+
+        assertThat(allocator.allocate(DATE, TIME, 2, MINUTES, "harbour").orElseThrow().table().getId()).isEqualTo(6L);
+        assertThat(allocator.allocate(DATE, TIME, 2, MINUTES, Table.DEFAULT_LOCATION).orElseThrow().table().getId()).isEqualTo(2L);
+
+        rebuildIndex(reservation(harbour));
+
+        assertThat(allocator.allocate(DATE, TIME, 2, MINUTES, "harbour")).isEmpty();
+    }
+
+    @Test
+    void antiJoinFallbackKeepsTheLocationOfTheTable() {
+        when(reservationRepository.findAvailableTablesAtLocation(eq("harbour"), eq(DATE), eq(TIME), eq(LocalTime.of(21, 0)), eq(2), anyCollection()))
+            .thenReturn(List.of(new TableDTO(6L, 6, 2, null, "harbour")));
+
+        TableAllocation allocation = allocator.allocate(DATE, TIME, 2, MINUTES, "harbour").orElseThrow();
+
+        assertThat(allocation.table().getId()).isEqualTo(6L);
+        assertThat(allocation.table().getLocation()).isEqualTo("harbour");
+    }
+
+    @Test
+    void combinesAdjacentTablesForPartiesLargerThanAnyTable() {
+        rebuildIndex();
+
+        TableCombination combination = allocator.allocateCombination(DATE, TIME, 10, MINUTES, null).orElseThrow();
+
+        assertThat(combination.tableIds()).containsExactly(2L, 3L, 4L);
+    }
+
+    @Test
+    void skipsCombinationsWithATakenMemberTable() {
+        rebuildIndex(reservation(tables.get(0)));
+
+        assertThat(allocator.allocateCombination(DATE, TIME, 8, MINUTES, null).orElseThrow().tableIds()).containsExactly(2L, 3L);
+
+        rebuildIndex(reservation(tables.get(2)));
+
+        assertThat(allocator.allocateCombination(DATE, TIME, 10, MINUTES, null)).isEmpty();
+        assertThat(allocator.allocateCombination(DATE, TIME, 2, MINUTES, null).orElseThrow().tableIds()).containsExactly(2L);
+    }
+
+    @Test
+    void combinationsStayAtTheRequestedLocation() {
+        rebuildIndex();
+
+        assertThat(allocator.allocateCombination(DATE, TIME, 10, MINUTES, Table.DEFAULT_LOCATION)).isPresent();
+        assertThat(allocator.allocateCombination(DATE, TIME, 10, MINUTES, "harbour")).isEmpty();
+    }
+
+    @Test
+    void rejectsPartiesOutsideTheCapacityRange() {
+        assertThatThrownBy(() -> allocator.allocate(DATE, TIME, 0, MINUTES, null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> allocator.allocate(DATE, TIME, TableAllocator.MAX_CAPACITY + 1, MINUTES, null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void rebuildIndex(Reservation... reservations) {
+        when(reservationRepository.findByDateGreaterThanEqual(any(LocalDate.class))).thenReturn(List.of(reservations));
+        index.rebuild();
+    }
+
+    private static Table table(Long id, int number, int capacity, String combinationGroup) {
+        return new Table(id, number, capacity, combinationGroup, Table.DEFAULT_LOCATION, null);
+    }
+
+    private static Reservation reservation(Table table) {
+        Reservation reservation = new Reservation();
+        reservation.setTable(table);
+        reservation.setDate(DATE);
+        reservation.setTime(TIME);
+        reservation.setEndTime(TIME.plusHours(2));
+        reservation.setStatus(Status.BOOKED);
+        return reservation;
+    }
+}
@@ -0,0 +1,73 @@
+package com.restaurant.booking.service.allocation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.restaurant.booking.model.Table;
+import com.restaurant.booking.repository.TableRepository;
+
+class TableCombinationIndexTest {
+
+    private TableCombinationIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TableCombinationIndex(mock(TableRepository.class), 3);
+        index.rebuild(List.of(
+            table(1L, 1, 4, "terrace"),
+            table(2L, 2, 4, "terrace"),
+            table(3L, 3, 6, "terrace"),
+            table(4L, 4, 10, null),
+            table(5L, 7, 2, "bar"),
+            table(6L, 5, 2, "bar"),
+            table(7L, 9, 8, "terrace")));
+    }
+
+    @Test
+    void prefersSingleTablesThatFit() {
+        assertThat(index.candidates(3).get(0).tableIds()).containsExactly(1L);
+        assertThat(index.candidates(10).get(0).tableIds()).containsExactly(4L);
+    }
+
+    @Test
+    void combinesOnlyConsecutiveTablesOfOneGroup() {
+        List<List<Long>> combinations = index.candidates(12).stream().map(TableCombination::tableIds).toList();
+
+        // fewest tables first, then fewest wasted seats
+        assertThat(combinations).startsWith(List.of(3L, 7L), List.of(1L, 2L, 3L));
+        assertThat(combinations).doesNotContain(List.of(1L, 3L), List.of(2L, 4L));
+    }
+
+    @Test
+    void ordersAdjacencyByTableNumberWithinAGroup() {
+        assertThat(index.find(List.of(5L, 6L), 4)).map(TableCombination::tableIds).contains(List.of(6L, 5L));
+        assertThat(index.find(List.of(1L, 3L), 8)).isEmpty();
+    }
+
+    @Test
+    void respectsTheMaximumNumberOfTables() {
+        assertThat(index.candidates(18).stream().map(TableCombination::size)).allMatch(size -> size <= 3);
+        assertThat(index.candidates(TableCombinationIndex.MAX_PARTY_SIZE)).isEmpty();
+    }
+
+    @Test
+    void excludesCombinationsWithMoreTablesThanGuests() {
+        assertThat(index.candidates(1).stream().map(TableCombination::size)).containsOnly(1);
+    }
+
+    @Test
+    void rejectsPartiesOutsideTheSupportedRange() {
+        assertThatThrownBy(() -> index.candidates(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.candidates(TableCombinationIndex.MAX_PARTY_SIZE + 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Table table(Long id, int number, int capacity, String combinationGroup) {
+        return new Table(id, number, capacity, combinationGroup, Table.DEFAULT_LOCATION, null);
+    }
+}
@@ -0,0 +1,89 @@
+package com.restaurant.booking.service.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import org.junit.jupiter.api.Test;
+
+import com.restaurant.booking.dto.AvailabilitySlotDTO;
+import com.restaurant.booking.dto.OccupiedSlotDTO;
+import com.restaurant.booking.model.Table;
+
+class AlternativeSlotsTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 8, 25);
+    private static final LocalTime TIME = LocalTime.of(19, 0);
+
+    private final OpeningHours openingHours = new OpeningHours("MON-SUN=17:00-22:00", "2025-08-26=closed", 30);
+    private final DiningDurationPolicy durationPolicy = new DiningDurationPolicy(120, "");
+
+    @Test
+    void returnsTheNearestFreeSlotsOutwardFromTheRequestedTime() {
+        // the only table is taken 18:00-20:00
+        BiFunction<LocalDate, LocalTime, List<Long>> freeTables = AlternativeSlots.freeTables(List.of(table(1L, 4)),
+            List.of(occupied(1L, DATE, LocalTime.of(18, 0), LocalTime.of(20, 0))), 2, durationPolicy);
+
+        List<AvailabilitySlotDTO> found = new AlternativeSlots(DATE, TIME, 120, 0, openingHours).search(3, freeTables);
+
+        assertThat(found).extracting(AvailabilitySlotDTO::getTime)
+            .containsExactly(LocalTime.of(20, 0), LocalTime.of(20, 30), LocalTime.of(21, 0));
+    }
+
+    @Test
+    void nearbyDaysComeAfterEverySlotOfTheRequestedDay() {
+        BiFunction<LocalDate, LocalTime, List<Long>> freeTables = AlternativeSlots.freeTables(List.of(table(1L, 4)),
+            List.of(occupied(1L, DATE, LocalTime.of(17, 0), LocalTime.of(22, 0))), 2, durationPolicy);
+
+        List<AvailabilitySlotDTO> found = new AlternativeSlots(DATE, TIME, 30, 1, openingHours).search(4, freeTables);
+
+        // the next day is closed, so only the day before has room
+        assertThat(found).extracting(AvailabilitySlotDTO::getDate, AvailabilitySlotDTO::getTime).containsExactly(
+            tuple(DATE.minusDays(1), TIME),
+            tuple(DATE.minusDays(1), LocalTime.of(18, 30)),
+            tuple(DATE.minusDays(1), LocalTime.of(19, 30)));
+    }
+
+    @Test
+    void freeTablesOnlyListsTablesWithoutOverlaps() {
+        BiFunction<LocalDate, LocalTime, List<Long>> freeTables = AlternativeSlots.freeTables(List.of(table(1L, 2), table(2L, 4)),
+            List.of(occupied(1L, DATE, LocalTime.of(20, 30), LocalTime.of(22, 0)), occupied(2L, DATE.plusDays(1), TIME, LocalTime.of(21, 0))), 2, durationPolicy);
+
+        assertThat(freeTables.apply(DATE, TIME)).containsExactly(2L);
+        assertThat(freeTables.apply(DATE, LocalTime.of(17, 30))).containsExactly(1L, 2L);
+        assertThat(freeTables.apply(DATE.plusDays(1), TIME)).containsExactly(1L);
+    }
+
+    @Test
+    void coversTheWholeSearchWindow() {
+        AlternativeSlots alternatives = new AlternativeSlots(DATE, TIME, 60, 2, openingHours);
+
+        assertThat(alternatives.firstDate()).isEqualTo(DATE.minusDays(2));
+        assertThat(alternatives.lastDate()).isEqualTo(DATE.plusDays(2));
+    }
+
+    @Test
+    void rejectsOversizedSearches() {
+        assertThatThrownBy(() -> new AlternativeSlots(DATE, TIME, 361, 0, openingHours)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AlternativeSlots(DATE, TIME, 60, 8, openingHours)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AlternativeSlots(DATE, TIME, 60, 0, openingHours).search(21, (date, time) -> List.of()))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Table table(Long id, int capacity) {
+        Table table = new Table();
+        table.setId(id);
+        table.setNumber(id.intValue());
+        table.setCapacity(capacity);
+        return table;
+    }
+
+    private static OccupiedSlotDTO occupied(Long tableId, LocalDate date, LocalTime time, LocalTime endTime) {
+        return new OccupiedSlotDTO(null, tableId, date, time, endTime, 2, null);
+    }
+}
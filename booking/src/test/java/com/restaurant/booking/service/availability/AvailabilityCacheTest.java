@@ -0,0 +1,148 @@
+package com.restaurant.booking.service.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+
+import com.restaurant.booking.event.ReservationChangedEvent;
+import com.restaurant.booking.event.TableChangedEvent;
+import com.restaurant.booking.model.Reservation;
+import com.restaurant.booking.model.Status;
+import com.restaurant.booking.model.Table;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AvailabilityCacheTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 8, 25);
+
+    private SimpleMeterRegistry meterRegistry;
+    private AvailabilityCache cache;
+    private AtomicInteger loads;
+    private StaleAvailability staleAvailability;
+    private SlotOccupancyIndex slotOccupancyIndex;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        staleAvailability = new StaleAvailability(meterRegistry, true, Duration.ofSeconds(5), Duration.ofHours(1), 10_000, 1);
+        DiningDurationPolicy durationPolicy = new DiningDurationPolicy(120, "");
+        slotOccupancyIndex = new SlotOccupancyIndex(null, null, durationPolicy, true,
+            Clock.fixed(DATE.atStartOfDay(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault()));
+        cache = new AvailabilityCache(durationPolicy, new OpeningHours("", "", 15), staleAvailability, slotOccupancyIndex, meterRegistry, true, 100, Duration.ofMinutes(10));
+        loads = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        staleAvailability.shutdown();
+    }
+
+    @Test
+    void servesRepeatedLookupsFromCache() {
+        get(DATE, LocalTime.of(19, 0), 2);
+        get(DATE, LocalTime.of(19, 0), 2);
+        get(DATE, LocalTime.of(19, 0), 4);
+
+        assertThat(loads).hasValue(2);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", AvailabilityCache.CACHE_NAME).tag("result", "hit").functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", AvailabilityCache.CACHE_NAME).tag("result", "miss").functionCounter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void reservationChangeEvictsOnlyOverlappingSlotsOfItsDate() {
+        get(DATE, LocalTime.of(12, 0), 2);
+        get(DATE, LocalTime.of(17, 30), 2);
+        get(DATE, LocalTime.of(19, 0), 2);
+        get(DATE, LocalTime.of(21, 0), 2);
+        get(DATE.plusDays(1), LocalTime.of(19, 0), 2);
+
+        // 19:00-21:00 overlaps the 17:30 and 19:00 windows but not the one starting at 21:00
+        cache.onReservationChanged(new ReservationChangedEvent(reservation(LocalTime.of(19, 0), LocalTime.of(21, 0)), null));
+
+        assertThat(cache.size()).isEqualTo(3);
+        loads.set(0);
+        get(DATE, LocalTime.of(12, 0), 2);
+        get(DATE, LocalTime.of(21, 0), 2);
+        get(DATE.plusDays(1), LocalTime.of(19, 0), 2);
+        assertThat(loads).hasValue(0);
+        get(DATE, LocalTime.of(17, 30), 2);
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("booking.availability.cache.invalidations").tag("scope", "slot").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void tableChangeEvictsEverything() {
+        get(DATE, LocalTime.of(12, 0), 2);
+        get(DATE.plusDays(1), LocalTime.of(19, 0), 2);
+
+        cache.onTableChanged(new TableChangedEvent(1L));
+
+        assertThat(cache.size()).isZero();
+        assertThat(meterRegistry.get("booking.availability.cache.invalidations").tag("scope", "all").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void disabledCacheAlwaysLoads() {
+        AvailabilityCache disabled = new AvailabilityCache(new DiningDurationPolicy(120, ""), new OpeningHours("", "", 15), staleAvailability, slotOccupancyIndex, meterRegistry, false, 100, Duration.ofMinutes(10));
+
+        disabled.get(DATE, LocalTime.NOON, 2, this::load);
+        disabled.get(DATE, LocalTime.NOON, 2, this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void timesOffTheSlotGridAreNotCached() {
+        get(DATE, LocalTime.of(19, 5), 2);
+        get(DATE, LocalTime.of(19, 5), 2);
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void lookupsTheIndexAnswersNeverServeStaleResults() {
+        AvailabilityCache uncached = new AvailabilityCache(new DiningDurationPolicy(120, ""), new OpeningHours("", "", 15), staleAvailability, slotOccupancyIndex, meterRegistry, false, 100, Duration.ofMinutes(10));
+        // a database lookup leaves a last known result behind
+        uncached.get(DATE, LocalTime.NOON, 2, this::load);
+        slotOccupancyIndex.rebuild(List.of(), List.of(), DATE);
+
+        assertThatThrownBy(() -> uncached.get(DATE, LocalTime.NOON, 2, () -> {
+            throw new CannotGetJdbcConnectionException("Connection is not available, request timed out");
+        })).isInstanceOf(CannotGetJdbcConnectionException.class);
+        assertThat(meterRegistry.counter("booking.availability.stale.served").count()).isZero();
+    }
+
+    private List<Table> get(LocalDate date, LocalTime time, int numberOfGuests) {
+        return cache.get(date, time, numberOfGuests, this::load).tables();
+    }
+
+    private List<Table> load() {
+        loads.incrementAndGet();
+        return List.of();
+    }
+
+    private static Reservation reservation(LocalTime time, LocalTime endTime) {
+        Reservation reservation = new Reservation();
+        reservation.setId(1L);
+        reservation.setDate(DATE);
+        reservation.setTime(time);
+        reservation.setEndTime(endTime);
+        reservation.setNumberOfGuests(2);
+        reservation.setStatus(Status.BOOKED);
+        return reservation;
+    }
+}
@@ -0,0 +1,87 @@
+package com.restaurant.booking.service.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.restaurant.booking.dto.AvailabilitySlotDTO;
+import com.restaurant.booking.dto.OccupiedSlotDTO;
+import com.restaurant.booking.model.Table;
+
+class AvailabilityGridTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 8, 25);
+
+    private final DiningDurationPolicy durationPolicy = new DiningDurationPolicy(120, "2:60");
+
+    @Test
+    void buildsSlotsBetweenFirstAndLastInclusive() {
+        AvailabilityGrid grid = new AvailabilityGrid(LocalTime.of(18, 0), LocalTime.of(19, 0), 30, 120, durationPolicy);
+
+        assertThat(grid.slots()).containsExactly(LocalTime.of(18, 0), LocalTime.of(18, 30), LocalTime.of(19, 0));
+    }
+
+    @Test
+    void stopsAtMidnight() {
+        AvailabilityGrid grid = new AvailabilityGrid(LocalTime.of(23, 0), LocalTime.of(23, 59), 45, 120, durationPolicy);
+
+        assertThat(grid.slots()).containsExactly(LocalTime.of(23, 0), LocalTime.of(23, 45));
+    }
+
+    @Test
+    void rejectsInvalidRangesAndSteps() {
+        assertThatThrownBy(() -> AvailabilityGrid.validateRange(DATE, DATE.minusDays(1))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AvailabilityGrid.validateRange(DATE, DATE.plusDays(AvailabilityGrid.MAX_DAYS))).isInstanceOf(IllegalArgumentException.class);
+        AvailabilityGrid.validateRange(DATE, DATE.plusDays(AvailabilityGrid.MAX_DAYS - 1));
+        assertThatThrownBy(() -> new AvailabilityGrid(LocalTime.NOON, LocalTime.NOON, 1, 120, durationPolicy)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AvailabilityGrid(LocalTime.NOON, LocalTime.NOON.minusHours(1), 30, 120, durationPolicy)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void sweepMarksSlotsWhoseWindowOverlapsAReservation() {
+        AvailabilityGrid grid = new AvailabilityGrid(LocalTime.of(17, 0), LocalTime.of(21, 0), 30, 60, durationPolicy);
+
+        // windows are 60 minutes long; the reservation holds 18:30-20:00
+        boolean[] free = grid.sweepTable(List.of(new int[] {18 * 60 + 30, 20 * 60}));
+
+        assertThat(free).containsExactly(true, true, false, false, false, false, true, true, true);
+    }
+
+    @Test
+    void sweepHandlesNestedReservations() {
+        AvailabilityGrid grid = new AvailabilityGrid(LocalTime.of(12, 0), LocalTime.of(16, 0), 60, 30, durationPolicy);
+
+        boolean[] free = grid.sweepTable(List.of(new int[] {12 * 60 + 30, 15 * 60}, new int[] {13 * 60, 13 * 60 + 15}));
+
+        assertThat(free).containsExactly(true, false, false, true, true);
+    }
+
+    @Test
+    void sweepReportsFreeTablesPerDayAndSlot() {
+        AvailabilityGrid grid = new AvailabilityGrid(LocalTime.of(19, 0), LocalTime.of(20, 0), 60, 60, durationPolicy);
+        List<Table> tables = List.of(table(1L), table(2L));
+        List<OccupiedSlotDTO> occupied = List.of(
+            new OccupiedSlotDTO(10L, 1L, DATE, LocalTime.of(19, 0), LocalTime.of(20, 0), 4, null),
+            new OccupiedSlotDTO(11L, 2L, DATE.plusDays(1), LocalTime.of(20, 0), LocalTime.of(21, 0), 2, null));
+
+        List<AvailabilitySlotDTO> slots = grid.sweep(DATE, DATE.plusDays(1), tables, occupied).toList();
+
+        assertThat(slots).extracting(AvailabilitySlotDTO::getDate).containsExactly(DATE, DATE, DATE.plusDays(1), DATE.plusDays(1));
+        assertThat(slots).extracting(AvailabilitySlotDTO::getTableIds)
+            .containsExactly(List.of(2L), List.of(1L, 2L), List.of(1L, 2L), List.of(1L));
+        assertThat(slots).extracting(AvailabilitySlotDTO::getFreeTables).containsExactly(1, 2, 2, 1);
+    }
+
+    private static Table table(Long id) {
+        Table table = new Table();
+        table.setId(id);
+        table.setNumber(id.intValue());
+        table.setCapacity(4);
+        return table;
+    }
+}
@@ -0,0 +1,152 @@
+package com.restaurant.booking.service.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.restaurant.booking.dto.AvailabilityDeltaDTO;
+import com.restaurant.booking.event.ReservationChangedEvent;
+import com.restaurant.booking.model.Reservation;
+import com.restaurant.booking.model.Status;
+import com.restaurant.booking.model.Table;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AvailabilityStreamTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 8, 25);
+    private static final LocalTime TIME = LocalTime.of(19, 0);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<RecordingEmitter> emitters = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch sendsReleased = new CountDownLatch(1);
+    private volatile boolean blockSends;
+    private AvailabilityStream stream;
+
+    @AfterEach
+    void tearDown() {
+        sendsReleased.countDown();
+        stream.shutdown();
+    }
+
+    @Test
+    void deliversTakenAndFreedTablesToSubscribersOfTheDate() throws InterruptedException {
+        stream = stream(16);
+        stream.subscribe(DATE);
+        stream.subscribe(DATE.plusDays(1));
+        Reservation reservation = reservation(Status.BOOKED);
+
+        stream.onReservationChanged(new ReservationChangedEvent(reservation, null));
+        reservation.setStatus(Status.COMPLETED);
+        stream.onReservationChanged(new ReservationChangedEvent(reservation, Status.BOOKED));
+        reservation.setStatus(Status.CANCELLED);
+        stream.onReservationChanged(new ReservationChangedEvent(reservation, Status.COMPLETED));
+
+        RecordingEmitter subscriber = emitters.get(0);
+        assertThat(subscriber.awaitSent(2)).isTrue();
+        assertThat(subscriber.sent).extracting(AvailabilityDeltaDTO::isTaken).containsExactly(true, false);
+        assertThat(subscriber.sent.get(0).getEndTime()).isEqualTo(LocalTime.of(21, 0));
+        assertThat(emitters.get(1).sent).isEmpty();
+    }
+
+    @Test
+    void disconnectsSubscribersThatFallBehindWithoutBlockingPublishers() throws InterruptedException {
+        stream = stream(2);
+        blockSends = true;
+        stream.subscribe(DATE);
+        stream.subscribe(DATE);
+        RecordingEmitter slow = emitters.get(0);
+
+        // the first delta is taken by the blocked drain, two more fill the buffers, the fourth overflows
+        for (int i = 0; i < 4; i++) {
+            stream.publish(new AvailabilityDeltaDTO((long) i, DATE, TIME, TIME.plusHours(2), true));
+            if (i == 0) {
+                assertThat(slow.sending.await(5, TimeUnit.SECONDS)).isTrue();
+                assertThat(emitters.get(1).sending.await(5, TimeUnit.SECONDS)).isTrue();
+            }
+        }
+
+        assertThat(stream.subscribers(DATE)).isZero();
+        assertThat(meterRegistry.counter("booking.availability.stream.overflows").count()).isEqualTo(2);
+    }
+
+    @Test
+    void ignoresChangesThatDoNotAffectOccupancy() {
+        stream = stream(16);
+        stream.subscribe(DATE);
+        Reservation reservation = reservation(Status.CANCELLED);
+
+        stream.onReservationChanged(new ReservationChangedEvent(reservation, null));
+        stream.onReservationChanged(new ReservationChangedEvent(reservation, Status.AVAILABLE));
+
+        assertThat(meterRegistry.counter("booking.availability.stream.deltas").count()).isZero();
+    }
+
+    private AvailabilityStream stream(int bufferSize) {
+        return new AvailabilityStream(meterRegistry, Duration.ofMinutes(1), bufferSize, 2) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    private static Reservation reservation(Status status) {
+        Table table = new Table();
+        table.setId(7L);
+        Reservation reservation = new Reservation();
+        reservation.setTable(table);
+        reservation.setDate(DATE);
+        reservation.setTime(TIME);
+        reservation.setEndTime(TIME.plusHours(2));
+        reservation.setNumberOfGuests(2);
+        reservation.setStatus(status);
+        return reservation;
+    }
+
+    private class RecordingEmitter extends SseEmitter {
+
+        final List<AvailabilityDeltaDTO> sent = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch sending = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            if (blockSends) {
+                try {
+                    sendsReleased.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            builder.build().stream()
+                .map(part -> part.getData())
+                .filter(AvailabilityDeltaDTO.class::isInstance)
+                .map(AvailabilityDeltaDTO.class::cast)
+                .forEach(sent::add);
+        }
+
+        boolean awaitSent(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (sent.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            return sent.size() >= count;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.restaurant.booking.service.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.restaurant.booking.dto.OccupiedSlotDTO;
+import com.restaurant.booking.event.ReservationChangedEvent;
+import com.restaurant.booking.event.ReservationsStatusChangedEvent;
+import com.restaurant.booking.model.Reservation;
+import com.restaurant.booking.model.Status;
+import com.restaurant.booking.repository.ReservationRepository;
+
+class CoversPacingTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 8, 25);
+    private static final LocalTime TIME = LocalTime.of(19, 0);
+
+    private CoversPacing pacing;
+
+    @BeforeEach
+    void setUp() {
+        pacing = new CoversPacing(mock(ReservationRepository.class), 10, 15);
+    }
+
+    @Test
+    void disabledPacingAlwaysHasCapacity() {
+        CoversPacing disabled = new CoversPacing(mock(ReservationRepository.class), 0, 15);
+        disabled.acquire(DATE, TIME, 100);
+
+        assertThat(disabled.hasCapacity(DATE, TIME, 1000)).isTrue();
+        assertThat(disabled.booked(DATE, TIME)).isZero();
+    }
+
+    @Test
+    void rejectsWindowsThatDoNotDivideTheDay() {
+        ReservationRepository repository = mock(ReservationRepository.class);
+
+        assertThatThrownBy(() -> new CoversPacing(repository, 10, 7)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CoversPacing(repository, -1, 15)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void countsArrivalsPerWindow() {
+        pacing.acquire(DATE, TIME, 6);
+        pacing.acquire(DATE, LocalTime.of(19, 14), 4);
+
+        assertThat(pacing.booked(DATE, TIME)).isEqualTo(10);
+        assertThat(pacing.hasCapacity(DATE, LocalTime.of(19, 10), 1)).isFalse();
+        assertThat(pacing.hasCapacity(DATE, LocalTime.of(19, 15), 10)).isTrue();
+        assertThat(pacing.hasCapacity(DATE.plusDays(1), TIME, 10)).isTrue();
+        assertThatThrownBy(() -> pacing.acquire(DATE, LocalTime.of(19, 5), 1))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("pacing limit");
+    }
+
+    @Test
+    void rebuildCountsOnlyReservationsThatOccupyTables() {
+        pacing.acquire(DATE, TIME, 9);
+
+        pacing.rebuild(List.of(reservation(TIME, 4, Status.BOOKED), reservation(LocalTime.of(19, 5), 3, null),
+            reservation(TIME, 5, Status.CANCELLED)));
+
+        assertThat(pacing.booked(DATE, TIME)).isEqualTo(7);
+    }
+
+    @Test
+    void statusChangesReleaseAndRestoreCovers() {
+        Reservation reservation = reservation(TIME, 6, Status.BOOKED);
+        pacing.acquire(DATE, TIME, 6);
+
+        reservation.setStatus(Status.CANCELLED);
+        pacing.onReservationChanged(new ReservationChangedEvent(reservation, Status.BOOKED));
+        assertThat(pacing.booked(DATE, TIME)).isZero();
+
+        reservation.setStatus(Status.BOOKED);
+        pacing.onReservationChanged(new ReservationChangedEvent(reservation, Status.CANCELLED));
+        assertThat(pacing.booked(DATE, TIME)).isEqualTo(6);
+
+        reservation.setStatus(Status.COMPLETED);
+        pacing.onReservationChanged(new ReservationChangedEvent(reservation, Status.BOOKED));
+        pacing.onReservationChanged(new ReservationChangedEvent(reservation(TIME, 2, Status.BOOKED), null));
+        assertThat(pacing.booked(DATE, TIME)).isEqualTo(6);
+    }
+
+    @Test
+    void rolledBackStatusChangesAreUndone() {
+        pacing.acquire(DATE, TIME, 8);
+        Reservation reservation = reservation(TIME, 6, Status.CANCELLED);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            pacing.onReservationChanged(new ReservationChangedEvent(reservation, Status.BOOKED));
+            pacing.onReservationsStatusChanged(new ReservationsStatusChangedEvent(DATE, Status.BOOKED, Status.CANCELLED, List.of(
+                new OccupiedSlotDTO(2L, 2L, DATE, TIME, LocalTime.of(21, 0), 2, null))));
+            assertThat(pacing.booked(DATE, TIME)).isZero();
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(pacing.booked(DATE, TIME)).isEqualTo(8);
+    }
+
+    @Test
+    void concurrentBookingsNeverExceedTheLimit() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        for (int i = 0; i < 40; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    pacing.acquire(DATE, TIME, 2);
+                    accepted.incrementAndGet();
+                } catch (IllegalStateException | InterruptedException e) {
+                    // window full
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(accepted.get()).isEqualTo(5);
+        assertThat(pacing.booked(DATE, TIME)).isEqualTo(10);
+    }
+
+    @Test
+    void bulkCancellationReleasesTheCoversOfEveryReservation() {
+        pacing.acquire(DATE, TIME, 6);
+        pacing.acquire(DATE, LocalTime.of(19, 5), 4);
+
+        pacing.onReservationsStatusChanged(new ReservationsStatusChangedEvent(DATE, Status.BOOKED, Status.CANCELLED, List.of(
+            new OccupiedSlotDTO(1L, 1L, DATE, TIME, LocalTime.of(21, 0), 6, null),
+            new OccupiedSlotDTO(2L, 2L, DATE, LocalTime.of(19, 5), LocalTime.of(21, 5), 4, null))));
+        pacing.onReservationsStatusChanged(new ReservationsStatusChangedEvent(DATE, Status.CANCELLED, Status.CANCELLED, List.of(
+            new OccupiedSlotDTO(3L, 3L, DATE, TIME, LocalTime.of(21, 0), 6, null))));
+
+        assertThat(pacing.booked(DATE, TIME)).isZero();
+    }
+
+    @Test
+    void dropsPastDaysOnceTheDateChanges() {
+        TestClock clock = new TestClock(DATE);
+        CoversPacing dated = new CoversPacing(mock(ReservationRepository.class), 10, 15, clock);
+        dated.acquire(DATE, TIME, 4);
+        dated.acquire(DATE.plusDays(1), TIME, 6);
+
+        clock.advance(Duration.ofDays(1));
+
+        assertThat(dated.hasCapacity(DATE.plusDays(1), TIME, 5)).isFalse();
+        assertThat(dated.dayCount()).isEqualTo(1);
+        assertThat(dated.booked(DATE, TIME)).isZero();
+        assertThat(dated.booked(DATE.plusDays(1), TIME)).isEqualTo(6);
+    }
+
+    private static Reservation reservation(LocalTime time, int guests, Status status) {
+        Reservation reservation = new Reservation();
+        reservation.setDate(DATE);
+        reservation.setTime(time);
+        reservation.setNumberOfGuests(guests);
+        reservation.setStatus(status);
+        return reservation;
+    }
+
+    private static class TestClock extends Clock {
+
+        private Instant now;
+
+        TestClock(LocalDate date) {
+            now = date.atTime(12, 0).toInstant(ZoneOffset.UTC);
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
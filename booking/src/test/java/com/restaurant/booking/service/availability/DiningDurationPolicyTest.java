@@ -0,0 +1,62 @@
+package com.restaurant.booking.service.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.Test;
+
+import com.restaurant.booking.model.Reservation;
+
+class DiningDurationPolicyTest {
+
+    @Test
+    void usesDefaultWithoutPartySizeSteps() {
+        DiningDurationPolicy policy = new DiningDurationPolicy(120, "");
+
+        assertThat(policy.minutesFor(1)).isEqualTo(120);
+        assertThat(policy.minutesFor(10)).isEqualTo(120);
+    }
+
+    @Test
+    void looksUpDurationByPartySizeSteps() {
+        DiningDurationPolicy policy = new DiningDurationPolicy(180, "2:90, 6:120");
+
+        assertThat(policy.minutesFor(1)).isEqualTo(90);
+        assertThat(policy.minutesFor(2)).isEqualTo(90);
+        assertThat(policy.minutesFor(3)).isEqualTo(120);
+        assertThat(policy.minutesFor(6)).isEqualTo(120);
+        assertThat(policy.minutesFor(7)).isEqualTo(180);
+    }
+
+    @Test
+    void reservationOverrideWinsOverPartySize() {
+        DiningDurationPolicy policy = new DiningDurationPolicy(120, "2:90");
+        Reservation reservation = new Reservation();
+        reservation.setNumberOfGuests(2);
+
+        assertThat(policy.minutesFor(reservation)).isEqualTo(90);
+
+        reservation.setDurationMinutes(45);
+        assertThat(policy.minutesFor(reservation)).isEqualTo(45);
+    }
+
+    @Test
+    void endTimeIsCappedAtEndOfDay() {
+        DiningDurationPolicy policy = new DiningDurationPolicy(120, "");
+
+        assertThat(policy.endTime(LocalTime.of(19, 15), 90)).isEqualTo(LocalTime.of(20, 45));
+        assertThat(policy.endTime(LocalTime.of(23, 0), 120)).isEqualTo(DiningDurationPolicy.END_OF_DAY);
+        assertThat(DiningDurationPolicy.hasWindow(LocalTime.of(23, 58))).isTrue();
+        // clamped to 23:59, a reservation starting then would not last a minute
+        assertThat(DiningDurationPolicy.hasWindow(DiningDurationPolicy.END_OF_DAY)).isFalse();
+    }
+
+    @Test
+    void rejectsMalformedSteps() {
+        assertThrows(IllegalArgumentException.class, () -> new DiningDurationPolicy(120, "2-90"));
+        assertThrows(IllegalArgumentException.class, () -> new DiningDurationPolicy(120, "6:120,2:90"));
+        assertThrows(IllegalArgumentException.class, () -> new DiningDurationPolicy(0, ""));
+    }
+}
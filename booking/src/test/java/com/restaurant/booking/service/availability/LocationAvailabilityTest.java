@@ -0,0 +1,115 @@
+package com.restaurant.booking.service.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.restaurant.booking.dto.LocationAvailabilityDTO;
+import com.restaurant.booking.dto.MultiLocationAvailabilityDTO;
+import com.restaurant.booking.dto.TableDTO;
+import com.restaurant.booking.model.Table;
+import com.restaurant.booking.repository.ReservationRepository;
+import com.restaurant.booking.repository.TableRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LocationAvailabilityTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 8, 25);
+    private static final LocalTime TIME = LocalTime.of(20, 0);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TableRepository tableRepository;
+    private ReservationRepository reservationRepository;
+    private SlotOccupancyIndex slotOccupancyIndex;
+    private LocationAvailability locationAvailability;
+
+    @BeforeEach
+    void setUp() {
+        tableRepository = mock(TableRepository.class);
+        reservationRepository = mock(ReservationRepository.class);
+        slotOccupancyIndex = mock(SlotOccupancyIndex.class);
+        locationAvailability = new LocationAvailability(tableRepository, reservationRepository, slotOccupancyIndex,
+            new DiningDurationPolicy(120, ""), meterRegistry, Duration.ofMillis(300), 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        locationAvailability.shutdown();
+    }
+
+    @Test
+    void mergesLocationsThatAnswerAndDropsSlowOnes() {
+        when(tableRepository.findLocations()).thenReturn(List.of("downtown", "harbour", "uptown"));
+        stubLocation("downtown", new TableDTO(1L, 1, 4));
+        stubLocation("uptown");
+        when(reservationRepository.findAvailableTablesAtLocation(eq("harbour"), any(), any(), any(), anyInt(), anyCollection()))
+            .thenAnswer(invocation -> {
+                Thread.sleep(5_000);
+                return List.of(new TableDTO(2L, 2, 4));
+            });
+
+        long start = System.nanoTime();
+        MultiLocationAvailabilityDTO result = locationAvailability.findAvailableTables(DATE, TIME, 4);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(elapsedMillis).isLessThan(2_000);
+        assertThat(result.getLocations()).extracting(LocationAvailabilityDTO::getLocation, LocationAvailabilityDTO::getFreeTables)
+            .containsExactly(tuple("downtown", 1), tuple("uptown", 0));
+        assertThat(result.getLocations().get(0).getTables()).extracting(TableDTO::getLocation).containsExactly("downtown");
+        assertThat(result.getUnavailableLocations()).containsExactly("harbour");
+        assertThat(meterRegistry.counter("booking.locations.dropped", "location", "harbour", "reason", "timeout").count()).isEqualTo(1);
+    }
+
+    @Test
+    void reportsFailingLocationsAsUnavailable() {
+        when(tableRepository.findLocations()).thenReturn(List.of("downtown", "harbour"));
+        stubLocation("downtown", new TableDTO(1L, 1, 4));
+        when(reservationRepository.findAvailableTablesAtLocation(eq("harbour"), any(), any(), any(), anyInt(), anyCollection()))
+            .thenThrow(new IllegalStateException("connection refused"));
+
+        MultiLocationAvailabilityDTO result = locationAvailability.findAvailableTables(DATE, TIME, 4);
+
+        assertThat(result.getLocations()).extracting(LocationAvailabilityDTO::getLocation).containsExactly("downtown");
+        assertThat(result.getUnavailableLocations()).containsExactly("harbour");
+    }
+
+    @Test
+    void filtersTheOccupancyIndexByLocationWhenItCoversTheDate() {
+        Table downtown = table(1L, "downtown");
+        Table harbour = table(2L, "harbour");
+        when(slotOccupancyIndex.covers(DATE)).thenReturn(true);
+        when(slotOccupancyIndex.findAvailableTables(DATE, TIME, 2)).thenReturn(List.of(downtown, harbour));
+
+        assertThat(locationAvailability.lookup("harbour", DATE, TIME, 2)).extracting(TableDTO::getId).containsExactly(2L);
+    }
+
+    private void stubLocation(String location, TableDTO... tables) {
+        when(reservationRepository.findAvailableTablesAtLocation(eq(location), any(), any(), any(), anyInt(), anyCollection()))
+            .thenReturn(new ArrayList<>(List.of(tables)));
+    }
+
+    private static Table table(Long id, String location) {
+        Table table = new Table();
+        table.setId(id);
+        table.setNumber(id.intValue());
+        table.setCapacity(4);
+        table.setLocation(location);
+        return table;
+    }
+}
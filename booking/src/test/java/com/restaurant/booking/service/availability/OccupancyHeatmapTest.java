@@ -0,0 +1,95 @@
+package com.restaurant.booking.service.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.restaurant.booking.dto.OccupancyCellDTO;
+import com.restaurant.booking.dto.SlotLoadDTO;
+import com.restaurant.booking.event.ReservationChangedEvent;
+import com.restaurant.booking.event.TableChangedEvent;
+import com.restaurant.booking.model.Reservation;
+import com.restaurant.booking.repository.ReservationRepository;
+import com.restaurant.booking.repository.TableRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OccupancyHeatmapTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2025, 8);
+    private static final LocalDate DAY = LocalDate.of(2025, 8, 25);
+
+    private ReservationRepository reservationRepository;
+    private TableRepository tableRepository;
+    private OccupancyHeatmap heatmap;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository = mock(ReservationRepository.class);
+        tableRepository = mock(TableRepository.class);
+        when(tableRepository.count()).thenReturn(4L);
+        heatmap = new OccupancyHeatmap(reservationRepository, tableRepository, new OpeningHours("MON-SUN=18:00-21:00", "", 60),
+            new SimpleMeterRegistry(), 400, Duration.ofHours(1));
+    }
+
+    @Test
+    void countsTablesTakenAtEverySlotFromOneAggregate() {
+        when(reservationRepository.countOccupyingBySlot(any(LocalDate.class), any(LocalDate.class), anyCollection())).thenReturn(List.of(
+            new SlotLoadDTO(DAY, LocalTime.of(18, 0), LocalTime.of(19, 30), 2),
+            new SlotLoadDTO(DAY, LocalTime.of(19, 0), LocalTime.of(21, 0), 1),
+            new SlotLoadDTO(DAY, LocalTime.of(19, 30), LocalTime.of(21, 0), 1)));
+
+        List<OccupancyCellDTO> cells = heatmap.month(MONTH);
+
+        assertThat(cells).hasSize(31 * 3);
+        assertThat(cells).filteredOn(cell -> cell.getDate().equals(DAY))
+            .extracting(OccupancyCellDTO::getTime, OccupancyCellDTO::getOccupiedTables, OccupancyCellDTO::getOccupancy)
+            .containsExactly(
+                tuple(LocalTime.of(18, 0), 2, 0.5),
+                tuple(LocalTime.of(19, 0), 3, 0.75),
+                tuple(LocalTime.of(20, 0), 2, 0.5));
+        assertThat(cells).filteredOn(cell -> cell.getDate().equals(DAY.minusDays(1)))
+            .extracting(OccupancyCellDTO::getOccupiedTables).containsOnly(0);
+        verify(reservationRepository).countOccupyingBySlot(any(LocalDate.class), any(LocalDate.class), anyCollection());
+    }
+
+    @Test
+    void recomputesOnlyTheDaysOfChangedReservations() {
+        heatmap.month(MONTH);
+        heatmap.month(MONTH);
+        verify(reservationRepository, times(1)).countOccupyingBySlot(eq(MONTH.atDay(1)), eq(MONTH.atEndOfMonth()), anyCollection());
+
+        Reservation reservation = new Reservation();
+        reservation.setDate(DAY);
+        heatmap.onReservationChanged(new ReservationChangedEvent(reservation, null));
+        heatmap.month(MONTH);
+        verify(reservationRepository).countOccupyingBySlot(eq(DAY), eq(DAY), anyCollection());
+
+        heatmap.onTableChanged(new TableChangedEvent(1L));
+        heatmap.month(MONTH);
+        verify(reservationRepository, times(2)).countOccupyingBySlot(eq(MONTH.atDay(1)), eq(MONTH.atEndOfMonth()), anyCollection());
+    }
+
+    @Test
+    void closedDaysHaveNoCells() {
+        OccupancyHeatmap weekends = new OccupancyHeatmap(reservationRepository, tableRepository, new OpeningHours("SAT,SUN=18:00-19:00", "", 60),
+            new SimpleMeterRegistry(), 400, Duration.ofHours(1));
+
+        assertThat(weekends.month(MONTH)).hasSize(10).allMatch(cell -> cell.getOccupancy() == 0);
+    }
+}
@@ -0,0 +1,76 @@
+package com.restaurant.booking.service.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.Test;
+
+class OpeningHoursTest {
+
+    // a Monday
+    private static final LocalDate MONDAY = LocalDate.of(2025, 8, 25);
+
+    private final OpeningHours openingHours = new OpeningHours("TUE-FRI=11:30-14:00|17:30-22:00;SAT,SUN=12:00-23:00",
+        "2025-12-24=12:00-13:00;2025-12-25=closed", 30);
+
+    @Test
+    void emptyConfigurationIsOpenAllDay() {
+        OpeningHours allDay = new OpeningHours("", "", 15);
+
+        assertThat(allDay.slots(MONDAY)).hasSize(96);
+        assertThat(allDay.slotIndex(MONDAY, LocalTime.of(3, 17))).isEqualTo(13);
+        assertThat(allDay.slotIndex(MONDAY, LocalTime.of(23, 59))).isEqualTo(95);
+    }
+
+    @Test
+    void unlistedWeekdaysAreClosed() {
+        assertThat(openingHours.slots(MONDAY)).isEmpty();
+        assertThat(openingHours.isOpen(MONDAY, LocalTime.of(19, 0))).isFalse();
+    }
+
+    @Test
+    void compilesPeriodsIntoSortedSlotStarts() {
+        LocalDate tuesday = MONDAY.plusDays(1);
+
+        assertThat(openingHours.slots(tuesday)).containsExactly(
+            (short) 690, (short) 720, (short) 750, (short) 780, (short) 810,
+            (short) 1050, (short) 1080, (short) 1110, (short) 1140, (short) 1170, (short) 1200, (short) 1230, (short) 1260, (short) 1290);
+        assertThat(openingHours.slots(MONDAY.plusDays(5))).hasSize(22);
+        assertThat(openingHours.slots(MONDAY.plusDays(6))).hasSize(22);
+    }
+
+    @Test
+    void normalizesTimesToTheSlotContainingThem() {
+        LocalDate tuesday = MONDAY.plusDays(1);
+
+        assertThat(openingHours.slotIndex(tuesday, LocalTime.of(11, 30))).isZero();
+        assertThat(openingHours.slotIndex(tuesday, LocalTime.of(11, 59))).isZero();
+        assertThat(openingHours.slotIndex(tuesday, LocalTime.of(17, 45))).isEqualTo(5);
+        assertThat(openingHours.slots(tuesday)[5]).isEqualTo((short) 1050);
+        assertThat(openingHours.slotIndex(tuesday, LocalTime.of(14, 0))).isEqualTo(-1);
+        assertThat(openingHours.slotIndex(tuesday, LocalTime.of(11, 29))).isEqualTo(-1);
+        assertThat(openingHours.slotIndex(tuesday, LocalTime.of(22, 0))).isEqualTo(-1);
+        assertThat(openingHours.slotStart(tuesday, LocalTime.of(17, 59))).isEqualTo(LocalTime.of(17, 30));
+        assertThat(openingHours.slotStart(tuesday, LocalTime.of(14, 0))).isNull();
+    }
+
+    @Test
+    void exceptionsOverrideTheWeekday() {
+        // both dates fall on weekdays that are normally open
+        assertThat(openingHours.slots(LocalDate.of(2025, 12, 24))).containsExactly((short) 720, (short) 750);
+        assertThat(openingHours.isOpen(LocalDate.of(2025, 12, 25), LocalTime.of(12, 0))).isFalse();
+        assertThat(openingHours.isOpen(LocalDate.of(2025, 12, 26), LocalTime.of(12, 0))).isTrue();
+    }
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThatThrownBy(() -> new OpeningHours("MON=12:00-11:00", "", 15)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new OpeningHours("MON=11:00-14:00|13:00-15:00", "", 15)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new OpeningHours("XY=11:00-14:00", "", 15)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new OpeningHours("", "christmas=closed", 15)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new OpeningHours("", "", 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,105 @@
+package com.restaurant.booking.service.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SingleFlightTest {
+
+    private static final int FOLLOWERS = 8;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight<String, Integer> singleFlight;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>("test", meterRegistry);
+        executor = Executors.newFixedThreadPool(FOLLOWERS + 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneComputation() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computations = new AtomicInteger();
+
+        Future<Integer> leader = executor.submit(() -> singleFlight.execute("slot", () -> {
+            started.countDown();
+            await(release);
+            return computations.incrementAndGet();
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<Future<Integer>> followers = new ArrayList<>();
+        for (int i = 0; i < FOLLOWERS; i++) {
+            followers.add(executor.submit(() -> singleFlight.execute("slot", computations::incrementAndGet)));
+        }
+        while (count("collapsed") < FOLLOWERS) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        for (Future<Integer> follower : followers) {
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        }
+        assertThat(computations).hasValue(1);
+        assertThat(count("leader")).isEqualTo(1);
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    @Test
+    void sequentialCallersComputeAgain() {
+        AtomicInteger computations = new AtomicInteger();
+
+        singleFlight.execute("slot", computations::incrementAndGet);
+        singleFlight.execute("slot", computations::incrementAndGet);
+        singleFlight.execute("other", computations::incrementAndGet);
+
+        assertThat(computations).hasValue(3);
+        assertThat(count("collapsed")).isZero();
+    }
+
+    @Test
+    void failuresArePropagatedAndNotRemembered() {
+        assertThatThrownBy(() -> singleFlight.execute("slot", () -> {
+            throw new IllegalStateException("database down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(singleFlight.inFlight()).isZero();
+        assertThat(singleFlight.execute("slot", () -> 42)).isEqualTo(42);
+    }
+
+    private double count(String role) {
+        return meterRegistry.get("booking.singleflight.calls").tag("name", "test").tag("role", role).counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.restaurant.booking.service.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.restaurant.booking.dto.TableDTO;
+import com.restaurant.booking.event.ReservationChangedEvent;
+import com.restaurant.booking.model.Reservation;
+import com.restaurant.booking.model.Status;
+import com.restaurant.booking.model.Table;
+import com.restaurant.booking.model.User;
+import com.restaurant.booking.repository.ReservationRepository;
+import com.restaurant.booking.repository.SlotOccupancyRepository;
+import com.restaurant.booking.repository.TableRepository;
+import com.restaurant.booking.repository.UserRepository;
+
+// the rebuild writes from its own threads and transactions, so test data has to be committed
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SlotAvailabilityProjectionTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 8, 25);
+    private static final LocalTime TIME = LocalTime.of(19, 0);
+
+    @Autowired
+    private SlotOccupancyRepository slotOccupancyRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private TableRepository tableRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private SlotAvailabilityProjection projection;
+    private User user;
+    private Table small;
+    private Table large;
+
+    @BeforeEach
+    void setUp() {
+        projection = new SlotAvailabilityProjection(slotOccupancyRepository, reservationRepository, tableRepository,
+            new DiningDurationPolicy(120, ""), transactionManager, true, 15, 2, 3);
+        user = new User();
+        user.setName("Jane Doe");
+        user.setEmail("jane@example.com");
+        user = userRepository.save(user);
+        small = table(1, 2);
+        large = table(2, 6);
+    }
+
+    @AfterEach
+    void tearDown() {
+        slotOccupancyRepository.deleteAllInBatch();
+        reservationRepository.deleteAllInBatch();
+        tableRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void writesThroughCreatedAndCancelledReservations() {
+        Reservation reservation = reserve(small, DATE, TIME, LocalTime.of(20, 30));
+        projection.onReservationChanged(new ReservationChangedEvent(reservation, null));
+
+        assertThat(slotOccupancyRepository.count()).isEqualTo(6);
+        assertThat(available(LocalTime.of(17, 30))).containsExactly(large.getId());
+        assertThat(available(LocalTime.of(20, 30))).containsExactly(small.getId(), large.getId());
+
+        reservation.setStatus(Status.CANCELLED);
+        reservation = reservationRepository.save(reservation);
+        projection.onReservationChanged(new ReservationChangedEvent(reservation, Status.BOOKED));
+
+        assertThat(slotOccupancyRepository.count()).isZero();
+        assertThat(available(TIME)).containsExactly(small.getId(), large.getId());
+    }
+
+    @Test
+    void rebuildRegeneratesTheProjectionInDateChunks() {
+        List<Long> ids = new ArrayList<>();
+        for (int day = 0; day < 5; day++) {
+            ids.add(reserve(small, DATE.plusDays(day), TIME, LocalTime.of(20, 0)).getId());
+        }
+        Reservation cancelled = reserve(large, DATE, TIME, LocalTime.of(20, 0));
+        cancelled.setStatus(Status.CANCELLED);
+        reservationRepository.save(cancelled);
+
+        assertThat(projection.isReady()).isFalse();
+        assertThat(projection.rebuild()).isEqualTo(5 * 4);
+
+        assertThat(slotOccupancyRepository.count()).isEqualTo(20);
+        assertThat(available(TIME)).containsExactly(large.getId());
+        assertThat(projection.isReady()).isTrue();
+    }
+
+    @Test
+    void alignsReservationsToSlotBoundaries() {
+        assertThat(projection.rows(1L, 2L, DATE, LocalTime.of(19, 10), LocalTime.of(19, 40)))
+            .extracting(row -> row.getSlot())
+            .containsExactly(LocalTime.of(19, 0), LocalTime.of(19, 15), LocalTime.of(19, 30));
+    }
+
+    private List<Long> available(LocalTime time) {
+        return projection.findAvailableTables(DATE, time, 1).stream().map(TableDTO::getId).toList();
+    }
+
+    private Table table(int number, int capacity) {
+        Table table = new Table();
+        table.setNumber(number);
+        table.setCapacity(capacity);
+        return tableRepository.save(table);
+    }
+
+    private Reservation reserve(Table table, LocalDate date, LocalTime time, LocalTime endTime) {
+        Reservation reservation = new Reservation();
+        reservation.setUser(user);
+        reservation.setTable(table);
+        reservation.setDate(date);
+        reservation.setTime(time);
+        reservation.setEndTime(endTime);
+        reservation.setNumberOfGuests(2);
+        reservation.setStatus(Status.BOOKED);
+        return reservationRepository.save(reservation);
+    }
+}
@@ -0,0 +1,131 @@
+package com.restaurant.booking.service.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.restaurant.booking.model.Reservation;
+import com.restaurant.booking.model.Table;
+
+class SlotLocksTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 8, 25);
+
+    private final SlotLocks slotLocks = new SlotLocks(1024, 15);
+
+    @Test
+    void overlappingWindowsOfOneTableShareAStripe() {
+        int[] early = slotLocks.stripesFor(1L, DATE, LocalTime.of(19, 0), LocalTime.of(21, 0));
+        int[] late = slotLocks.stripesFor(1L, DATE, LocalTime.of(20, 45), LocalTime.of(22, 45));
+
+        assertThat(early).hasSize(8).isSorted();
+        assertThat(Arrays.stream(early).anyMatch(stripe -> Arrays.stream(late).anyMatch(other -> other == stripe))).isTrue();
+    }
+
+    @Test
+    void windowEndingAtASlotBoundaryDoesNotTakeTheNextSlot() {
+        assertThat(slotLocks.stripesFor(1L, DATE, LocalTime.of(19, 0), LocalTime.of(19, 15))).hasSize(1);
+        assertThat(slotLocks.stripesFor(1L, DATE, LocalTime.of(19, 0), LocalTime.of(19, 0))).hasSize(1);
+    }
+
+    @Test
+    void releasesTheLocksWhenTheClaimReturnsOutsideATransaction() throws Exception {
+        slotLocks.withLock(1L, DATE, LocalTime.of(19, 0), LocalTime.of(21, 0), () -> true);
+
+        CompletableFuture<Boolean> other = CompletableFuture.supplyAsync(
+            () -> slotLocks.withLock(1L, DATE, LocalTime.of(19, 0), LocalTime.of(21, 0), () -> true));
+        assertThat(other.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void releasesTheLocksWhenTheClaimFails() throws Exception {
+        assertThatThrownBy(() -> slotLocks.withLock(1L, DATE, LocalTime.of(19, 0), LocalTime.of(21, 0), () -> {
+            throw new IllegalStateException("taken");
+        })).hasMessage("taken");
+
+        CompletableFuture<Boolean> other = CompletableFuture.supplyAsync(
+            () -> slotLocks.withLock(1L, DATE, LocalTime.of(19, 0), LocalTime.of(21, 0), () -> true));
+        assertThat(other.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void tryWithLockOnlyKeepsTheLocksOfASuccessfulClaimUntilTheTransactionCompletes() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThat(slotLocks.tryWithLock(1L, DATE, LocalTime.of(19, 0), LocalTime.of(21, 0), Optional::empty)).isEmpty();
+            CompletableFuture<Boolean> afterMiss = CompletableFuture.supplyAsync(
+                () -> slotLocks.withLock(1L, DATE, LocalTime.of(19, 0), LocalTime.of(21, 0), () -> true));
+            assertThat(afterMiss.get(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(slotLocks.tryWithLock(1L, DATE, LocalTime.of(19, 0), LocalTime.of(21, 0), () -> Optional.of(true))).contains(true);
+            CompletableFuture<Boolean> afterClaim = CompletableFuture.supplyAsync(
+                () -> slotLocks.withLock(1L, DATE, LocalTime.of(19, 0), LocalTime.of(21, 0), () -> true));
+            Thread.sleep(50);
+            assertThat(afterClaim).isNotDone();
+
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            assertThat(afterClaim.get(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void batchHoldsTheLocksOfEveryWindowUntilItsClaimReturns() throws Exception {
+        CountDownLatch claiming = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> batch = CompletableFuture.supplyAsync(() -> slotLocks.withLocks(
+            List.of(reservation(1L, LocalTime.of(12, 0)), reservation(2L, LocalTime.of(19, 0))), () -> {
+                claiming.countDown();
+                await(release);
+                return true;
+            }));
+        assertThat(claiming.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Boolean> single = CompletableFuture.supplyAsync(
+            () -> slotLocks.withLock(2L, DATE, LocalTime.of(20, 0), LocalTime.of(22, 0), () -> true));
+        Thread.sleep(50);
+        assertThat(single).isNotDone();
+
+        release.countDown();
+        assertThat(batch.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(single.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void rejectsStripeCountsThatAreNotAPowerOfTwo() {
+        assertThatThrownBy(() -> new SlotLocks(1000, 15)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Reservation reservation(Long tableId, LocalTime time) {
+        Table table = new Table();
+        table.setId(tableId);
+        Reservation reservation = new Reservation();
+        reservation.setTable(table);
+        reservation.setDate(DATE);
+        reservation.setTime(time);
+        reservation.setEndTime(time.plusHours(2));
+        return reservation;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.restaurant.booking.service.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.restaurant.booking.dto.OccupiedSlotDTO;
+import com.restaurant.booking.event.ReservationChangedEvent;
+import com.restaurant.booking.event.ReservationsStatusChangedEvent;
+import com.restaurant.booking.model.Reservation;
+import com.restaurant.booking.model.Status;
+import com.restaurant.booking.model.Table;
+import com.restaurant.booking.repository.ReservationRepository;
+import com.restaurant.booking.repository.TableRepository;
+
+class SlotOccupancyIndexTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 8, 25);
+    private static final LocalTime TIME = LocalTime.of(19, 0);
+
+    private SlotOccupancyIndex index;
+    private Table t1;
+    private Table t2;
+    private Table t3;
+
+    @BeforeEach
+    void setUp() {
+        index = new SlotOccupancyIndex(mock(TableRepository.class), mock(ReservationRepository.class), new DiningDurationPolicy(120, ""), true);
+        t1 = table(1L, 2);
+        t2 = table(2L, 4);
+        t3 = table(3L, 6);
+    }
+
+    @Test
+    void coversNothingBeforeRebuild() {
+        assertThat(index.covers(DATE)).isFalse();
+    }
+
+    @Test
+    void coversOnlyDatesFromRebuildOnwards() {
+        index.rebuild(List.of(t1, t2, t3), List.of(), DATE);
+
+        assertThat(index.covers(DATE)).isTrue();
+        assertThat(index.covers(DATE.plusDays(10))).isTrue();
+        assertThat(index.covers(DATE.minusDays(1))).isFalse();
+    }
+
+    @Test
+    void disabledIndexNeverCovers() {
+        SlotOccupancyIndex disabled = new SlotOccupancyIndex(mock(TableRepository.class), mock(ReservationRepository.class), new DiningDurationPolicy(120, ""), false);
+        disabled.rebuild();
+        assertThat(disabled.covers(DATE)).isFalse();
+
+        disabled.rebuild(List.of(t1), List.of(), DATE);
+        assertThat(disabled.covers(DATE)).isFalse();
+    }
+
+    @Test
+    void excludesReservedTablesAndTooSmallTables() {
+        index.rebuild(List.of(t1, t2, t3), List.of(reservation(t2, DATE, TIME, Status.BOOKED)), DATE);
+
+        List<Table> available = index.findAvailableTables(DATE, TIME, 3);
+
+        assertThat(available).extracting(Table::getId).containsExactly(3L);
+    }
+
+    @Test
+    void otherSlotsAreUnaffected() {
+        index.rebuild(List.of(t1, t2, t3), List.of(reservation(t2, DATE, TIME, Status.BOOKED)), DATE);
+
+        assertThat(index.findAvailableTables(DATE, TIME.plusHours(2), 1)).extracting(Table::getId).containsExactly(1L, 2L, 3L);
+        assertThat(index.findAvailableTables(DATE.plusDays(1), TIME, 1)).extracting(Table::getId).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void cancelledReservationsDoNotOccupyTables() {
+        index.rebuild(List.of(t1, t2), List.of(reservation(t1, DATE, TIME, Status.CANCELLED)), DATE);
+
+        assertThat(index.findAvailableTables(DATE, TIME, 1)).extracting(Table::getId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void appliesCreatedAndCancelledReservations() {
+        index.rebuild(List.of(t1, t2), List.of(), DATE);
+        Reservation reservation = reservation(t1, DATE, TIME, Status.BOOKED);
+
+        index.onReservationChanged(new ReservationChangedEvent(reservation, null));
+        assertThat(index.findAvailableTables(DATE, TIME, 1)).extracting(Table::getId).containsExactly(2L);
+
+        reservation.setStatus(Status.CANCELLED);
+        index.onReservationChanged(new ReservationChangedEvent(reservation, Status.BOOKED));
+        assertThat(index.findAvailableTables(DATE, TIME, 1)).extracting(Table::getId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void reservationCommittedWhileARebuildReadsSurvivesTheRebuild() throws InterruptedException {
+        TableRepository tableRepository = mock(TableRepository.class);
+        ReservationRepository reservationRepository = mock(ReservationRepository.class);
+        SlotOccupancyIndex rebuilt = new SlotOccupancyIndex(tableRepository, reservationRepository, new DiningDurationPolicy(120, ""), true,
+            new TestClock(DATE));
+        rebuilt.rebuild(List.of(t1, t2), List.of(), DATE);
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch committed = new CountDownLatch(1);
+        when(tableRepository.findAll()).thenReturn(List.of(t1, t2));
+        // the query has already read the reservations when the booking commits
+        when(reservationRepository.findByDateGreaterThanEqual(any(LocalDate.class))).thenAnswer(invocation -> {
+            reading.countDown();
+            committed.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        Reservation reservation = reservation(t1, DATE, TIME, Status.BOOKED);
+        reservation.setId(7L);
+
+        Thread rebuild = new Thread(rebuilt::rebuild);
+        rebuild.start();
+        assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread commit = new Thread(() -> rebuilt.onReservationChanged(new ReservationChangedEvent(reservation, null)));
+        commit.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (commit.getState() != Thread.State.BLOCKED && commit.isAlive() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        committed.countDown();
+        rebuild.join(5000);
+        commit.join(5000);
+
+        assertThat(rebuilt.isFree(DATE, TIME, 2, 1L)).isFalse();
+    }
+
+    @Test
+    void reservationsBlockTheirWholeDuration() {
+        Reservation reservation = reservation(t2, DATE, TIME, Status.BOOKED);
+        reservation.setEndTime(LocalTime.of(20, 30));
+        index.rebuild(List.of(t1, t2, t3), List.of(reservation), DATE);
+
+        // a 120 minute window from 17:30 ends at 19:30 and runs into the booking
+        assertThat(index.findAvailableTables(DATE, LocalTime.of(17, 30), 3)).extracting(Table::getId).containsExactly(3L);
+        assertThat(index.findAvailableTables(DATE, LocalTime.of(17, 0), 3)).extracting(Table::getId).containsExactly(2L, 3L);
+        assertThat(index.findAvailableTables(DATE, LocalTime.of(20, 29), 3)).extracting(Table::getId).containsExactly(3L);
+        assertThat(index.findAvailableTables(DATE, LocalTime.of(20, 30), 3)).extracting(Table::getId).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void tableIntervalsDetectOverlapsAcrossNestedIntervals() {
+        SlotOccupancyIndex.TableIntervals intervals = new SlotOccupancyIndex.TableIntervals();
+        intervals.add(1L, 600, 900);
+        intervals.add(2L, 660, 700);
+        intervals.add(3L, 1000, 1100);
+
+        assertThat(intervals.overlaps(880, 950)).isTrue();
+        assertThat(intervals.overlaps(900, 1000)).isFalse();
+        assertThat(intervals.overlaps(1099, 1200)).isTrue();
+        assertThat(intervals.overlaps(500, 600)).isFalse();
+
+        intervals.remove(1L, 600, 900);
+        assertThat(intervals.size()).isEqualTo(2);
+        assertThat(intervals.overlaps(880, 950)).isFalse();
+        assertThat(intervals.overlaps(690, 720)).isTrue();
+    }
+
+    @Test
+    void bulkStatusChangeFreesEveryListedReservation() {
+        Reservation first = reservation(t1, DATE, TIME, Status.BOOKED);
+        first.setId(1L);
+        Reservation second = reservation(t2, DATE, TIME, Status.BOOKED);
+        second.setId(2L);
+        index.rebuild(List.of(t1, t2, t3), List.of(first, second), DATE);
+
+        index.onReservationsStatusChanged(new ReservationsStatusChangedEvent(DATE, Status.BOOKED, Status.CANCELLED,
+            List.of(new OccupiedSlotDTO(1L, 1L, DATE, TIME, LocalTime.of(21, 0), 2, null))));
+
+        assertThat(index.findAvailableTables(DATE, TIME, 1)).extracting(Table::getId).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void dropsPastDaysOnceTheDateChanges() {
+        TestClock clock = new TestClock(DATE);
+        SlotOccupancyIndex dated = new SlotOccupancyIndex(mock(TableRepository.class), mock(ReservationRepository.class),
+            new DiningDurationPolicy(120, ""), true, clock);
+        dated.rebuild(List.of(t1, t2), List.of(reservation(t1, DATE, TIME, Status.BOOKED), reservation(t1, DATE.plusDays(1), TIME, Status.BOOKED)), DATE);
+        assertThat(dated.dayCount()).isEqualTo(2);
+
+        clock.advance(Duration.ofDays(1));
+
+        assertThat(dated.covers(DATE)).isFalse();
+        assertThat(dated.covers(DATE.plusDays(1))).isTrue();
+        assertThat(dated.dayCount()).isEqualTo(1);
+        assertThat(dated.findAvailableTables(DATE.plusDays(1), TIME, 1)).extracting(Table::getId).containsExactly(2L);
+    }
+
+    private static Table table(Long id, int capacity) {
+        Table table = new Table();
+        table.setId(id);
+        table.setNumber(id.intValue());
+        table.setCapacity(capacity);
+        return table;
+    }
+
+    private static Reservation reservation(Table table, LocalDate date, LocalTime time, Status status) {
+        Reservation reservation = new Reservation();
+        reservation.setTable(table);
+        reservation.setDate(date);
+        reservation.setTime(time);
+        reservation.setEndTime(time.plusHours(2));
+        reservation.setStatus(status);
+        return reservation;
+    }
+
+    private static class TestClock extends Clock {
+
+        private Instant now;
+
+        TestClock(LocalDate date) {
+            now = date.atTime(12, 0).toInstant(ZoneOffset.UTC);
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.restaurant.booking.service.availability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+
+import com.restaurant.booking.model.Table;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class StaleAvailabilityTest {
+
+    private static final String KEY = "2025-08-25T19:00/2";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch released = new CountDownLatch(1);
+    private StaleAvailability staleAvailability;
+
+    @BeforeEach
+    void setUp() {
+        staleAvailability = new StaleAvailability(meterRegistry, true, Duration.ofMillis(50), Duration.ofHours(1), 10_000, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        released.countDown();
+        staleAvailability.shutdown();
+    }
+
+    @Test
+    void servesLastKnownResultWhileASlowLookupRefreshesInTheBackground() throws InterruptedException {
+        staleAvailability.get(KEY, () -> tables(1L));
+        AtomicInteger lookups = new AtomicInteger();
+        CountDownLatch refreshed = new CountDownLatch(1);
+
+        AvailabilityResult first = staleAvailability.get(KEY, () -> {
+            lookups.incrementAndGet();
+            await(released);
+            refreshed.countDown();
+            return tables(2L);
+        });
+        AvailabilityResult second = staleAvailability.get(KEY, () -> {
+            lookups.incrementAndGet();
+            return tables(3L);
+        });
+
+        assertThat(first.isStale()).isTrue();
+        assertThat(first.tables()).extracting(Table::getId).containsExactly(1L);
+        assertThat(second.isStale()).isTrue();
+        // the second caller joined the refresh that was already running
+        assertThat(lookups).hasValue(1);
+        assertThat(meterRegistry.counter("booking.availability.stale.served").count()).isEqualTo(2.0);
+        assertThat(meterRegistry.timer("booking.availability.stale.age").count()).isEqualTo(2);
+
+        released.countDown();
+        assertThat(refreshed.await(5, TimeUnit.SECONDS)).isTrue();
+        // either the finished refresh itself or a new lookup after it
+        AvailabilityResult afterRefresh = awaitFresh(() -> tables(4L));
+        assertThat(afterRefresh.isStale()).isFalse();
+        assertThat(afterRefresh.tables().get(0).getId()).isIn(2L, 4L);
+    }
+
+    @Test
+    void servesLastKnownResultWhenNoConnectionIsAvailable() {
+        staleAvailability.get(KEY, () -> tables(1L));
+
+        AvailabilityResult result = staleAvailability.get(KEY, () -> {
+            throw new CannotGetJdbcConnectionException("Connection is not available, request timed out");
+        });
+
+        assertThat(result.isStale()).isTrue();
+        assertThat(result.tables()).extracting(Table::getId).containsExactly(1L);
+    }
+
+    @Test
+    void propagatesFailuresThatAreNotOverload() {
+        staleAvailability.get(KEY, () -> tables(1L));
+
+        assertThatThrownBy(() -> staleAvailability.get(KEY, () -> {
+            throw new IllegalArgumentException("broken query");
+        })).isInstanceOf(IllegalArgumentException.class);
+        assertThat(meterRegistry.counter("booking.availability.stale.served").count()).isZero();
+    }
+
+    @Test
+    void waitsForTheLookupWithoutALastKnownResult() {
+        AvailabilityResult result = staleAvailability.get(KEY, () -> {
+            sleep(150);
+            return tables(1L);
+        });
+
+        assertThat(result.isStale()).isFalse();
+        assertThat(result.tables()).extracting(Table::getId).containsExactly(1L);
+    }
+
+    @Test
+    void looksUpOnTheCallingThreadWhenTheRefreshPoolRejectsTheLookup() {
+        staleAvailability.get(KEY, () -> tables(1L));
+        staleAvailability.shutdown();
+
+        AvailabilityResult result = staleAvailability.get(KEY, () -> tables(2L));
+
+        assertThat(result.isStale()).isFalse();
+        assertThat(result.tables()).extracting(Table::getId).containsExactly(2L);
+        assertThat(meterRegistry.counter("booking.availability.stale.served").count()).isZero();
+    }
+
+    private AvailabilityResult awaitFresh(Supplier<List<Table>> lookup) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        AvailabilityResult result = staleAvailability.get(KEY, lookup);
+        while (result.isStale() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            result = staleAvailability.get(KEY, lookup);
+        }
+        return result;
+    }
+
+    private static List<Table> tables(Long id) {
+        Table table = new Table();
+        table.setId(id);
+        return List.of(table);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.restaurant.booking.service.hold;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.restaurant.booking.service.hold.HashedTimingWheel.Timeout;
+
+class HashedTimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    private final HashedTimingWheel<String> wheel = new HashedTimingWheel<>(Duration.ofMillis(100), 8, START);
+    private final List<String> expired = new ArrayList<>();
+
+    @Test
+    void expiresTimeoutsOnTheFirstTickAtOrAfterTheirDeadline() {
+        wheel.schedule("a", START + 250);
+        wheel.schedule("b", START + 300);
+
+        assertThat(wheel.advance(START + 299, expired::add)).isZero();
+        assertThat(wheel.advance(START + 300, expired::add)).isEqualTo(2);
+        assertThat(expired).containsExactly("a", "b");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void deadlinesBeyondOneTurnWaitForTheirRound() {
+        // the wheel turns every 800 ms, so these share a bucket two and three turns apart
+        wheel.schedule("late", START + 2_700);
+        wheel.schedule("later", START + 3_500);
+
+        wheel.advance(START + 2_699, expired::add);
+        assertThat(expired).isEmpty();
+        wheel.advance(START + 2_700, expired::add);
+        assertThat(expired).containsExactly("late");
+        wheel.advance(START + 3_500, expired::add);
+        assertThat(expired).containsExactly("late", "later");
+    }
+
+    @Test
+    void catchesUpOnMissedTicksAndExpiresPastDeadlinesRightAway() {
+        wheel.schedule("past", START - 5_000);
+        wheel.schedule("soon", START + 150);
+
+        assertThat(wheel.advance(START + 1_000, expired::add)).isEqualTo(2);
+        assertThat(expired).containsExactly("past", "soon");
+
+        wheel.schedule("overdue", START + 500);
+        wheel.advance(START + 1_100, expired::add);
+        assertThat(expired).contains("overdue");
+    }
+
+    @Test
+    void cancelledTimeoutsNeverExpire() {
+        Timeout<String> queued = wheel.schedule("queued", START + 200);
+        wheel.schedule("kept", START + 200);
+        assertThat(queued.cancel()).isTrue();
+
+        Timeout<String> inBucket = wheel.schedule("in-bucket", START + 400);
+        wheel.advance(START + 100, expired::add);
+        assertThat(inBucket.cancel()).isTrue();
+        assertThat(inBucket.cancel()).isFalse();
+        assertThat(wheel.size()).isEqualTo(1);
+
+        wheel.advance(START + 1_000, expired::add);
+        assertThat(expired).containsExactly("kept");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void expiredTimeoutsCannotBeCancelled() {
+        Timeout<String> timeout = wheel.schedule("a", START + 100);
+        wheel.advance(START + 100, expired::add);
+
+        assertThat(timeout.cancel()).isFalse();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void rejectsInvalidSizes() {
+        assertThatThrownBy(() -> new HashedTimingWheel<String>(Duration.ZERO, 8, START)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HashedTimingWheel<String>(Duration.ofSeconds(1), 0, START)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
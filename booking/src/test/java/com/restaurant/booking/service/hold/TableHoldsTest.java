@@ -0,0 +1,133 @@
+package com.restaurant.booking.service.hold;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.restaurant.booking.event.ReservationChangedEvent;
+import com.restaurant.booking.model.Reservation;
+import com.restaurant.booking.model.Status;
+import com.restaurant.booking.repository.ReservationRepository;
+import com.restaurant.booking.service.ReservationService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TableHoldsTest {
+
+    private static final Instant NOW = Instant.parse("2025-08-25T12:00:00Z");
+
+    private final TestClock clock = new TestClock();
+    private ReservationService reservationService;
+    private SimpleMeterRegistry meterRegistry;
+    private TableHolds tableHolds;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = mock(ReservationService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        tableHolds = new TableHolds(reservationService, mock(ReservationRepository.class), meterRegistry, Duration.ofMinutes(3),
+            Duration.ofSeconds(1), 64, clock);
+    }
+
+    @Test
+    void holdsExpireAfterTheirTimeToLive() {
+        Reservation reservation = new Reservation();
+        tableHolds.hold(reservation);
+        verify(reservationService).createHold(reservation, NOW.plus(Duration.ofMinutes(3)));
+
+        tableHolds.onReservationChanged(new ReservationChangedEvent(hold(1L, NOW.plus(Duration.ofMinutes(3))), null));
+        when(reservationService.expireHolds(anyCollection(), any())).thenReturn(1);
+        assertThat(meterRegistry.get("booking.holds.active").gauge().value()).isEqualTo(1.0);
+
+        clock.advance(Duration.ofSeconds(179));
+        tableHolds.expireDue();
+        verify(reservationService, never()).expireHolds(anyCollection(), any());
+
+        clock.advance(Duration.ofSeconds(1));
+        tableHolds.expireDue();
+        verify(reservationService).expireHolds(List.of(1L), NOW.plus(Duration.ofMinutes(3)));
+        assertThat(meterRegistry.get("booking.holds.expired").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("booking.holds.active").gauge().value()).isZero();
+    }
+
+    @Test
+    void confirmedAndReleasedHoldsAreNoLongerScheduled() {
+        Reservation confirmed = hold(1L, NOW.plusSeconds(60));
+        Reservation released = hold(2L, NOW.plusSeconds(60));
+        tableHolds.onReservationChanged(new ReservationChangedEvent(confirmed, null));
+        tableHolds.onReservationChanged(new ReservationChangedEvent(released, null));
+
+        confirmed.setStatus(Status.BOOKED);
+        released.setStatus(Status.CANCELLED);
+        tableHolds.onReservationChanged(new ReservationChangedEvent(confirmed, Status.HELD));
+        tableHolds.onReservationChanged(new ReservationChangedEvent(released, Status.HELD));
+
+        clock.advance(Duration.ofMinutes(5));
+        tableHolds.expireDue();
+        verify(reservationService, never()).expireHolds(anyCollection(), any());
+    }
+
+    @Test
+    void failedReleasesAreRetriedOnTheNextTick() {
+        tableHolds.onReservationChanged(new ReservationChangedEvent(hold(1L, NOW.plusSeconds(10)), null));
+        when(reservationService.expireHolds(anyCollection(), any()))
+            .thenThrow(new IllegalStateException("database unavailable"))
+            .thenReturn(1);
+
+        clock.advance(Duration.ofSeconds(10));
+        tableHolds.expireDue();
+        clock.advance(Duration.ofSeconds(1));
+        tableHolds.expireDue();
+
+        verify(reservationService, times(2)).expireHolds(eq(List.of(1L)), any());
+        assertThat(meterRegistry.get("booking.holds.expired").counter().count()).isEqualTo(1.0);
+    }
+
+    private static Reservation hold(Long id, Instant expiresAt) {
+        Reservation reservation = new Reservation();
+        reservation.setId(id);
+        reservation.setStatus(Status.HELD);
+        reservation.setHoldExpiresAt(expiresAt);
+        return reservation;
+    }
+
+    private static class TestClock extends Clock {
+
+        private Instant now = NOW;
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
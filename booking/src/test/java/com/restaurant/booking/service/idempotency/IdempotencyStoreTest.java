@@ -0,0 +1,163 @@
+package com.restaurant.booking.service.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.restaurant.booking.exception.ConflictException;
+import com.restaurant.booking.model.IdempotencyRecord;
+import com.restaurant.booking.repository.IdempotencyRecordRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class IdempotencyStoreTest {
+
+    private static final Instant NOW = Instant.parse("2025-08-25T12:00:00Z");
+    private static final String BODY = "{\"numberOfGuests\":2}";
+
+    private IdempotencyRecordRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+    private IdempotencyStore store;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(IdempotencyRecordRepository.class);
+        when(repository.findUnexpired(anyString(), any())).thenReturn(Optional.empty());
+        meterRegistry = new SimpleMeterRegistry();
+        store = new IdempotencyStore(repository, meterRegistry, Duration.ofHours(24), 100, Duration.ofMillis(200), Clock.fixed(NOW, ZoneOffset.UTC));
+        executions = new AtomicInteger();
+    }
+
+    @Test
+    void replaysTheFirstResponseWithoutRunningTheRequestAgain() {
+        IdempotentResponse first = store.execute("key-1", BODY, this::book);
+        IdempotentResponse retry = store.execute("key-1", BODY, this::book);
+
+        assertThat(first.replayed()).isFalse();
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.body()).isEqualTo(first.body());
+        assertThat(executions).hasValue(1);
+        assertThat(meterRegistry.counter("booking.idempotency.replays", "source", "memory").count()).isEqualTo(1.0);
+
+        ArgumentCaptor<IdempotencyRecord> claim = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(repository).saveAndFlush(claim.capture());
+        assertThat(claim.getValue().getStatus()).isEqualTo(IdempotencyRecord.PENDING);
+        assertThat(claim.getValue().getExpiresAt()).isEqualTo(NOW.plusMillis(200));
+        verify(repository).complete("key-1", 200, first.body(), NOW.plus(Duration.ofHours(24)));
+    }
+
+    @Test
+    void concurrentDuplicatesWaitForTheRequestInFlight() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<IdempotentResponse> first = CompletableFuture.supplyAsync(() -> store.execute("key-1", BODY, () -> {
+            running.countDown();
+            await(release);
+            return book();
+        }));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<IdempotentResponse> duplicate = CompletableFuture.supplyAsync(() -> store.execute("key-1", BODY, this::book));
+        Thread.sleep(50);
+        assertThat(duplicate).isNotDone();
+        release.countDown();
+
+        assertThat(duplicate.get(5, TimeUnit.SECONDS).replayed()).isTrue();
+        assertThat(duplicate.get().body()).isEqualTo(first.get(5, TimeUnit.SECONDS).body());
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void replaysResponsesStoredInTheDatabase() {
+        when(repository.findUnexpired(eq("key-1"), any())).thenReturn(Optional.of(
+            new IdempotencyRecord("key-1", IdempotencyStore.hash(BODY), 200, "{\"reservationId\":7}", NOW, NOW.plusSeconds(60))));
+
+        IdempotentResponse response = store.execute("key-1", BODY, this::book);
+
+        assertThat(response.replayed()).isTrue();
+        assertThat(response.body()).isEqualTo("{\"reservationId\":7}");
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    void waitsForTheResponseOfARequestClaimedByAnotherInstance() {
+        when(repository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(repository.findUnexpired(eq("key-1"), any()))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(record(IdempotencyRecord.PENDING, null)))
+            .thenReturn(Optional.of(record(200, "{\"reservationId\":7}")));
+
+        IdempotentResponse response = store.execute("key-1", BODY, this::book);
+
+        assertThat(response.replayed()).isTrue();
+        assertThat(response.body()).isEqualTo("{\"reservationId\":7}");
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    void rejectsARetryWhileAnotherInstanceIsStillRunningTheRequest() {
+        when(repository.findUnexpired(eq("key-1"), any())).thenReturn(Optional.of(record(IdempotencyRecord.PENDING, null)));
+
+        assertThatThrownBy(() -> store.execute("key-1", BODY, this::book)).isInstanceOf(ConflictException.class);
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    void rejectsAKeyReusedForADifferentRequest() {
+        store.execute("key-1", BODY, this::book);
+
+        assertThatThrownBy(() -> store.execute("key-1", "{\"numberOfGuests\":4}", this::book))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void failedRequestsAreNotStored() {
+        assertThatThrownBy(() -> store.execute("key-1", BODY, () -> {
+            throw new IllegalStateException("Table 1 is already booked");
+        })).isInstanceOf(IllegalStateException.class);
+
+        IdempotentResponse retry = store.execute("key-1", BODY, this::book);
+
+        assertThat(retry.replayed()).isFalse();
+        assertThat(executions).hasValue(1);
+        verify(repository).deleteByKeyAndStatus("key-1", IdempotencyRecord.PENDING);
+    }
+
+    private static IdempotencyRecord record(int status, String body) {
+        return new IdempotencyRecord("key-1", IdempotencyStore.hash(BODY), status, body, NOW, NOW.plusSeconds(60));
+    }
+
+    private IdempotentResponse book() {
+        return IdempotentResponse.of(200, "{\"reservationId\":" + executions.incrementAndGet() + "}");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
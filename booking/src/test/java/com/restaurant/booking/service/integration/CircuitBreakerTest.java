@@ -0,0 +1,110 @@
+package com.restaurant.booking.service.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+
+import com.restaurant.booking.service.integration.CircuitBreaker.State;
+
+class CircuitBreakerTest {
+
+    private final TestClock clock = new TestClock();
+    private final CircuitBreaker breaker = new CircuitBreaker(4, 4, 50, Duration.ofSeconds(30), 2, clock);
+
+    @Test
+    void opensOnceTheFailureRateOfTheWindowReachesTheThreshold() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        assertThat(breaker.failureRate()).isZero();
+
+        breaker.onSuccess();
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    void oldOutcomesRollOutOfTheWindow() {
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onSuccess();
+        breaker.onSuccess();
+        assertThat(breaker.failureRate()).isEqualTo(25);
+
+        breaker.onSuccess();
+        assertThat(breaker.failureRate()).isZero();
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    void halfOpenProbesCloseTheBreakerWhenAllSucceed() {
+        open();
+        clock.advance(Duration.ofSeconds(30));
+
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+
+        breaker.onSuccess();
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+        breaker.onSuccess();
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        assertThat(breaker.failureRate()).isZero();
+    }
+
+    @Test
+    void failedProbeOpensTheBreakerAgain() {
+        open();
+        clock.advance(Duration.ofSeconds(29));
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure();
+        }
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+    }
+
+    private static class TestClock extends Clock {
+
+        private Instant now = Instant.parse("2025-08-25T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.restaurant.booking.service.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.restaurant.booking.dto.ReservationDTO;
+import com.restaurant.booking.service.integration.CircuitBreaker.State;
+import com.restaurant.booking.service.integration.IntegrationDispatcher.Outcome;
+import com.restaurant.booking.service.integration.IntegrationDispatcher.Result;
+import com.restaurant.booking.service.integration.OutboxMessage.Integration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class IntegrationDispatcherTest {
+
+    private CrmIntegrationService crmIntegrationService;
+    private GastroIntegrationService gastroIntegrationService;
+    private SimpleMeterRegistry meterRegistry;
+    private IntegrationResilience resilience;
+    private IntegrationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        crmIntegrationService = mock(CrmIntegrationService.class);
+        gastroIntegrationService = mock(GastroIntegrationService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        resilience = new IntegrationResilience(meterRegistry, 1, 2, 2, 50, Duration.ofMinutes(1), 1, Clock.systemUTC());
+        dispatcher = new IntegrationDispatcher(crmIntegrationService, gastroIntegrationService, resilience, meterRegistry,
+            Duration.ofMillis(300), 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void callsTheIntegrationsConcurrently() {
+        CountDownLatch gastroCalled = new CountDownLatch(1);
+        // CRM only returns once Gastro has been called, which would time out if the calls ran one after the other
+        doAnswer(invocation -> {
+            if (!gastroCalled.await(1, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Gastro was not called while CRM was running");
+            }
+            return null;
+        }).when(crmIntegrationService).sendReservationsToCrm(anyList());
+        doAnswer(invocation -> {
+            gastroCalled.countDown();
+            return null;
+        }).when(gastroIntegrationService).sendReservationsToGastro(anyList());
+
+        Map<Integration, Result> results = dispatcher.dispatch(bothIntegrations());
+
+        assertThat(results.values()).allMatch(Result::succeeded);
+        assertThat(meterRegistry.timer("booking.integration.calls", "integration", "crm", "outcome", "success").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("booking.integration.calls", "integration", "gastro", "outcome", "success").count()).isEqualTo(1);
+    }
+
+    @Test
+    void failingAndSlowIntegrationsDoNotAffectTheOthers() {
+        doAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return null;
+        }).when(crmIntegrationService).sendReservationsToCrm(anyList());
+        doThrow(new IllegalStateException("Gastro down")).when(gastroIntegrationService).sendReservationsToGastro(anyList());
+
+        long start = System.nanoTime();
+        Map<Integration, Result> results = dispatcher.dispatch(bothIntegrations());
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(results.get(Integration.CRM).outcome()).isEqualTo(Outcome.TIMEOUT);
+        assertThat(results.get(Integration.GASTRO).outcome()).isEqualTo(Outcome.ERROR);
+        assertThat(results.get(Integration.GASTRO).error()).contains("Gastro down");
+        assertThat(meterRegistry.timer("booking.integration.calls", "integration", "crm", "outcome", "timeout").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("booking.integration.calls", "integration", "gastro", "outcome", "error").count()).isEqualTo(1);
+    }
+
+    @Test
+    void onlyCallsIntegrationsWithReservations() {
+        Map<Integration, List<ReservationDTO>> crmOnly = new EnumMap<>(Integration.class);
+        crmOnly.put(Integration.CRM, List.of(new ReservationDTO()));
+
+        assertThat(dispatcher.dispatch(crmOnly)).containsOnlyKeys(Integration.CRM);
+        verify(crmIntegrationService).sendReservationsToCrm(anyList());
+        verify(gastroIntegrationService, never()).sendReservationsToGastro(anyList());
+    }
+
+    @Test
+    void openCircuitFailsCallsFastWithoutMakingThem() {
+        doThrow(new IllegalStateException("CRM down")).when(crmIntegrationService).sendReservationsToCrm(anyList());
+        dispatcher.dispatch(bothIntegrations());
+        dispatcher.dispatch(bothIntegrations());
+        assertThat(resilience.state(Integration.CRM)).isEqualTo(State.OPEN);
+
+        Map<Integration, Result> results = dispatcher.dispatch(bothIntegrations());
+
+        assertThat(results.get(Integration.CRM).outcome()).isEqualTo(Outcome.REJECTED);
+        assertThat(results.get(Integration.GASTRO).succeeded()).isTrue();
+        verify(crmIntegrationService, times(2)).sendReservationsToCrm(anyList());
+        assertThat(meterRegistry.counter("booking.integration.rejected", "integration", "crm", "reason", "circuit_open").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("booking.integration.circuit.state").tags("integration", "crm", "state", "open").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void bulkheadRejectsCallsWhileAHungCallHoldsItsSlot() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            // ignores the cancellation, like a client without a read timeout
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                release.await();
+            }
+            return null;
+        }).when(crmIntegrationService).sendReservationsToCrm(anyList());
+
+        assertThat(dispatcher.dispatch(bothIntegrations()).get(Integration.CRM).outcome()).isEqualTo(Outcome.TIMEOUT);
+        Map<Integration, Result> results = dispatcher.dispatch(bothIntegrations());
+        release.countDown();
+
+        assertThat(results.get(Integration.CRM).outcome()).isEqualTo(Outcome.REJECTED);
+        assertThat(results.get(Integration.GASTRO).succeeded()).isTrue();
+        assertThat(meterRegistry.counter("booking.integration.rejected", "integration", "crm", "reason", "bulkhead_full").count()).isEqualTo(1.0);
+    }
+
+    private static Map<Integration, List<ReservationDTO>> bothIntegrations() {
+        Map<Integration, List<ReservationDTO>> reservations = new EnumMap<>(Integration.class);
+        reservations.put(Integration.CRM, List.of(new ReservationDTO()));
+        reservations.put(Integration.GASTRO, List.of(new ReservationDTO()));
+        return reservations;
+    }
+}
@@ -0,0 +1,51 @@
+package com.restaurant.booking.service.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import com.restaurant.booking.service.integration.CircuitBreaker.State;
+import com.restaurant.booking.service.integration.OutboxMessage.Integration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class IntegrationHealthIndicatorTest {
+
+    private final IntegrationResilience resilience =
+        new IntegrationResilience(new SimpleMeterRegistry(), 2, 2, 2, 50, Duration.ofMinutes(1), 1, Clock.systemUTC());
+    private final IntegrationHealthIndicator indicator = new IntegrationHealthIndicator(resilience);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void upWhileAllBreakersAreClosed() {
+        Health health = indicator.health();
+
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).containsOnlyKeys("crm", "gastro");
+        assertThat((Map<String, Object>) health.getDetails().get("crm"))
+            .containsEntry("circuit", State.CLOSED)
+            .containsEntry("availableCalls", 2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void degradedWhileABreakerIsOpen() {
+        resilience.onFailure(Integration.GASTRO);
+        resilience.onFailure(Integration.GASTRO);
+        resilience.tryAcquire(Integration.GASTRO);
+
+        Health health = indicator.health();
+
+        assertThat(health.getStatus()).isEqualTo(IntegrationHealthIndicator.DEGRADED);
+        assertThat((Map<String, Object>) health.getDetails().get("gastro"))
+            .containsEntry("circuit", State.OPEN)
+            .containsEntry("failureRate", 100)
+            .containsEntry("rejectedCalls", 1L);
+    }
+}
@@ -0,0 +1,154 @@
+package com.restaurant.booking.service.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.booking.dto.ReservationDTO;
+import com.restaurant.booking.repository.OutboxRepository;
+import com.restaurant.booking.service.integration.OutboxMessage.Integration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OutboxRelayTest {
+
+    private static final Instant NOW = Instant.parse("2025-08-25T12:00:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private OutboxRepository outboxRepository;
+    private CrmIntegrationService crmIntegrationService;
+    private GastroIntegrationService gastroIntegrationService;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(OutboxRepository.class);
+        crmIntegrationService = mock(CrmIntegrationService.class);
+        gastroIntegrationService = mock(GastroIntegrationService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(outboxRepository.findDue(any(), any(), anyInt())).thenReturn(List.of());
+        IntegrationResilience resilience = new IntegrationResilience(meterRegistry, 2, 10, 5, 50, Duration.ofSeconds(30), 2,
+            Clock.fixed(NOW, ZoneOffset.UTC));
+        IntegrationDispatcher dispatcher = new IntegrationDispatcher(crmIntegrationService, gastroIntegrationService, resilience,
+            meterRegistry, Duration.ofSeconds(5), 2);
+        relay = new OutboxRelay(outboxRepository, dispatcher, objectMapper, meterRegistry, true, Duration.ofSeconds(1), 2, 5,
+            Duration.ofSeconds(1), Duration.ofMinutes(1), Duration.ofDays(7), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void deliversDueMessagesBatchByBatch() throws Exception {
+        when(outboxRepository.findDue(Integration.CRM, NOW, 2))
+            .thenReturn(List.of(message(1, Integration.CRM, 10L, 0), message(2, Integration.CRM, 11L, 0)))
+            .thenReturn(List.of(message(3, Integration.CRM, 12L, 0)));
+
+        relay.relay();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ReservationDTO>> sent = ArgumentCaptor.forClass(List.class);
+        verify(crmIntegrationService, times(2)).sendReservationsToCrm(sent.capture());
+        assertThat(sent.getAllValues().get(0)).extracting(ReservationDTO::getReservationId).containsExactly(10L, 11L);
+        assertThat(sent.getAllValues().get(1)).extracting(ReservationDTO::getReservationId).containsExactly(12L);
+        verify(outboxRepository).markDelivered(List.of(1L, 2L), NOW);
+        verify(outboxRepository).markDelivered(List.of(3L), NOW);
+        verify(gastroIntegrationService, never()).sendReservationsToGastro(anyList());
+        assertThat(meterRegistry.counter("booking.outbox.delivered", "integration", "crm").count()).isEqualTo(3.0);
+        assertThat(meterRegistry.timer("booking.outbox.lag", "integration", "crm").count()).isEqualTo(3);
+    }
+
+    @Test
+    void failedBatchIsRetriedAfterABackoffWithoutHoldingUpOtherIntegrations() throws Exception {
+        when(outboxRepository.findDue(Integration.CRM, NOW, 2)).thenReturn(List.of(message(1, Integration.CRM, 10L, 2)));
+        when(outboxRepository.findDue(Integration.GASTRO, NOW, 2)).thenReturn(List.of(message(2, Integration.GASTRO, 10L, 0)));
+        doThrow(new IllegalStateException("CRM down")).when(crmIntegrationService).sendReservationsToCrm(anyList());
+
+        relay.relay();
+
+        // third attempt: the initial second doubled twice
+        verify(outboxRepository).markFailed(eq(List.of(1L)), eq(NOW.plusSeconds(4)), anyString());
+        verify(outboxRepository, never()).markDelivered(eq(List.of(1L)), any());
+        verify(gastroIntegrationService).sendReservationsToGastro(anyList());
+        verify(outboxRepository).markDelivered(List.of(2L), NOW);
+        assertThat(meterRegistry.counter("booking.outbox.failed", "integration", "crm").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.timer("booking.integration.calls", "integration", "crm", "outcome", "error").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("booking.integration.calls", "integration", "gastro", "outcome", "success").count()).isEqualTo(1);
+    }
+
+    @Test
+    void failedBatchIsSplitUntilTheRefusedMessageIsFound() throws Exception {
+        OutboxMessage accepted = message(1, Integration.CRM, 10L, 0);
+        OutboxMessage refused = message(2, Integration.CRM, 11L, 0);
+        when(outboxRepository.findDue(Integration.CRM, NOW, 2)).thenReturn(List.of(accepted, refused)).thenReturn(List.of(refused));
+        when(outboxRepository.findDue(Integration.CRM, NOW, 1)).thenReturn(List.of(accepted));
+        doThrow(new IllegalStateException("Bad reservation")).when(crmIntegrationService)
+            .sendReservationsToCrm(argThat(reservations -> reservations.stream().anyMatch(r -> r.getReservationId() == 11L)));
+
+        relay.relay();
+
+        verify(crmIntegrationService, times(3)).sendReservationsToCrm(anyList());
+        verify(outboxRepository).markDelivered(List.of(1L), NOW);
+        verify(outboxRepository).markFailed(eq(List.of(2L)), eq(NOW.plusSeconds(1)), anyString());
+        assertThat(meterRegistry.counter("booking.outbox.failed", "integration", "crm").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void messagesAreParkedAfterTheLastAttempt() throws Exception {
+        when(outboxRepository.findDue(Integration.CRM, NOW, 2)).thenReturn(List.of(message(1, Integration.CRM, 10L, 4)));
+        doThrow(new IllegalStateException("Bad reservation")).when(crmIntegrationService).sendReservationsToCrm(anyList());
+
+        relay.relay();
+
+        verify(outboxRepository).markDead(eq(List.of(1L)), eq(NOW), anyString());
+        verify(outboxRepository, never()).markFailed(anyList(), any(), anyString());
+        assertThat(meterRegistry.counter("booking.outbox.dead", "integration", "crm").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void unreadablePayloadsAreParkedWithoutHoldingUpTheirBatch() throws Exception {
+        OutboxMessage unreadable = new OutboxMessage(1, Integration.CRM, 10L, "not json", NOW.minusSeconds(5), 0);
+        when(outboxRepository.findDue(Integration.CRM, NOW, 2)).thenReturn(List.of(unreadable, message(2, Integration.CRM, 11L, 0)));
+
+        relay.relay();
+
+        verify(outboxRepository).markDead(eq(List.of(1L)), eq(NOW), anyString());
+        verify(outboxRepository).markDelivered(List.of(2L), NOW);
+        assertThat(meterRegistry.counter("booking.outbox.dead", "integration", "crm").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void backoffDoublesUpToTheMaximum() {
+        assertThat(relay.backoff(1)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(relay.backoff(4)).isEqualTo(Duration.ofSeconds(8));
+        assertThat(relay.backoff(7)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(relay.backoff(500)).isEqualTo(Duration.ofMinutes(1));
+    }
+
+    private OutboxMessage message(long id, Integration integration, Long reservationId, int attempts) throws Exception {
+        ReservationDTO reservationDTO = new ReservationDTO(reservationId, "Jane Doe", "jane@example.com", null, 1,
+            LocalDateTime.of(2025, 8, 30, 19, 0), "BOOKED");
+        return new OutboxMessage(id, integration, reservationId, objectMapper.writeValueAsString(reservationDTO),
+            NOW.minusSeconds(5), attempts);
+    }
+}